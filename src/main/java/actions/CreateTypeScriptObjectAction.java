@@ -3,14 +3,21 @@ package actions;
 import codeInsight.TypeAssistPsiUtil;
 import codeInsight.codeGeneration.AssignableArrayCreator;
 import codeInsight.codeGeneration.AssignableObjectCreator;
+import codeInsight.codeGeneration.CodeGenerationOptions;
+import codeInsight.codeGeneration.CodeTemplate;
+import codeInsight.codeGeneration.GeneratedCode;
+import codeInsight.codeGeneration.GeneratedCodeCache;
+import codeInsight.codeGeneration.NestedObjectExpander;
 import codeInsight.codeGeneration.PropertyArrayCreator;
 import codeInsight.codeGeneration.PropertyObjectCreator;
+import codeInsight.codeGeneration.TemplateObjectCreator;
 import codeInsight.instructions.ArrayInsertInstruction;
 import codeInsight.instructions.InsertInstruction;
 import com.intellij.lang.ASTNode;
 import com.intellij.lang.javascript.JSTokenTypes;
 import com.intellij.lang.javascript.psi.*;
-import com.intellij.lang.javascript.psi.ecma6.TypeScriptObjectType;
+import com.intellij.lang.javascript.psi.ecma6.TypeScriptInterface;
+import com.intellij.lang.javascript.psi.ecma6.TypeScriptTypeAlias;
 import com.intellij.notification.Notification;
 import com.intellij.notification.NotificationType;
 import com.intellij.notification.Notifications;
@@ -28,22 +35,35 @@ import com.intellij.openapi.editor.markup.HighlighterTargetArea;
 import com.intellij.openapi.editor.markup.RangeHighlighter;
 import com.intellij.openapi.editor.markup.TextAttributes;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Pair;
 import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiDocumentManager;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiNamedElement;
 import com.intellij.psi.codeStyle.CodeStyleManager;
 import com.intellij.psi.tree.TokenSet;
 import com.intellij.psi.util.PsiTreeUtil;
+import documentation.index.TypeShapeIndex;
+import documentation.index.TypeShapeSummary;
+import documentation.objectProperties.TypeInstantiation;
 import documentation.objectProperties.TypeScriptObjectProperty;
-import documentation.objectProperties.TypeScriptObjectPropertyGroup;
 import documentation.types.TypeDescription;
 import highligher.PropertyValueHighlightManager;
+import metrics.Counter;
+import metrics.Phase;
+import metrics.PluginMetrics;
 import settings.TypeAssistApplicationSettings;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Main entry point for auto generating code based on the triggering context as described in {@link CreateContext}.
@@ -58,38 +78,107 @@ public class CreateTypeScriptObjectAction extends AnAction {
         PsiFile file = anActionEvent.getData(CommonDataKeys.PSI_FILE);
         Editor editor = anActionEvent.getData(CommonDataKeys.EDITOR);
         Caret caret = anActionEvent.getData(CommonDataKeys.CARET);
-        PsiElement psiElement = anActionEvent.getData(CommonDataKeys.PSI_ELEMENT);
 
-        if (project == null || file == null || editor == null || caret == null || psiElement == null) {
+        if (project == null || file == null || editor == null || caret == null) {
             return;
         }
 
-        Document document = editor.getDocument();
-        TypeDescription typeDescription = TypeDescription.create(psiElement);
-
-        if (!typeDescription.isValid()) return;
-        Optional<TypeScriptObjectPropertyGroup> optionalPropertyInfo = TypeScriptObjectProperty.of(psiElement);
-        if (!optionalPropertyInfo.isPresent()) return;
-        List<TypeScriptObjectProperty> objectProperties = optionalPropertyInfo.get().getPropertySignatures();
-
-        // Identifies which type of code to generate and where to insert it.
-        InsertInstruction insertInstruction = getInsertContext(anActionEvent);
-        if (!insertInstruction.isValid()) return;
+        try (PluginMetrics.Timer total = PluginMetrics.time(Phase.CodeGenTotal)) {
+            Document document = editor.getDocument();
+            // Get project level plugin settings.
+            TypeAssistApplicationSettings typeAssistApplicationSettings = TypeAssistApplicationSettings.getInstance();
+
+            InsertInstruction insertInstruction;
+            Optional<GeneratedCodeCache.Key> cacheKey;
+            GeneratedCode cachedCode = null;
+            Optional<ObjectShape> objectShape = Optional.empty();
+            try (PluginMetrics.Timer contextDetection = PluginMetrics.time(Phase.CodeGenContextDetection)) {
+                // Identifies which type of code to generate and where to insert it.
+                insertInstruction = getInsertContext(anActionEvent);
+                if (!insertInstruction.isValid()) return;
+
+                // Repeat generations of the same type are only a lookup until one of the declaring files changes, the
+                // members are only collected on a miss.
+                cacheKey = getCacheKey(anActionEvent, insertInstruction, typeAssistApplicationSettings);
+                if (cacheKey.isPresent()) cachedCode = GeneratedCodeCache.get(project, cacheKey.get());
+
+                if (cachedCode == null) {
+                    objectShape = getObjectShape(anActionEvent);
+                    if (!objectShape.isPresent()) {
+                        Notifications.Bus.notify(new Notification(
+                                "CreateTypeScriptObjectAction",
+                                "Code Generation",
+                                "The type has no properties to generate",
+                                NotificationType.INFORMATION));
+                        return;
+                    }
+                }
+            }
+            GeneratedCode cached = cachedCode;
+            Optional<ObjectShape> shape = objectShape;
+
+            WriteCommandAction.runWriteCommandAction(project, () -> {
+                GeneratedCode generatedCode = cached;
+                if (generatedCode == null) {
+                    try (PluginMetrics.Timer generation = PluginMetrics.time(Phase.CodeGenGeneration)) {
+                        generatedCode = generate(project, shape.get(), insertInstruction, typeAssistApplicationSettings, cacheKey);
+                    }
+                }
 
-        // Get project level plugin settings.
-        TypeAssistApplicationSettings typeAssistApplicationSettings = TypeAssistApplicationSettings.getInstance();
+                try (PluginMetrics.Timer insert = PluginMetrics.time(Phase.CodeGenInsert)) {
+                    // Delete current line since it will be replaced with the new generated code.
+                    int offset = insertInstruction.getOffset();
+                    document.deleteString(offset, caret.getVisualLineEnd());
+                    document.insertString(offset, generatedCode.getCode());
+                    PluginMetrics.increment(Counter.CodeGenerations);
 
-        WriteCommandAction.runWriteCommandAction(project, () -> {
-            // Delete current line since it will be replaced with the new generated code.
-            int offset = insertInstruction.getOffset();
-            document.deleteString(offset, caret.getVisualLineEnd());
-            document.insertString(offset, generateCode(objectProperties, insertInstruction, typeDescription, typeAssistApplicationSettings));
+                    // The document must be commit before running the formatter.
+                    PsiDocumentManager.getInstance(project).commitDocument(document);
+                }
 
-            // The document must be commit before running the formatter.
-            PsiDocumentManager.getInstance(project).commitDocument(document);
+                formatAndHighlight(insertInstruction, generatedCode, anActionEvent, typeAssistApplicationSettings);
+            });
+        }
+    }
 
-            formatAndHighlight(insertInstruction, anActionEvent, typeAssistApplicationSettings);
+    /**
+     * Generates the code for the shape and caches it under {@code cacheKey} along with the files it was read from.
+     */
+    private GeneratedCode generate(Project project,
+                                   ObjectShape objectShape,
+                                   InsertInstruction insertInstruction,
+                                   TypeAssistApplicationSettings typeAssistApplicationSettings,
+                                   Optional<GeneratedCodeCache.Key> cacheKey) {
+        // Shared by every object generated so nested types are only expanded once.
+        NestedObjectExpander nestedObjectExpander = new NestedObjectExpander(project, typeAssistApplicationSettings);
+        GeneratedCode generatedCode = new GeneratedCode(generateCode(objectShape.objectProperties, insertInstruction,
+                objectShape.typeDescription, typeAssistApplicationSettings, nestedObjectExpander),
+                nestedObjectExpander.getPlaceholders());
+
+        cacheKey.ifPresent(key -> {
+            Set<PsiFile> declaringFiles = new HashSet<>(objectShape.declaringFiles);
+            declaringFiles.addAll(nestedObjectExpander.getDeclaringFiles());
+            GeneratedCodeCache.put(project, key, generatedCode, declaringFiles);
         });
+        return generatedCode;
+    }
+
+    /**
+     * Identifies the type at the caret without collecting its members, see {@link #getObjectShape}.
+     *
+     * @return Empty if there is no type to generate.
+     */
+    private Optional<GeneratedCodeCache.Key> getCacheKey(AnActionEvent anActionEvent,
+                                                         InsertInstruction insertInstruction,
+                                                         TypeAssistApplicationSettings typeAssistApplicationSettings) {
+        PsiElement psiElement = anActionEvent.getData(CommonDataKeys.PSI_ELEMENT);
+        if (psiElement != null) {
+            return Optional.of(GeneratedCodeCache.Key.of(psiElement, getTypeArguments(anActionEvent, psiElement),
+                    insertInstruction, typeAssistApplicationSettings));
+        }
+        return findIndexedShape(anActionEvent).map(indexed -> GeneratedCodeCache.Key.of(
+                indexed.second.getPath() + ":" + indexed.first.getTypeName(), Collections.emptyList(),
+                insertInstruction, typeAssistApplicationSettings));
     }
 
     @Override
@@ -97,6 +186,82 @@ public class CreateTypeScriptObjectAction extends AnAction {
         e.getPresentation().setEnabled(getInsertContext(e).getCreateContext() != CreateContext.None);
     }
 
+    /**
+     * Uses the resolved {@code PsiElement} when available, otherwise falls back to looking up the unresolved type name
+     * at the caret in the {@code TypeShapeIndex} which commonly occurs with {@code Book[3]}.
+     *
+     * @return The type and property signatures to generate.
+     */
+    protected Optional<ObjectShape> getObjectShape(AnActionEvent anActionEvent) {
+        PsiElement psiElement = anActionEvent.getData(CommonDataKeys.PSI_ELEMENT);
+
+        if (psiElement != null) {
+            // Concrete type arguments such as Tree<string> are substituted into the generated properties.
+            List<String> typeArguments = getTypeArguments(anActionEvent, psiElement);
+            TypeDescription typeDescription = TypeDescription.create(psiElement).instantiate(typeArguments);
+            if (!typeDescription.isValid()) return Optional.empty();
+
+            return TypeInstantiation.of(psiElement, typeArguments)
+                    .map(propertyGroup -> new ObjectShape(typeDescription, propertyGroup.getPropertySignatures(),
+                            declaringFiles(psiElement, propertyGroup.getPropertySignatures())));
+        }
+
+        return findIndexedShape(anActionEvent).flatMap(indexed -> {
+            Project project = anActionEvent.getProject();
+            Set<VirtualFile> files = new HashSet<>();
+            files.add(indexed.second);
+            // Inherited members are added from the super types' summaries, the same members as TypeScriptObjectProperty.of.
+            TypeShapeSummary flattened = TypeShapeIndex.flatten(project, indexed.first, files);
+            if (flattened.getProperties().isEmpty()) return Optional.empty();
+
+            Set<PsiFile> declaringFiles = new HashSet<>();
+            for (VirtualFile file : files) {
+                PsiFile declaringFile = PsiManager.getInstance(project).findFile(file);
+                if (declaringFile != null) declaringFiles.add(declaringFile);
+            }
+            return Optional.of(new ObjectShape(TypeDescription.unresolved(flattened.getTypeName(), flattened.getTypeDefinition()),
+                    flattened.getProperties(), declaringFiles));
+        });
+    }
+
+    /**
+     * @return The files declaring the type and each of its members, which includes inherited members.
+     */
+    private static Set<PsiFile> declaringFiles(PsiElement declaration, List<TypeScriptObjectProperty> objectProperties) {
+        Set<PsiFile> files = new HashSet<>();
+        files.add(declaration.getContainingFile());
+        for (TypeScriptObjectProperty property : objectProperties) {
+            if (property.getElement() != null) files.add(property.getElement().getContainingFile());
+        }
+        return files;
+    }
+
+    private List<String> getTypeArguments(AnActionEvent anActionEvent, PsiElement resolvedElement) {
+        PsiFile file = anActionEvent.getData(CommonDataKeys.PSI_FILE);
+        Caret caret = anActionEvent.getData(CommonDataKeys.CARET);
+
+        if (file == null || caret == null || !(resolvedElement instanceof PsiNamedElement)) return Collections.emptyList();
+        String typeName = ((PsiNamedElement) resolvedElement).getName();
+        if (typeName == null) return Collections.emptyList();
+
+        return TypeInstantiation.findTypeArguments(file.findElementAt(caret.getOffset()), typeName);
+    }
+
+    private Optional<Pair<TypeShapeSummary, VirtualFile>> findIndexedShape(AnActionEvent anActionEvent) {
+        Project project = anActionEvent.getData(CommonDataKeys.PROJECT);
+        PsiFile file = anActionEvent.getData(CommonDataKeys.PSI_FILE);
+        Caret caret = anActionEvent.getData(CommonDataKeys.CARET);
+
+        if (project == null || file == null || caret == null) return Optional.empty();
+
+        PsiElement unresolvedElement = file.findElementAt(caret.getOffset());
+        if (unresolvedElement == null) return Optional.empty();
+
+        return TypeAssistPsiUtil.findUnresolvedTypeName(unresolvedElement)
+                .flatMap(name -> TypeShapeIndex.findWithFile(project, name))
+                .map(indexed -> Pair.create(indexed.second, indexed.first));
+    }
+
     /**
      * Generates code containing all properties within the {@code TypeScriptObjectType} and formatted according to
      * {@code TypeAssistApplicationSettings}.
@@ -105,23 +270,34 @@ public class CreateTypeScriptObjectAction extends AnAction {
      * @param insertInstruction             The {@code InsertInstruction} which contains context and best insertion point.
      * @param typeDescription               The {@code TypeDescription}.
      * @param typeAssistApplicationSettings The {@code TypeAssistApplicationSettings}.
+     * @param nestedObjectExpander          The {@code NestedObjectExpander} used to expand nested object types.
      * @return The generated code as a {@code String}.
      */
     private String generateCode(List<TypeScriptObjectProperty> objectProperties,
                                 InsertInstruction insertInstruction,
                                 TypeDescription typeDescription,
-                                TypeAssistApplicationSettings typeAssistApplicationSettings) {
+                                TypeAssistApplicationSettings typeAssistApplicationSettings,
+                                NestedObjectExpander nestedObjectExpander) {
+        CodeGenerationOptions codeGenerationOptions = new CodeGenerationOptions.Builder(typeAssistApplicationSettings)
+                .nestedObjectExpander(nestedObjectExpander)
+                .build();
+
         switch (insertInstruction.getCreateContext()) {
             case AssignableObject:
-                return new AssignableObjectCreator(objectProperties, typeDescription, typeAssistApplicationSettings).generate();
+                Optional<CodeTemplate> codeTemplate = getCodeTemplate(typeAssistApplicationSettings);
+                if (codeTemplate.isPresent()) {
+                    return new TemplateObjectCreator(objectProperties, typeDescription, codeTemplate.get(),
+                            codeGenerationOptions).generate();
+                }
+                return new AssignableObjectCreator(objectProperties, typeDescription, codeGenerationOptions).generate();
             case PropertyObject:
-                return new PropertyObjectCreator(objectProperties, insertInstruction, typeAssistApplicationSettings).generate();
+                return new PropertyObjectCreator(objectProperties, insertInstruction, codeGenerationOptions).generate();
             case AssignableArray:
                 return new AssignableArrayCreator(objectProperties,
-                        (ArrayInsertInstruction) insertInstruction, typeDescription, typeAssistApplicationSettings).generate();
+                        (ArrayInsertInstruction) insertInstruction, typeDescription, codeGenerationOptions).generate();
             case PropertyArray:
                 return new PropertyArrayCreator(objectProperties,
-                        (ArrayInsertInstruction) insertInstruction, typeAssistApplicationSettings).generate();
+                        (ArrayInsertInstruction) insertInstruction, codeGenerationOptions).generate();
         }
 
         Notifications.Bus.notify(new Notification(
@@ -132,15 +308,34 @@ public class CreateTypeScriptObjectAction extends AnAction {
         return "";
     }
 
+    /**
+     * @return The compiled user template if enabled, an invalid template falls back to the default layout.
+     */
+    private Optional<CodeTemplate> getCodeTemplate(TypeAssistApplicationSettings typeAssistApplicationSettings) {
+        if (!typeAssistApplicationSettings.CODE_TEMPLATE_ENABLED) return Optional.empty();
+        try {
+            return Optional.of(CodeTemplate.of(typeAssistApplicationSettings.CODE_TEMPLATE));
+        } catch (IllegalArgumentException e) {
+            Notifications.Bus.notify(new Notification(
+                    "CreateTypeScriptObjectAction",
+                    "Code Generation",
+                    "Invalid code template, using the default layout: " + e.getMessage(),
+                    NotificationType.WARNING));
+            return Optional.empty();
+        }
+    }
+
     /**
      * Formats the generated code according to the users code style settings in addition to those provided by
      * {@code TypeAssistApplicationSettings}.
      *
      * @param insertInstruction             The {@code InsertInstruction} which contains context and best insertion point.
+     * @param generatedCode                 The inserted {@code GeneratedCode}, identifies the values to highlight.
      * @param anActionEvent                 The {@code AnActionEvent} is supplied rather than pass in a million parameters.
      * @param typeAssistApplicationSettings The {@code TypeAssistApplicationSettings}.
      */
     private void formatAndHighlight(InsertInstruction insertInstruction,
+                                    GeneratedCode generatedCode,
                                     AnActionEvent anActionEvent,
                                     TypeAssistApplicationSettings typeAssistApplicationSettings) {
         Project project = anActionEvent.getData(CommonDataKeys.PROJECT);
@@ -156,14 +351,27 @@ public class CreateTypeScriptObjectAction extends AnAction {
                 JSVarStatement.class, false);
 
         if (varStatement != null) {
-            // reformatNewlyAddedElement works the best, a little hit and miss just using reformat.
-            // Gives access to triggering reformatting based on users style settings
-            CodeStyleManager.getInstance(project)
-                    .reformatNewlyAddedElement(varStatement.getParent().getNode(), varStatement.getNode());
+            try (PluginMetrics.Timer reformat = PluginMetrics.time(Phase.CodeGenReformat)) {
+                // reformatNewlyAddedElement works the best, a little hit and miss just using reformat.
+                // Gives access to triggering reformatting based on users style settings
+                CodeStyleManager.getInstance(project)
+                        .reformatNewlyAddedElement(varStatement.getParent().getNode(), varStatement.getNode());
+            }
         }
 
         if (!typeAssistApplicationSettings.PROPERTY_HIGHLIGHTING) return;
 
+        try (PluginMetrics.Timer highlight = PluginMetrics.time(Phase.CodeGenHighlight)) {
+            highlight(insertInstruction, generatedCode, varStatement, file, editor, typeAssistApplicationSettings);
+        }
+    }
+
+    private void highlight(InsertInstruction insertInstruction,
+                           GeneratedCode generatedCode,
+                           JSVarStatement varStatement,
+                           PsiFile file,
+                           Editor editor,
+                           TypeAssistApplicationSettings typeAssistApplicationSettings) {
         // Perform highlighting based on settings.
         Optional<HighlightInstruction> highlightingInfo = getHighlightInstruction(insertInstruction, varStatement, file);
         if (!highlightingInfo.isPresent()) return;
@@ -176,6 +384,16 @@ public class CreateTypeScriptObjectAction extends AnAction {
         PropertyValueHighlightManager propertyValueHighlightManager = new PropertyValueHighlightManager();
         Collection<JSLiteralExpression> pendingPropertyValues =
                 PsiTreeUtil.findChildrenOfType(highlightInstruction.rootJsLiteralEntryPoint, JSLiteralExpression.class);
+        int caretOffset = highlightInstruction.bestCaretOffsetForNextAction;
+
+        if (typeAssistApplicationSettings.MOCK_DATA) {
+            // Mock values are complete, only the types that could not be mocked are left to fill in.
+            pendingPropertyValues = pendingPropertyValues.stream()
+                    .filter(pendingPropertyValue -> generatedCode.isPlaceholder(pendingPropertyValue.getText()))
+                    .collect(Collectors.toList());
+            if (pendingPropertyValues.isEmpty()) return;
+            caretOffset = pendingPropertyValues.iterator().next().getTextOffset() + 1;
+        }
 
         for (JSLiteralExpression pendingPropertyValue : pendingPropertyValues) {
             TextRange textRange = pendingPropertyValue.getTextRange();
@@ -188,7 +406,7 @@ public class CreateTypeScriptObjectAction extends AnAction {
         }
 
         // Move caret to first property needing implementing for nice UX.
-        editor.getCaretModel().getCurrentCaret().moveToOffset(highlightInstruction.bestCaretOffsetForNextAction);
+        editor.getCaretModel().getCurrentCaret().moveToOffset(caretOffset);
 
         Document document = editor.getDocument();
         document.addDocumentListener(new PropertyValueHighlightDocumentListener(editor, document, propertyValueHighlightManager));
@@ -254,22 +472,31 @@ public class CreateTypeScriptObjectAction extends AnAction {
      *
      * @return {@code InsertInstruction}.
      */
-    private InsertInstruction getInsertContext(AnActionEvent anActionEvent) {
+    protected InsertInstruction getInsertContext(AnActionEvent anActionEvent) {
         PsiFile file = anActionEvent.getData(CommonDataKeys.PSI_FILE);
         Editor editor = anActionEvent.getData(CommonDataKeys.EDITOR);
         Caret caret = anActionEvent.getData(CommonDataKeys.CARET);
         PsiElement resolvedPsiElement = anActionEvent.getData(CommonDataKeys.PSI_ELEMENT);
 
-        if (editor == null || file == null || caret == null || resolvedPsiElement == null) {
+        if (editor == null || file == null || caret == null) {
             return InsertInstruction.none();
         }
 
-        Optional<TypeScriptObjectType> typeScriptObjectOptional = TypeAssistPsiUtil.getChildTypeScriptObject(resolvedPsiElement);
-        // The resolved PsiElement that triggered the action is not a TypeScriptObject.
-        if (!typeScriptObjectOptional.isPresent()) return InsertInstruction.none();
-
         // Now get the actual element triggered in this files source code to find best insertion offset.
         PsiElement unresolvedElement = file.findElementAt(caret.getOffset());
+        if (unresolvedElement == null) return InsertInstruction.none();
+
+        if (resolvedPsiElement != null) {
+            // Only the kind of declaration is checked since this runs in update on the EDT, evaluating the members of
+            // types such as Partial<Person> is left to actionPerformed.
+            if (!(resolvedPsiElement instanceof TypeScriptInterface || resolvedPsiElement instanceof TypeScriptTypeAlias)) {
+                return InsertInstruction.none();
+            }
+        } else if (!TypeAssistPsiUtil.findTypeNameCandidate(unresolvedElement).isPresent()) {
+            // Not resolved and not even a type name. Whether the index knows it is left to actionPerformed.
+            return InsertInstruction.none();
+        }
+
         return findBestInsertOffset(CreateContext.AssignableObject, unresolvedElement)
                 .orElseTry(() -> findBestInsertOffset(CreateContext.PropertyObject, unresolvedElement));
     }
@@ -463,6 +690,20 @@ public class CreateTypeScriptObjectAction extends AnAction {
         public void documentChanged(DocumentEvent documentEvent) { }
     }
 
+    protected static class ObjectShape {
+        final TypeDescription typeDescription;
+        final List<TypeScriptObjectProperty> objectProperties;
+        // The files the shape was read from, the generated code is stale once any of them changes.
+        final Set<PsiFile> declaringFiles;
+
+        private ObjectShape(TypeDescription typeDescription, List<TypeScriptObjectProperty> objectProperties,
+                            Set<PsiFile> declaringFiles) {
+            this.typeDescription = typeDescription;
+            this.objectProperties = objectProperties;
+            this.declaringFiles = declaringFiles;
+        }
+    }
+
     private static class HighlightInstruction {
         private PsiElement rootJsLiteralEntryPoint;
         private int bestCaretOffsetForNextAction;
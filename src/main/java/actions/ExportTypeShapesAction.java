@@ -0,0 +1,77 @@
+package actions;
+
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
+import documentation.export.TypeShapeJsonExporter;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Exports the shape of every type in the project as JSON Lines for use by external tooling, see
+ * {@link TypeShapeJsonExporter}.
+ */
+public class ExportTypeShapesAction extends AnAction {
+
+    @Override
+    public void actionPerformed(AnActionEvent anActionEvent) {
+        Project project = anActionEvent.getData(CommonDataKeys.PROJECT);
+        if (project == null) return;
+
+        FileSaverDescriptor descriptor = new FileSaverDescriptor("Export TypeScript Type Shapes",
+                "Choose where to write the JSON Lines file", "jsonl");
+        VirtualFileWrapper target = FileChooserFactory.getInstance()
+                .createSaveFileDialog(descriptor, project)
+                .save(project.getBaseDir(), "type-shapes.jsonl");
+        if (target == null) return;
+
+        File outputFile = target.getFile();
+
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Exporting TypeScript type shapes", true) {
+            private int records;
+            private boolean failed;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(false);
+                try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputFile), StandardCharsets.UTF_8))) {
+                    records = new TypeShapeJsonExporter(project).export(writer, indicator);
+                } catch (IOException e) {
+                    failed = true;
+                    notify("Unable to write " + outputFile + ": " + e.getMessage(), NotificationType.ERROR);
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                if (failed) return;
+                notify("Exported " + records + " type(s) to " + outputFile, NotificationType.INFORMATION);
+            }
+        });
+    }
+
+    @Override
+    public void update(AnActionEvent e) {
+        e.getPresentation().setEnabled(e.getProject() != null);
+    }
+
+    private static void notify(String content, NotificationType notificationType) {
+        Notifications.Bus.notify(new Notification(
+                "ExportTypeShapesAction",
+                "Type Shape Export",
+                content,
+                notificationType));
+    }
+}
@@ -0,0 +1,155 @@
+package actions;
+
+import codeInsight.TypeAssistPsiUtil;
+import codeInsight.codeGeneration.CodeGenerationOptions;
+import codeInsight.codeGeneration.NestedObjectExpander;
+import codeInsight.codeGeneration.StreamingArrayWriter;
+import codeInsight.instructions.ArrayInsertInstruction;
+import codeInsight.instructions.InsertInstruction;
+import com.intellij.lang.javascript.psi.JSQualifiedNamedElement;
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
+import com.intellij.psi.PsiElement;
+import documentation.objectProperties.DetachedPropertySignature;
+import documentation.objectProperties.TypeScriptObjectProperty;
+import documentation.types.TypeDescription;
+import org.jetbrains.annotations.NotNull;
+import settings.TypeAssistApplicationSettings;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Variant of {@code CreateTypeScriptObjectAction} for arrays such as {@code Person[1000000]} which writes the
+ * generated array to a new .ts or .json file rather than into the current editor.
+ *
+ * <p>Elements are streamed through a buffered writer on a background thread with progress and cancellation, the
+ * result is never loaded into a document. A cancelled or failed generation deletes the partially written file.</p>
+ */
+public class GenerateArrayToFileAction extends CreateTypeScriptObjectAction {
+
+    @Override
+    public void actionPerformed(AnActionEvent anActionEvent) {
+        Project project = anActionEvent.getData(CommonDataKeys.PROJECT);
+        VirtualFile sourceFile = anActionEvent.getData(CommonDataKeys.VIRTUAL_FILE);
+        if (project == null || sourceFile == null) return;
+
+        InsertInstruction insertInstruction = getInsertContext(anActionEvent);
+        if (!(insertInstruction instanceof ArrayInsertInstruction)) return;
+        long size = ((ArrayInsertInstruction) insertInstruction).getSize();
+
+        Optional<ObjectShape> objectShape = getObjectShape(anActionEvent);
+        if (!objectShape.isPresent()) return;
+        TypeDescription typeDescription = objectShape.get().typeDescription;
+        // Detached so the background writer never needs a read action to access the properties.
+        List<TypeScriptObjectProperty> objectProperties = objectShape.get().objectProperties.stream()
+                .map(property -> new DetachedPropertySignature(property.getCodeGenPropertyName().orElse(""),
+                        property.getPropertyType(), property.isOptional(), property.isReadOnly()))
+                .collect(Collectors.toList());
+
+        String typeName = typeDescription.getTypeNameWithoutGenerics();
+        FileSaverDescriptor descriptor = new FileSaverDescriptor("Generate " + typeName + " Array To File",
+                "Choose a .ts or .json file to write " + size + " generated element(s) to",
+                StreamingArrayWriter.Format.TypeScript.getExtension(), StreamingArrayWriter.Format.Json.getExtension());
+        VirtualFileWrapper target = FileChooserFactory.getInstance()
+                .createSaveFileDialog(descriptor, project)
+                .save(sourceFile.getParent(), StringUtil.decapitalize(StringUtil.pluralize(typeName)) + ".ts");
+        if (target == null) return;
+
+        File outputFile = target.getFile();
+        StreamingArrayWriter.Format format = StreamingArrayWriter.Format.of(outputFile.getName());
+        String header = format == StreamingArrayWriter.Format.TypeScript ?
+                createImport(anActionEvent.getData(CommonDataKeys.PSI_ELEMENT), typeName, outputFile) : "";
+
+        TypeAssistApplicationSettings typeAssistApplicationSettings = TypeAssistApplicationSettings.getInstance();
+        StreamingArrayWriter streamingArrayWriter = new StreamingArrayWriter(objectProperties, typeDescription, size, format,
+                new CodeGenerationOptions.Builder(typeAssistApplicationSettings)
+                        .nestedObjectExpander(new NestedObjectExpander(project, typeAssistApplicationSettings))
+                        .build());
+
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Generating " + size + " " + typeName + " element(s)", true) {
+            private boolean failed;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(false);
+                try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputFile), StandardCharsets.UTF_8))) {
+                    streamingArrayWriter.write(writer, header, indicator);
+                } catch (IOException e) {
+                    failed = true;
+                    FileUtil.delete(outputFile);
+                    notify("Unable to write " + outputFile + ": " + e.getMessage(), NotificationType.ERROR);
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                if (failed) return;
+                // Makes the new file visible in the project view without opening it.
+                LocalFileSystem.getInstance().refreshAndFindFileByIoFile(outputFile);
+                notify("Generated " + size + " " + typeName + " element(s) to " + outputFile, NotificationType.INFORMATION);
+            }
+
+            @Override
+            public void onCancel() {
+                FileUtil.delete(outputFile);
+            }
+
+            @Override
+            public void onThrowable(@NotNull Throwable error) {
+                FileUtil.delete(outputFile);
+                super.onThrowable(error);
+            }
+        });
+    }
+
+    @Override
+    public void update(AnActionEvent e) {
+        e.getPresentation().setEnabled(getInsertContext(e) instanceof ArrayInsertInstruction);
+    }
+
+    /**
+     * Imports the type from its declaring module relative to the output file, eg {@code import { Person } from '../models/person';}
+     *
+     * @return The import statement, empty if the type is not exported from a module.
+     */
+    private static String createImport(PsiElement resolvedElement, String typeName, File outputFile) {
+        if (!(resolvedElement instanceof JSQualifiedNamedElement) || !TypeAssistPsiUtil.isExported(resolvedElement)) {
+            return "";
+        }
+        VirtualFile declarationFile = resolvedElement.getContainingFile().getVirtualFile();
+        if (declarationFile == null || outputFile.getParentFile() == null) return "";
+
+        String relativePath = FileUtil.getRelativePath(outputFile.getParentFile(), new File(declarationFile.getPath()));
+        if (relativePath == null) return "";
+
+        String modulePath = StringUtil.trimEnd(FileUtil.getNameWithoutExtension(FileUtil.toSystemIndependentName(relativePath)), ".d");
+        if (!modulePath.startsWith(".")) modulePath = "./" + modulePath;
+        return "import { " + typeName + " } from '" + modulePath + "';\n\n";
+    }
+
+    private static void notify(String content, NotificationType notificationType) {
+        Notifications.Bus.notify(new Notification(
+                "GenerateArrayToFileAction",
+                "Code Generation",
+                content,
+                notificationType));
+    }
+}
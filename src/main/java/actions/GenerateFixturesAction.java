@@ -0,0 +1,237 @@
+package actions;
+
+import codeInsight.TypeAssistPsiUtil;
+import codeInsight.codeGeneration.AssignableObjectCreator;
+import codeInsight.codeGeneration.CodeGenerationOptions;
+import codeInsight.codeGeneration.FixtureFileCreator;
+import codeInsight.codeGeneration.NestedObjectExpander;
+import com.intellij.concurrency.JobLauncher;
+import com.intellij.lang.javascript.TypeScriptFileType;
+import com.intellij.lang.javascript.psi.JSQualifiedNamedElement;
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileVisitor;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.codeStyle.CodeStyleSettingsManager;
+import documentation.objectProperties.TypeInstantiation;
+import documentation.objectProperties.TypeScriptObjectProperty;
+import documentation.objectProperties.TypeScriptObjectPropertyGroup;
+import documentation.types.TypeDefinition;
+import documentation.types.TypeDescription;
+import org.jetbrains.annotations.NotNull;
+import settings.TypeAssistApplicationSettings;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Batch version of {@code CreateTypeScriptObjectAction} which is triggered on a directory in the project view.
+ *
+ * <p>Every exported {@code TypeScriptInterface} and object {@code TypeScriptTypeAlias} in each module within the
+ * directory gets an example object generated into a sibling fixtures file, eg person.ts creates person.fixtures.ts.</p>
+ *
+ * <p>Modules are analysed concurrently in background read actions. Once all analysis is complete, each fixtures file
+ * is written in a single VFS write on the EDT. Cancelling the progress indicator discards all results so no partial
+ * set of fixtures files is written.</p>
+ */
+public class GenerateFixturesAction extends AnAction {
+
+    private static final String FIXTURES_SUFFIX = ".fixtures";
+    // Type arguments which need no import, keywords and literals optionally as arrays.
+    private static final Pattern SELF_CONTAINED_TYPE = Pattern.compile(
+            "(string|number|boolean|null|undefined|any|unknown|object|never|symbol|'[^']*'|\"[^\"]*\"|-?\\d+(\\.\\d+)?|true|false)(\\[])*");
+
+    @Override
+    public void actionPerformed(AnActionEvent anActionEvent) {
+        Project project = anActionEvent.getData(CommonDataKeys.PROJECT);
+        VirtualFile directory = anActionEvent.getData(CommonDataKeys.VIRTUAL_FILE);
+
+        if (project == null || directory == null || !directory.isDirectory()) {
+            return;
+        }
+
+        List<VirtualFile> sourceFiles = collectSourceFiles(directory);
+        if (sourceFiles.isEmpty()) {
+            notify("No TypeScript files found in " + directory.getPresentableUrl(), NotificationType.INFORMATION);
+            return;
+        }
+
+        TypeAssistApplicationSettings typeAssistApplicationSettings = TypeAssistApplicationSettings.getInstance();
+        String indent = StringUtil.repeatSymbol(' ', CodeStyleSettingsManager.getSettings(project)
+                .getIndentOptions(TypeScriptFileType.INSTANCE).INDENT_SIZE);
+
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Generating TypeScript fixtures", true) {
+            private final Map<VirtualFile, String> fixtures = new ConcurrentHashMap<>();
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(false);
+                AtomicInteger processed = new AtomicInteger();
+
+                JobLauncher.getInstance().invokeConcurrentlyUnderProgress(sourceFiles, indicator, false, sourceFile -> {
+                    indicator.checkCanceled();
+                    String fixture = ApplicationManager.getApplication().runReadAction((Computable<String>) () ->
+                            createFixture(project, sourceFile, indent, typeAssistApplicationSettings));
+
+                    if (fixture != null) {
+                        fixtures.put(sourceFile, fixture);
+                    }
+                    indicator.setText2(sourceFile.getName());
+                    indicator.setFraction((double) processed.incrementAndGet() / sourceFiles.size());
+                    return true;
+                });
+            }
+
+            @Override
+            public void onSuccess() {
+                writeFixtures(project, fixtures);
+            }
+        });
+    }
+
+    @Override
+    public void update(AnActionEvent e) {
+        VirtualFile file = e.getData(CommonDataKeys.VIRTUAL_FILE);
+        boolean isDirectory = e.getProject() != null && file != null && file.isDirectory();
+        e.getPresentation().setEnabledAndVisible(isDirectory);
+    }
+
+    /**
+     * Recursively collects all TypeScript modules within the supplied directory, excluding previously generated
+     * fixtures files.
+     */
+    private List<VirtualFile> collectSourceFiles(VirtualFile directory) {
+        List<VirtualFile> sourceFiles = new ArrayList<>();
+        VfsUtilCore.visitChildrenRecursively(directory, new VirtualFileVisitor() {
+            @Override
+            public boolean visitFile(@NotNull VirtualFile file) {
+                if (!file.isDirectory() && file.getFileType() == TypeScriptFileType.INSTANCE
+                        && !toModuleName(file).endsWith(FIXTURES_SUFFIX)) {
+                    sourceFiles.add(file);
+                }
+                return true;
+            }
+        });
+        return sourceFiles;
+    }
+
+    /**
+     * Generates the fixtures file contents for a single module. Must be called within a read action.
+     *
+     * @return The fixtures file contents or {@code null} if the module contains no eligible types.
+     */
+    private String createFixture(Project project,
+                                 VirtualFile sourceFile,
+                                 String indent,
+                                 TypeAssistApplicationSettings typeAssistApplicationSettings) {
+        PsiFile psiFile = PsiManager.getInstance(project).findFile(sourceFile);
+        if (psiFile == null) return null;
+
+        List<String> typeNames = new ArrayList<>();
+        List<String> generatedObjects = new ArrayList<>();
+        CodeGenerationOptions codeGenerationOptions = new CodeGenerationOptions.Builder(typeAssistApplicationSettings)
+                .nestedObjectExpander(new NestedObjectExpander(project, typeAssistApplicationSettings))
+                .build();
+
+        for (JSQualifiedNamedElement type : TypeAssistPsiUtil.collectTypesOfInterest(psiFile)) {
+            ProgressManager.checkCanceled();
+            // Non exported types cannot be imported into the fixtures module.
+            if (!TypeAssistPsiUtil.isExported(type)) continue;
+
+            TypeDescription typeDescription = TypeDescription.create(type);
+            if (typeDescription.getTypeDefinition() != TypeDefinition.Interface
+                    && typeDescription.getTypeDefinition() != TypeDefinition.TypeAliasObject) continue;
+
+            // A fixture has no usage to take type arguments from, so each parameter is given its default when the
+            // fixtures module can write it without an import, otherwise any.
+            List<String> typeArguments = new ArrayList<>();
+            List<String> anyParameters = new ArrayList<>();
+            TypeInstantiation.typeParameterDefaults(type).forEach((parameter, defaultType) -> {
+                if (defaultType.isPresent() && SELF_CONTAINED_TYPE.matcher(defaultType.get()).matches()) {
+                    typeArguments.add(defaultType.get());
+                } else {
+                    typeArguments.add("any");
+                    anyParameters.add(parameter);
+                }
+            });
+
+            Optional<TypeScriptObjectPropertyGroup> propertyGroup = typeArguments.isEmpty() ?
+                    TypeScriptObjectProperty.of(type) : TypeInstantiation.of(type, typeArguments);
+            if (!propertyGroup.isPresent() || propertyGroup.get().getPropertySignatures().isEmpty()) continue;
+
+            String generatedObject = new AssignableObjectCreator(propertyGroup.get().getPropertySignatures(),
+                    typeDescription.instantiate(typeArguments), codeGenerationOptions).generate();
+            if (!anyParameters.isEmpty()) {
+                generatedObject = "// " + String.join(", ", anyParameters) + " of " + typeDescription.getTypeName()
+                        + " replaced with any, supply a type argument\n" + generatedObject;
+            }
+            typeNames.add(typeDescription.getTypeNameWithoutGenerics());
+            generatedObjects.add(generatedObject);
+        }
+
+        if (generatedObjects.isEmpty()) return null;
+        return new FixtureFileCreator(sourceFile.getName(), toModuleName(sourceFile), typeNames, generatedObjects,
+                indent, typeAssistApplicationSettings).generate();
+    }
+
+    private void writeFixtures(Project project, Map<VirtualFile, String> fixtures) {
+        if (fixtures.isEmpty()) {
+            notify("No exported interfaces or object type aliases were found", NotificationType.INFORMATION);
+            return;
+        }
+
+        WriteCommandAction.runWriteCommandAction(project, () -> {
+            for (Map.Entry<VirtualFile, String> fixture : fixtures.entrySet()) {
+                VirtualFile sourceFile = fixture.getKey();
+                VirtualFile parent = sourceFile.getParent();
+                String fixtureFileName = toModuleName(sourceFile) + FIXTURES_SUFFIX + "." + sourceFile.getExtension();
+
+                try {
+                    VirtualFile fixtureFile = parent.findChild(fixtureFileName);
+                    if (fixtureFile == null) {
+                        fixtureFile = parent.createChildData(this, fixtureFileName);
+                    }
+                    VfsUtil.saveText(fixtureFile, fixture.getValue());
+                } catch (IOException e) {
+                    notify("Unable to write " + fixtureFileName + ": " + e.getMessage(), NotificationType.ERROR);
+                }
+            }
+        });
+
+        notify("Generated " + fixtures.size() + " fixtures file(s)", NotificationType.INFORMATION);
+    }
+
+    /**
+     * Declaration files are imported without the .d suffix, eg person.d.ts is imported as './person'
+     */
+    private static String toModuleName(VirtualFile file) {
+        return StringUtil.trimEnd(file.getNameWithoutExtension(), ".d");
+    }
+
+    private static void notify(String content, NotificationType notificationType) {
+        Notifications.Bus.notify(new Notification(
+                "GenerateFixturesAction",
+                "Fixture Generation",
+                content,
+                notificationType));
+    }
+}
@@ -0,0 +1,360 @@
+package cache;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * An on-disk store of byte values which survives IDE restarts, made up of two append-only files.
+ *
+ * <pre>
+ *     name.dat  The values one after another, read through a memory mapping.
+ *     name.idx  The format version followed by a (group, version, key, offset, length) record per value, a
+ *               negative length records a removed key.
+ * </pre>
+ *
+ * <p>Values are grouped, such as by the file they were computed from, and each group has a version such as the hash
+ * of that file's content. Writing a value with a new version makes every value of the previous version stale, as does
+ * overwriting a key. Stale values remain in the data file until the store is next opened with more than
+ * {@code compactAtStaleRatio} of it stale, the live values are then copied to new files. Compacting only on open means
+ * a file is never replaced while it is mapped.</p>
+ *
+ * <p>The index is read in full on open and later records take precedence. A record left incomplete by a crash is
+ * truncated, and an index written by a different format version discards the store. All access is synchronized on
+ * the store.</p>
+ */
+public class PersistentStore implements Closeable {
+    private static final Location REMOVED = new Location(0, -1);
+
+    private final Path dataFile;
+    private final Path indexFile;
+    private final long maxBytes;
+
+    private final Map<String, Group> groups = new HashMap<>();
+    private final FileChannel data;
+    private final FileChannel index;
+    private long dataBytes;
+    private long staleBytes;
+    private MappedByteBuffer mapped;
+
+    private PersistentStore(Builder builder) throws IOException {
+        this.dataFile = builder.directory.resolve(builder.name + ".dat");
+        this.indexFile = builder.directory.resolve(builder.name + ".idx");
+        this.maxBytes = builder.maxBytes;
+
+        Files.createDirectories(builder.directory);
+        if (!load(builder.formatVersion)) {
+            reset(builder.formatVersion);
+        } else if (dataBytes >= builder.minCompactBytes && staleBytes > dataBytes * builder.compactAtStaleRatio) {
+            compact(builder.formatVersion);
+        }
+
+        this.data = FileChannel.open(dataFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.index = FileChannel.open(indexFile, StandardOpenOption.WRITE);
+        // Drop anything written after the last complete index record.
+        data.truncate(dataBytes);
+        index.position(index.size());
+    }
+
+    /**
+     * @return Empty if there is no value for {@code key} in the current {@code version} of the group.
+     */
+    public synchronized Optional<byte[]> get(String group, String version, String key) throws IOException {
+        Group existing = groups.get(group);
+        if (existing == null || !existing.version.equals(version)) return Optional.empty();
+
+        Location location = existing.locations.get(key);
+        if (location == null) return Optional.empty();
+
+        if (mapped == null || location.offset + location.length > mapped.capacity()) {
+            mapped = data.map(FileChannel.MapMode.READ_ONLY, 0, dataBytes);
+        }
+        byte[] value = new byte[location.length];
+        ByteBuffer buffer = mapped.duplicate();
+        buffer.position((int) location.offset);
+        buffer.get(value);
+        return Optional.of(value);
+    }
+
+    /**
+     * Appends {@code value}, a new {@code version} makes every value of the group's previous version stale.
+     *
+     * @return {@code false} if the value was not written since the store has reached its maximum size.
+     */
+    public synchronized boolean put(String group, String version, String key, byte[] value) throws IOException {
+        if (dataBytes + value.length > maxBytes) return false;
+
+        Location location = new Location(dataBytes, value.length);
+        // Serialized first so a key too long to write fails before anything is written.
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        writeRecord(new DataOutputStream(record), group, version, key, location);
+
+        data.write(ByteBuffer.wrap(value), location.offset);
+        dataBytes += value.length;
+        index.write(ByteBuffer.wrap(record.toByteArray()));
+
+        apply(group, version, key, location);
+        return true;
+    }
+
+    /**
+     * Removes the value for {@code key} in the current {@code version} of the group, such as a value found to be
+     * unreadable.
+     */
+    public synchronized void remove(String group, String version, String key) throws IOException {
+        Group existing = groups.get(group);
+        if (existing == null || !existing.version.equals(version) || !existing.locations.containsKey(key)) return;
+
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        writeRecord(new DataOutputStream(record), group, version, key, REMOVED);
+        index.write(ByteBuffer.wrap(record.toByteArray()));
+        apply(group, version, key, REMOVED);
+    }
+
+    /**
+     * @return The number of live values.
+     */
+    public synchronized int size() {
+        return groups.values().stream().mapToInt(group -> group.locations.size()).sum();
+    }
+
+    /**
+     * @return The size of the data file including stale values.
+     */
+    public synchronized long dataBytes() {
+        return dataBytes;
+    }
+
+    public synchronized long staleBytes() {
+        return staleBytes;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            data.close();
+        } finally {
+            index.close();
+        }
+    }
+
+    /**
+     * @return {@code false} if there is no usable store.
+     */
+    private boolean load(String formatVersion) throws IOException {
+        if (!Files.exists(dataFile) || !Files.exists(indexFile)) return false;
+        long dataFileBytes = Files.size(dataFile);
+
+        try (CountingInputStream counting = new CountingInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            DataInputStream in = new DataInputStream(counting);
+            if (!formatVersion.equals(in.readUTF())) return false;
+
+            long complete = counting.count;
+            try {
+                while (true) {
+                    String group = in.readUTF();
+                    String version = in.readUTF();
+                    String key = in.readUTF();
+                    Location location = readLocation(in);
+                    // The value was not fully written.
+                    if (location.offset + location.length > dataFileBytes) break;
+
+                    apply(group, version, key, location);
+                    if (location != REMOVED) dataBytes = Math.max(dataBytes, location.offset + location.length);
+                    complete = counting.count;
+                }
+            } catch (EOFException e) {
+                // The last record was not fully written.
+            }
+            counting.close();
+            try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.WRITE)) {
+                channel.truncate(complete);
+            }
+            return true;
+        } catch (EOFException | UTFDataFormatException e) {
+            // No complete header.
+            return false;
+        }
+    }
+
+    private void apply(String group, String version, String key, Location location) {
+        Group existing = groups.get(group);
+        if (existing == null || !existing.version.equals(version)) {
+            if (existing != null) {
+                staleBytes += existing.locations.values().stream().mapToLong(previous -> previous.length).sum();
+            }
+            existing = new Group(version);
+            groups.put(group, existing);
+        }
+        Location previous = location == REMOVED ? existing.locations.remove(key) : existing.locations.put(key, location);
+        if (previous != null) staleBytes += previous.length;
+    }
+
+    private void reset(String formatVersion) throws IOException {
+        groups.clear();
+        dataBytes = 0;
+        staleBytes = 0;
+        Files.write(dataFile, new byte[0]);
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(indexFile))) {
+            out.writeUTF(formatVersion);
+        }
+    }
+
+    /**
+     * Copies the live values to new files which then replace the current ones.
+     */
+    private void compact(String formatVersion) throws IOException {
+        Path compactData = dataFile.resolveSibling(dataFile.getFileName() + ".compact");
+        Path compactIndex = indexFile.resolveSibling(indexFile.getFileName() + ".compact");
+
+        Map<String, Group> compacted = new HashMap<>();
+        long compactedBytes = 0;
+        try (FileChannel source = FileChannel.open(dataFile, StandardOpenOption.READ);
+             OutputStream dataOut = new BufferedOutputStream(Files.newOutputStream(compactData));
+             DataOutputStream indexOut = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(compactIndex)))) {
+            indexOut.writeUTF(formatVersion);
+
+            for (Map.Entry<String, Group> group : groups.entrySet()) {
+                Group live = new Group(group.getValue().version);
+                for (Map.Entry<String, Location> entry : group.getValue().locations.entrySet()) {
+                    ByteBuffer value = ByteBuffer.allocate(entry.getValue().length);
+                    source.read(value, entry.getValue().offset);
+                    dataOut.write(value.array());
+
+                    Location location = new Location(compactedBytes, entry.getValue().length);
+                    writeRecord(indexOut, group.getKey(), live.version, entry.getKey(), location);
+                    live.locations.put(entry.getKey(), location);
+                    compactedBytes += location.length;
+                }
+                compacted.put(group.getKey(), live);
+            }
+        }
+
+        // The data file first, a crash in between leaves an index pointing past the end which is ignored on load.
+        Files.move(compactData, dataFile, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(compactIndex, indexFile, StandardCopyOption.REPLACE_EXISTING);
+        groups.clear();
+        groups.putAll(compacted);
+        dataBytes = compactedBytes;
+        staleBytes = 0;
+    }
+
+    private static void writeRecord(DataOutput out, String group, String version, String key, Location location)
+            throws IOException {
+        out.writeUTF(group);
+        out.writeUTF(version);
+        out.writeUTF(key);
+        out.writeLong(location.offset);
+        out.writeInt(location.length);
+    }
+
+    private static Location readLocation(DataInput in) throws IOException {
+        Location location = new Location(in.readLong(), in.readInt());
+        return location.length < 0 ? REMOVED : location;
+    }
+
+    private static class Group {
+        private final String version;
+        private final Map<String, Location> locations = new HashMap<>();
+
+        private Group(String version) {
+            this.version = version;
+        }
+    }
+
+    private static class Location {
+        private final long offset;
+        private final int length;
+
+        private Location(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if (read >= 0) count++;
+            return read;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) count += read;
+            return read;
+        }
+    }
+
+    public static class Builder {
+        private final Path directory;
+        private final String name;
+        private String formatVersion = "1";
+        private long maxBytes = 64 * 1024 * 1024;
+        private double compactAtStaleRatio = 0.5;
+        private long minCompactBytes = 1024 * 1024;
+
+        /**
+         * @param name The file name of the data and index files without an extension.
+         */
+        public Builder(Path directory, String name) {
+            this.directory = directory;
+            this.name = name;
+        }
+
+        /**
+         * @param formatVersion Change whenever the stored values change format, the existing store is then discarded.
+         */
+        public Builder formatVersion(String formatVersion) {
+            this.formatVersion = formatVersion;
+            return this;
+        }
+
+        /**
+         * @param maxBytes The maximum size of the data file, values are no longer written once it is reached.
+         */
+        public Builder maxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+            return this;
+        }
+
+        /**
+         * @param compactAtStaleRatio The fraction of the data file which must be stale for it to be compacted on open.
+         */
+        public Builder compactAtStaleRatio(double compactAtStaleRatio) {
+            this.compactAtStaleRatio = compactAtStaleRatio;
+            return this;
+        }
+
+        /**
+         * @param minCompactBytes Smaller data files are never compacted.
+         */
+        public Builder minCompactBytes(long minCompactBytes) {
+            this.minCompactBytes = minCompactBytes;
+            return this;
+        }
+
+        public PersistentStore open() throws IOException {
+            if (maxBytes < 1 || maxBytes > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("maxBytes must be positive and mappable");
+            }
+            return new PersistentStore(this);
+        }
+    }
+}
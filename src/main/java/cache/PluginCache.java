@@ -0,0 +1,266 @@
+package cache;
+
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * A bounded LRU cache which accounts for the estimated size of its values so the plugin stays within a sensible
+ * budget inside the shared IDE heap.
+ *
+ * <pre>
+ *     PluginCache&lt;List&lt;String&gt;, String&gt; cache = new PluginCache.Builder&lt;List&lt;String&gt;, String&gt;("Rendered documentation")
+ *             .maxEntries(8)
+ *             .maxWeight(512 * 1024)
+ *             .weigher(PluginCache::estimateBytes)
+ *             .build();
+ * </pre>
+ *
+ * <p>Values are held strongly until either limit is exceeded, the least recently used are then demoted to soft
+ * references which the garbage collector may clear when it needs to. A soft value found again is promoted back. Every
+ * cache is tracked by the {@link PluginCacheRegistry} which reports usage by name and clears all caches when the IDE
+ * is low on memory.</p>
+ *
+ * <p>Caches of the same kind, such as one per declaration, can also share a budget through
+ * {@link Builder#sharedMaxWeight}. Once the caches of that name together exceed it, values are demoted starting with
+ * the cache which was used least recently.</p>
+ *
+ * <p>All access is synchronized on the cache.</p>
+ */
+public class PluginCache<K, V> {
+    private final String name;
+    private final int maxEntries;
+    private final long maxWeight;
+    private final ToLongFunction<? super V> weigher;
+    private final boolean softReferences;
+    private final PluginCacheRegistry.Budget budget;
+
+    private final LinkedHashMap<K, Weighted<V>> strong = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, SoftReference<V>> soft = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+    private volatile long lastAccess = PluginCacheRegistry.tick();
+
+    private PluginCache(Builder<K, V> builder) {
+        this.name = builder.name;
+        this.maxEntries = builder.maxEntries;
+        this.maxWeight = builder.maxWeight;
+        this.weigher = builder.weigher;
+        this.softReferences = builder.softReferences;
+        this.budget = builder.sharedMaxWeight == Long.MAX_VALUE ? null :
+                PluginCacheRegistry.budget(builder.name, builder.sharedMaxWeight);
+    }
+
+    /**
+     * @return A rough estimate of the bytes held by {@code value}.
+     */
+    public static long estimateBytes(String value) {
+        // Object header, fields and the char array header.
+        return 40 + 2L * value.length();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The cached value or {@code null} if there is none.
+     */
+    public synchronized V get(K key) {
+        lastAccess = PluginCacheRegistry.tick();
+        Weighted<V> weighted = strong.get(key);
+        if (weighted != null) return weighted.value;
+
+        SoftReference<V> reference = soft.remove(key);
+        V value = reference == null ? null : reference.get();
+        // Promoted without enforcing the shared budget since that must not happen while holding this cache's lock.
+        if (value != null) putLocally(key, value);
+        return value;
+    }
+
+    /**
+     * Values weighing more than the maximum weight are not cached.
+     */
+    public void put(K key, V value) {
+        putLocally(key, value);
+        // Outside of this cache's lock since other caches of the same name are locked in turn.
+        if (budget != null) PluginCacheRegistry.enforce(name, budget);
+    }
+
+    private synchronized void putLocally(K key, V value) {
+        lastAccess = PluginCacheRegistry.tick();
+        long valueWeight = weigher.applyAsLong(value);
+        soft.remove(key);
+        if (valueWeight > maxWeight) {
+            remove(key);
+            return;
+        }
+
+        Weighted<V> previous = strong.put(key, new Weighted<>(value, valueWeight));
+        if (previous != null) addWeight(-previous.weight);
+        addWeight(valueWeight);
+        evict();
+    }
+
+    public synchronized void remove(K key) {
+        Weighted<V> removed = strong.remove(key);
+        if (removed != null) addWeight(-removed.weight);
+        soft.remove(key);
+    }
+
+    public synchronized void clear() {
+        strong.clear();
+        soft.clear();
+        addWeight(-weight);
+    }
+
+    /**
+     * @return The number of strongly held entries.
+     */
+    public synchronized int size() {
+        return strong.size();
+    }
+
+    /**
+     * @return The number of soft entries which have not been cleared by the garbage collector.
+     */
+    public synchronized int softSize() {
+        soft.values().removeIf(reference -> reference.get() == null);
+        return soft.size();
+    }
+
+    /**
+     * @return The estimated bytes of the strongly held values, soft values are not counted as they can be collected.
+     */
+    public synchronized long weight() {
+        return weight;
+    }
+
+    /**
+     * @return When the cache was last read or written, see {@link PluginCacheRegistry#tick()}.
+     */
+    long lastAccess() {
+        return lastAccess;
+    }
+
+    /**
+     * Demotes the least recently used strongly held values until at least {@code bytes} are freed or none are left.
+     *
+     * @return The estimated bytes freed.
+     */
+    synchronized long shrink(long bytes) {
+        long freed = 0;
+        Iterator<Map.Entry<K, Weighted<V>>> eldest = strong.entrySet().iterator();
+        while (freed < bytes && eldest.hasNext()) {
+            freed += demote(eldest);
+        }
+        trimSoft();
+        return freed;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<K, Weighted<V>>> eldest = strong.entrySet().iterator();
+        while ((strong.size() > maxEntries || weight > maxWeight) && eldest.hasNext()) {
+            demote(eldest);
+        }
+        trimSoft();
+    }
+
+    /**
+     * @return The weight of the demoted value.
+     */
+    private long demote(Iterator<Map.Entry<K, Weighted<V>>> eldest) {
+        Map.Entry<K, Weighted<V>> entry = eldest.next();
+        eldest.remove();
+        addWeight(-entry.getValue().weight);
+        if (softReferences) soft.put(entry.getKey(), new SoftReference<>(entry.getValue().value));
+        return entry.getValue().weight;
+    }
+
+    private void trimSoft() {
+        Iterator<K> eldestSoft = soft.keySet().iterator();
+        while (soft.size() > maxEntries && eldestSoft.hasNext()) {
+            eldestSoft.next();
+            eldestSoft.remove();
+        }
+    }
+
+    private void addWeight(long delta) {
+        weight += delta;
+        if (budget != null) budget.addWeight(delta);
+    }
+
+    private static class Weighted<V> {
+        private final V value;
+        private final long weight;
+
+        private Weighted(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    public static class Builder<K, V> {
+        private final String name;
+        private int maxEntries = 64;
+        private long maxWeight = Long.MAX_VALUE;
+        private ToLongFunction<? super V> weigher = value -> 0;
+        private boolean softReferences = true;
+        private long sharedMaxWeight = Long.MAX_VALUE;
+
+        /**
+         * @param name The name usage is reported under, caches of the same kind such as one per declaration share it.
+         */
+        public Builder(String name) {
+            this.name = name;
+        }
+
+        public Builder<K, V> maxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * @param maxWeight The maximum estimated bytes of strongly held values.
+         */
+        public Builder<K, V> maxWeight(long maxWeight) {
+            this.maxWeight = maxWeight;
+            return this;
+        }
+
+        /**
+         * @param weigher Estimates the bytes held by a value, see {@link #estimateBytes}.
+         */
+        public Builder<K, V> weigher(ToLongFunction<? super V> weigher) {
+            this.weigher = weigher;
+            return this;
+        }
+
+        /**
+         * @param sharedMaxWeight The maximum estimated bytes of strongly held values across every cache with this
+         *                        name, the first cache built with a name decides its budget.
+         */
+        public Builder<K, V> sharedMaxWeight(long sharedMaxWeight) {
+            this.sharedMaxWeight = sharedMaxWeight;
+            return this;
+        }
+
+        /**
+         * @param softReferences {@code false} to drop evicted values rather than keeping them softly reachable.
+         */
+        public Builder<K, V> softReferences(boolean softReferences) {
+            this.softReferences = softReferences;
+            return this;
+        }
+
+        public PluginCache<K, V> build() {
+            if (maxEntries < 1 || maxWeight < 1 || sharedMaxWeight < 1) {
+                throw new IllegalArgumentException("Cache limits must be positive");
+            }
+            PluginCache<K, V> cache = new PluginCache<>(this);
+            PluginCacheRegistry.register(cache);
+            return cache;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package cache;
+
+import com.intellij.openapi.util.LowMemoryWatcher;
+import metrics.Counter;
+import metrics.PluginMetrics;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks every {@link PluginCache} by name so memory use can be reported in the settings and all caches can be
+ * dropped when the IDE is low on memory.
+ *
+ * <p>Caches are weakly referenced since many are held on PSI elements and disappear with them. Caches of the same name
+ * may share a {@link Budget}, when exceeded the least recently used caches are shrunk until the name is back under
+ * three quarters of it so the next few puts do not shrink again.</p>
+ */
+public class PluginCacheRegistry {
+    private static final Map<String, Set<PluginCache<?, ?>>> CACHES = new TreeMap<>();
+    private static final Map<String, Budget> BUDGETS = new HashMap<>();
+    private static final AtomicLong CLOCK = new AtomicLong();
+
+    // LowMemoryWatcher only keeps a weak reference to each watcher.
+    @SuppressWarnings("unused")
+    private static final LowMemoryWatcher LOW_MEMORY_WATCHER = LowMemoryWatcher.register(PluginCacheRegistry::onLowMemory);
+
+    static void register(PluginCache<?, ?> cache) {
+        synchronized (CACHES) {
+            CACHES.computeIfAbsent(cache.getName(), name -> Collections.newSetFromMap(new WeakHashMap<>())).add(cache);
+        }
+    }
+
+    /**
+     * @return The budget shared by every cache with this name, created with the given maximum on first use.
+     */
+    static Budget budget(String name, long maxWeight) {
+        synchronized (CACHES) {
+            return BUDGETS.computeIfAbsent(name, key -> new Budget(maxWeight));
+        }
+    }
+
+    /**
+     * @return An increasing value ordering cache accesses.
+     */
+    static long tick() {
+        return CLOCK.incrementAndGet();
+    }
+
+    /**
+     * Shrinks the least recently used caches with this name once they together exceed their budget. Must not be
+     * called while holding the lock of any cache.
+     */
+    static void enforce(String name, Budget budget) {
+        if (budget.weight.get() <= budget.maxWeight) return;
+
+        List<PluginCache<?, ?>> caches;
+        synchronized (CACHES) {
+            caches = new ArrayList<>(CACHES.getOrDefault(name, Collections.emptySet()));
+        }
+
+        // The running total also counts caches which were garbage collected with their PSI elements.
+        long total = 0;
+        for (PluginCache<?, ?> cache : caches) {
+            total += cache.weight();
+        }
+        budget.weight.set(total);
+        if (total <= budget.maxWeight) return;
+
+        long target = budget.maxWeight - budget.maxWeight / 4;
+        caches.sort(Comparator.comparingLong(PluginCache::lastAccess));
+        for (PluginCache<?, ?> cache : caches) {
+            if (total <= target) break;
+            total -= cache.shrink(total - target);
+        }
+        PluginMetrics.increment(Counter.CacheBudgetEvictions);
+    }
+
+    /**
+     * @return The usage of each cache name in name order.
+     */
+    public static List<Usage> usage() {
+        List<Usage> usages = new ArrayList<>();
+        for (Map.Entry<String, List<PluginCache<?, ?>>> named : snapshot().entrySet()) {
+            int entries = 0;
+            int softEntries = 0;
+            long estimatedBytes = 0;
+            for (PluginCache<?, ?> cache : named.getValue()) {
+                entries += cache.size();
+                softEntries += cache.softSize();
+                estimatedBytes += cache.weight();
+            }
+            usages.add(new Usage(named.getKey(), named.getValue().size(), entries, softEntries, estimatedBytes));
+        }
+        return usages;
+    }
+
+    public static void clearAll() {
+        snapshot().values().forEach(caches -> caches.forEach(PluginCache::clear));
+    }
+
+    private static void onLowMemory() {
+        PluginMetrics.increment(Counter.CacheLowMemoryClears);
+        clearAll();
+    }
+
+    /**
+     * Copies the live caches so they are not accessed while holding the registry lock.
+     */
+    private static Map<String, List<PluginCache<?, ?>>> snapshot() {
+        Map<String, List<PluginCache<?, ?>>> snapshot = new TreeMap<>();
+        synchronized (CACHES) {
+            CACHES.forEach((name, caches) -> snapshot.put(name, new ArrayList<>(caches)));
+        }
+        return snapshot;
+    }
+
+    /**
+     * The maximum estimated bytes of strongly held values across every cache of one name.
+     */
+    static class Budget {
+        private final long maxWeight;
+        private final AtomicLong weight = new AtomicLong();
+
+        private Budget(long maxWeight) {
+            this.maxWeight = maxWeight;
+        }
+
+        void addWeight(long delta) {
+            weight.addAndGet(delta);
+        }
+    }
+
+    public static class Usage {
+        private final String name;
+        private final int instances;
+        private final int entries;
+        private final int softEntries;
+        private final long estimatedBytes;
+
+        private Usage(String name, int instances, int entries, int softEntries, long estimatedBytes) {
+            this.name = name;
+            this.instances = instances;
+            this.entries = entries;
+            this.softEntries = softEntries;
+            this.estimatedBytes = estimatedBytes;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return The number of live caches with this name, such as one per declaration.
+         */
+        public int getInstances() {
+            return instances;
+        }
+
+        public int getEntries() {
+            return entries;
+        }
+
+        public int getSoftEntries() {
+            return softEntries;
+        }
+
+        public long getEstimatedBytes() {
+            return estimatedBytes;
+        }
+    }
+}
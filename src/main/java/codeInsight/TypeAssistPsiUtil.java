@@ -1,16 +1,26 @@
 package codeInsight;
 
+import com.intellij.lang.javascript.psi.JSQualifiedNamedElement;
 import com.intellij.lang.javascript.psi.JSReferenceExpression;
 import com.intellij.lang.javascript.psi.ecma6.*;
+import com.intellij.lang.javascript.psi.ecmal4.JSAttributeList;
+import com.intellij.lang.javascript.psi.ecmal4.JSAttributeListOwner;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiNamedElement;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.intellij.psi.util.PsiTreeUtil;
 import documentation.textReplacement.FindReplaceValue;
 import documentation.types.TypeDescription;
+import metrics.Counter;
+import metrics.PluginMetrics;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
@@ -34,35 +44,103 @@ public class TypeAssistPsiUtil {
      * @return {@code TypeDescription}
      */
     public static TypeDescription getResolvedTypeDescription(@NotNull PsiElement psiElement) {
+        return findResolvedTypeOfInterest(psiElement)
+                .map(TypeDescription::create)
+                .orElseGet(TypeDescription::none);
+    }
+
+    /**
+     * The cheap half of {@link #getResolvedTypeDescription} for availability checks run on every caret move. Only the
+     * references under or trailing the caret are resolved, each resolve is remembered until the next PSI change and no
+     * {@code TypeDescription} is built.
+     *
+     * @param psiElement The {@code PsiElement} at the caret.
+     * @return The resolved element satisfying {@link #isTypeOfInterest}.
+     */
+    public static Optional<PsiElement> findResolvedTypeOfInterest(@NotNull PsiElement psiElement) {
         // Handle case where caret is within the Type name.
         Optional<PsiElement> resolvedWithinCaret = Optional.ofNullable(psiElement.getParent())
-                .flatMap(parent -> Optional.of(parent.getReferences()))
-                .flatMap(references -> {
-                    if (references.length > 0) {
-                        return Optional.ofNullable(references[0].resolve());
-                    }
-                    return Optional.empty();
-                });
-
-        if (resolvedWithinCaret.isPresent() && isTypeOfInterest(resolvedWithinCaret.get())) {
-            return TypeDescription.create(resolvedWithinCaret.get());
-        }
+                .flatMap(TypeAssistPsiUtil::resolveTypeReference);
+        if (resolvedWithinCaret.isPresent()) return resolvedWithinCaret;
 
         // Handle case where caret is trailing the Type name by 1 whitespace.
-        Optional<PsiElement> resolvedTrailingCaret = Optional.ofNullable(psiElement.getPrevSibling())
+        return Optional.ofNullable(psiElement.getPrevSibling())
                 .flatMap(jsExpressionStatement -> Optional.ofNullable(jsExpressionStatement.getFirstChild()))
-                .flatMap(firstChild -> Optional.of(firstChild.getReferences()))
-                .flatMap(references -> {
-                    if (references.length > 0) {
-                        return Optional.ofNullable(references[0].resolve());
-                    }
-                    return Optional.empty();
-                });
-
-        if (resolvedTrailingCaret.isPresent() && isTypeOfInterest(resolvedTrailingCaret.get())) {
-            return TypeDescription.create(resolvedTrailingCaret.get());
+                .flatMap(TypeAssistPsiUtil::resolveTypeReference);
+    }
+
+    /**
+     * Rejects anything which is syntactically not a reference to a type before resolving, such as keywords, literals and
+     * member accesses like {@code this.name}.
+     */
+    private static Optional<PsiElement> resolveTypeReference(@NotNull PsiElement element) {
+        if (!(element instanceof JSReferenceExpression)) return Optional.empty();
+        JSReferenceExpression reference = (JSReferenceExpression) element;
+        if (reference.getReferenceName() == null) return Optional.empty();
+        if (reference.getQualifier() != null && !(reference.getQualifier() instanceof JSReferenceExpression)) {
+            return Optional.empty();
         }
-        return TypeDescription.none();
+
+        return resolve(reference).filter(TypeAssistPsiUtil::isTypeOfInterest);
+    }
+
+    /**
+     * Resolves once per PSI change since the same reference is checked on every caret move and documentation request.
+     */
+    private static Optional<PsiElement> resolve(@NotNull JSReferenceExpression reference) {
+        return CachedValuesManager.getCachedValue(reference, () -> {
+            PluginMetrics.increment(Counter.ReferenceResolves);
+            return CachedValueProvider.Result.create(Optional.ofNullable(reference.resolve()),
+                    PsiModificationTracker.MODIFICATION_COUNT);
+        });
+    }
+
+    /**
+     * The counterpart to {@link #getResolvedTypeDescription} for when resolving fails, such as {@code Book[3]}. Only the
+     * reference name under or trailing the caret is returned so it can be looked up by name in the {@code TypeShapeIndex}.
+     *
+     * @param psiElement The {@code PsiElement} at the caret.
+     * @return The capitalized name of the unresolved reference.
+     */
+    public static Optional<String> findUnresolvedTypeName(@NotNull PsiElement psiElement) {
+        return findTypeNameCandidate(psiElement)
+                .filter(TypeAssistPsiUtil::isUnresolved)
+                .map(JSReferenceExpression::getReferenceName);
+    }
+
+    /**
+     * The syntactic part of {@link #findUnresolvedTypeName}, nothing is resolved or looked up so it is cheap enough for
+     * an action's {@code update} and ruling out most documentation requests.
+     *
+     * @param psiElement The {@code PsiElement} at the caret.
+     * @return The capitalized and unqualified reference under or trailing the caret.
+     */
+    public static Optional<JSReferenceExpression> findTypeNameCandidate(@NotNull PsiElement psiElement) {
+        // Handle case where caret is within the Type name.
+        Optional<JSReferenceExpression> withinCaret = Optional.ofNullable(psiElement.getParent())
+                .flatMap(TypeAssistPsiUtil::typeNameCandidate);
+        if (withinCaret.isPresent()) return withinCaret;
+
+        // Handle case where caret is trailing the Type name by 1 whitespace.
+        return Optional.ofNullable(psiElement.getPrevSibling())
+                .flatMap(jsExpressionStatement -> Optional.ofNullable(PsiTreeUtil.findChildOfType(jsExpressionStatement, JSReferenceExpression.class, false)))
+                .flatMap(TypeAssistPsiUtil::typeNameCandidate);
+    }
+
+    /**
+     * @return {@code true} if {@code reference} does not resolve, see {@link #findTypeNameCandidate}.
+     */
+    public static boolean isUnresolved(@NotNull JSReferenceExpression reference) {
+        return !resolve(reference).isPresent();
+    }
+
+    private static Optional<JSReferenceExpression> typeNameCandidate(@NotNull PsiElement element) {
+        if (!(element instanceof JSReferenceExpression)) return Optional.empty();
+        JSReferenceExpression reference = (JSReferenceExpression) element;
+
+        String name = reference.getReferenceName();
+        if (name == null || !StringUtil.isCapitalized(name) || reference.getQualifier() != null) return Optional.empty();
+        return Optional.of(reference);
     }
 
     /**
@@ -82,6 +160,31 @@ public class TypeAssistPsiUtil {
                 || element instanceof TypeScriptEnum;
     }
 
+    /**
+     * Collects every declaration within the supplied {@code PsiFile} that satisfies {@link #isTypeOfInterest}.
+     *
+     * <p>Used by the batch code generation and export features which walk whole files rather than a single
+     * resolved element.</p>
+     *
+     * @param file The {@code PsiFile} to search.
+     * @return The list of {@code TypeScriptInterface}, {@code TypeScriptTypeAlias} and {@code TypeScriptEnum} declarations.
+     */
+    public static List<JSQualifiedNamedElement> collectTypesOfInterest(@NotNull PsiFile file) {
+        return PsiTreeUtil.findChildrenOfType(file, JSQualifiedNamedElement.class).stream()
+                .filter(TypeAssistPsiUtil::isTypeOfInterest)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param element The declaration to check.
+     * @return {@code true} if the declaration has the export modifier which means it can be imported by another module.
+     */
+    public static boolean isExported(@NotNull PsiElement element) {
+        if (!(element instanceof JSAttributeListOwner)) return false;
+        JSAttributeList attributeList = ((JSAttributeListOwner) element).getAttributeList();
+        return attributeList != null && attributeList.hasModifier(JSAttributeList.ModifierType.EXPORT);
+    }
+
     /**
      * From the supplied {@code PsiElement}, try locate a {@code TypeScriptObjectType} as a child.
      *
@@ -147,9 +250,11 @@ public class TypeAssistPsiUtil {
      */
     public static List<FindReplaceValue> collectResolvableReferences(@NotNull PsiElement root) {
         Predicate<JSReferenceExpression> permitTypeFilter = reference -> {
-            if (reference.resolve() == null) return false;
-            if (reference.resolve() instanceof TypeScriptTypeParameter) return false;
-            if (reference.resolve() instanceof TypeScriptMappedTypeParameter) return false;
+            PluginMetrics.increment(Counter.ReferenceResolves);
+            PsiElement resolved = reference.resolve();
+            if (resolved == null) return false;
+            if (resolved instanceof TypeScriptTypeParameter) return false;
+            if (resolved instanceof TypeScriptMappedTypeParameter) return false;
             /*
              * Having a dot can sometimes mess up the replacement logic.
              * React.ReactElement, if both React and ReactElement are resolvable then there are 2 instructions to
@@ -178,6 +283,25 @@ public class TypeAssistPsiUtil {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Purely syntactic version of {@link #collectResolvableReferences} which collects the names of all type references
+     * within the supplied {@code root} without resolving them. This makes it cheap enough to run over an entire project.
+     *
+     * <p>The same naming convention is used where only capitalized names are deemed types, and any name within
+     * {@code excludedNames} such as generic type parameters is skipped.</p>
+     *
+     * @param root          The {@code PsiElement} to begin searching for references.
+     * @param excludedNames Names to exclude, usually the result of {@link #collectGenericTypeParameters}.
+     * @return The distinct referenced type names in the order they first appear.
+     */
+    public static List<String> collectReferencedTypeNames(@NotNull PsiElement root, @NotNull Collection<String> excludedNames) {
+        return PsiTreeUtil.findChildrenOfType(root, JSReferenceExpression.class).stream()
+                .map(JSReferenceExpression::getReferenceName)
+                .filter(name -> name != null && StringUtil.isCapitalized(name) && !excludedNames.contains(name))
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
     /**
      * Collects all generic type parameters. The example below would return [Y, T, P]
      *
@@ -7,9 +7,10 @@ import documentation.objectProperties.TypeScriptObjectProperty;
 import settings.TypeAssistApplicationSettings;
 
 import java.util.List;
+import java.util.function.LongFunction;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.stream.LongStream;
 
 /**
  * Creates an array and assigns the generated code to a variable.
@@ -25,11 +26,11 @@ public class AssignableArrayCreator extends AssignableObjectCreator {
     public AssignableArrayCreator(List<TypeScriptObjectProperty> objectPropertyList,
                                   ArrayInsertInstruction insertInstruction,
                                   TypeDescription typeDescription,
-                                  TypeAssistApplicationSettings typeAssistApplicationSettings) {
-        super(objectPropertyList, typeDescription, typeAssistApplicationSettings);
+                                  CodeGenerationOptions codeGenerationOptions) {
+        super(objectPropertyList, typeDescription, codeGenerationOptions);
         this.insertInstruction = insertInstruction;
         this.typeDescription = typeDescription;
-        this.typeAssistApplicationSettings = typeAssistApplicationSettings;
+        this.typeAssistApplicationSettings = codeGenerationOptions.getTypeAssistApplicationSettings();
     }
 
     @Override
@@ -39,19 +40,20 @@ public class AssignableArrayCreator extends AssignableObjectCreator {
         // Code to add the the prefix and suffix of array contents.
         Supplier<String> preArrayBody = () -> new StringBuilder(typeAssistApplicationSettings.VARIABLE_DECLARATION.getCode())
                 .append(" ").append(StringUtil.decapitalize(StringUtil.pluralize(typeDescription.getTypeNameWithoutGenerics()))).append(": ")
-                .append(CodeGenerator.wrapInQuotesIfGeneric(typeDescription.getTypeName())).append("[]")
+                .append(CodeGenerator.toTypeAnnotation(typeDescription)).append("[]")
                 .append(" = [\n").toString();
         Supplier<String> postArrayBody = () -> "];\n";
 
-        // Generate single object
-        Supplier<String> generateSingleObject = () -> {
+        // Generate single object, the ordinal gives each object its own mock values.
+        LongFunction<String> generateSingleObject = ordinal -> {
             Supplier<String> preCodePerObject = () -> "{\n";
             Supplier<String> postCodePerObject = () -> "}";
-            return objectPropertyList.stream().collect(new CodeGeneratorCollector(preCodePerObject, postCodePerObject, typeAssistApplicationSettings));
+            return objectPropertyList.stream().collect(new CodeGeneratorCollector(preCodePerObject, postCodePerObject,
+                    codeGenerationOptions, 0, ordinal));
         };
 
-        String generatedObjects = Stream.generate(generateSingleObject)
-                .limit(insertInstruction.getSize())
+        String generatedObjects = LongStream.range(0, insertInstruction.getSize())
+                .mapToObj(generateSingleObject)
                 .collect(Collectors.joining(",\n", "", typeAssistApplicationSettings.TRAILING_COMMAS ? ",\n" : "\n"));
 
         return new StringBuilder()
@@ -17,13 +17,15 @@ public class AssignableObjectCreator implements CodeGenerator {
     protected List<TypeScriptObjectProperty> objectPropertyList;
     private TypeDescription typeDescription;
     private TypeAssistApplicationSettings typeAssistApplicationSettings;
+    protected CodeGenerationOptions codeGenerationOptions;
 
     public AssignableObjectCreator(List<TypeScriptObjectProperty> objectPropertyList,
                                    TypeDescription typeDescription,
-                                   TypeAssistApplicationSettings typeAssistApplicationSettings) {
+                                   CodeGenerationOptions codeGenerationOptions) {
         this.objectPropertyList = objectPropertyList;
         this.typeDescription = typeDescription;
-        this.typeAssistApplicationSettings = typeAssistApplicationSettings;
+        this.typeAssistApplicationSettings = codeGenerationOptions.getTypeAssistApplicationSettings();
+        this.codeGenerationOptions = codeGenerationOptions;
     }
 
     @Override
@@ -32,11 +34,11 @@ public class AssignableObjectCreator implements CodeGenerator {
 
         Supplier<String> preCode = () -> new StringBuilder(typeAssistApplicationSettings.VARIABLE_DECLARATION.getCode())
                 .append(" ").append(StringUtil.decapitalize(typeDescription.getTypeNameWithoutGenerics())).append(": ")
-                .append(CodeGenerator.wrapInQuotesIfGeneric(typeDescription.getTypeName()))
+                .append(CodeGenerator.toTypeAnnotation(typeDescription))
                 .append(" = {\n").toString();
 
         Supplier<String> postCode = () -> typeAssistApplicationSettings.END_WITH_SEMI_COLON ? "};\n" : "}\n";
 
-        return objectPropertyList.stream().collect(new CodeGeneratorCollector(preCode, postCode, typeAssistApplicationSettings));
+        return objectPropertyList.stream().collect(new CodeGeneratorCollector(preCode, postCode, codeGenerationOptions, 0, 0));
     }
 }
@@ -0,0 +1,72 @@
+package codeInsight.codeGeneration;
+
+import settings.TypeAssistApplicationSettings;
+
+/**
+ * Everything the {@code CodeGenerator}s and {@link CodeGeneratorCollector}s taking part in one generation share.
+ *
+ * <pre>
+ *     CodeGenerationOptions options = new CodeGenerationOptions.Builder(typeAssistApplicationSettings)
+ *             .nestedObjectExpander(new NestedObjectExpander(project, typeAssistApplicationSettings))
+ *             .build();
+ * </pre>
+ *
+ * <p>Nested objects are not expanded unless an expander is supplied and mock values follow the settings unless a
+ * generator is supplied.</p>
+ */
+public class CodeGenerationOptions {
+    private final TypeAssistApplicationSettings typeAssistApplicationSettings;
+    private final NestedObjectExpander nestedObjectExpander;
+    private final MockValueGenerator mockValueGenerator;
+
+    private CodeGenerationOptions(Builder builder) {
+        this.typeAssistApplicationSettings = builder.typeAssistApplicationSettings;
+        this.nestedObjectExpander = builder.nestedObjectExpander;
+        this.mockValueGenerator = builder.mockValueGenerator != null ? builder.mockValueGenerator :
+                MockValueGenerator.of(builder.typeAssistApplicationSettings);
+    }
+
+    public TypeAssistApplicationSettings getTypeAssistApplicationSettings() {
+        return typeAssistApplicationSettings;
+    }
+
+    public NestedObjectExpander getNestedObjectExpander() {
+        return nestedObjectExpander;
+    }
+
+    public MockValueGenerator getMockValueGenerator() {
+        return mockValueGenerator;
+    }
+
+    public static class Builder {
+        private final TypeAssistApplicationSettings typeAssistApplicationSettings;
+        private NestedObjectExpander nestedObjectExpander = NestedObjectExpander.none();
+        private MockValueGenerator mockValueGenerator;
+
+        public Builder(TypeAssistApplicationSettings typeAssistApplicationSettings) {
+            this.typeAssistApplicationSettings = typeAssistApplicationSettings;
+        }
+
+        /**
+         * @param nestedObjectExpander Expands object typed properties into nested objects, shared by every object
+         *                             generated so nested types are only expanded once.
+         */
+        public Builder nestedObjectExpander(NestedObjectExpander nestedObjectExpander) {
+            this.nestedObjectExpander = nestedObjectExpander;
+            return this;
+        }
+
+        /**
+         * @param mockValueGenerator Generates sample values in place of the quoted types, such as
+         *                           {@link MockValueGenerator#forJson} for JSON output.
+         */
+        public Builder mockValueGenerator(MockValueGenerator mockValueGenerator) {
+            this.mockValueGenerator = mockValueGenerator;
+            return this;
+        }
+
+        public CodeGenerationOptions build() {
+            return new CodeGenerationOptions(this);
+        }
+    }
+}
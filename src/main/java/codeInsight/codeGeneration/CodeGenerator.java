@@ -1,5 +1,7 @@
 package codeInsight.codeGeneration;
 
+import documentation.types.TypeDescription;
+
 /**
  * Created by matt on 29-May-17.
  */
@@ -18,4 +20,12 @@ public interface CodeGenerator {
         }
         return value;
     }
+
+    /**
+     * An instantiated type such as {@code Tree<string>} is a valid annotation, only declared type parameters such as
+     * {@code Tree<T>} need quoting.
+     */
+    static String toTypeAnnotation(TypeDescription typeDescription) {
+        return typeDescription.isInstantiated() ? typeDescription.getTypeName() : wrapInQuotesIfGeneric(typeDescription.getTypeName());
+    }
 }
@@ -4,6 +4,8 @@ import documentation.objectProperties.TypeScriptObjectProperty;
 import settings.TypeAssistApplicationSettings;
 
 import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.BinaryOperator;
@@ -23,19 +25,31 @@ public class CodeGeneratorCollector implements Collector<TypeScriptObjectPropert
     private final Supplier<String> preCode;
     private final Supplier<String> postCode;
     private TypeAssistApplicationSettings typeAssistApplicationSettings;
+    private final NestedObjectExpander nestedObjectExpander;
+    private final int depth;
+    private final MockValueGenerator mockValueGenerator;
+    private final long ordinal;
 
     /**
      *
      * @param preCode Code to insert before collecting property signatures.
      * @param postCode Code to insert after collecting property signatures.
-     * @param typeAssistApplicationSettings Plugin settings.
+     * @param codeGenerationOptions The settings, nested object expander and mock value generator of the generation.
+     * @param depth The nesting depth of the object being collected, 0 for the top level object.
+     * @param ordinal The index of the object within the generated array, 0 for a single object.
      */
     public CodeGeneratorCollector(Supplier<String> preCode,
                                   Supplier<String> postCode,
-                                  TypeAssistApplicationSettings typeAssistApplicationSettings) {
+                                  CodeGenerationOptions codeGenerationOptions,
+                                  int depth,
+                                  long ordinal) {
         this.preCode = preCode;
         this.postCode = postCode;
-        this.typeAssistApplicationSettings = typeAssistApplicationSettings;
+        this.typeAssistApplicationSettings = codeGenerationOptions.getTypeAssistApplicationSettings();
+        this.nestedObjectExpander = codeGenerationOptions.getNestedObjectExpander();
+        this.depth = depth;
+        this.mockValueGenerator = codeGenerationOptions.getMockValueGenerator();
+        this.ordinal = ordinal;
     }
 
     @Override
@@ -45,25 +59,38 @@ public class CodeGeneratorCollector implements Collector<TypeScriptObjectPropert
 
     @Override
     public BiConsumer<StringBuilder, TypeScriptObjectProperty> accumulator() {
-        return (sb, propertyValue) -> {
-            // Turn into a js string so the user knows the types they need to implement. Additional tooling will use
-            // this as a marker to draw highlights etc.
-
-            String type;
-            if (propertyValue.getPropertyType().contains(" ")) {
-                /*
-                 * Could be a union type which requires all values to be wrapped in a single string for highlighting.
-                 * Its simpler to escape string using double quote which relies upon only single quotes existing.
-                 */
-                type = propertyValue.getPropertyType().replaceAll("[\"]", "'");
-                type = wrapInQuotes(type);
-            } else {
-                type = wrapInQuotes(propertyValue.getPropertyType());
-            }
-
-            String propertyName = propertyValue.getCodeGenPropertyName().orElse(MISSING_PROPERTY_NAME);
-            sb.append(propertyName).append(": ").append(type).append(",").append("\n");
-        };
+        return (sb, propertyValue) -> accumulate(sb, propertyValue, ordinal);
+    }
+
+    /**
+     * The same as collecting {@code properties} with this collector except the object is generated for
+     * {@code ordinal}, so one collector can generate every element of a large array.
+     */
+    public void collect(StringBuilder sb, List<TypeScriptObjectProperty> properties, long ordinal) {
+        StringBuilder generatedCode = new StringBuilder();
+        for (TypeScriptObjectProperty property : properties) {
+            accumulate(generatedCode, property, ordinal);
+        }
+        sb.append(finisher().apply(generatedCode));
+    }
+
+    private void accumulate(StringBuilder sb, TypeScriptObjectProperty propertyValue, long ordinal) {
+        String propertyName = propertyValue.getCodeGenPropertyName().orElse(MISSING_PROPERTY_NAME);
+        Optional<String> nestedObject = nestedObjectExpander.expand(propertyValue, depth, ordinal);
+        if (nestedObject.isPresent()) {
+            sb.append(propertyName).append(": ").append(nestedObject.get()).append(",").append("\n");
+            return;
+        }
+
+        Optional<String> mockValue = mockValueGenerator.valueOf(propertyValue, ordinal);
+        if (mockValue.isPresent()) {
+            sb.append(propertyName).append(": ").append(mockValue.get()).append(",").append("\n");
+            return;
+        }
+
+        String quotedType = toQuotedType(propertyValue.getPropertyType());
+        nestedObjectExpander.addPlaceholder(quotedType);
+        sb.append(propertyName).append(": ").append(quotedType).append(",").append("\n");
     }
 
     @Override
@@ -91,7 +118,22 @@ public class CodeGeneratorCollector implements Collector<TypeScriptObjectPropert
         return EnumSet.noneOf(Characteristics.class);
     }
 
-    private String wrapInQuotes(String value) {
-        return String.format("%s%s%s", "\"", value, "\"");
+    /**
+     * Turn into a js string so the user knows the types they need to implement. Additional tooling will use
+     * this as a marker to draw highlights etc.
+     */
+    static String toQuotedType(String propertyType) {
+        if (propertyType.contains(" ")) {
+            /*
+             * Could be a union type which requires all values to be wrapped in a single string for highlighting.
+             * Its simpler to escape string using double quote which relies upon only single quotes existing.
+             */
+            return wrapInQuotes(propertyType.replace('"', '\''));
+        }
+        return wrapInQuotes(propertyType);
+    }
+
+    private static String wrapInQuotes(String value) {
+        return "\"" + value + "\"";
     }
 }
\ No newline at end of file
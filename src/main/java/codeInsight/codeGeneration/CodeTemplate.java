@@ -0,0 +1,233 @@
+package codeInsight.codeGeneration;
+
+import cache.PluginCache;
+import documentation.objectProperties.TypeScriptObjectProperty;
+
+import java.util.*;
+
+/**
+ * A user defined layout for generated code, compiled once into a flat list of ops so rendering is a single loop
+ * over an {@code int[]} with no re-parsing.
+ *
+ * <pre>
+ *     export function create{{typeName}}(): {{typeAnnotation}} {
+ *         return {
+ *     {{#properties}}        {{name}}: {{value}}{{,}}
+ *     {{/properties}}    };
+ *     }
+ * </pre>
+ *
+ * <p>Tags available anywhere are {@code {{typeName}}}, {@code {{typeAnnotation}}} and {@code {{variableName}}}.
+ * The section between {@code {{#properties}}} and {@code {{/properties}}} is repeated for each property which
+ * makes {@code {{name}}}, {@code {{type}}}, {@code {{value}}}, {@code {{jsonValue}}}, {@code {{optional}}},
+ * {@code {{readonly}}} and {@code {{,}}} available, the last being a comma for every property except the last.</p>
+ */
+public class CodeTemplate {
+
+    private static final int MAX_COMPILED_TEMPLATES = 16;
+    private static final PluginCache<String, CodeTemplate> COMPILED = new PluginCache.Builder<String, CodeTemplate>("Code templates")
+            .maxEntries(MAX_COMPILED_TEMPLATES)
+            .weigher(CodeTemplate::estimateBytes)
+            .build();
+
+    // Op codes, LITERAL and PROPERTIES_START are followed by an operand.
+    private static final int LITERAL = 0;
+    private static final int TYPE_NAME = 1;
+    private static final int TYPE_ANNOTATION = 2;
+    private static final int VARIABLE_NAME = 3;
+    private static final int PROPERTIES_START = 4;
+    private static final int PROPERTIES_END = 5;
+    private static final int NAME = 6;
+    private static final int TYPE = 7;
+    private static final int VALUE = 8;
+    private static final int JSON_VALUE = 9;
+    private static final int OPTIONAL = 10;
+    private static final int READONLY = 11;
+    private static final int SEPARATOR = 12;
+
+    private static final Map<String, Integer> TAGS = new HashMap<>();
+
+    static {
+        TAGS.put("typeName", TYPE_NAME);
+        TAGS.put("typeAnnotation", TYPE_ANNOTATION);
+        TAGS.put("variableName", VARIABLE_NAME);
+        TAGS.put("#properties", PROPERTIES_START);
+        TAGS.put("/properties", PROPERTIES_END);
+        TAGS.put("name", NAME);
+        TAGS.put("type", TYPE);
+        TAGS.put("value", VALUE);
+        TAGS.put("jsonValue", JSON_VALUE);
+        TAGS.put("optional", OPTIONAL);
+        TAGS.put("readonly", READONLY);
+        TAGS.put(",", SEPARATOR);
+    }
+
+    private final int[] ops;
+    private final String[] literals;
+    // Rough size of the literal text, used to presize the output.
+    private final int literalLength;
+
+    private CodeTemplate(int[] ops, String[] literals, int literalLength) {
+        this.ops = ops;
+        this.literals = literals;
+        this.literalLength = literalLength;
+    }
+
+    /**
+     * Compiles the template, reusing the previous compilation of the same source.
+     *
+     * @throws IllegalArgumentException If the template contains an unknown tag or unbalanced section.
+     */
+    public static CodeTemplate of(String source) {
+        CodeTemplate compiled = COMPILED.get(source);
+        if (compiled != null) return compiled;
+
+        compiled = compile(source);
+        COMPILED.put(source, compiled);
+        return compiled;
+    }
+
+    /**
+     * @throws IllegalArgumentException If the template contains an unknown tag or unbalanced section.
+     */
+    public static CodeTemplate compile(String source) {
+        List<Integer> ops = new ArrayList<>();
+        List<String> literals = new ArrayList<>();
+        int literalLength = 0;
+        int propertiesStart = -1;
+
+        int i = 0;
+        while (i < source.length()) {
+            int open = source.indexOf("{{", i);
+            int literalEnd = open == -1 ? source.length() : open;
+            if (literalEnd > i) {
+                ops.add(LITERAL);
+                ops.add(literals.size());
+                literals.add(source.substring(i, literalEnd));
+                literalLength += literalEnd - i;
+            }
+            if (open == -1) break;
+
+            int close = source.indexOf("}}", open + 2);
+            if (close == -1) throw new IllegalArgumentException("Unclosed tag at offset " + open);
+
+            String tag = source.substring(open + 2, close).trim();
+            Integer op = TAGS.get(tag);
+            if (op == null) throw new IllegalArgumentException("Unknown tag {{" + tag + "}} at offset " + open);
+
+            boolean inProperties = propertiesStart != -1;
+            if (op == PROPERTIES_START) {
+                if (inProperties) throw new IllegalArgumentException("Nested {{#properties}} at offset " + open);
+                propertiesStart = ops.size();
+                ops.add(PROPERTIES_START);
+                // Operand is the index of the matching PROPERTIES_END, filled in when it is found.
+                ops.add(-1);
+            } else if (op == PROPERTIES_END) {
+                if (!inProperties) throw new IllegalArgumentException("{{/properties}} without {{#properties}} at offset " + open);
+                ops.set(propertiesStart + 1, ops.size());
+                ops.add(PROPERTIES_END);
+                propertiesStart = -1;
+            } else if (op >= NAME && !inProperties) {
+                throw new IllegalArgumentException("{{" + tag + "}} must be within {{#properties}} at offset " + open);
+            } else {
+                ops.add(op);
+            }
+            i = close + 2;
+        }
+
+        if (propertiesStart != -1) throw new IllegalArgumentException("{{#properties}} is not closed");
+
+        int[] compiledOps = new int[ops.size()];
+        for (int op = 0; op < compiledOps.length; op++) compiledOps[op] = ops.get(op);
+        return new CodeTemplate(compiledOps, literals.toArray(new String[0]), literalLength);
+    }
+
+    /**
+     * @param properties The properties repeated by the {@code {{#properties}}} section.
+     * @param context    Supplies the value of each tag.
+     */
+    public String render(List<TypeScriptObjectProperty> properties, TemplateContext context) {
+        StringBuilder sb = new StringBuilder(literalLength + properties.size() * 32);
+        int size = properties.size();
+        int propertyIndex = 0;
+        int sectionStart = 0;
+        TypeScriptObjectProperty property = null;
+
+        int pc = 0;
+        while (pc < ops.length) {
+            switch (ops[pc]) {
+                case LITERAL:
+                    sb.append(literals[ops[++pc]]);
+                    break;
+                case TYPE_NAME:
+                    sb.append(context.getTypeName());
+                    break;
+                case TYPE_ANNOTATION:
+                    sb.append(context.getTypeAnnotation());
+                    break;
+                case VARIABLE_NAME:
+                    sb.append(context.getVariableName());
+                    break;
+                case PROPERTIES_START:
+                    if (size == 0) {
+                        // Jump past the matching PROPERTIES_END.
+                        pc = ops[pc + 1];
+                        break;
+                    }
+                    propertyIndex = 0;
+                    property = properties.get(0);
+                    // Skip the operand, the loop increment then moves to the first op of the section.
+                    sectionStart = ++pc;
+                    break;
+                case PROPERTIES_END:
+                    if (++propertyIndex < size) {
+                        property = properties.get(propertyIndex);
+                        pc = sectionStart;
+                    }
+                    break;
+                case NAME:
+                    sb.append(property.getCodeGenPropertyName().orElse(""));
+                    break;
+                case TYPE:
+                    sb.append(property.getPropertyType());
+                    break;
+                case VALUE:
+                    sb.append(context.getValue(property));
+                    break;
+                case JSON_VALUE:
+                    sb.append(context.getJsonValue(property));
+                    break;
+                case OPTIONAL:
+                    if (property.isOptional()) sb.append('?');
+                    break;
+                case READONLY:
+                    if (property.isReadOnly()) sb.append("readonly ");
+                    break;
+                case SEPARATOR:
+                    if (propertyIndex < size - 1) sb.append(',');
+                    break;
+            }
+            pc++;
+        }
+        return sb.toString();
+    }
+
+    private static long estimateBytes(CodeTemplate template) {
+        return 48 + 4L * template.ops.length + 2L * template.literalLength + 40L * template.literals.length;
+    }
+
+    /**
+     * Supplies the values of tags which depend on the type being generated.
+     */
+    public interface TemplateContext {
+        String getTypeName();
+
+        String getTypeAnnotation();
+
+        String getVariableName();
+
+        String getValue(TypeScriptObjectProperty property);
+
+        String getJsonValue(TypeScriptObjectProperty property);
+    }
+}
@@ -0,0 +1,108 @@
+package codeInsight.codeGeneration;
+
+import settings.TypeAssistApplicationSettings;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the contents of a fixtures file which contains an example object for every type declared in a module.
+ *
+ * <pre>
+ *     // person.fixtures.ts
+ *     import { Person, Address } from './person';
+ *
+ *     export const person: Person = {
+ *         firstName: "string",
+ *         address: "Address"
+ *     };
+ * </pre>
+ *
+ * <p>Since the file is written straight to disk without going through a {@code Document}, the formatter is never run.
+ * Each line is therefore indented here based on the nesting of braces and brackets.</p>
+ */
+public class FixtureFileCreator implements CodeGenerator {
+
+    private String sourceFileName;
+    private String moduleName;
+    private List<String> typeNames;
+    private List<String> generatedObjects;
+    private String indent;
+    private TypeAssistApplicationSettings typeAssistApplicationSettings;
+
+    /**
+     * @param sourceFileName                The file the types are declared in, eg 'person.d.ts'.
+     * @param moduleName                    The module to import from without the file extension, eg 'person'.
+     * @param typeNames                     The type names to import.
+     * @param generatedObjects              The code created by {@code AssignableObjectCreator} for each type, which
+     *                                      may be preceded by comment lines.
+     * @param indent                        The indent to use for each level of nesting.
+     * @param typeAssistApplicationSettings Plugin settings.
+     */
+    public FixtureFileCreator(String sourceFileName,
+                              String moduleName,
+                              List<String> typeNames,
+                              List<String> generatedObjects,
+                              String indent,
+                              TypeAssistApplicationSettings typeAssistApplicationSettings) {
+        this.sourceFileName = sourceFileName;
+        this.moduleName = moduleName;
+        this.typeNames = typeNames;
+        this.generatedObjects = generatedObjects;
+        this.indent = indent;
+        this.typeAssistApplicationSettings = typeAssistApplicationSettings;
+    }
+
+    @Override
+    public String generate() {
+        String quote = typeAssistApplicationSettings.STRING_STYLE.getStyleToken();
+        String semiColon = typeAssistApplicationSettings.END_WITH_SEMI_COLON ? ";" : "";
+
+        StringBuilder sb = new StringBuilder()
+                .append("// Generated by Typescript Type Assist from ").append(sourceFileName).append("\n")
+                .append(typeNames.stream().collect(Collectors.joining(", ", "import { ", " } from ")))
+                .append(quote).append("./").append(moduleName).append(quote).append(semiColon).append("\n");
+
+        for (String generatedObject : generatedObjects) {
+            sb.append("\n").append(indentLines(export(generatedObject)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Exports the declaration following any leading comment lines.
+     */
+    private static String export(String generatedObject) {
+        int declaration = 0;
+        while (generatedObject.startsWith("//", declaration)) {
+            int nextLine = generatedObject.indexOf('\n', declaration) + 1;
+            if (nextLine == 0) break;
+            declaration = nextLine;
+        }
+        return generatedObject.substring(0, declaration) + "export " + generatedObject.substring(declaration);
+    }
+
+    /**
+     * Indents each line by the current depth where the depth increases for each line ending with an opening brace or
+     * bracket and decreases for each line starting with a closing brace or bracket.
+     */
+    private String indentLines(String code) {
+        StringBuilder sb = new StringBuilder(code.length() * 2);
+        int depth = 0;
+
+        for (String line : code.split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("}") || trimmed.startsWith("]")) {
+                depth = Math.max(0, depth - 1);
+            }
+            for (int i = 0; i < depth; i++) {
+                sb.append(indent);
+            }
+            sb.append(trimmed).append("\n");
+            if (trimmed.endsWith("{") || trimmed.endsWith("[")) {
+                depth++;
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,36 @@
+package codeInsight.codeGeneration;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The code generated for a type along with the quoted types within it that are left for the user to fill in.
+ */
+public class GeneratedCode {
+    private final String code;
+    private final Set<String> placeholders;
+
+    /**
+     * @param placeholders The text of each quoted type written in place of a value, such as {@code "string"}.
+     */
+    public GeneratedCode(String code, Set<String> placeholders) {
+        this.code = code;
+        this.placeholders = Collections.unmodifiableSet(new HashSet<>(placeholders));
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * @return {@code true} if {@code literal} is a quoted type rather than a generated value such as mock data.
+     */
+    public boolean isPlaceholder(String literal) {
+        return placeholders.contains(literal);
+    }
+
+    public Set<String> getPlaceholders() {
+        return placeholders;
+    }
+}
@@ -0,0 +1,153 @@
+package codeInsight.codeGeneration;
+
+import cache.PluginCache;
+import codeInsight.instructions.ArrayInsertInstruction;
+import codeInsight.instructions.InsertInstruction;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import metrics.Counter;
+import metrics.PluginMetrics;
+import org.jetbrains.annotations.Nullable;
+import settings.TypeAssistApplicationSettings;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Remembers generated code so triggering Create Object on the same type again, which happens constantly in test
+ * files, is a lookup rather than another run of the collectors.
+ *
+ * <p>Entries are keyed by the declaration, its type arguments at the usage, the insert context and the code generation
+ * settings, all known before the members of the type are collected. The cache is held per project in a small LRU.
+ * Each entry records the modification stamp of the files declaring the type, its inherited members and the nested
+ * types that were expanded, and is dropped once any of them changes. Edits elsewhere, including inserting the
+ * generated code, keep the entry.</p>
+ */
+public class GeneratedCodeCache {
+
+    private static final int MAX_CACHED_CODE = 64;
+    // Huge arrays such as Person[100000] are cheap to regenerate relative to the memory they would hold onto.
+    private static final int MAX_CACHED_CODE_LENGTH = 256 * 1024;
+    private static final long MAX_CACHED_WEIGHT = 4 * 1024 * 1024;
+
+    /**
+     * @return The cached code, {@code null} if there is none or one of its declaring files has changed since.
+     */
+    @Nullable
+    public static GeneratedCode get(Project project, Key key) {
+        PluginCache<Key, Entry> cache = getCache(project);
+        Entry cached = cache.get(key);
+        if (cached != null && cached.isUpToDate()) {
+            PluginMetrics.increment(Counter.GeneratedCodeCacheHits);
+            return cached.generated;
+        }
+        if (cached != null) cache.remove(key);
+        PluginMetrics.increment(Counter.GeneratedCodeCacheMisses);
+        return null;
+    }
+
+    /**
+     * @param declaringFiles The files the generated code was read from.
+     */
+    public static void put(Project project, Key key, GeneratedCode generated, Collection<PsiFile> declaringFiles) {
+        // Empty code is a failed generation which should be retried.
+        String code = generated.getCode();
+        if (!code.isEmpty() && code.length() <= MAX_CACHED_CODE_LENGTH) {
+            getCache(project).put(key, new Entry(generated, declaringFiles));
+        }
+    }
+
+    private static PluginCache<Key, Entry> getCache(Project project) {
+        // Entries check their own files, so the cache lives as long as the project.
+        return CachedValuesManager.getManager(project).getCachedValue(project, () ->
+                CachedValueProvider.Result.create(createCache(), ModificationTracker.NEVER_CHANGED));
+    }
+
+    private static PluginCache<Key, Entry> createCache() {
+        return new PluginCache.Builder<Key, Entry>("Generated code")
+                .maxEntries(MAX_CACHED_CODE)
+                .maxWeight(MAX_CACHED_WEIGHT)
+                .weigher(entry -> PluginCache.estimateBytes(entry.generated.getCode())
+                        + entry.generated.getPlaceholders().stream().mapToLong(PluginCache::estimateBytes).sum())
+                .build();
+    }
+
+    private static class Entry {
+        private final GeneratedCode generated;
+        private final Map<PsiFile, Long> modificationStamps = new HashMap<>();
+
+        private Entry(GeneratedCode generated, Collection<PsiFile> declaringFiles) {
+            this.generated = generated;
+            for (PsiFile file : declaringFiles) {
+                modificationStamps.put(file, file.getModificationStamp());
+            }
+        }
+
+        private boolean isUpToDate() {
+            return modificationStamps.entrySet().stream().allMatch(stamp ->
+                    stamp.getKey().isValid() && stamp.getKey().getModificationStamp() == stamp.getValue());
+        }
+    }
+
+    /**
+     * Identifies generated code by everything that affects its output other than the content of the declaring files,
+     * which each entry checks itself.
+     */
+    public static class Key {
+        private final Object declaration;
+        private final List<String> typeArguments;
+        private final String createContext;
+        private final long size;
+        private final boolean isLastProperty;
+        private final long settingsHash;
+
+        private Key(Object declaration, List<String> typeArguments, String createContext, long size,
+                    boolean isLastProperty, long settingsHash) {
+            this.declaration = declaration;
+            this.typeArguments = typeArguments;
+            this.createContext = createContext;
+            this.size = size;
+            this.isLastProperty = isLastProperty;
+            this.settingsHash = settingsHash;
+        }
+
+        /**
+         * @param declaration   Identifies the declaration, the resolved {@code PsiElement} or for a type only found in
+         *                      the {@code TypeShapeIndex} its file path and name. Compared by {@code equals}.
+         * @param typeArguments The type arguments at the usage such as {@code [string]} for {@code Tree<string>}.
+         */
+        public static Key of(Object declaration,
+                             List<String> typeArguments,
+                             InsertInstruction insertInstruction,
+                             TypeAssistApplicationSettings typeAssistApplicationSettings) {
+            long size = insertInstruction instanceof ArrayInsertInstruction ? ((ArrayInsertInstruction) insertInstruction).getSize() : 1;
+            return new Key(declaration, new ArrayList<>(typeArguments), insertInstruction.getCreateContext().name(),
+                    size, insertInstruction.isLastProperty(), typeAssistApplicationSettings.codeGenerationHash());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return size == key.size &&
+                    isLastProperty == key.isLastProperty &&
+                    settingsHash == key.settingsHash &&
+                    declaration.equals(key.declaration) &&
+                    typeArguments.equals(key.typeArguments) &&
+                    createContext.equals(key.createContext);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(declaration, typeArguments, createContext, size, isLastProperty, settingsHash);
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package codeInsight.codeGeneration;
+
+import documentation.objectProperties.TypeScriptObjectProperty;
+import settings.TypeAssistApplicationSettings;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Generates realistic sample values for properties rather than their quoted type names.
+ *
+ * <pre>
+ *     firstName: 'string'   becomes   firstName: 'Olivia'
+ *     role: 'admin' | 'user'   becomes   role: 'user'
+ * </pre>
+ *
+ * <p>Values are derived by hashing the seed, the property name and the ordinal of the object within the generated
+ * array so the same seed always produces the same data. Each value is a handful of arithmetic operations plus a table
+ * lookup, there are no regular expressions or intermediate collections which keeps very large arrays cheap. An
+ * instance is not thread safe and is meant to be used for a single generation.</p>
+ */
+public class MockValueGenerator {
+
+    private static final MockValueGenerator NONE = new MockValueGenerator(false, 0, "'", false);
+
+    private static final String[] FIRST_NAMES = {
+            "Olivia", "Liam", "Emma", "Noah", "Ava", "Oliver", "Sophia", "Elijah", "Isabella", "James",
+            "Mia", "William", "Charlotte", "Lucas", "Amelia", "Henry", "Harper", "Jack", "Evelyn", "Leo"
+    };
+    private static final String[] LAST_NAMES = {
+            "Smith", "Jones", "Williams", "Brown", "Taylor", "Wilson", "Johnson", "Martin", "Lee", "Walker",
+            "White", "Harris", "Clark", "Lewis", "Young", "King", "Wright", "Scott", "Green", "Baker"
+    };
+    private static final String[] FIRST_NAMES_LOWER = toLowerCase(FIRST_NAMES);
+    private static final String[] LAST_NAMES_LOWER = toLowerCase(LAST_NAMES);
+    private static final String[] CITIES = {
+            "Melbourne", "Sydney", "London", "Berlin", "Paris", "Tokyo", "Toronto", "Madrid", "Oslo", "Dublin"
+    };
+    private static final String[] STREETS = {
+            "High Street", "Station Road", "Church Lane", "Park Avenue", "Mill Road", "King Street", "Queen Street"
+    };
+    private static final String[] COUNTRIES = {
+            "Australia", "United Kingdom", "Germany", "France", "Japan", "Canada", "Spain", "Norway", "Ireland"
+    };
+    private static final String[] WORDS = {
+            "lorem", "ipsum", "dolor", "sit", "amet", "consectetur", "adipiscing", "elit", "sed", "tempor",
+            "incididunt", "labore", "magna", "aliqua", "enim", "minim", "veniam", "quis", "nostrud", "ullamco"
+    };
+
+    // 2000-01-01 to 2025-01-01 in days since the epoch.
+    private static final long MIN_EPOCH_DAY = 10957;
+    private static final long EPOCH_DAY_RANGE = 9132;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private final boolean enabled;
+    private final long seed;
+    private final String quote;
+    private final boolean json;
+
+    // The kind of value is decided by the property name, which only needs working out once per name.
+    private final Map<String, StringKind> stringKinds = new HashMap<>();
+    private final Map<String, NumberKind> numberKinds = new HashMap<>();
+
+    private MockValueGenerator(boolean enabled, long seed, String quote, boolean json) {
+        this.enabled = enabled;
+        this.seed = seed;
+        this.quote = quote;
+        this.json = json;
+    }
+
+    /**
+     * @return A generator using the seed and string style from the settings, or {@link #none()} when mock data is
+     * turned off.
+     */
+    public static MockValueGenerator of(TypeAssistApplicationSettings typeAssistApplicationSettings) {
+        if (!typeAssistApplicationSettings.MOCK_DATA) return NONE;
+        return new MockValueGenerator(true, typeAssistApplicationSettings.MOCK_DATA_SEED,
+                typeAssistApplicationSettings.STRING_STYLE.getStyleToken(), false);
+    }
+
+    /**
+     * The same as {@link #of} except values are valid JSON, strings are always double quoted and dates are written
+     * as ISO strings.
+     */
+    public static MockValueGenerator forJson(TypeAssistApplicationSettings typeAssistApplicationSettings) {
+        if (!typeAssistApplicationSettings.MOCK_DATA) return NONE;
+        return new MockValueGenerator(true, typeAssistApplicationSettings.MOCK_DATA_SEED, "\"", true);
+    }
+
+    /**
+     * @return A generator that never produces values, preserving the original behaviour of quoting every type.
+     */
+    public static MockValueGenerator none() {
+        return NONE;
+    }
+
+    /**
+     * @return {@code false} if no values are ever generated.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param property The property to generate a value for.
+     * @param ordinal  The index of the object within the generated array, 0 for a single object.
+     * @return The TypeScript value, or empty if the type is not one that can be mocked.
+     */
+    public Optional<String> valueOf(TypeScriptObjectProperty property, long ordinal) {
+        if (!enabled) return Optional.empty();
+
+        String name = property.getCodeGenPropertyName().orElse("");
+        long hash = mix(seed ^ mix(name.hashCode() + 0x9E3779B97F4A7C15L * (ordinal + 1)));
+        String value = valueOf(name, property.getPropertyType().trim(), ordinal, hash);
+        return Optional.ofNullable(value);
+    }
+
+    private String valueOf(String name, String type, long ordinal, long hash) {
+        if (type.indexOf('|') != -1) return unionValueOf(name, type, ordinal, hash);
+
+        if (type.endsWith("[]")) {
+            String elementType = type.substring(0, type.length() - 2).trim();
+            if (!isPrimitive(elementType)) return null;
+            StringBuilder sb = new StringBuilder("[");
+            int size = 1 + (int) (Long.remainderUnsigned(hash, 3));
+            for (int i = 0; i < size; i++) {
+                if (i > 0) sb.append(", ");
+                sb.append(valueOf(name, elementType, ordinal, mix(hash + i)));
+            }
+            return sb.append("]").toString();
+        }
+
+        switch (type) {
+            case "string":
+                return stringValueOf(name, ordinal, hash);
+            case "number":
+                return numberValueOf(name, ordinal, hash);
+            case "boolean":
+                return (hash & 1) == 0 ? "true" : "false";
+            case "Date":
+                return json ? quoted(isoDate(hash)) : "new Date(" + dateMillis(hash) + ")";
+            case "null":
+                return "null";
+            case "undefined":
+                return json ? "null" : "undefined";
+            default:
+                return isLiteral(type) ? literalValueOf(type) : null;
+        }
+    }
+
+    /**
+     * Picks one member of a union such as {@code 'admin' | 'user'} or {@code string | null}. Literals are preferred
+     * as they are the most meaningful value, otherwise the first primitive member is mocked.
+     */
+    private String unionValueOf(String name, String type, long ordinal, long hash) {
+        // Unions nested within generics, function or object types are not split.
+        if (type.indexOf('<') != -1 || type.indexOf('(') != -1 || type.indexOf('{') != -1) return null;
+
+        int literals = 0;
+        int start = 0;
+        String firstPrimitive = null;
+        while (start <= type.length()) {
+            int end = nextUnionSeparator(type, start);
+            String member = type.substring(start, end).trim();
+            if (isLiteral(member)) literals++;
+            else if (firstPrimitive == null && isPrimitive(member)) firstPrimitive = member;
+            start = end + 1;
+        }
+
+        if (literals > 0) {
+            long pick = Long.remainderUnsigned(hash, literals);
+            start = 0;
+            while (start <= type.length()) {
+                int end = nextUnionSeparator(type, start);
+                String member = type.substring(start, end).trim();
+                if (isLiteral(member) && pick-- == 0) return literalValueOf(member);
+                start = end + 1;
+            }
+        }
+        return firstPrimitive == null ? null : valueOf(name, firstPrimitive, ordinal, hash);
+    }
+
+    private String stringValueOf(String name, long ordinal, long hash) {
+        switch (stringKinds.computeIfAbsent(name, MockValueGenerator::classifyString)) {
+            case EMAIL:
+                return quoted(pick(FIRST_NAMES_LOWER, hash) + "." + pick(LAST_NAMES_LOWER, mix(hash)) + "@example.com");
+            case FIRST_NAME:
+                return quoted(pick(FIRST_NAMES, hash));
+            case LAST_NAME:
+                return quoted(pick(LAST_NAMES, hash));
+            case FULL_NAME:
+                return quoted(pick(FIRST_NAMES, hash) + " " + pick(LAST_NAMES, mix(hash)));
+            case CITY:
+                return quoted(pick(CITIES, hash));
+            case COUNTRY:
+                return quoted(pick(COUNTRIES, hash));
+            case STREET:
+                return quoted((1 + Long.remainderUnsigned(hash, 200)) + " " + pick(STREETS, mix(hash)));
+            case URL:
+                return quoted("https://example.com/" + pick(WORDS, hash) + "/" + (ordinal + 1));
+            case DATE:
+                return quoted(isoDate(hash));
+            case ID:
+                return quoted(Long.toHexString(hash));
+            default:
+                return quoted(pick(WORDS, hash) + " " + pick(WORDS, mix(hash)));
+        }
+    }
+
+    private String numberValueOf(String name, long ordinal, long hash) {
+        switch (numberKinds.computeIfAbsent(name, MockValueGenerator::classifyNumber)) {
+            case ID:
+                return Long.toString(ordinal + 1);
+            case AGE:
+                return Long.toString(18 + Long.remainderUnsigned(hash, 63));
+            case YEAR:
+                return Long.toString(1970 + Long.remainderUnsigned(hash, 56));
+            case MONEY:
+                long cents = Long.remainderUnsigned(hash, 100_000);
+                long remainder = cents % 100;
+                return (cents / 100) + (remainder < 10 ? ".0" : ".") + remainder;
+            default:
+                return Long.toString(Long.remainderUnsigned(hash, 1000));
+        }
+    }
+
+    private static StringKind classifyString(String name) {
+        if (containsIgnoreCase(name, "email")) return StringKind.EMAIL;
+        if (containsIgnoreCase(name, "firstName")) return StringKind.FIRST_NAME;
+        if (containsIgnoreCase(name, "lastName") || containsIgnoreCase(name, "surname")) return StringKind.LAST_NAME;
+        if (containsIgnoreCase(name, "name")) return StringKind.FULL_NAME;
+        if (containsIgnoreCase(name, "city")) return StringKind.CITY;
+        if (containsIgnoreCase(name, "country")) return StringKind.COUNTRY;
+        if (containsIgnoreCase(name, "street") || containsIgnoreCase(name, "address")) return StringKind.STREET;
+        if (containsIgnoreCase(name, "url")) return StringKind.URL;
+        if (containsIgnoreCase(name, "date") || name.endsWith("At")) return StringKind.DATE;
+        if (name.equals("id") || name.endsWith("Id")) return StringKind.ID;
+        return StringKind.WORDS;
+    }
+
+    private static NumberKind classifyNumber(String name) {
+        if (name.equals("id") || name.endsWith("Id")) return NumberKind.ID;
+        if (isNamed(name, "age")) return NumberKind.AGE;
+        if (isNamed(name, "year")) return NumberKind.YEAR;
+        if (containsIgnoreCase(name, "price") || containsIgnoreCase(name, "amount") || containsIgnoreCase(name, "total")) {
+            return NumberKind.MONEY;
+        }
+        return NumberKind.NUMBER;
+    }
+
+    /**
+     * Requotes a string literal using the configured string style, numeric and boolean literals are returned as is.
+     */
+    private String literalValueOf(String literal) {
+        char first = literal.charAt(0);
+        if (first != '\'' && first != '"') return literal;
+        String value = literal.substring(1, literal.length() - 1);
+        if (json) return quoted(value);
+        // Keep the original quotes rather than escape, eg "it's" cannot be single quoted.
+        return value.contains(quote) ? literal : quoted(value);
+    }
+
+    private String quoted(String value) {
+        if (json && (value.indexOf('"') != -1 || value.indexOf('\\') != -1)) {
+            return quote + value.replace("\\", "\\\\").replace("\"", "\\\"") + quote;
+        }
+        return quote + value + quote;
+    }
+
+    private static String isoDate(long hash) {
+        return LocalDate.ofEpochDay(MIN_EPOCH_DAY + Long.remainderUnsigned(hash, EPOCH_DAY_RANGE)).toString();
+    }
+
+    private static long dateMillis(long hash) {
+        return (MIN_EPOCH_DAY + Long.remainderUnsigned(hash, EPOCH_DAY_RANGE)) * MILLIS_PER_DAY;
+    }
+
+    private static int nextUnionSeparator(String type, int from) {
+        boolean inString = false;
+        char quoteChar = 0;
+        for (int i = from; i < type.length(); i++) {
+            char c = type.charAt(i);
+            if (inString) {
+                if (c == quoteChar) inString = false;
+            } else if (c == '\'' || c == '"') {
+                inString = true;
+                quoteChar = c;
+            } else if (c == '|') {
+                return i;
+            }
+        }
+        return type.length();
+    }
+
+    private static boolean isPrimitive(String type) {
+        return type.equals("string") || type.equals("number") || type.equals("boolean") || type.equals("Date");
+    }
+
+    private static boolean isLiteral(String type) {
+        if (type.isEmpty()) return false;
+        char first = type.charAt(0);
+        if ((first == '\'' || first == '"') && type.length() >= 2) return type.charAt(type.length() - 1) == first;
+        if (type.equals("true") || type.equals("false")) return true;
+
+        int start = first == '-' ? 1 : 0;
+        if (start == type.length()) return false;
+        for (int i = start; i < type.length(); i++) {
+            char c = type.charAt(i);
+            if (!Character.isDigit(c) && c != '.') return false;
+        }
+        return true;
+    }
+
+    private static boolean containsIgnoreCase(String value, String part) {
+        int max = value.length() - part.length();
+        for (int i = 0; i <= max; i++) {
+            if (value.regionMatches(true, i, part, 0, part.length())) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return {@code true} if {@code name} is exactly {@code word} or ends with it as a camel case word, {@code age}
+     * and {@code userAge} match but {@code page} does not.
+     */
+    private static boolean isNamed(String name, String word) {
+        if (name.equalsIgnoreCase(word)) return true;
+        int start = name.length() - word.length();
+        return start > 0 && Character.isUpperCase(name.charAt(start))
+                && name.regionMatches(true, start, word, 0, word.length());
+    }
+
+    private static String pick(String[] values, long hash) {
+        return values[(int) Long.remainderUnsigned(hash, values.length)];
+    }
+
+    private static String[] toLowerCase(String[] values) {
+        String[] lower = new String[values.length];
+        for (int i = 0; i < values.length; i++) lower[i] = values[i].toLowerCase();
+        return lower;
+    }
+
+    /**
+     * The finalizer of SplitMix64 which spreads every input bit across the whole result.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private enum StringKind {
+        EMAIL, FIRST_NAME, LAST_NAME, FULL_NAME, CITY, COUNTRY, STREET, URL, DATE, ID, WORDS
+    }
+
+    private enum NumberKind {
+        ID, AGE, YEAR, MONEY, NUMBER
+    }
+}
@@ -0,0 +1,207 @@
+package codeInsight.codeGeneration;
+
+import codeInsight.TypeAssistPsiUtil;
+import com.intellij.lang.javascript.psi.JSReferenceExpression;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.util.PsiTreeUtil;
+import documentation.index.TypeShapeIndex;
+import documentation.objectProperties.TypeScriptObjectProperty;
+import documentation.objectProperties.TypeScriptObjectPropertyGroup;
+import org.jetbrains.annotations.Nullable;
+import settings.TypeAssistApplicationSettings;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Expands properties whose type is another object type into a nested object literal rather than the quoted type name.
+ *
+ * <pre>
+ *     address: 'Address'   becomes   address: { street: 'string', postcode: 'number' }
+ *     addresses: 'Address[]'   becomes   addresses: [{ street: 'string', postcode: 'number' }]
+ * </pre>
+ *
+ * <p>A single instance is shared by all {@code CodeGeneratorCollector}s taking part in one generation. The rendered
+ * body of each nested type is remembered per depth so a type used many times is only expanded once, with mock data
+ * the body is also remembered per ordinal so every object in an array keeps its own values. Types that are currently
+ * being expanded are never expanded again which stops recursive types such as {@code Tree<T>}.</p>
+ *
+ * <p>The quoted types written in place of a value are recorded as placeholders, which are the only values left for
+ * the user to fill in once mock values have been generated.</p>
+ */
+public class NestedObjectExpander {
+
+    private static final NestedObjectExpander NONE = new NestedObjectExpander(null, 0, null);
+
+    @Nullable
+    private final Project project;
+    private final int maxDepth;
+    private final TypeAssistApplicationSettings typeAssistApplicationSettings;
+    private final MockValueGenerator mockValueGenerator;
+
+    private final Map<List<Object>, String> renderedBodies = new HashMap<>();
+    private final Set<Object> onPath = new HashSet<>();
+    private final Set<PsiFile> declaringFiles = new LinkedHashSet<>();
+    private final Set<String> placeholders = new HashSet<>();
+    // Created on the first render since the expander itself is one of the options.
+    private CodeGenerationOptions codeGenerationOptions;
+    private boolean cycleCut;
+    private long renderedOrdinal;
+
+    /**
+     * @param project Used to look up types in the {@code TypeShapeIndex} when a property has no {@code PsiElement},
+     *                may be {@code null} to skip the lookup.
+     */
+    public NestedObjectExpander(@Nullable Project project, TypeAssistApplicationSettings typeAssistApplicationSettings) {
+        this(project, typeAssistApplicationSettings.NESTED_OBJECT_DEPTH, typeAssistApplicationSettings);
+    }
+
+    private NestedObjectExpander(@Nullable Project project, int maxDepth, TypeAssistApplicationSettings typeAssistApplicationSettings) {
+        this.project = project;
+        this.maxDepth = maxDepth;
+        this.typeAssistApplicationSettings = typeAssistApplicationSettings;
+        this.mockValueGenerator = typeAssistApplicationSettings == null ? MockValueGenerator.none() :
+                MockValueGenerator.of(typeAssistApplicationSettings);
+    }
+
+    /**
+     * @return An expander that never expands, preserving the original behaviour of quoting every type.
+     */
+    public static NestedObjectExpander none() {
+        return NONE;
+    }
+
+    /**
+     * @param property The property whose value is being generated.
+     * @param depth    The nesting depth of the object containing {@code property}, 0 for the top level object.
+     * @param ordinal  The index of the object within the generated array, 0 for a single object.
+     * @return The nested object literal, or empty if the property should be written as its quoted type.
+     */
+    public Optional<String> expand(TypeScriptObjectProperty property, int depth, long ordinal) {
+        if (depth >= maxDepth) return Optional.empty();
+
+        String propertyType = property.getPropertyType().trim();
+        boolean isArray = propertyType.endsWith("[]");
+        String elementType = isArray ? propertyType.substring(0, propertyType.length() - 2).trim() : propertyType;
+        // Generic arguments are ignored, Tree<T> is expanded using the members of Tree.
+        String typeName = elementType.split("<")[0].trim();
+        if (!StringUtil.isJavaIdentifier(typeName)) return Optional.empty();
+
+        Optional<NestedType> nestedType = resolve(property, typeName);
+        if (!nestedType.isPresent()) return Optional.empty();
+
+        Object key = nestedType.get().key;
+        if (onPath.contains(key)) {
+            cycleCut = true;
+            return Optional.empty();
+        }
+
+        String body = render(key, nestedType.get().properties, depth + 1, ordinal);
+        return Optional.of(isArray ? "[" + body + "]" : body);
+    }
+
+    private String render(Object key, List<TypeScriptObjectProperty> properties, int depth, long ordinal) {
+        // Without mock data the body is the same for every ordinal. With it, bodies of earlier objects are never used
+        // again so they are dropped rather than held for every element of a large array.
+        if (mockValueGenerator.isEnabled() && ordinal != renderedOrdinal) {
+            renderedBodies.clear();
+            renderedOrdinal = ordinal;
+        }
+        List<Object> memoKey = Arrays.asList(key, depth, mockValueGenerator.isEnabled() ? ordinal : 0L);
+        String rendered = renderedBodies.get(memoKey);
+        if (rendered != null) return rendered;
+
+        boolean outerCycleCut = cycleCut;
+        cycleCut = false;
+        onPath.add(key);
+
+        Supplier<String> preCode = () -> "{\n";
+        Supplier<String> postCode = () -> "}";
+        if (codeGenerationOptions == null) {
+            codeGenerationOptions = new CodeGenerationOptions.Builder(typeAssistApplicationSettings)
+                    .nestedObjectExpander(this)
+                    .mockValueGenerator(mockValueGenerator)
+                    .build();
+        }
+        String body = properties.stream()
+                .collect(new CodeGeneratorCollector(preCode, postCode, codeGenerationOptions, depth, ordinal));
+
+        onPath.remove(key);
+        // A body that stopped at a type further up the path is only valid for this path so it is not remembered.
+        if (!cycleCut) renderedBodies.put(memoKey, body);
+        cycleCut |= outerCycleCut;
+        return body;
+    }
+
+    private Optional<NestedType> resolve(TypeScriptObjectProperty property, String typeName) {
+        PsiElement element = property.getElement();
+
+        if (element != null) {
+            Optional<JSReferenceExpression> reference = PsiTreeUtil.findChildrenOfType(element, JSReferenceExpression.class).stream()
+                    .filter(expression -> typeName.equals(expression.getText()))
+                    .findFirst();
+            if (reference.isPresent()) {
+                PsiElement resolved = reference.get().resolve();
+                if (resolved == null || !TypeAssistPsiUtil.isTypeOfInterest(resolved)) return Optional.empty();
+                declaringFiles.add(resolved.getContainingFile());
+
+                return TypeScriptObjectProperty.of(resolved)
+                        .map(TypeScriptObjectPropertyGroup::getPropertySignatures)
+                        .filter(properties -> !properties.isEmpty())
+                        .map(properties -> new NestedType(resolved, properties));
+            }
+            // Otherwise the type was substituted in by an instantiation such as Box<Address> so look it up by name.
+        }
+
+        if (project == null) return Optional.empty();
+        return TypeShapeIndex.findWithFile(project, typeName).flatMap(indexed -> {
+            Set<VirtualFile> files = new HashSet<>();
+            files.add(indexed.first);
+            // Includes the inherited members, as TypeScriptObjectProperty.of does for resolved types.
+            List<TypeScriptObjectProperty> properties = TypeShapeIndex.flatten(project, indexed.second, files).getProperties();
+            for (VirtualFile file : files) {
+                PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
+                if (psiFile != null) declaringFiles.add(psiFile);
+            }
+            return properties.isEmpty() ? Optional.empty() : Optional.of(new NestedType(typeName, properties));
+        });
+    }
+
+    /**
+     * Records a quoted type written in place of a value, see {@link #getPlaceholders()}.
+     */
+    public void addPlaceholder(String quotedType) {
+        // The shared instance would otherwise collect placeholders of every generation.
+        if (this != NONE) placeholders.add(quotedType);
+    }
+
+    /**
+     * @return The text of every quoted type written in place of a value so far.
+     */
+    public Set<String> getPlaceholders() {
+        return Collections.unmodifiableSet(placeholders);
+    }
+
+    /**
+     * @return The files declaring every nested type looked up so far, whether or not it was expanded.
+     */
+    public Set<PsiFile> getDeclaringFiles() {
+        return Collections.unmodifiableSet(declaringFiles);
+    }
+
+    private static class NestedType {
+        // Either the resolved declaration or the type name when only known to the index.
+        private final Object key;
+        private final List<TypeScriptObjectProperty> properties;
+
+        private NestedType(Object key, List<TypeScriptObjectProperty> properties) {
+            this.key = key;
+            this.properties = properties;
+        }
+    }
+}
@@ -5,9 +5,10 @@ import documentation.objectProperties.TypeScriptObjectProperty;
 import settings.TypeAssistApplicationSettings;
 
 import java.util.List;
+import java.util.function.LongFunction;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.stream.LongStream;
 
 /**
  * Creates an array for a property in an existing object.
@@ -19,13 +20,15 @@ public class PropertyArrayCreator implements CodeGenerator {
     private List<TypeScriptObjectProperty> objectPropertyList;
     private ArrayInsertInstruction insertInstruction;
     private TypeAssistApplicationSettings typeAssistApplicationSettings;
+    private CodeGenerationOptions codeGenerationOptions;
 
     public PropertyArrayCreator(List<TypeScriptObjectProperty> objectPropertyList,
                                 ArrayInsertInstruction insertInstruction,
-                                TypeAssistApplicationSettings typeAssistApplicationSettings) {
+                                CodeGenerationOptions codeGenerationOptions) {
         this.objectPropertyList = objectPropertyList;
         this.insertInstruction = insertInstruction;
-        this.typeAssistApplicationSettings = typeAssistApplicationSettings;
+        this.typeAssistApplicationSettings = codeGenerationOptions.getTypeAssistApplicationSettings();
+        this.codeGenerationOptions = codeGenerationOptions;
     }
 
     @Override
@@ -44,15 +47,16 @@ public class PropertyArrayCreator implements CodeGenerator {
             return "\n],\n";
         };
 
-        // Generate single object
-        Supplier<String> generateSingleObject = () -> {
+        // Generate single object, the ordinal gives each object its own mock values.
+        LongFunction<String> generateSingleObject = ordinal -> {
             Supplier<String> preCodePerObject = () -> "{\n";
             Supplier<String> postCodePerObject = () -> "}";
-            return objectPropertyList.stream().collect(new CodeGeneratorCollector(preCodePerObject, postCodePerObject, typeAssistApplicationSettings));
+            return objectPropertyList.stream().collect(new CodeGeneratorCollector(preCodePerObject, postCodePerObject,
+                    codeGenerationOptions, 0, ordinal));
         };
 
-        String generatedObjects = Stream.generate(generateSingleObject)
-                .limit(insertInstruction.getSize())
+        String generatedObjects = LongStream.range(0, insertInstruction.getSize())
+                .mapToObj(generateSingleObject)
                 .collect(Collectors.joining(",\n", "", typeAssistApplicationSettings.TRAILING_COMMAS ? "," : ""));
 
         return new StringBuilder()
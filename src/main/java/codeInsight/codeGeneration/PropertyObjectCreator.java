@@ -17,13 +17,15 @@ public class PropertyObjectCreator implements CodeGenerator {
     private List<TypeScriptObjectProperty> objectPropertyList;
     private InsertInstruction insertInstruction;
     private TypeAssistApplicationSettings typeAssistApplicationSettings;
+    private CodeGenerationOptions codeGenerationOptions;
 
     public PropertyObjectCreator(List<TypeScriptObjectProperty> objectPropertyList,
                                  InsertInstruction insertInstruction,
-                                 TypeAssistApplicationSettings typeAssistApplicationSettings) {
+                                 CodeGenerationOptions codeGenerationOptions) {
         this.objectPropertyList = objectPropertyList;
         this.insertInstruction = insertInstruction;
-        this.typeAssistApplicationSettings = typeAssistApplicationSettings;
+        this.typeAssistApplicationSettings = codeGenerationOptions.getTypeAssistApplicationSettings();
+        this.codeGenerationOptions = codeGenerationOptions;
     }
 
     @Override
@@ -41,6 +43,6 @@ public class PropertyObjectCreator implements CodeGenerator {
             return "},\n";
         };
 
-        return objectPropertyList.stream().collect(new CodeGeneratorCollector(preCode, postCode, typeAssistApplicationSettings));
+        return objectPropertyList.stream().collect(new CodeGeneratorCollector(preCode, postCode, codeGenerationOptions, 0, 0));
     }
 }
@@ -0,0 +1,175 @@
+package codeInsight.codeGeneration;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.util.text.StringUtil;
+import documentation.objectProperties.TypeScriptObjectProperty;
+import documentation.types.TypeDescription;
+import settings.TypeAssistApplicationSettings;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes a generated array of objects one element at a time rather than building the whole array in memory as
+ * {@code AssignableArrayCreator} does, so memory use stays the same regardless of the number of elements.
+ *
+ * <p>The TypeScript format is the same code {@code AssignableArrayCreator} generates. The JSON format writes an
+ * array of plain objects which is useful as a fixture for load tests, nested objects are not expanded.</p>
+ */
+public class StreamingArrayWriter {
+
+    // How often progress is reported and cancellation checked. TypeScript elements are generated in a single read
+    // action per interval.
+    private static final int PROGRESS_INTERVAL = 1024;
+
+    public enum Format {
+        TypeScript("ts"),
+        Json("json");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * @return The format matching the file extension, TypeScript unless the extension is json.
+         */
+        public static Format of(String fileName) {
+            return StringUtil.endsWithIgnoreCase(fileName, "." + Json.extension) ? Json : TypeScript;
+        }
+    }
+
+    private final List<TypeScriptObjectProperty> objectPropertyList;
+    private final TypeDescription typeDescription;
+    private final long size;
+    private final Format format;
+    private final TypeAssistApplicationSettings typeAssistApplicationSettings;
+    private final MockValueGenerator mockValueGenerator;
+    // Generates every TypeScript element, given the ordinal of each.
+    private final CodeGeneratorCollector codeGeneratorCollector;
+
+    /**
+     * @param objectPropertyList    The properties of each element, these must not require a read action to access.
+     * @param codeGenerationOptions The nested object expander is used by the TypeScript format only, it is called
+     *                              within a read action. The JSON format always uses {@link MockValueGenerator#forJson}.
+     */
+    public StreamingArrayWriter(List<TypeScriptObjectProperty> objectPropertyList,
+                                TypeDescription typeDescription,
+                                long size,
+                                Format format,
+                                CodeGenerationOptions codeGenerationOptions) {
+        this.objectPropertyList = objectPropertyList;
+        this.typeDescription = typeDescription;
+        this.size = size;
+        this.format = format;
+        this.typeAssistApplicationSettings = codeGenerationOptions.getTypeAssistApplicationSettings();
+        this.mockValueGenerator = format == Format.Json ? MockValueGenerator.forJson(typeAssistApplicationSettings) :
+                codeGenerationOptions.getMockValueGenerator();
+        this.codeGeneratorCollector = new CodeGeneratorCollector(() -> "{\n", () -> "}", codeGenerationOptions, 0, 0);
+    }
+
+    /**
+     * @param header Written before the array such as an import statement, may be empty.
+     * @throws com.intellij.openapi.progress.ProcessCanceledException If {@code indicator} is cancelled.
+     */
+    public void write(Writer writer, String header, ProgressIndicator indicator) throws IOException {
+        writer.write(header);
+        writer.write(format == Format.Json ? "[\n" : preArrayBody());
+
+        StringBuilder chunk = new StringBuilder();
+        for (long chunkStart = 0; chunkStart < size; chunkStart += PROGRESS_INTERVAL) {
+            indicator.checkCanceled();
+            indicator.setFraction((double) chunkStart / size);
+            indicator.setText2(chunkStart + " / " + size);
+
+            long chunkEnd = Math.min(size, chunkStart + PROGRESS_INTERVAL);
+            chunk.setLength(0);
+            if (format == Format.Json) {
+                appendChunk(chunk, chunkStart, chunkEnd);
+            } else {
+                // Only the first element of each nested type touches PSI, the rest come from the expanders cache.
+                long start = chunkStart;
+                ApplicationManager.getApplication().runReadAction(() -> appendChunk(chunk, start, chunkEnd));
+            }
+            writer.write(chunk.toString());
+        }
+
+        writer.write(format == Format.Json ? "]\n" : "];\n");
+        indicator.setFraction(1);
+    }
+
+    private String preArrayBody() {
+        return "export " + typeAssistApplicationSettings.VARIABLE_DECLARATION.getCode() + " "
+                + StringUtil.decapitalize(StringUtil.pluralize(typeDescription.getTypeNameWithoutGenerics())) + ": "
+                + CodeGenerator.toTypeAnnotation(typeDescription) + "[] = [\n";
+    }
+
+    /**
+     * Appends the elements from {@code start} inclusive to {@code end} exclusive, each followed by its separator.
+     */
+    private void appendChunk(StringBuilder chunk, long start, long end) {
+        for (long ordinal = start; ordinal < end; ordinal++) {
+            if (format == Format.Json) {
+                appendJsonObject(chunk, ordinal);
+            } else {
+                codeGeneratorCollector.collect(chunk, objectPropertyList, ordinal);
+            }
+
+            boolean isLast = ordinal == size - 1;
+            if (!isLast || (format == Format.TypeScript && typeAssistApplicationSettings.TRAILING_COMMAS)) {
+                chunk.append(',');
+            }
+            chunk.append('\n');
+        }
+    }
+
+    private void appendJsonObject(StringBuilder sb, long ordinal) {
+        sb.append('{');
+        boolean first = true;
+        for (TypeScriptObjectProperty property : objectPropertyList) {
+            if (!first) sb.append(", ");
+            first = false;
+
+            appendJsonString(sb, property.getCodeGenPropertyName().orElse("")).append(": ");
+            String value = mockValueGenerator.valueOf(property, ordinal).orElse(null);
+            if (value != null) {
+                sb.append(value);
+            } else {
+                appendJsonTypeMarker(sb, property.getPropertyType());
+            }
+        }
+        sb.append('}');
+    }
+
+    /**
+     * The same marker as the TypeScript format, the type name as a string, escaped so that literal types such as
+     * {@code "admin"} remain valid JSON.
+     */
+    static StringBuilder appendJsonTypeMarker(StringBuilder sb, String propertyType) {
+        return appendJsonString(sb, propertyType.replace('"', '\''));
+    }
+
+    private static StringBuilder appendJsonString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c == '\n') {
+                sb.append("\\n");
+            } else if (c < ' ') {
+                sb.append(' ');
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"');
+    }
+}
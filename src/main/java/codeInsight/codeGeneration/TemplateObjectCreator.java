@@ -0,0 +1,70 @@
+package codeInsight.codeGeneration;
+
+import com.intellij.openapi.util.text.StringUtil;
+import documentation.objectProperties.TypeScriptObjectProperty;
+import documentation.types.TypeDescription;
+
+import java.util.List;
+
+/**
+ * Creates a single object using the user defined {@code CodeTemplate} in place of {@code AssignableObjectCreator}.
+ */
+public class TemplateObjectCreator implements CodeGenerator, CodeTemplate.TemplateContext {
+
+    private List<TypeScriptObjectProperty> objectPropertyList;
+    private TypeDescription typeDescription;
+    private CodeTemplate codeTemplate;
+    private NestedObjectExpander nestedObjectExpander;
+    private MockValueGenerator mockValueGenerator;
+    private MockValueGenerator jsonMockValueGenerator;
+
+    public TemplateObjectCreator(List<TypeScriptObjectProperty> objectPropertyList,
+                                 TypeDescription typeDescription,
+                                 CodeTemplate codeTemplate,
+                                 CodeGenerationOptions codeGenerationOptions) {
+        this.objectPropertyList = objectPropertyList;
+        this.typeDescription = typeDescription;
+        this.codeTemplate = codeTemplate;
+        this.nestedObjectExpander = codeGenerationOptions.getNestedObjectExpander();
+        this.mockValueGenerator = codeGenerationOptions.getMockValueGenerator();
+        this.jsonMockValueGenerator = MockValueGenerator.forJson(codeGenerationOptions.getTypeAssistApplicationSettings());
+    }
+
+    @Override
+    public String generate() {
+        if (objectPropertyList.isEmpty()) return "There are no properties to generate";
+        return codeTemplate.render(objectPropertyList, this);
+    }
+
+    @Override
+    public String getTypeName() {
+        return typeDescription.getTypeNameWithoutGenerics();
+    }
+
+    @Override
+    public String getTypeAnnotation() {
+        return CodeGenerator.toTypeAnnotation(typeDescription);
+    }
+
+    @Override
+    public String getVariableName() {
+        return StringUtil.decapitalize(typeDescription.getTypeNameWithoutGenerics());
+    }
+
+    @Override
+    public String getValue(TypeScriptObjectProperty property) {
+        return nestedObjectExpander.expand(property, 0, 0)
+                .orElseGet(() -> mockValueGenerator.valueOf(property, 0)
+                        .orElseGet(() -> {
+                            String quotedType = CodeGeneratorCollector.toQuotedType(property.getPropertyType());
+                            nestedObjectExpander.addPlaceholder(quotedType);
+                            return quotedType;
+                        }));
+    }
+
+    @Override
+    public String getJsonValue(TypeScriptObjectProperty property) {
+        return jsonMockValueGenerator.valueOf(property, 0)
+                .orElseGet(() -> StreamingArrayWriter.appendJsonTypeMarker(new StringBuilder(), property.getPropertyType()).toString());
+    }
+}
@@ -0,0 +1,140 @@
+package documentation;
+
+import documentation.textReplacement.HtmlUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Rendered documentation held deflated, documentation for large interfaces repeats the same spans, code tags and
+ * hyperlinks for every member so it compresses extremely well.
+ *
+ * <p>Each value is compressed on its own so entries can be evicted independently. To make up for the lack of shared
+ * history a preset dictionary of the markup {@code TypeAssistDocumentationProvider} writes is supplied, including a
+ * span for every colour in the palette, so even the first occurrence of a span is a back reference.</p>
+ */
+public class CompressedHtml {
+    private static final int BUFFER_SIZE = 4096;
+
+    private final byte[] compressed;
+    private final int originalBytes;
+    // Shared with every other value compressed using the same palette.
+    private final byte[] dictionary;
+
+    private CompressedHtml(byte[] compressed, int originalBytes, byte[] dictionary) {
+        this.compressed = compressed;
+        this.originalBytes = originalBytes;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * @param dictionary See {@link #dictionary}, the same array must be used for every value of a palette.
+     */
+    public static CompressedHtml compress(String html, byte[] dictionary) {
+        byte[] input = html.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setDictionary(dictionary);
+            deflater.setInput(input);
+            deflater.finish();
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(64, input.length / 8));
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return new CompressedHtml(output.toByteArray(), input.length, dictionary);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Restores a value written by {@link #toBytes}.
+     *
+     * @param dictionary The dictionary the value was compressed with.
+     */
+    public static CompressedHtml fromBytes(byte[] bytes, byte[] dictionary) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int originalBytes = buffer.getInt();
+        byte[] compressed = new byte[buffer.remaining()];
+        buffer.get(compressed);
+        return new CompressedHtml(compressed, originalBytes, dictionary);
+    }
+
+    /**
+     * @return The original size followed by the compressed bytes, the dictionary is not included.
+     */
+    public byte[] toBytes() {
+        return ByteBuffer.allocate(Integer.BYTES + compressed.length).putInt(originalBytes).put(compressed).array();
+    }
+
+    public String decompress() {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] output = new byte[originalBytes];
+            int length = 0;
+            while (length < originalBytes) {
+                int inflated = inflater.inflate(output, length, originalBytes - length);
+                if (inflated == 0 && inflater.needsDictionary()) {
+                    inflater.setDictionary(dictionary);
+                } else if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IllegalStateException("Compressed documentation is truncated");
+                }
+                length += inflated;
+            }
+            return new String(output, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Compressed documentation is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    public int getCompressedBytes() {
+        return compressed.length;
+    }
+
+    /**
+     * @return The size of the html encoded as UTF-8.
+     */
+    public int getOriginalBytes() {
+        return originalBytes;
+    }
+
+    /**
+     * @return An estimate of the heap held, the shared dictionary is not counted.
+     */
+    public long estimateBytes() {
+        return 32 + 16 + compressed.length;
+    }
+
+    /**
+     * Builds the preset dictionary for a palette. Deflate favours the end of the dictionary so the most frequent
+     * markup, the spans and code tags written per member, comes last.
+     *
+     * @param hexColors The documentation colours such as {@code #FF9090}.
+     */
+    public static byte[] dictionary(List<String> hexColors) {
+        StringBuilder dictionary = new StringBuilder()
+                .append(HtmlUtils.bold("Standard Documentation")).append(HtmlUtils.horizontalLine())
+                .append("type alias for object type alias mapped type union type intersection type enum")
+                .append(HtmlUtils.heading("Hybrid Functions (")).append(HtmlUtils.heading("Functions ("))
+                .append(HtmlUtils.heading("Indexable (")).append(HtmlUtils.heading("Properties ("))
+                .append(": interface").append(HtmlUtils.horizontalLine())
+                .append("boolean number string undefined null any void never Array&lt;Promise&lt;&gt;&gt; | ")
+                .append("<a href=\"psi_element://\"></a>");
+        for (String hexColor : hexColors) {
+            dictionary.append(HtmlUtils.span(HtmlUtils.code("readonly"), hexColor)).append(HtmlUtils.span("", hexColor));
+        }
+        dictionary.append(HtmlUtils.code("")).append(HtmlUtils.newLine())
+                .append(HtmlUtils.code("")).append(HtmlUtils.newLine());
+        return dictionary.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
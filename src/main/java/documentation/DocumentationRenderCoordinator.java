@@ -0,0 +1,148 @@
+package documentation;
+
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.util.containers.ContainerUtil;
+import metrics.Counter;
+import metrics.PluginMetrics;
+
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces documentation renders while the mouse sweeps across a line of type references. Only the most recently
+ * requested target within a scope, such as a project, is worth finishing, so a render which calls
+ * {@link #checkSuperseded} after a newer request in the same scope has arrived is abandoned with a
+ * {@code ProcessCanceledException}, which the IDE treats as a cancelled request. Cancellation of the caller's progress
+ * indicator is honoured at the same points. Requests in different scopes never supersede each other.
+ *
+ * <p>Concurrent requests for an equal target share the render already in flight rather than starting their own. If
+ * that render is superseded or cancelled, a waiting request which is still the latest target renders it instead.
+ * Each target is released once its render finishes, only a marker of the latest request is kept per scope and scopes
+ * are weakly referenced.</p>
+ *
+ * @param <K> The render target, equal targets must produce the same result.
+ * @param <V> The rendered result which may be {@code null}.
+ */
+public class DocumentationRenderCoordinator<K, V> {
+    private static final long AWAIT_POLL_MILLIS = 20;
+
+    private final Function<? super K, ?> scopeOf;
+    // The latest request of each scope.
+    private final ConcurrentMap<Object, Request<K>> latestRequests = ContainerUtil.createConcurrentWeakMap();
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param scopeOf The scope of a target, only a newer request in the same scope supersedes it.
+     */
+    public DocumentationRenderCoordinator(Function<? super K, ?> scopeOf) {
+        this.scopeOf = scopeOf;
+    }
+
+    /**
+     * Marks {@code target} as the latest request of its scope then either renders it or waits for the equal render in
+     * flight.
+     *
+     * @param renderer Renders {@code target}, it should call {@link #checkSuperseded} between expensive steps.
+     * @throws ProcessCanceledException If a newer request supersedes this one or the caller is cancelled.
+     */
+    public V render(K target, Supplier<V> renderer) {
+        Request<K> request = new Request<>(target);
+        latestRequests.put(scopeOf.apply(target), request);
+        try {
+            while (true) {
+                CompletableFuture<V> render = new CompletableFuture<>();
+                CompletableFuture<V> existing = inFlight.putIfAbsent(target, render);
+                if (existing == null) {
+                    return run(target, render, renderer);
+                }
+
+                PluginMetrics.increment(Counter.DocRendersShared);
+                try {
+                    return await(existing);
+                } catch (CancellationException e) {
+                    // The render being shared was abandoned, take it over unless this request is also stale.
+                    checkSuperseded(target);
+                }
+            }
+        } finally {
+            // Older renders in the scope still see a different latest request, without it holding onto the target.
+            request.target = null;
+        }
+    }
+
+    /**
+     * @throws ProcessCanceledException If a different target has been requested in the same scope since
+     *                                  {@code target}, or the caller's progress indicator is cancelled.
+     */
+    public void checkSuperseded(K target) {
+        ProgressManager.checkCanceled();
+        Request<K> latest = latestRequests.get(scopeOf.apply(target));
+        if (latest != null && !target.equals(latest.target)) {
+            PluginMetrics.increment(Counter.DocRendersSuperseded);
+            throw new ProcessCanceledException();
+        }
+    }
+
+    /**
+     * @return The number of renders currently in flight.
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * The render is removed from {@code inFlight} before completing so a waiter taking over a cancelled render never
+     * finds it again.
+     */
+    private V run(K target, CompletableFuture<V> render, Supplier<V> renderer) {
+        V result;
+        try {
+            result = renderer.get();
+        } catch (ProcessCanceledException e) {
+            inFlight.remove(target, render);
+            render.cancel(false);
+            throw e;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(target, render);
+            render.completeExceptionally(e);
+            throw e;
+        }
+        inFlight.remove(target, render);
+        render.complete(result);
+        return result;
+    }
+
+    /**
+     * Waits for a shared render while still responding to cancellation of this request.
+     *
+     * @throws CancellationException If the shared render was abandoned.
+     */
+    private V await(CompletableFuture<V> render) {
+        while (true) {
+            ProgressManager.checkCanceled();
+            try {
+                return render.get(AWAIT_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ignored) {
+                // Poll again so cancellation of this request is noticed.
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ProcessCanceledException(e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+                if (cause instanceof Error) throw (Error) cause;
+                throw new IllegalStateException(cause);
+            }
+        }
+    }
+
+    private static class Request<K> {
+        private volatile K target;
+
+        private Request(K target) {
+            this.target = target;
+        }
+    }
+}
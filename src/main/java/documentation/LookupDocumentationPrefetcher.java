@@ -0,0 +1,126 @@
+package documentation;
+
+import codeInsight.TypeAssistPsiUtil;
+import com.intellij.codeInsight.lookup.Lookup;
+import com.intellij.codeInsight.lookup.LookupAdapter;
+import com.intellij.codeInsight.lookup.LookupElement;
+import com.intellij.codeInsight.lookup.LookupEvent;
+import com.intellij.codeInsight.lookup.LookupManager;
+import com.intellij.concurrency.SensitiveProgressWrapper;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiElement;
+import com.intellij.util.ConcurrencyUtil;
+import metrics.Counter;
+import metrics.PluginMetrics;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Renders the documentation of the next few completion items in the background while the documentation panel is
+ * open, so arrowing through a list of interfaces finds each one already in the {@code RenderedDocumentationCache}.
+ *
+ * <p>Prefetches run one at a time at low priority. The queue is bounded and discards the oldest request once full
+ * since the user has most likely arrowed past it. Everything prefetched for a lookup is cancelled when the lookup is
+ * closed, and each read action gives way to write actions.</p>
+ */
+public class LookupDocumentationPrefetcher {
+    private static final int PREFETCH_AHEAD = 5;
+    private static final int QUEUE_CAPACITY = 8;
+
+    private final ExecutorService executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+            ConcurrencyUtil.newNamedThreadFactory("TypeAssist documentation prefetch", true, Thread.MIN_PRIORITY),
+            new ThreadPoolExecutor.DiscardOldestPolicy());
+
+    private final Consumer<PsiElement> renderer;
+    private volatile Session session;
+
+    /**
+     * @param renderer Renders the complete documentation of an element, storing it in the cache as a side effect.
+     */
+    public LookupDocumentationPrefetcher(Consumer<PsiElement> renderer) {
+        this.renderer = renderer;
+    }
+
+    /**
+     * Queues the items after the currently selected item of the active lookup in {@code project}.
+     */
+    public void prefetchAfterCurrentItem(Project project) {
+        Lookup lookup = LookupManager.getInstance(project).getActiveLookup();
+        if (lookup == null) return;
+
+        Session current = sessionFor(lookup);
+        List<LookupElement> items = lookup.getItems();
+        int start = items.indexOf(lookup.getCurrentItem()) + 1;
+
+        for (int i = start; i < Math.min(start + PREFETCH_AHEAD, items.size()); i++) {
+            PsiElement element = items.get(i).getPsiElement();
+            if (element == null || !TypeAssistPsiUtil.isTypeOfInterest(element) || !current.requested.add(element)) continue;
+            executor.execute(() -> prefetch(current, element));
+        }
+    }
+
+    private void prefetch(Session session, PsiElement element) {
+        if (session.indicator.isCanceled()) return;
+
+        // A wrapper per prefetch so a write action only cancels this read action rather than the whole lookup.
+        ProgressIndicator indicator = new SensitiveProgressWrapper(session.indicator);
+        boolean completed = ProgressIndicatorUtils.runInReadActionWithWriteActionPriority(() -> {
+            if (element.isValid()) renderer.accept(element);
+        }, indicator);
+
+        if (completed) {
+            PluginMetrics.increment(Counter.DocPrefetches);
+        } else {
+            // Interrupted by a write action, allow it to be requested again.
+            session.requested.remove(element);
+        }
+    }
+
+    private synchronized Session sessionFor(Lookup lookup) {
+        Session current = session;
+        if (current != null && current.lookup == lookup) return current;
+
+        if (current != null) current.indicator.cancel();
+        Session next = new Session(lookup);
+        lookup.addLookupListener(new LookupAdapter() {
+            @Override
+            public void itemSelected(LookupEvent event) {
+                close(next);
+            }
+
+            @Override
+            public void lookupCanceled(LookupEvent event) {
+                close(next);
+            }
+        });
+        session = next;
+        return next;
+    }
+
+    private synchronized void close(Session closed) {
+        closed.indicator.cancel();
+        // Do not keep the lookup and its elements reachable once it has closed.
+        if (session == closed) session = null;
+    }
+
+    private static class Session {
+        private final Lookup lookup;
+        private final ProgressIndicator indicator = new EmptyProgressIndicator();
+        private final Set<PsiElement> requested = ConcurrentHashMap.newKeySet();
+
+        private Session(Lookup lookup) {
+            this.lookup = lookup;
+        }
+    }
+}
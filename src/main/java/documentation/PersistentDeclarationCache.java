@@ -0,0 +1,192 @@
+package documentation;
+
+import cache.PersistentStore;
+import codeInsight.TypeAssistPsiUtil;
+import com.intellij.ide.plugins.IdeaPluginDescriptor;
+import com.intellij.ide.plugins.PluginManager;
+import com.intellij.lang.javascript.psi.JSQualifiedNamedElement;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.extensions.PluginId;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.StubBasedPsiElement;
+import com.intellij.psi.impl.source.PsiFileImpl;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.psi.stubs.StubTree;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiTreeUtil;
+import documentation.index.TypeShapeIndex;
+import metrics.Counter;
+import metrics.PluginMetrics;
+import utils.AppUtils;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps values computed for library declarations on disk so they are reused after the IDE restarts, such as the
+ * rendered documentation of {@code lib.dom.d.ts} types which is otherwise paid for again on the first hover of every
+ * session.
+ *
+ * <p>Only declarations in {@code .d.ts} files outside the project sources are stored since they rarely change. Values
+ * are grouped by file path and versioned by the SHA-1 of the file content, so an upgraded library makes its previous
+ * values stale. Values depending on other files, such as inherited members, must not be stored since only their
+ * declaring file is checked. The store is discarded whenever the plugin version changes and is not used in unit
+ * tests.</p>
+ */
+public class PersistentDeclarationCache {
+    private static final Logger LOG = Logger.getInstance(PersistentDeclarationCache.class);
+    // Change whenever a stored value changes format or the documentation is rendered differently. Combined with the
+    // plugin version so values are never read by a different build.
+    private static final String FORMAT_VERSION = "3";
+    private static final String PLUGIN_ID = "com.github.mjstewart.typescript-type-assist";
+
+    private static volatile Optional<PersistentStore> store;
+
+    /**
+     * @param detail Identifies the value within the declaration such as its kind and the settings it depends on.
+     */
+    public static Optional<byte[]> get(PsiElement declaration, String detail) {
+        Optional<PersistentStore> persistentStore = store();
+        Optional<VirtualFile> file = libraryDeclarationFile(declaration);
+        if (!persistentStore.isPresent() || !file.isPresent()) return Optional.empty();
+
+        try {
+            Optional<byte[]> value = persistentStore.get().get(file.get().getPath(), contentHash(declaration.getContainingFile()),
+                    key(declaration, detail));
+            PluginMetrics.increment(value.isPresent() ? Counter.PersistentCacheHits : Counter.PersistentCacheMisses);
+            return value;
+        } catch (IOException e) {
+            LOG.warn("Unable to read the persistent declaration cache", e);
+            return Optional.empty();
+        }
+    }
+
+    public static void put(PsiElement declaration, String detail, byte[] value) {
+        Optional<PersistentStore> persistentStore = store();
+        Optional<VirtualFile> file = libraryDeclarationFile(declaration);
+        if (!persistentStore.isPresent() || !file.isPresent()) return;
+
+        try {
+            persistentStore.get().put(file.get().getPath(), contentHash(declaration.getContainingFile()),
+                    key(declaration, detail), value);
+        } catch (IOException e) {
+            LOG.warn("Unable to write the persistent declaration cache", e);
+        }
+    }
+
+    /**
+     * Removes a value which could not be read so it is computed and stored again.
+     */
+    public static void remove(PsiElement declaration, String detail) {
+        Optional<PersistentStore> persistentStore = store();
+        Optional<VirtualFile> file = libraryDeclarationFile(declaration);
+        if (!persistentStore.isPresent() || !file.isPresent()) return;
+
+        try {
+            persistentStore.get().remove(file.get().getPath(), contentHash(declaration.getContainingFile()),
+                    key(declaration, detail));
+        } catch (IOException e) {
+            LOG.warn("Unable to write the persistent declaration cache", e);
+        }
+    }
+
+    /**
+     * @return The declaring file if it is a {@code .d.ts} file outside the project sources.
+     */
+    public static Optional<VirtualFile> libraryDeclarationFile(PsiElement declaration) {
+        PsiFile psiFile = declaration.getContainingFile();
+        VirtualFile file = psiFile == null ? null : psiFile.getVirtualFile();
+        if (file == null || !file.getName().endsWith(".d.ts")) return Optional.empty();
+
+        boolean projectSource = ProjectRootManager.getInstance(declaration.getProject()).getFileIndex().isInSourceContent(file);
+        return projectSource ? Optional.empty() : Optional.of(file);
+    }
+
+    /**
+     * @return The SHA-1 of the file content, computed once per change of the file.
+     */
+    public static String contentHash(PsiFile psiFile) {
+        return CachedValuesManager.getCachedValue(psiFile, () ->
+                CachedValueProvider.Result.create(AppUtils.sha1Hex(psiFile.getViewProvider().getContents()), psiFile));
+    }
+
+    private static String pluginVersion() {
+        IdeaPluginDescriptor plugin = PluginManager.getPlugin(PluginId.getId(PLUGIN_ID));
+        return plugin == null ? "unknown" : plugin.getVersion();
+    }
+
+    /**
+     * The qualified name, which the stub holds, so the AST of the library file is never loaded. Merged declarations
+     * sharing a qualified name are told apart by their position among them.
+     */
+    private static String key(PsiElement declaration, String detail) {
+        Integer occurrence = occurrences(declaration.getContainingFile()).get(declaration);
+        String name = declaration instanceof JSQualifiedNamedElement ?
+                TypeShapeIndex.key((JSQualifiedNamedElement) declaration) : null;
+        return name + "#" + (occurrence == null ? 0 : occurrence) + ":" + detail;
+    }
+
+    private static Map<PsiElement, Integer> occurrences(PsiFile psiFile) {
+        return CachedValuesManager.getCachedValue(psiFile, () -> {
+            Map<PsiElement, Integer> occurrences = new HashMap<>();
+            Map<String, Integer> counts = new HashMap<>();
+            for (JSQualifiedNamedElement declaration : declarations(psiFile)) {
+                occurrences.put(declaration, counts.merge(String.valueOf(TypeShapeIndex.key(declaration)), 1, Integer::sum) - 1);
+            }
+            return CachedValueProvider.Result.create(occurrences, psiFile);
+        });
+    }
+
+    /**
+     * Stub backed declarations in document order, read from the stub tree while the AST is not loaded.
+     */
+    private static List<JSQualifiedNamedElement> declarations(PsiFile psiFile) {
+        StubTree stubTree = psiFile instanceof PsiFileImpl ? ((PsiFileImpl) psiFile).getStubTree() : null;
+        Stream<? extends PsiElement> elements = stubTree != null ?
+                stubTree.getPlainList().stream().map(StubElement::getPsi) :
+                PsiTreeUtil.findChildrenOfType(psiFile, StubBasedPsiElement.class).stream();
+        return elements
+                .filter(TypeAssistPsiUtil::isTypeOfInterest)
+                .map(JSQualifiedNamedElement.class::cast)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Opens the store on first use, it stays empty for the session if it cannot be opened.
+     */
+    private static Optional<PersistentStore> store() {
+        Optional<PersistentStore> current = store;
+        if (current != null) return current;
+
+        synchronized (PersistentDeclarationCache.class) {
+            if (store != null) return store;
+            if (ApplicationManager.getApplication().isUnitTestMode()) {
+                store = Optional.empty();
+                return store;
+            }
+            try {
+                store = Optional.of(new PersistentStore.Builder(
+                        Paths.get(PathManager.getSystemPath(), "typescript-type-assist"), "declarations")
+                        .formatVersion(FORMAT_VERSION + ":" + pluginVersion())
+                        .open());
+            } catch (IOException e) {
+                // The cache is optional, everything is computed as usual without it.
+                LOG.warn("Unable to open the persistent declaration cache", e);
+                store = Optional.empty();
+            }
+            return store;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package documentation;
+
+import codeInsight.TypeAssistPsiUtil;
+import com.intellij.lang.javascript.psi.JSQualifiedNamedElement;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import documentation.index.TypeShapeIndex;
+import documentation.index.TypeShapeSummary;
+import documentation.objectProperties.TypeScriptObjectProperty;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * The one line summary shown on ctrl-hover, for example
+ *
+ * <pre>
+ *     Person&lt;T&gt;: interface, 5 members (2 optional): name, age, address, ...
+ * </pre>
+ *
+ * <p>Ctrl-hover fires far more often than full documentation so the summary never runs the html pipeline. It is
+ * built from the {@code TypeShapeSummary} in the {@code TypeShapeIndex} when the declaring file is indexed, falling
+ * back to the {@code PersistentDeclarationCache} and then summarizing the declared members, and held on the declaration
+ * until its file changes. Inherited members are added from the summaries of the super types.</p>
+ */
+public class QuickNavigateSummary {
+    private static final int MAX_MEMBERS_SHOWN = 3;
+    private static final String PERSISTENT_DETAIL = "shape";
+
+    /**
+     * @return Empty if {@code element} is not a type of interest.
+     */
+    public static Optional<String> of(PsiElement element) {
+        if (!(element instanceof JSQualifiedNamedElement) || !TypeAssistPsiUtil.isTypeOfInterest(element)) {
+            return Optional.empty();
+        }
+        JSQualifiedNamedElement declaration = (JSQualifiedNamedElement) element;
+        return Optional.ofNullable(CachedValuesManager.getCachedValue(declaration, () -> summarize(declaration)));
+    }
+
+    /**
+     * Inherited members are added from the index so the count agrees with the documentation. A summary with super
+     * types also depends on their files, so it is kept until the next PSI change rather than until its own file
+     * changes, and not at all while indexing when the super types cannot be found yet.
+     */
+    private static CachedValueProvider.Result<String> summarize(JSQualifiedNamedElement declaration) {
+        Optional<TypeShapeSummary> summary = TypeShapeIndex.findInFile(declaration);
+        if (!summary.isPresent()) summary = persistedSummary(declaration);
+
+        String text = summary.map(declared -> format(TypeShapeIndex.flatten(declaration.getProject(), declared,
+                new HashSet<>()))).orElse(null);
+        if (!summary.isPresent() || summary.get().getSuperTypes().isEmpty()) {
+            return CachedValueProvider.Result.create(text, declaration.getContainingFile());
+        }
+        return CachedValueProvider.Result.create(text, DumbService.isDumb(declaration.getProject()) ?
+                ModificationTracker.EVER_CHANGED : PsiModificationTracker.MODIFICATION_COUNT);
+    }
+
+    /**
+     * The index is unavailable while the IDE indexes after starting, which is when library summaries are first needed.
+     */
+    private static Optional<TypeShapeSummary> persistedSummary(JSQualifiedNamedElement declaration) {
+        Optional<TypeShapeSummary> persisted = PersistentDeclarationCache.get(declaration, PERSISTENT_DETAIL).map(bytes -> {
+            try {
+                return TypeShapeSummary.EXTERNALIZER.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+            } catch (IOException | RuntimeException e) {
+                // Unreadable, it is summarized and stored again below.
+                PersistentDeclarationCache.remove(declaration, PERSISTENT_DETAIL);
+                return null;
+            }
+        });
+        if (persisted.isPresent()) return persisted;
+
+        Optional<TypeShapeSummary> summary = TypeShapeSummary.of(declaration);
+        summary.ifPresent(value -> {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try {
+                TypeShapeSummary.EXTERNALIZER.save(new DataOutputStream(bytes), value);
+                PersistentDeclarationCache.put(declaration, PERSISTENT_DETAIL, bytes.toByteArray());
+            } catch (IOException e) {
+                // Not possible writing to memory.
+            }
+        });
+        return summary;
+    }
+
+    /**
+     * @return The escaped summary, members are only listed for types which have them.
+     */
+    public static String format(TypeShapeSummary summary) {
+        StringBuilder builder = new StringBuilder(summary.getTypeName())
+                .append(": ")
+                .append(summary.getTypeDefinition().getDescription());
+
+        List<TypeScriptObjectProperty> properties = summary.getProperties();
+        if (!properties.isEmpty()) {
+            long optionalCount = properties.stream().filter(TypeScriptObjectProperty::isOptional).count();
+            builder.append(", ").append(properties.size()).append(properties.size() == 1 ? " member" : " members");
+            if (optionalCount > 0) builder.append(" (").append(optionalCount).append(" optional)");
+
+            builder.append(": ").append(properties.stream()
+                    .limit(MAX_MEMBERS_SHOWN)
+                    .map(property -> property.getCodeGenPropertyName().orElse(""))
+                    .collect(Collectors.joining(", ")));
+            if (properties.size() > MAX_MEMBERS_SHOWN) builder.append(", ...");
+        }
+        return StringUtil.escapeXml(builder.toString());
+    }
+}
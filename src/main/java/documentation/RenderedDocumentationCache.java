@@ -0,0 +1,194 @@
+package documentation;
+
+import cache.PluginCache;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.util.ProgressIndicatorBase;
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils;
+import com.intellij.openapi.util.Pair;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import org.jetbrains.annotations.Nullable;
+import settings.TypeAssistApplicationSettings;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Documentation rendered for a declaration, held on the declaration itself and dropped on the next PSI change.
+ *
+ * <p>The standard documentation produced by {@code JSDocumentationProvider} is a second full documentation pass which
+ * is slow for library types. It is rendered once per declaration, either in the background so the type shape can be
+ * shown first or on the calling thread when the complete documentation is needed straight away. The merged result of
+ * the type shape and standard documentation is cached by the type arguments at the usage and the documentation
+ * settings. It is held as {@link CompressedHtml} and decompressed on each hit, and for library declarations whose
+ * members are all declared in their own file also written to the {@link PersistentDeclarationCache} so it outlives
+ * the session.</p>
+ */
+public class RenderedDocumentationCache {
+    private static final int MAX_MERGED_PER_DECLARATION = 8;
+    // Compressed bytes, roughly ten times as much html.
+    private static final long MAX_MERGED_WEIGHT = 256 * 1024;
+    private static final long MAX_MERGED_SHARED_WEIGHT = 8 * 1024 * 1024;
+    // A background render is restarted after each interrupting write action, up to this many times.
+    private static final int MAX_BACKGROUND_ATTEMPTS = 10;
+
+    private static volatile Pair<Long, byte[]> dictionary;
+
+    /**
+     * @param documentationSettingsHash See {@code TypeAssistApplicationSettings.documentationHash}.
+     * @return The complete documentation previously stored with {@link #putMerged}, in this session or for library
+     * declarations a previous one.
+     */
+    public static Optional<String> getMerged(PsiElement element, List<String> typeArguments, long documentationSettingsHash) {
+        Pair<List<String>, Long> key = Pair.create(typeArguments, documentationSettingsHash);
+        PluginCache<Pair<List<String>, Long>, CompressedHtml> merged = entry(element).merged;
+
+        CompressedHtml compressed = merged.get(key);
+        if (compressed != null) return Optional.of(compressed.decompress());
+
+        String detail = persistentDetail(typeArguments, documentationSettingsHash);
+        Optional<byte[]> persisted = PersistentDeclarationCache.get(element, detail);
+        if (!persisted.isPresent()) return Optional.empty();
+        try {
+            compressed = CompressedHtml.fromBytes(persisted.get(), dictionary(documentationSettingsHash));
+            String documentation = compressed.decompress();
+            merged.put(key, compressed);
+            return Optional.of(documentation);
+        } catch (RuntimeException e) {
+            // Written by a different build or damaged on disk, render it again instead.
+            PersistentDeclarationCache.remove(element, detail);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @param persist {@code false} if the documentation depends on files other than the declaring file, it is then
+     *                only held for the session.
+     */
+    public static void putMerged(PsiElement element, List<String> typeArguments, long documentationSettingsHash,
+                                 String documentation, boolean persist) {
+        CompressedHtml compressed = CompressedHtml.compress(documentation, dictionary(documentationSettingsHash));
+        entry(element).merged.put(Pair.create(typeArguments, documentationSettingsHash), compressed);
+        if (persist) {
+            PersistentDeclarationCache.put(element, persistentDetail(typeArguments, documentationSettingsHash), compressed.toBytes());
+        }
+    }
+
+    private static String persistentDetail(List<String> typeArguments, long documentationSettingsHash) {
+        return "documentation:" + documentationSettingsHash + ":" + String.join(",", typeArguments);
+    }
+
+    /**
+     * @return The dictionary for the current palette, rebuilt only when the documentation settings change.
+     */
+    private static byte[] dictionary(long documentationSettingsHash) {
+        Pair<Long, byte[]> current = dictionary;
+        if (current == null || current.first != documentationSettingsHash) {
+            TypeAssistApplicationSettings settings = TypeAssistApplicationSettings.getInstance();
+            current = Pair.create(documentationSettingsHash, CompressedHtml.dictionary(Arrays.asList(
+                    settings.OPTIONAL_HEX_COLOR, settings.GENERICS_HEX_COLOR,
+                    settings.READONLY_HEX_COLOR, settings.UNDEFINED_HEX_COLOR)));
+            dictionary = current;
+        }
+        return current.second;
+    }
+
+    /**
+     * Starts rendering the standard documentation of {@code element} on a pooled thread unless it has been already.
+     * The read action gives way to write actions and starts again once they have finished, so typing is never blocked
+     * behind a slow library render.
+     *
+     * @param renderer   Renders the standard documentation which may be {@code null}, run in a read action.
+     * @param onRendered Run on the pooled thread once the background render has finished, whether or not it succeeded.
+     * @return The standard documentation which is completed with {@code null} when there is none. A failed render is
+     * kept until the next PSI change so refreshing the popup does not immediately start it again.
+     */
+    public static CompletableFuture<String> renderStandardInBackground(PsiElement element,
+                                                                       Supplier<String> renderer,
+                                                                       Runnable onRendered) {
+        AtomicReference<CompletableFuture<String>> standard = entry(element).standard;
+        CompletableFuture<String> render = new CompletableFuture<>();
+        if (!standard.compareAndSet(null, render)) return standard.get();
+
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            try {
+                render.complete(readWithWriteActionPriority(element, renderer));
+            } catch (RuntimeException e) {
+                render.completeExceptionally(e);
+            }
+            onRendered.run();
+        });
+        return render;
+    }
+
+    /**
+     * @throws ProcessCanceledException If write actions interrupted every attempt.
+     */
+    @Nullable
+    private static String readWithWriteActionPriority(PsiElement element, Supplier<String> renderer) {
+        AtomicReference<String> rendered = new AtomicReference<>();
+        for (int attempt = 1; ; attempt++) {
+            boolean completed = ProgressIndicatorUtils.runInReadActionWithWriteActionPriority(() ->
+                    rendered.set(element.isValid() ? renderer.get() : null), new ProgressIndicatorBase());
+            if (completed) return rendered.get();
+            if (attempt == MAX_BACKGROUND_ATTEMPTS) throw new ProcessCanceledException();
+
+            ProgressIndicatorUtils.yieldToPendingWriteActions();
+        }
+    }
+
+    /**
+     * Renders the standard documentation of {@code element} on the calling thread unless it has been already, waiting
+     * for a background render in progress.
+     *
+     * @param renderer Renders the standard documentation which may be {@code null}.
+     */
+    @Nullable
+    public static String renderStandard(PsiElement element, Supplier<String> renderer) {
+        AtomicReference<CompletableFuture<String>> standard = entry(element).standard;
+        CompletableFuture<String> render = new CompletableFuture<>();
+        if (!standard.compareAndSet(null, render)) {
+            CompletableFuture<String> existing = standard.get();
+            try {
+                if (existing != null) return existing.join();
+            } catch (CompletionException e) {
+                // The background render failed, try again on this thread.
+            }
+            return renderer.get();
+        }
+
+        try {
+            String rendered = renderer.get();
+            render.complete(rendered);
+            return rendered;
+        } catch (RuntimeException e) {
+            standard.compareAndSet(render, null);
+            render.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static Entry entry(PsiElement element) {
+        return CachedValuesManager.getCachedValue(element, () ->
+                CachedValueProvider.Result.create(new Entry(), PsiModificationTracker.MODIFICATION_COUNT));
+    }
+
+    private static class Entry {
+        private final AtomicReference<CompletableFuture<String>> standard = new AtomicReference<>();
+        private final PluginCache<Pair<List<String>, Long>, CompressedHtml> merged =
+                new PluginCache.Builder<Pair<List<String>, Long>, CompressedHtml>("Rendered documentation")
+                        .maxEntries(MAX_MERGED_PER_DECLARATION)
+                        .maxWeight(MAX_MERGED_WEIGHT)
+                        .sharedMaxWeight(MAX_MERGED_SHARED_WEIGHT)
+                        .weigher(CompressedHtml::estimateBytes)
+                        .build();
+    }
+}
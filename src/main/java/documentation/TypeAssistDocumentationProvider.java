@@ -1,27 +1,44 @@
 package documentation;
 
 import codeInsight.TypeAssistPsiUtil;
+import com.intellij.codeInsight.documentation.DocumentationComponent;
+import com.intellij.codeInsight.documentation.DocumentationManager;
 import com.intellij.lang.documentation.AbstractDocumentationProvider;
 import com.intellij.lang.javascript.documentation.JSDocumentationProvider;
+import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.ui.popup.JBPopup;
 import com.intellij.openapi.util.Pair;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiNamedElement;
+import com.intellij.util.ui.UIUtil;
+import documentation.index.TypeShapeIndex;
+import documentation.objectProperties.TypeInstantiation;
 import documentation.objectProperties.TypeScriptObjectProperty;
 import documentation.objectProperties.TypeScriptObjectPropertyGroup;
 import documentation.textReplacement.*;
 import documentation.types.*;
+import metrics.Counter;
+import metrics.Phase;
+import metrics.PluginMetrics;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import settings.TypeAssistApplicationSettings;
 
 import java.awt.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -32,8 +49,43 @@ import java.util.regex.Pattern;
  * Created by matt on 25-May-17.
  */
 public class TypeAssistDocumentationProvider extends AbstractDocumentationProvider {
+    // Types whose members are documented, either declared, flattened such as B & C or evaluated such as Partial<Person>.
+    private static final Set<TypeDefinition> TYPES_WITH_MEMBERS = EnumSet.of(TypeDefinition.Interface,
+            TypeDefinition.TypeAliasObject, TypeDefinition.TypeAliasSingle, TypeDefinition.TypeAliasMappedType,
+            TypeDefinition.Intersection);
+
     public TypeAssistApplicationSettings settings = TypeAssistApplicationSettings.getInstance();
 
+    // Cancels renders for elements the mouse has already moved past within the same project and shares renders of the
+    // same element.
+    private final DocumentationRenderCoordinator<Pair<PsiElement, List<String>>, String> renders =
+            new DocumentationRenderCoordinator<>(target -> target.first.getProject());
+
+    private final boolean interactive;
+    // Only used when interactive.
+    private final LookupDocumentationPrefetcher lookupPrefetcher;
+
+    public TypeAssistDocumentationProvider() {
+        this(!ApplicationManager.getApplication().isUnitTestMode());
+    }
+
+    /**
+     * @param interactive {@code true} when documentation is displayed as the user hovers. Renders are coordinated by
+     *                    {@code DocumentationRenderCoordinator} and the type shape is returned before the standard
+     *                    documentation, which is rendered in the background and then refreshes the popup. Otherwise
+     *                    each call renders independently and returns the complete documentation, as an export needs.
+     */
+    public TypeAssistDocumentationProvider(boolean interactive) {
+        this.interactive = interactive;
+        if (interactive) {
+            // Prefetching needs the standard documentation so the result is complete and cached.
+            TypeAssistDocumentationProvider completeDocumentation = new TypeAssistDocumentationProvider(false);
+            lookupPrefetcher = new LookupDocumentationPrefetcher(element -> completeDocumentation.generateDoc(element, element));
+        } else {
+            lookupPrefetcher = null;
+        }
+    }
+
     /**
      * Types such as {@code null, undefined, any, void, never} are to receive syntax highlighting.
      * This list of {@code FindReplaceValue}s will be used during formatting to scan through the string and find/replace
@@ -61,9 +113,16 @@ public class TypeAssistDocumentationProvider extends AbstractDocumentationProvid
         return values;
     }
 
+    /**
+     * Shows a one line {@code QuickNavigateSummary} on ctrl-hover over a type of interest.
+     */
     @Nullable
     @Override
     public String getQuickNavigateInfo(PsiElement element, PsiElement originalElement) {
+        if (element != null) {
+            Optional<String> summary = QuickNavigateSummary.of(element);
+            if (summary.isPresent()) return summary.get();
+        }
         return super.getQuickNavigateInfo(element, originalElement);
     }
 
@@ -237,96 +296,219 @@ public class TypeAssistDocumentationProvider extends AbstractDocumentationProvid
         if (element == null) {
             return "No documentation available";
         }
-        StringBuilder docBuilder = new StringBuilder();
-
-        TypeDescription typeDescription = TypeDescription.create(element);
-        if (typeDescription.isValid()) {
-            // Always substitute in hyperlinks for resolvable types regardless of whether syntax highlighting is on.
-            FindReplaceResolvableReference findReplaceResolvableReference =
-                    FindReplaceResolvableReference.of(TypeAssistPsiUtil.collectResolvableReferences(element), typeDescription.getTypeName());
+        // Concrete type arguments at the usage such as Response<User> are substituted into the documented members,
+        // so they are part of what makes two requests equal.
+        List<String> typeArguments = getTypeArguments(element, originalElement);
+        if (!interactive) {
+            return renderDoc(element, originalElement, typeArguments, () -> {});
+        }
+        Pair<PsiElement, List<String>> target = Pair.create(element, typeArguments);
+        return renders.render(target, () ->
+                renderDoc(element, originalElement, typeArguments, () -> renders.checkSuperseded(target)));
+    }
 
-            List<String> genericTypeParameters = new ArrayList<>();
-            if (settings.DOCUMENTATION_SYNTAX_HIGHLIGHTING) {
-                genericTypeParameters = TypeAssistPsiUtil.collectGenericTypeParameters(element);
+    /**
+     * @param checkSuperseded Abandons the render with a {@code ProcessCanceledException} once a different element has
+     *                        been requested, called between each phase.
+     */
+    @Nullable
+    private String renderDoc(PsiElement element,
+                             @Nullable PsiElement originalElement,
+                             List<String> typeArguments,
+                             Runnable checkSuperseded) {
+        long documentationSettingsHash = settings.documentationHash();
+        Optional<String> merged = RenderedDocumentationCache.getMerged(element, typeArguments, documentationSettingsHash);
+        if (merged.isPresent()) {
+            PluginMetrics.increment(Counter.RenderedDocumentationCacheHits);
+            return merged.get();
+        }
+        PluginMetrics.increment(Counter.RenderedDocumentationCacheMisses);
+        PluginMetrics.increment(Counter.DocRenders);
+        try (PluginMetrics.Timer total = PluginMetrics.time(Phase.DocTotal)) {
+            StringBuilder docBuilder = new StringBuilder();
+
+            TypeDescription typeDescription;
+            Optional<TypeScriptObjectPropertyGroup> propertyGroup = Optional.empty();
+            try (PluginMetrics.Timer classification = PluginMetrics.time(Phase.DocClassification)) {
+                typeDescription = TypeDescription.create(element).instantiate(typeArguments);
+            }
+            checkSuperseded.run();
+
+            if (typeDescription.isValid()) {
+                FindReplacePairs findReplacePairs;
+                try (PluginMetrics.Timer referenceResolution = PluginMetrics.time(Phase.DocReferenceResolution)) {
+                    // Always substitute in hyperlinks for resolvable types regardless of whether syntax highlighting is on.
+                    FindReplaceResolvableReference findReplaceResolvableReference =
+                            FindReplaceResolvableReference.of(TypeAssistPsiUtil.collectResolvableReferences(element), typeDescription.getTypeName());
+
+                    List<String> genericTypeParameters = new ArrayList<>();
+                    if (settings.DOCUMENTATION_SYNTAX_HIGHLIGHTING) {
+                        genericTypeParameters = TypeAssistPsiUtil.collectGenericTypeParameters(element);
+                    }
+                    FindReplaceGenericTypeParameter findReplaceGenericTypeParameter =
+                            FindReplaceGenericTypeParameter.of(genericTypeParameters);
+
+                    findReplacePairs = FindReplacePairs.of(findReplaceResolvableReference, findReplaceGenericTypeParameter);
+                }
+                checkSuperseded.run();
+
+                if (TYPES_WITH_MEMBERS.contains(typeDescription.getTypeDefinition())) {
+                    try (PluginMetrics.Timer propertyGrouping = PluginMetrics.time(Phase.DocPropertyGrouping)) {
+                        propertyGroup = TypeInstantiation.of(element, typeArguments);
+                    }
+                }
+                checkSuperseded.run();
+
+                try (PluginMetrics.Timer formatting = PluginMetrics.time(Phase.DocFormatting)) {
+                    writeTypeDocumentation(element, typeDescription, propertyGroup, docBuilder, findReplacePairs);
+                }
+            }
+            checkSuperseded.run();
+
+            boolean complete = true;
+            boolean standardFailed = false;
+            try (PluginMetrics.Timer standardMerge = PluginMetrics.time(Phase.DocStandardMerge)) {
+                Supplier<String> standardRenderer = () -> new JSDocumentationProvider().generateDoc(element, originalElement);
+
+                String standardDocs = null;
+                if (interactive) {
+                    CompletableFuture<String> render = RenderedDocumentationCache.renderStandardInBackground(element,
+                            standardRenderer, () -> refreshDocumentationPopup(element));
+                    complete = render.isDone();
+                    // The type documentation is still shown without the standard documentation.
+                    standardFailed = render.isCompletedExceptionally();
+                    if (complete && !standardFailed) standardDocs = render.join();
+                } else {
+                    standardDocs = RenderedDocumentationCache.renderStandard(element, standardRenderer);
+                }
+
+                // Standard docs are printed below type information regardless of whether type info exists.
+                if (standardDocs != null || !complete) {
+                    docBuilder.append((typeDescription.isValid() ? HtmlUtils.newLine() : ""))
+                            .append(HtmlUtils.bold("Standard Documentation"))
+                            .append(HtmlUtils.horizontalLine())
+                            .append(complete ? standardDocs : "Loading...");
+                }
             }
-            FindReplaceGenericTypeParameter findReplaceGenericTypeParameter =
-                    FindReplaceGenericTypeParameter.of(genericTypeParameters);
-
-            FindReplacePairs findReplacePairs =
-                    FindReplacePairs.of(findReplaceResolvableReference, findReplaceGenericTypeParameter);
-
-            String typeName = toTypeName(getFormatter().apply(typeDescription.getTypeName()), findReplacePairs);
-            docBuilder.append(typeName).append(": ");
-            docBuilder.append(HtmlUtils.bold(typeDescription.getTypeDefinition().getDescription()));
 
-            switch (typeDescription.getTypeDefinition()) {
-                case Interface:
-                case TypeAliasObject:
-                    docBuilder.append(HtmlUtils.horizontalLine());
-                    TypeScriptObjectProperty.of(element)
-                            .ifPresent(propertyGroup -> writeObjectDocumentation(propertyGroup, docBuilder, findReplacePairs));
-                    break;
-                case TypeAliasSingle:
-                    SingleType.of(element)
-                            .ifPresent(singleTypeValue -> docBuilder.append(HtmlUtils.horizontalLine())
-                                    .append(toDocumentationType(singleTypeValue, findReplacePairs)));
-                    break;
-                case TypeAliasLiteral:
-                    LiteralType.of(element)
-                            .ifPresent(literalType -> docBuilder.append(HtmlUtils.newLine())
-                                    .append(HtmlUtils.code(literalType.getType())).append(HtmlUtils.newLine()));
-                    break;
-                case TypeAliasFunction:
-                    FunctionType.of(element)
-                            .ifPresent(functionType -> docBuilder.append(HtmlUtils.newLine())
-                                    .append(toDocumentationType(functionType, findReplacePairs))
-                                    .append(HtmlUtils.newLine()));
-                    break;
-                case TypeAliasMappedType:
-                    MappedType.of(element)
-                            .ifPresent(mappedTypeValue -> docBuilder.append(HtmlUtils.newLine())
-                                    .append(toDocumentationType(mappedTypeValue, findReplacePairs)));
-                    break;
-                case Union:
-                case Intersection:
-                    UnionOrIntersectionType.of(element)
-                            .ifPresent(unionOrIntersectionValueList -> {
-                                docBuilder.append(" (").append(unionOrIntersectionValueList.size()).append(")").append(HtmlUtils.horizontalLine());
-                                unionOrIntersectionValueList.stream()
-                                        .map(unionOrIntersectionValue -> toDocumentationType(unionOrIntersectionValue, findReplacePairs))
-                                        .forEach(docBuilder::append);
-                            });
-                    break;
-                case Enum:
-                    EnumField.of(element)
-                            .ifPresent(enumValueList -> {
-                                docBuilder.append(" (").append(enumValueList.size()).append(")").append(HtmlUtils.horizontalLine());
-                                enumValueList.stream()
-                                        .map(enumValue -> toDocumentationType(enumValue, findReplacePairs))
-                                        .forEach(docBuilder::append);
-                            });
-                    break;
-                case None:
-                    docBuilder.append("No documentation available").append(HtmlUtils.newLine());
+            String documentation = docBuilder.toString();
+            if (documentation.isEmpty()) return null;
+            if (complete && !standardFailed) {
+                RenderedDocumentationCache.putMerged(element, typeArguments, documentationSettingsHash, documentation,
+                        isSelfContained(element, propertyGroup));
             }
+            return documentation;
         }
+    }
+
+    /**
+     * @return {@code true} if every member is declared in the same file as {@code element}. Members inherited or
+     * evaluated from other files would go stale on disk as only the declaring file versions persisted documentation.
+     */
+    private static boolean isSelfContained(PsiElement element, Optional<TypeScriptObjectPropertyGroup> propertyGroup) {
+        PsiFile file = element.getContainingFile();
+        return propertyGroup.map(group -> group.getPropertySignatures().stream().allMatch(property ->
+                property.getElement() != null && file.equals(property.getElement().getContainingFile())))
+                .orElse(true);
+    }
 
-        // Standard docs are printed below type information regardless of whether type info exists.
-        String standardDocs = new JSDocumentationProvider().generateDoc(element, originalElement);
+    /**
+     * Renders the popup again once the standard documentation of {@code element} is ready, provided it is still
+     * showing {@code element}.
+     */
+    private static void refreshDocumentationPopup(PsiElement element) {
+        ApplicationManager.getApplication().invokeLater(() -> {
+            if (!element.isValid()) return;
+            DocumentationManager documentationManager = DocumentationManager.getInstance(element.getProject());
+            JBPopup hint = documentationManager.getDocInfoHint();
+            if (hint == null || !hint.isVisible()) return;
+
+            DocumentationComponent component = UIUtil.findComponentOfType(hint.getContent(), DocumentationComponent.class);
+            if (component != null && element.equals(component.getElement())) {
+                documentationManager.queueFetchDocInfo(element, component);
+            }
+        });
+    }
 
-        if (standardDocs != null) {
-            docBuilder.append((typeDescription.isValid() ? HtmlUtils.newLine() : ""))
-                    .append(HtmlUtils.bold("Standard Documentation"))
-                    .append(HtmlUtils.horizontalLine())
-                    .append(standardDocs);
+    private void writeTypeDocumentation(PsiElement element,
+                                        TypeDescription typeDescription,
+                                        Optional<TypeScriptObjectPropertyGroup> propertyGroup,
+                                        StringBuilder docBuilder,
+                                        FindReplacePairs findReplacePairs) {
+        String typeName = toTypeName(getFormatter().apply(typeDescription.getTypeName()), findReplacePairs);
+        docBuilder.append(typeName).append(": ");
+        docBuilder.append(HtmlUtils.bold(typeDescription.getTypeDefinition().getDescription()));
+
+        switch (typeDescription.getTypeDefinition()) {
+            case Interface:
+            case TypeAliasObject:
+                docBuilder.append(HtmlUtils.horizontalLine());
+                propertyGroup.ifPresent(group -> writeObjectDocumentation(group, docBuilder, findReplacePairs));
+                break;
+            case TypeAliasSingle:
+                SingleType.of(element)
+                        .ifPresent(singleTypeValue -> docBuilder.append(HtmlUtils.horizontalLine())
+                                .append(toDocumentationType(singleTypeValue, findReplacePairs)));
+                writeEvaluatedMembers(propertyGroup, docBuilder, findReplacePairs);
+                break;
+            case TypeAliasLiteral:
+                LiteralType.of(element)
+                        .ifPresent(literalType -> docBuilder.append(HtmlUtils.newLine())
+                                .append(HtmlUtils.code(literalType.getType())).append(HtmlUtils.newLine()));
+                break;
+            case TypeAliasFunction:
+                FunctionType.of(element)
+                        .ifPresent(functionType -> docBuilder.append(HtmlUtils.newLine())
+                                .append(toDocumentationType(functionType, findReplacePairs))
+                                .append(HtmlUtils.newLine()));
+                break;
+            case TypeAliasMappedType:
+                MappedType.of(element)
+                        .ifPresent(mappedTypeValue -> docBuilder.append(HtmlUtils.newLine())
+                                .append(toDocumentationType(mappedTypeValue, findReplacePairs)));
+                writeEvaluatedMembers(propertyGroup, docBuilder, findReplacePairs);
+                break;
+            case Union:
+            case Intersection:
+                UnionOrIntersectionType.of(element)
+                        .ifPresent(unionOrIntersectionValueList -> {
+                            docBuilder.append(" (").append(unionOrIntersectionValueList.size()).append(")").append(HtmlUtils.horizontalLine());
+                            unionOrIntersectionValueList.stream()
+                                    .map(unionOrIntersectionValue -> toDocumentationType(unionOrIntersectionValue, findReplacePairs))
+                                    .forEach(docBuilder::append);
+                        });
+                // The members of every part merged into one table.
+                writeEvaluatedMembers(propertyGroup, docBuilder, findReplacePairs);
+                break;
+            case Enum:
+                EnumField.of(element)
+                        .ifPresent(enumValueList -> {
+                            docBuilder.append(" (").append(enumValueList.size()).append(")").append(HtmlUtils.horizontalLine());
+                            enumValueList.stream()
+                                    .map(enumValue -> toDocumentationType(enumValue, findReplacePairs))
+                                    .forEach(docBuilder::append);
+                        });
+                break;
+            case None:
+                docBuilder.append("No documentation available").append(HtmlUtils.newLine());
         }
+    }
 
-        String documentation = docBuilder.toString();
-        return documentation.isEmpty() ? null : documentation;
+    private List<String> getTypeArguments(PsiElement element, @Nullable PsiElement originalElement) {
+        if (!(element instanceof PsiNamedElement) || ((PsiNamedElement) element).getName() == null) {
+            return Collections.emptyList();
+        }
+        return TypeInstantiation.findTypeArguments(originalElement, ((PsiNamedElement) element).getName());
     }
 
+    /**
+     * Called as each completion item is selected while documentation is shown, the next few items are prefetched.
+     */
     @Override
     public PsiElement getDocumentationElementForLookupItem(PsiManager psiManager, Object object, PsiElement element) {
+        if (interactive) {
+            lookupPrefetcher.prefetchAfterCurrentItem(psiManager.getProject());
+        }
         return super.getDocumentationElementForLookupItem(psiManager, object, element);
     }
 
@@ -335,9 +517,22 @@ public class TypeAssistDocumentationProvider extends AbstractDocumentationProvid
         return super.getDocumentationElementForLink(psiManager, link, context);
     }
 
+    /**
+     * When the reference at the caret does not resolve such as {@code Book[3]}, the declaration is found by name in the
+     * {@code TypeShapeIndex} so documentation can still be shown.
+     *
+     * <p>Called for every documentation request, so anything that is not syntactically a type name is ruled out
+     * first and the reference is only resolved once the index knows its name.</p>
+     */
     @Nullable
     @Override
     public PsiElement getCustomDocumentationElement(@NotNull Editor editor, @NotNull PsiFile file, @Nullable PsiElement contextElement) {
+        if (contextElement != null) {
+            Optional<PsiElement> indexedDeclaration = TypeAssistPsiUtil.findTypeNameCandidate(contextElement)
+                    .flatMap(reference -> TypeShapeIndex.findDeclaration(file.getProject(), reference.getReferenceName())
+                            .filter(declaration -> TypeAssistPsiUtil.isUnresolved(reference)));
+            if (indexedDeclaration.isPresent()) return indexedDeclaration.get();
+        }
         return super.getCustomDocumentationElement(editor, file, contextElement);
     }
 
@@ -347,6 +542,20 @@ public class TypeAssistDocumentationProvider extends AbstractDocumentationProvid
         return super.getLocalImageForElement(element, imageSpec);
     }
 
+    /**
+     * Lists the members of aliases such as {@code Partial<Omit<Entity, 'id'>>} below their type when they can be
+     * evaluated.
+     */
+    private void writeEvaluatedMembers(Optional<TypeScriptObjectPropertyGroup> propertyGroup, StringBuilder docBuilder,
+                                       FindReplacePairs findReplacePairs) {
+        propertyGroup
+                .filter(propertyGroup -> !propertyGroup.getPropertySignatures().isEmpty())
+                .ifPresent(propertyGroup -> {
+                    docBuilder.append(HtmlUtils.horizontalLine());
+                    writeObjectDocumentation(propertyGroup, docBuilder, findReplacePairs);
+                });
+    }
+
     /**
      * Writes documentation for all {@code TypeScriptObjectPropertyGroup} categories into the supplied
      * {@code StringBuilder}.
@@ -0,0 +1,66 @@
+package documentation.export;
+
+import com.intellij.ide.impl.ProjectUtil;
+import com.intellij.openapi.application.ApplicationStarter;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+
+import java.io.File;
+
+/**
+ * Headless entry point to export the documentation of a project into a static html site, see
+ * {@link HtmlDocumentationExporter}.
+ *
+ * <pre>
+ *     idea typeAssistExportDocs &lt;projectPath&gt; &lt;outputDirectory&gt; [threads]
+ * </pre>
+ *
+ * <p>Must be registered in plugin.xml under appStarter.</p>
+ */
+public class DocumentationExportStarter implements ApplicationStarter {
+    private static final Logger LOG = Logger.getInstance(DocumentationExportStarter.class);
+
+    @Override
+    public String getCommandName() {
+        return "typeAssistExportDocs";
+    }
+
+    @Override
+    public void premain(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Usage: " + getCommandName() + " <projectPath> <outputDirectory> [threads]");
+            System.exit(1);
+        }
+    }
+
+    @Override
+    public void main(String[] args) {
+        // args[0] is the command name.
+        String projectPath = args[1];
+        File outputDirectory = new File(args[2]);
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        Project project = ProjectUtil.openOrImport(projectPath, null, false);
+        if (project == null) {
+            LOG.error("Unable to open project " + projectPath);
+            System.exit(1);
+            return;
+        }
+
+        int exitCode = 0;
+        try {
+            DumbService.getInstance(project).waitForSmartMode();
+            long start = System.currentTimeMillis();
+            int rendered = new HtmlDocumentationExporter(project, outputDirectory, threads).export();
+            System.out.println("Re-rendered " + rendered + " file(s) into " + outputDirectory.getAbsolutePath()
+                    + " in " + (System.currentTimeMillis() - start) + "ms");
+        } catch (Exception e) {
+            LOG.error(e);
+            exitCode = 1;
+        } finally {
+            ProjectUtil.closeAndDispose(project);
+        }
+        System.exit(exitCode);
+    }
+}
@@ -0,0 +1,152 @@
+package documentation.export;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Records the content hash of every exported source file along with the pages rendered from it and what those pages
+ * depend on. Persisted into the export directory so the next export only re-renders files whose content, or the
+ * content of a file their pages were rendered from, has changed.
+ *
+ * <p>Each line of the manifest file is tab separated. Dependencies are the other source files declaring inherited
+ * members and links are the type names hyperlinked from the pages.</p>
+ *
+ * <pre>
+ *     path    contentHash    typeName:typeDefinition:page.html;...    dependencyHash=dependencyPath;...    typeName;...
+ * </pre>
+ */
+class ExportManifest {
+    static final String FILE_NAME = ".type-assist-export";
+
+    private final Map<String, Entry> entries;
+
+    private ExportManifest(Map<String, Entry> entries) {
+        this.entries = entries;
+    }
+
+    static ExportManifest empty() {
+        return new ExportManifest(new TreeMap<>());
+    }
+
+    /**
+     * Loads the manifest within the supplied export directory. A missing or unreadable manifest results in an
+     * empty manifest which simply causes a full export.
+     */
+    static ExportManifest load(File outputDirectory) {
+        File manifestFile = new File(outputDirectory, FILE_NAME);
+        if (!manifestFile.isFile()) return empty();
+
+        Map<String, Entry> entries = new TreeMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(manifestFile), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.split("\t", -1);
+                // Lines written before dependencies were recorded are dropped so their files are rendered again.
+                if (columns.length != 5) continue;
+                entries.put(columns[0], new Entry(columns[1], ExportedType.parseAll(columns[2]),
+                        parseDependencies(columns[3]), parseLinks(columns[4])));
+            }
+        } catch (IOException e) {
+            return empty();
+        }
+        return new ExportManifest(entries);
+    }
+
+    void save(File outputDirectory) throws IOException {
+        File manifestFile = new File(outputDirectory, FILE_NAME);
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(manifestFile), StandardCharsets.UTF_8))) {
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                writer.append(entry.getKey()).append('\t')
+                        .append(entry.getValue().contentHash).append('\t')
+                        .append(ExportedType.formatAll(entry.getValue().types)).append('\t')
+                        .append(formatDependencies(entry.getValue().dependencies)).append('\t')
+                        .append(String.join(";", entry.getValue().links)).append('\n');
+            }
+        }
+    }
+
+    Optional<Entry> get(String path) {
+        return Optional.ofNullable(entries.get(path));
+    }
+
+    void put(String path, Entry entry) {
+        entries.put(path, entry);
+    }
+
+    Set<String> paths() {
+        return entries.keySet();
+    }
+
+    Collection<Entry> values() {
+        return entries.values();
+    }
+
+    private static Map<String, String> parseDependencies(String value) {
+        Map<String, String> dependencies = new TreeMap<>();
+        if (value.isEmpty()) return dependencies;
+        for (String dependency : value.split(";")) {
+            // The hash is hex so the first '=' always separates it from the path.
+            int separator = dependency.indexOf('=');
+            if (separator > 0) dependencies.put(dependency.substring(separator + 1), dependency.substring(0, separator));
+        }
+        return dependencies;
+    }
+
+    private static String formatDependencies(Map<String, String> dependencies) {
+        return dependencies.entrySet().stream()
+                .map(dependency -> dependency.getValue() + "=" + dependency.getKey())
+                .collect(Collectors.joining(";"));
+    }
+
+    private static Set<String> parseLinks(String value) {
+        if (value.isEmpty()) return Collections.emptySet();
+        return new TreeSet<>(Arrays.asList(value.split(";")));
+    }
+
+    static class Entry {
+        final String contentHash;
+        final List<ExportedType> types;
+        // Path to content hash of each other source file the pages were rendered from.
+        final Map<String, String> dependencies;
+        final Set<String> links;
+
+        Entry(String contentHash, List<ExportedType> types, Map<String, String> dependencies, Set<String> links) {
+            this.contentHash = contentHash;
+            this.types = types;
+            this.dependencies = dependencies;
+            this.links = links;
+        }
+    }
+
+    /**
+     * A single type which was rendered into its own page.
+     */
+    static class ExportedType {
+        final String typeName;
+        final String typeDefinition;
+        final String page;
+
+        ExportedType(String typeName, String typeDefinition, String page) {
+            this.typeName = typeName;
+            this.typeDefinition = typeDefinition;
+            this.page = page;
+        }
+
+        static List<ExportedType> parseAll(String value) {
+            if (value.isEmpty()) return Collections.emptyList();
+            return Arrays.stream(value.split(";"))
+                    .map(type -> type.split(":"))
+                    .filter(parts -> parts.length == 3)
+                    .map(parts -> new ExportedType(parts[0], parts[1], parts[2]))
+                    .collect(Collectors.toList());
+        }
+
+        static String formatAll(List<ExportedType> types) {
+            return types.stream()
+                    .map(type -> type.typeName + ":" + type.typeDefinition + ":" + type.page)
+                    .collect(Collectors.joining(";"));
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package documentation.export;
+
+import codeInsight.TypeAssistPsiUtil;
+import com.intellij.lang.javascript.TypeScriptFileType;
+import com.intellij.lang.javascript.psi.JSQualifiedNamedElement;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.FileTypeIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import documentation.TypeAssistDocumentationProvider;
+import documentation.export.ExportManifest.ExportedType;
+import documentation.objectProperties.TypeScriptObjectProperty;
+import documentation.textReplacement.HtmlUtils;
+import documentation.types.TypeDescription;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Renders the documentation of every interface, type alias and enum in a project into a static html site with one
+ * page per type. The html is produced by {@link TypeAssistDocumentationProvider#generateDoc} so the site is identical
+ * to what is displayed in the IDE, except hyperlinks to other types point to their exported page.
+ *
+ * <p>The export is incremental. The {@code ExportManifest} records the content hash of each source file and only
+ * files with a different hash since the previous export are re-rendered, along with files whose pages inherit
+ * members from a changed file or link to a type whose page has moved or been removed. Files are analysed and rendered
+ * in parallel using a fixed size worker pool where each unit of work runs in its own read action.</p>
+ */
+public class HtmlDocumentationExporter {
+
+    private static final Pattern PSI_ELEMENT_LINK = Pattern.compile("<a href=\"psi_element://([^\"]+)\">(.*?)</a>");
+    private static final String INDEX_PAGE = "index.html";
+
+    private final Project project;
+    private final File outputDirectory;
+    private final int threads;
+    // Workers render concurrently and each page needs the standard documentation included.
+    private final TypeAssistDocumentationProvider documentationProvider = new TypeAssistDocumentationProvider(false);
+
+    public HtmlDocumentationExporter(Project project, File outputDirectory, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be greater than 0");
+        }
+        this.project = project;
+        this.outputDirectory = outputDirectory;
+        this.threads = threads;
+    }
+
+    /**
+     * Runs the export.
+     *
+     * @return The number of source files that were re-rendered.
+     */
+    public int export() throws IOException, InterruptedException, ExecutionException {
+        if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+            throw new IOException("Unable to create " + outputDirectory);
+        }
+
+        ExportManifest previous = ExportManifest.load(outputDirectory);
+        ExportManifest next = ExportManifest.empty();
+
+        List<VirtualFile> files = runReadAction(() ->
+                new ArrayList<>(FileTypeIndex.getFiles(TypeScriptFileType.INSTANCE, GlobalSearchScope.projectScope(project))));
+        files.sort(Comparator.comparing(VirtualFile::getPath));
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        List<SourceFile> stale;
+        try {
+            List<SourceFile> sourceFiles = invokeAll(workers, files.stream()
+                    .map(file -> (Callable<SourceFile>) () -> analyse(file, previous))
+                    .collect(Collectors.toList()));
+            Map<String, String> hashByPath = sourceFiles.stream()
+                    .collect(Collectors.toMap(sourceFile -> sourceFile.path, sourceFile -> sourceFile.contentHash,
+                            (first, second) -> first));
+
+            Map<String, String> pageByTypeName = assignPages(sourceFiles, previous, next);
+            Map<String, String> previousPageByTypeName = pageByTypeName(previous);
+
+            stale = sourceFiles.stream()
+                    .filter(sourceFile -> sourceFile.changed
+                            || isStale(previous.get(sourceFile.path).get(), hashByPath, previousPageByTypeName, pageByTypeName))
+                    .collect(Collectors.toList());
+            List<ExportManifest.Entry> rendered = invokeAll(workers, stale.stream()
+                    .map(sourceFile -> (Callable<ExportManifest.Entry>) () ->
+                            render(sourceFile, next.get(sourceFile.path).get(), hashByPath, pageByTypeName))
+                    .collect(Collectors.toList()));
+
+            for (int i = 0; i < stale.size(); i++) {
+                next.put(stale.get(i).path, rendered.get(i));
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        deleteStalePages(previous, next);
+        writeIndex(next);
+        next.save(outputDirectory);
+        return stale.size();
+    }
+
+    /**
+     * Hashes the file content and if it differs from the previous export, collects the types to render.
+     */
+    private SourceFile analyse(VirtualFile file, ExportManifest previous) throws IOException {
+        String path = relativePath(file);
+        String contentHash = hash(file.contentsToByteArray());
+        boolean changed = !previous.get(path).map(entry -> entry.contentHash.equals(contentHash)).orElse(false);
+
+        List<ExportedType> types = Collections.emptyList();
+        if (changed) {
+            types = runReadAction(() -> findTypes(file).stream()
+                    .map(type -> new ExportedType(type.getName(), TypeDescription.create(type).getTypeDefinition().name(), null))
+                    .collect(Collectors.toList()));
+        }
+        return new SourceFile(file, path, contentHash, changed, types);
+    }
+
+    /**
+     * Every type gets a unique page named after the type. Pages of unchanged files are kept so their existing html
+     * remains valid, then pages are allocated for changed files in path order so the naming is deterministic.
+     *
+     * @return The page to link to for each type name, see {@link #pageByTypeName}.
+     */
+    private Map<String, String> assignPages(List<SourceFile> sourceFiles, ExportManifest previous, ExportManifest next) {
+        // Compared ignoring case, Person.html and person.html are the same file on Windows and macOS.
+        Set<String> usedPages = new HashSet<>();
+
+        for (SourceFile sourceFile : sourceFiles) {
+            if (sourceFile.changed) continue;
+            ExportManifest.Entry entry = previous.get(sourceFile.path).get();
+            entry.types.forEach(type -> usedPages.add(pageKey(type.page)));
+            next.put(sourceFile.path, entry);
+        }
+
+        for (SourceFile sourceFile : sourceFiles) {
+            if (!sourceFile.changed) continue;
+            List<ExportedType> pagedTypes = new ArrayList<>();
+            for (ExportedType type : sourceFile.types) {
+                String page = type.typeName + ".html";
+                for (int i = 2; usedPages.contains(pageKey(page)); i++) {
+                    page = type.typeName + "_" + i + ".html";
+                }
+                usedPages.add(pageKey(page));
+                pagedTypes.add(new ExportedType(type.typeName, type.typeDefinition, page));
+            }
+            // The dependencies and links are filled in once the file is rendered.
+            next.put(sourceFile.path, new ExportManifest.Entry(sourceFile.contentHash, pagedTypes,
+                    Collections.emptyMap(), Collections.emptySet()));
+        }
+
+        return pageByTypeName(next);
+    }
+
+    /**
+     * @return The page to link to for each type name. If a type name is declared more than once, the first
+     * declaration in path order receives the links.
+     */
+    private static Map<String, String> pageByTypeName(ExportManifest manifest) {
+        Map<String, String> pageByTypeName = new HashMap<>();
+        for (String path : manifest.paths()) {
+            manifest.get(path).get().types.forEach(type -> pageByTypeName.putIfAbsent(type.typeName, type.page));
+        }
+        return pageByTypeName;
+    }
+
+    /**
+     * An unchanged file is rendered again if a file it inherits members from has changed or been removed, or if a
+     * type it links to now has a different page or none, which would otherwise leave outdated members or dead links.
+     */
+    private static boolean isStale(ExportManifest.Entry entry,
+                                   Map<String, String> hashByPath,
+                                   Map<String, String> previousPageByTypeName,
+                                   Map<String, String> pageByTypeName) {
+        boolean dependencyChanged = entry.dependencies.entrySet().stream()
+                .anyMatch(dependency -> !dependency.getValue().equals(hashByPath.get(dependency.getKey())));
+        return dependencyChanged || entry.links.stream()
+                .anyMatch(typeName -> !Objects.equals(previousPageByTypeName.get(typeName), pageByTypeName.get(typeName)));
+    }
+
+    /**
+     * Writes the pages of each type in {@code entry}.
+     *
+     * @return The entry along with the files and type names the pages depend on.
+     */
+    private ExportManifest.Entry render(SourceFile sourceFile,
+                                        ExportManifest.Entry entry,
+                                        Map<String, String> hashByPath,
+                                        Map<String, String> pageByTypeName) throws IOException {
+        Map<String, String> dependencies = new TreeMap<>();
+        Set<String> links = new TreeSet<>();
+
+        Map<String, String> pages = runReadAction(() -> {
+            Map<String, String> rendered = new LinkedHashMap<>();
+            Map<JSQualifiedNamedElement, ExportedType> declarations = pagesByDeclaration(findTypes(sourceFile.file), entry.types);
+            for (Map.Entry<JSQualifiedNamedElement, ExportedType> page : declarations.entrySet()) {
+                JSQualifiedNamedElement element = page.getKey();
+                ExportedType type = page.getValue();
+
+                String documentation = documentationProvider.generateDoc(element, element);
+                rendered.put(type.page, toPage(type.typeName, sourceFile.path, documentation, pageByTypeName, links));
+                collectDependencies(element, sourceFile.path, hashByPath, dependencies);
+            }
+            return rendered;
+        });
+
+        for (Map.Entry<String, String> page : pages.entrySet()) {
+            FileUtil.writeToFile(new File(outputDirectory, page.getKey()), page.getValue().getBytes(StandardCharsets.UTF_8));
+        }
+        return new ExportManifest.Entry(sourceFile.contentHash, entry.types, dependencies, links);
+    }
+
+    /**
+     * Pairs each declaration with the page assigned to it, the nth declaration of a name receives the nth page of
+     * that name. A declaration without a page, such as one added since the file was analysed, is skipped without
+     * shifting the pages of the declarations following it.
+     */
+    private static Map<JSQualifiedNamedElement, ExportedType> pagesByDeclaration(List<JSQualifiedNamedElement> declarations,
+                                                                                 List<ExportedType> types) {
+        Map<String, Deque<ExportedType>> typesByName = new HashMap<>();
+        types.forEach(type -> typesByName.computeIfAbsent(type.typeName, typeName -> new ArrayDeque<>()).add(type));
+
+        Map<JSQualifiedNamedElement, ExportedType> pages = new LinkedHashMap<>();
+        for (JSQualifiedNamedElement declaration : declarations) {
+            Deque<ExportedType> named = typesByName.get(declaration.getName());
+            if (named != null && !named.isEmpty()) pages.put(declaration, named.poll());
+        }
+        return pages;
+    }
+
+    /**
+     * Adds the other exported source files declaring the members of {@code element}, such as inherited members.
+     */
+    private void collectDependencies(JSQualifiedNamedElement element,
+                                     String path,
+                                     Map<String, String> hashByPath,
+                                     Map<String, String> dependencies) {
+        TypeScriptObjectProperty.of(element).ifPresent(group -> Stream.of(group.getPropertySignatures(),
+                group.getIndexableProperties(), group.getHybridFunctionProperties(), group.getFunctionProperties())
+                .flatMap(List::stream)
+                .forEach(property -> {
+                    PsiElement member = property.getElement();
+                    PsiFile file = member == null ? null : member.getContainingFile();
+                    if (file == null || file.getVirtualFile() == null) return;
+
+                    String dependencyPath = relativePath(file.getVirtualFile());
+                    String dependencyHash = hashByPath.get(dependencyPath);
+                    if (dependencyHash != null && !dependencyPath.equals(path)) {
+                        dependencies.put(dependencyPath, dependencyHash);
+                    }
+                }));
+    }
+
+    private String relativePath(VirtualFile file) {
+        String path = VfsUtilCore.getRelativePath(file, project.getBaseDir(), '/');
+        return path == null ? file.getPath() : path;
+    }
+
+    private List<JSQualifiedNamedElement> findTypes(VirtualFile file) {
+        PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
+        if (psiFile == null) return Collections.emptyList();
+        return TypeAssistPsiUtil.collectTypesOfInterest(psiFile).stream()
+                .filter(type -> type.getName() != null)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param links Receives the type name of every hyperlink, whether or not it has a page.
+     */
+    private String toPage(String typeName, String path, String documentation, Map<String, String> pageByTypeName,
+                          Set<String> links) {
+        StringBuilder body = new StringBuilder();
+        Matcher matcher = PSI_ELEMENT_LINK.matcher(documentation == null ? "No documentation available" : documentation);
+        while (matcher.find()) {
+            links.add(matcher.group(1));
+            String page = pageByTypeName.get(matcher.group(1));
+            String replacement = page == null ? matcher.group(2) : "<a href=\"" + page + "\">" + matcher.group(2) + "</a>";
+            matcher.appendReplacement(body, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(body);
+
+        return "<html><head><meta charset=\"utf-8\"><title>" + StringUtil.escapeXml(typeName) + "</title></head><body>"
+                + "<a href=\"" + INDEX_PAGE + "\">Index</a> " + HtmlUtils.code(StringUtil.escapeXml(path))
+                + HtmlUtils.horizontalLine()
+                + body
+                + "</body></html>";
+    }
+
+    private void writeIndex(ExportManifest manifest) throws IOException {
+        StringBuilder index = new StringBuilder("<html><head><meta charset=\"utf-8\"><title>Types</title></head><body>")
+                .append(HtmlUtils.heading("Types"));
+
+        manifest.values().stream()
+                .flatMap(entry -> entry.types.stream())
+                .sorted(Comparator.comparing((ExportedType type) -> type.typeName).thenComparing(type -> type.page))
+                .forEach(type -> index.append("<a href=\"").append(type.page).append("\">")
+                        .append(HtmlUtils.code(StringUtil.escapeXml(type.typeName))).append("</a> ")
+                        .append(type.typeDefinition).append(HtmlUtils.newLine()));
+
+        index.append("</body></html>");
+        FileUtil.writeToFile(new File(outputDirectory, INDEX_PAGE), index.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Removes pages of types that have been deleted or renamed since the previous export.
+     */
+    private void deleteStalePages(ExportManifest previous, ExportManifest next) {
+        // A page only differing by case from a live page is the same file on a case insensitive file system.
+        Set<String> livePages = next.values().stream()
+                .flatMap(entry -> entry.types.stream())
+                .map(type -> pageKey(type.page))
+                .collect(Collectors.toSet());
+
+        previous.values().stream()
+                .flatMap(entry -> entry.types.stream())
+                .map(type -> type.page)
+                .filter(page -> !livePages.contains(pageKey(page)))
+                .forEach(page -> FileUtil.delete(new File(outputDirectory, page)));
+    }
+
+    private static String pageKey(String page) {
+        return page.toLowerCase(Locale.ROOT);
+    }
+
+    private static <T> List<T> invokeAll(ExecutorService workers, List<Callable<T>> tasks)
+            throws InterruptedException, ExecutionException {
+        List<T> results = new ArrayList<>(tasks.size());
+        for (Future<T> future : workers.invokeAll(tasks)) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    private static <T> T runReadAction(Computable<T> computable) {
+        return ApplicationManager.getApplication().runReadAction(computable);
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            return StringUtil.toHexString(MessageDigest.getInstance("SHA-1").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM is required to support SHA-1.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class SourceFile {
+        private final VirtualFile file;
+        private final String path;
+        private final String contentHash;
+        private final boolean changed;
+        private final List<ExportedType> types;
+
+        private SourceFile(VirtualFile file, String path, String contentHash, boolean changed, List<ExportedType> types) {
+            this.file = file;
+            this.path = path;
+            this.contentHash = contentHash;
+            this.changed = changed;
+            this.types = types;
+        }
+    }
+}
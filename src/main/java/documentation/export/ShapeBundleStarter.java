@@ -0,0 +1,110 @@
+package documentation.export;
+
+import com.intellij.ide.impl.ProjectUtil;
+import com.intellij.lang.javascript.TypeScriptFileType;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ApplicationStarter;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.FileTypeIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import documentation.PersistentDeclarationCache;
+import documentation.index.ShapeBundle;
+import documentation.index.ShapeBundleWriter;
+import documentation.index.TypeShapeIndex;
+import documentation.index.TypeShapeSummary;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Headless entry point which builds the {@link ShapeBundle} shipped in the plugin jar, run at release time against a
+ * project depending on the TypeScript version and {@code @types} packages to bundle.
+ *
+ * <pre>
+ *     idea typeAssistBuildShapeBundle &lt;projectPath&gt; &lt;outputFile&gt; &lt;libraryVersion&gt;
+ * </pre>
+ *
+ * <p>Every {@code .d.ts} file outside the project sources is summarized. The output belongs at
+ * {@code resources/typeShapes/typescript-libraries.shapes}. Must be registered in plugin.xml under appStarter.</p>
+ */
+public class ShapeBundleStarter implements ApplicationStarter {
+    private static final Logger LOG = Logger.getInstance(ShapeBundleStarter.class);
+
+    @Override
+    public String getCommandName() {
+        return "typeAssistBuildShapeBundle";
+    }
+
+    @Override
+    public void premain(String[] args) {
+        if (args.length < 4) {
+            System.err.println("Usage: " + getCommandName() + " <projectPath> <outputFile> <libraryVersion>");
+            System.exit(1);
+        }
+    }
+
+    @Override
+    public void main(String[] args) {
+        // args[0] is the command name.
+        String projectPath = args[1];
+        Path outputFile = Paths.get(args[2]);
+        String libraryVersion = args[3];
+
+        Project project = ProjectUtil.openOrImport(projectPath, null, false);
+        if (project == null) {
+            LOG.error("Unable to open project " + projectPath);
+            System.exit(1);
+            return;
+        }
+
+        int exitCode = 0;
+        try {
+            DumbService.getInstance(project).waitForSmartMode();
+            long start = System.currentTimeMillis();
+            ShapeBundleWriter writer = ApplicationManager.getApplication().runReadAction((Computable<ShapeBundleWriter>) () ->
+                    collect(project, libraryVersion));
+
+            if (outputFile.getParent() != null) Files.createDirectories(outputFile.getParent());
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(outputFile))) {
+                writer.write(out);
+            }
+            System.out.println("Bundled " + writer.size() + " file(s) into " + outputFile.toAbsolutePath()
+                    + " in " + (System.currentTimeMillis() - start) + "ms");
+        } catch (IOException | RuntimeException e) {
+            LOG.error(e);
+            exitCode = 1;
+        } finally {
+            ProjectUtil.closeAndDispose(project);
+        }
+        System.exit(exitCode);
+    }
+
+    private static ShapeBundleWriter collect(Project project, String libraryVersion) {
+        ShapeBundleWriter writer = new ShapeBundleWriter(libraryVersion);
+        List<VirtualFile> files = new ArrayList<>(FileTypeIndex.getFiles(TypeScriptFileType.INSTANCE,
+                GlobalSearchScope.allScope(project)));
+
+        for (VirtualFile file : files) {
+            PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
+            if (psiFile == null || !PersistentDeclarationCache.libraryDeclarationFile(psiFile).isPresent()) continue;
+
+            // Keyed the same as the TypeShapeIndex.
+            Map<String, TypeShapeSummary> summaries = TypeShapeIndex.summarize(psiFile);
+            if (!summaries.isEmpty()) writer.addFile(PersistentDeclarationCache.contentHash(psiFile), summaries);
+        }
+        return writer;
+    }
+}
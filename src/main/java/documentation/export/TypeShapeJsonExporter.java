@@ -0,0 +1,207 @@
+package documentation.export;
+
+import codeInsight.TypeAssistPsiUtil;
+import com.google.gson.stream.JsonWriter;
+import com.intellij.lang.javascript.TypeScriptFileType;
+import com.intellij.lang.javascript.psi.JSQualifiedNamedElement;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.FileTypeIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import documentation.objectProperties.TypeScriptObjectProperty;
+import documentation.objectProperties.TypeScriptObjectPropertyGroup;
+import documentation.types.*;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Streams the shape of every type of interest within a project as JSON Lines, one type per line. The shape is built
+ * from the same {@code TypeDescription} and {@code TypeScriptObjectPropertyGroup} the documentation uses.
+ *
+ * <pre>
+ * {"name":"Person","typeName":"Person&lt;T&gt;","kind":"Interface","file":"src/person.ts","typeParameters":["T"],
+ *  "references":["Address"],"members":[{"category":"property","name":"address","type":"Address",
+ *  "optional":false,"readonly":false,"references":["Address"]}]}
+ * </pre>
+ *
+ * <p>Each record is written as soon as it is created so memory use does not grow with the size of the project.
+ * Referenced type names are collected syntactically and are never resolved.</p>
+ */
+public class TypeShapeJsonExporter {
+
+    private final Project project;
+
+    public TypeShapeJsonExporter(Project project) {
+        this.project = project;
+    }
+
+    /**
+     * Writes all records into the supplied {@code Writer}, which is flushed but not closed.
+     *
+     * @return The number of records written.
+     */
+    public int export(Writer writer, ProgressIndicator indicator) throws IOException {
+        List<VirtualFile> files = ApplicationManager.getApplication().runReadAction((Computable<List<VirtualFile>>) () ->
+                new ArrayList<>(FileTypeIndex.getFiles(TypeScriptFileType.INSTANCE, GlobalSearchScope.projectScope(project))));
+
+        int records = 0;
+        for (int i = 0; i < files.size(); i++) {
+            indicator.checkCanceled();
+            VirtualFile file = files.get(i);
+            indicator.setText2(file.getName());
+            indicator.setFraction((double) i / files.size());
+
+            try {
+                records += ApplicationManager.getApplication().runReadAction((Computable<Integer>) () -> writeFile(file, writer));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        writer.flush();
+        return records;
+    }
+
+    private int writeFile(VirtualFile file, Writer writer) {
+        PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
+        if (psiFile == null) return 0;
+
+        String path = VfsUtilCore.getRelativePath(file, project.getBaseDir(), '/');
+        int records = 0;
+
+        for (JSQualifiedNamedElement type : TypeAssistPsiUtil.collectTypesOfInterest(psiFile)) {
+            TypeDescription typeDescription = TypeDescription.create(type);
+            if (!typeDescription.isValid()) continue;
+
+            try {
+                writeRecord(new JsonWriter(new NonClosingWriter(writer)), type, typeDescription, path == null ? file.getPath() : path);
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            records++;
+        }
+        return records;
+    }
+
+    private void writeRecord(JsonWriter json,
+                             JSQualifiedNamedElement type,
+                             TypeDescription typeDescription,
+                             String path) throws IOException {
+        List<String> typeParameters = TypeAssistPsiUtil.collectGenericTypeParameters(type);
+
+        json.beginObject();
+        json.name("name").value(type.getName());
+        json.name("typeName").value(typeDescription.getTypeName());
+        json.name("kind").value(typeDescription.getTypeDefinition().name());
+        json.name("file").value(path);
+        writeStrings(json.name("typeParameters"), typeParameters);
+        writeStrings(json.name("references"), TypeAssistPsiUtil.collectReferencedTypeNames(type, typeParameters));
+
+        switch (typeDescription.getTypeDefinition()) {
+            case Interface:
+            case TypeAliasObject:
+                Optional<TypeScriptObjectPropertyGroup> propertyGroup = TypeScriptObjectProperty.of(type);
+                json.name("members").beginArray();
+                if (propertyGroup.isPresent()) {
+                    writeMembers(json, "property", propertyGroup.get().getPropertySignatures(), typeParameters);
+                    writeMembers(json, "index", propertyGroup.get().getIndexableProperties(), typeParameters);
+                    writeMembers(json, "call", propertyGroup.get().getHybridFunctionProperties(), typeParameters);
+                    writeMembers(json, "function", propertyGroup.get().getFunctionProperties(), typeParameters);
+                }
+                json.endArray();
+                break;
+            case Union:
+            case Intersection:
+                writeValues(json, UnionOrIntersectionType.of(type));
+                break;
+            case Enum:
+                writeValues(json, EnumField.of(type));
+                break;
+            case TypeAliasSingle:
+                writeValue(json, SingleType.of(type));
+                break;
+            case TypeAliasLiteral:
+                writeValue(json, LiteralType.of(type));
+                break;
+            case TypeAliasFunction:
+                writeValue(json, FunctionType.of(type));
+                break;
+            case TypeAliasMappedType:
+                writeValue(json, MappedType.of(type));
+                break;
+        }
+        json.endObject();
+    }
+
+    private void writeMembers(JsonWriter json,
+                              String category,
+                              List<TypeScriptObjectProperty> properties,
+                              List<String> typeParameters) throws IOException {
+        for (TypeScriptObjectProperty property : properties) {
+            json.beginObject();
+            json.name("category").value(category);
+            json.name("name").value(property.getCodeGenPropertyName().orElse(null));
+            json.name("type").value(property.getPropertyType());
+            json.name("optional").value(property.isOptional());
+            json.name("readonly").value(property.isReadOnly());
+            writeStrings(json.name("references"), referencedTypeNames(property.getElement(), typeParameters));
+            json.endObject();
+        }
+    }
+
+    private void writeValues(JsonWriter json, Optional<? extends List<? extends DescribableType>> values) throws IOException {
+        json.name("values").beginArray();
+        if (values.isPresent()) {
+            for (DescribableType value : values.get()) {
+                json.value(value.getType());
+            }
+        }
+        json.endArray();
+    }
+
+    private void writeValue(JsonWriter json, Optional<? extends DescribableType> value) throws IOException {
+        json.name("value").value(value.map(DescribableType::getType).orElse(null));
+    }
+
+    private void writeStrings(JsonWriter json, Collection<String> values) throws IOException {
+        json.beginArray();
+        for (String value : values) {
+            json.value(value);
+        }
+        json.endArray();
+    }
+
+    private List<String> referencedTypeNames(PsiElement element, List<String> typeParameters) {
+        return TypeAssistPsiUtil.collectReferencedTypeNames(element, typeParameters);
+    }
+
+    /**
+     * A {@code JsonWriter} is created per record, this prevents it from flushing or closing the shared underlying
+     * {@code Writer} so buffering is left entirely to the caller.
+     */
+    private static class NonClosingWriter extends FilterWriter {
+        private NonClosingWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        public void flush() { }
+
+        @Override
+        public void close() { }
+    }
+}
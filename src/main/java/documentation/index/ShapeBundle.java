@@ -0,0 +1,233 @@
+package documentation.index;
+
+import com.intellij.lang.javascript.psi.JSQualifiedNamedElement;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.diagnostic.Logger;
+import documentation.PersistentDeclarationCache;
+import metrics.Counter;
+import metrics.PluginMetrics;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prebuilt {@link TypeShapeSummary}s of the TypeScript standard library and {@code @types} packages, shipped in the
+ * plugin jar so declarations such as those in {@code lib.dom.d.ts} are classified without the index, which is
+ * unavailable while the IDE indexes after starting, and without loading their AST.
+ *
+ * <p>The bundle is generated at release time by {@code ShapeBundleStarter}, on first use it is copied out of the jar
+ * into the IDE system directory and memory mapped. Summaries are found by the SHA-1 of the declaring file's content
+ * so an edited or different version of a library simply misses. The plugin works the same without a bundle.</p>
+ *
+ * <pre>
+ *     int    MAGIC
+ *     int    FORMAT_VERSION
+ *     UTF    library version, such as the TypeScript version the bundle was built from
+ *     UTF    bundle hash, naming the copy in the system directory
+ *     int    file count
+ *     (UTF content hash, int section offset) per file
+ *     per file section: int type count, (UTF name, int length, TypeShapeSummary.EXTERNALIZER bytes) per type,
+ *                       named as keyed by the TypeShapeIndex
+ * </pre>
+ */
+public class ShapeBundle {
+    public static final String RESOURCE = "/typeShapes/typescript-libraries.shapes";
+    static final int MAGIC = 0x54534842;
+    static final int FORMAT_VERSION = 3;
+
+    private static final Logger LOG = Logger.getInstance(ShapeBundle.class);
+    private static volatile Optional<ShapeBundle> instance;
+
+    private final String libraryVersion;
+    private final ByteBuffer buffer;
+    // Content hash to the absolute offset of its section.
+    private final Map<String, Integer> sections;
+    // Names within each section are only read once a type in that file is first looked up.
+    private final Map<String, Map<String, Integer>> namesBySection = new ConcurrentHashMap<>();
+
+    private ShapeBundle(String libraryVersion, ByteBuffer buffer, Map<String, Integer> sections) {
+        this.libraryVersion = libraryVersion;
+        this.buffer = buffer;
+        this.sections = sections;
+    }
+
+    /**
+     * Finds the bundled summary of a library declaration by its qualified name, the AST of its file is not loaded.
+     *
+     * @return Empty if there is no bundle or the declaring file was not bundled.
+     */
+    public static Optional<TypeShapeSummary> findInFile(JSQualifiedNamedElement declaration) {
+        if (declaration.getName() == null || !PersistentDeclarationCache.libraryDeclarationFile(declaration).isPresent()) {
+            return Optional.empty();
+        }
+        Optional<TypeShapeSummary> summary = getInstance().flatMap(bundle ->
+                bundle.find(PersistentDeclarationCache.contentHash(declaration.getContainingFile()),
+                        TypeShapeIndex.key(declaration)));
+        if (summary.isPresent()) PluginMetrics.increment(Counter.ShapeBundleHits);
+        return summary;
+    }
+
+    /**
+     * @return Empty if the plugin was built without a bundle or it cannot be read.
+     */
+    public static Optional<ShapeBundle> getInstance() {
+        Optional<ShapeBundle> current = instance;
+        if (current != null) return current;
+
+        synchronized (ShapeBundle.class) {
+            if (instance == null) instance = load();
+            return instance;
+        }
+    }
+
+    private static Optional<ShapeBundle> load() {
+        try (InputStream resource = ShapeBundle.class.getResourceAsStream(RESOURCE)) {
+            if (resource == null) return Optional.empty();
+
+            BufferedInputStream in = new BufferedInputStream(resource);
+            in.mark(1024);
+            DataInputStream header = new DataInputStream(in);
+            if (header.readInt() != MAGIC || header.readInt() != FORMAT_VERSION) return Optional.empty();
+            header.readUTF();
+            String bundleHash = header.readUTF();
+            in.reset();
+
+            Path directory = Paths.get(PathManager.getSystemPath(), "typescript-type-assist");
+            Path copy = directory.resolve("shapes-" + bundleHash + ".bin");
+            if (!Files.exists(copy)) {
+                Files.createDirectories(directory);
+                Path partial = Files.createTempFile(directory, "shapes-", ".partial");
+                Files.copy(in, partial, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(partial, copy, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return Optional.of(open(copy));
+        } catch (IOException | RuntimeException e) {
+            // The bundle only saves time, everything falls back to the index and PSI without it.
+            LOG.warn("Unable to load the shape bundle " + RESOURCE, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Maps a bundle written by {@code ShapeBundleWriter}.
+     */
+    public static ShapeBundle open(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping remains valid once the channel is closed.
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        DataInputStream in = new DataInputStream(new ByteBufferInputStream(buffer.duplicate()));
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+            throw new IOException("Not a shape bundle of format version " + FORMAT_VERSION + ": " + file);
+        }
+        String libraryVersion = in.readUTF();
+        in.readUTF();
+
+        int fileCount = in.readInt();
+        Map<String, Integer> relativeSections = new HashMap<>(fileCount * 2);
+        for (int i = 0; i < fileCount; i++) {
+            relativeSections.put(in.readUTF(), in.readInt());
+        }
+        int sectionsStart = buffer.capacity() - in.available();
+
+        Map<String, Integer> sections = new HashMap<>(fileCount * 2);
+        relativeSections.forEach((contentHash, offset) -> sections.put(contentHash, sectionsStart + offset));
+        return new ShapeBundle(libraryVersion, buffer, sections);
+    }
+
+    /**
+     * @param contentHash The SHA-1 of the declaring file, see {@code PersistentDeclarationCache.contentHash}.
+     * @param name        The qualified type name, or the simple name of the first declaration with that name.
+     */
+    public Optional<TypeShapeSummary> find(String contentHash, String name) {
+        Integer section = sections.get(contentHash);
+        if (section == null) return Optional.empty();
+
+        Integer position = namesBySection.computeIfAbsent(contentHash, hash -> readNames(section)).get(name);
+        if (position == null) return Optional.empty();
+        try {
+            return Optional.of(TypeShapeSummary.EXTERNALIZER.read(new DataInputStream(new ByteBufferInputStream(at(position)))));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt shape bundle", e);
+        }
+    }
+
+    /**
+     * @return The version of the libraries the bundle was built from.
+     */
+    public String getLibraryVersion() {
+        return libraryVersion;
+    }
+
+    /**
+     * @return The number of bundled files.
+     */
+    public int size() {
+        return sections.size();
+    }
+
+    /**
+     * @return Each type name in the section to the position of its summary.
+     */
+    private Map<String, Integer> readNames(int section) {
+        ByteBuffer sectionBuffer = at(section);
+        DataInputStream in = new DataInputStream(new ByteBufferInputStream(sectionBuffer));
+        try {
+            int typeCount = in.readInt();
+            Map<String, Integer> names = new HashMap<>(typeCount * 2);
+            for (int i = 0; i < typeCount; i++) {
+                String name = in.readUTF();
+                int length = in.readInt();
+                names.put(name, sectionBuffer.position());
+                sectionBuffer.position(sectionBuffer.position() + length);
+            }
+            return names;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt shape bundle", e);
+        }
+    }
+
+    private ByteBuffer at(int position) {
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(position);
+        return duplicate;
+    }
+
+    /**
+     * Reads directly from the buffer, advancing its position.
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) return -1;
+            int read = Math.min(len, buffer.remaining());
+            buffer.get(b, off, read);
+            return read;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
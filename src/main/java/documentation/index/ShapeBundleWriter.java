@@ -0,0 +1,91 @@
+package documentation.index;
+
+import utils.AppUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Collects the summaries of each library file then writes them in the {@link ShapeBundle} format.
+ *
+ * <pre>
+ *     ShapeBundleWriter writer = new ShapeBundleWriter("2.4.1");
+ *     writer.addFile(contentHash, summaries);
+ *     writer.write(outputStream);
+ * </pre>
+ */
+public class ShapeBundleWriter {
+    private final String libraryVersion;
+    // Sorted so the same libraries always produce the same bundle.
+    private final SortedMap<String, SortedMap<String, TypeShapeSummary>> files = new TreeMap<>();
+
+    public ShapeBundleWriter(String libraryVersion) {
+        this.libraryVersion = libraryVersion;
+    }
+
+    /**
+     * @param contentHash The SHA-1 of the file content, see {@code PersistentDeclarationCache.contentHash}.
+     * @param summaries   The summary of each type of interest in the file by simple name, as the
+     *                    {@code TypeShapeIndex} indexes them.
+     */
+    public void addFile(String contentHash, Map<String, TypeShapeSummary> summaries) {
+        files.put(contentHash, new TreeMap<>(summaries));
+    }
+
+    /**
+     * @return The number of files added.
+     */
+    public int size() {
+        return files.size();
+    }
+
+    /**
+     * Writes the bundle into {@code output} which is flushed but not closed.
+     */
+    public void write(OutputStream output) throws IOException {
+        ByteArrayOutputStream sections = new ByteArrayOutputStream();
+        DataOutputStream sectionsOut = new DataOutputStream(sections);
+        Map<String, Integer> sectionOffsets = new LinkedHashMap<>();
+
+        for (Map.Entry<String, SortedMap<String, TypeShapeSummary>> file : files.entrySet()) {
+            sectionOffsets.put(file.getKey(), sectionsOut.size());
+            sectionsOut.writeInt(file.getValue().size());
+
+            for (Map.Entry<String, TypeShapeSummary> type : file.getValue().entrySet()) {
+                ByteArrayOutputStream value = new ByteArrayOutputStream();
+                TypeShapeSummary.EXTERNALIZER.save(new DataOutputStream(value), type.getValue());
+
+                sectionsOut.writeUTF(type.getKey());
+                sectionsOut.writeInt(value.size());
+                value.writeTo(sectionsOut);
+            }
+        }
+
+        DataOutputStream out = new DataOutputStream(output);
+        out.writeInt(ShapeBundle.MAGIC);
+        out.writeInt(ShapeBundle.FORMAT_VERSION);
+        out.writeUTF(libraryVersion);
+        out.writeUTF(bundleHash(sections.toByteArray()));
+        out.writeInt(sectionOffsets.size());
+        for (Map.Entry<String, Integer> section : sectionOffsets.entrySet()) {
+            out.writeUTF(section.getKey());
+            out.writeInt(section.getValue());
+        }
+        sections.writeTo(out);
+        out.flush();
+    }
+
+    /**
+     * Identifies the bundled content, used to name the copy extracted from the plugin jar.
+     */
+    private String bundleHash(byte[] sections) {
+        return AppUtils.sha1Hex(ShapeBundle.FORMAT_VERSION + ":" + libraryVersion + ":" + String.join(",", files.keySet())
+                + ":" + AppUtils.sha1Hex(sections));
+    }
+}
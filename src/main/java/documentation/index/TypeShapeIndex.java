@@ -0,0 +1,214 @@
+package documentation.index;
+
+import codeInsight.TypeAssistPsiUtil;
+import com.intellij.lang.javascript.TypeScriptFileType;
+import com.intellij.lang.javascript.psi.JSQualifiedNamedElement;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Pair;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import documentation.objectProperties.TypeScriptObjectProperty;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Maps the qualified name of each type of interest, such as {@code Orders.Item}, to its {@link TypeShapeSummary}. The
+ * simple name also maps to the first declaration of that name in the file unless a declaration outside any namespace
+ * already owns it. Property signatures are only kept for interfaces and object type aliases.
+ *
+ * <p>References such as {@code Book[3]} frequently fail to resolve, the index allows the shape to still be found by
+ * name alone without loading the AST of the declaring file. It also lets {@code TypeDescription} classify stub backed
+ * declarations by their qualified name, which the stub holds, without loading their AST. Only the changed file is
+ * re-indexed on each edit.</p>
+ */
+public class TypeShapeIndex extends FileBasedIndexExtension<String, TypeShapeSummary> {
+    public static final ID<String, TypeShapeSummary> NAME = ID.create("typescript.type.assist.TypeShapeIndex");
+
+    @NotNull
+    @Override
+    public ID<String, TypeShapeSummary> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, TypeShapeSummary, FileContent> getIndexer() {
+        return inputData -> summarize(inputData.getPsiFile());
+    }
+
+    /**
+     * Summarizes every type of interest in the file as it is indexed, also used to build the {@link ShapeBundle}.
+     * When a qualified name is declared more than once, such as a merged interface, the first declaration is kept.
+     */
+    public static Map<String, TypeShapeSummary> summarize(@NotNull PsiFile file) {
+        Map<String, TypeShapeSummary> shapes = new HashMap<>();
+        Map<String, TypeShapeSummary> bySimpleName = new HashMap<>();
+
+        for (JSQualifiedNamedElement type : TypeAssistPsiUtil.collectTypesOfInterest(file)) {
+            if (type.getName() == null || shapes.containsKey(key(type))) continue;
+            TypeShapeSummary.of(type).ifPresent(summary -> {
+                shapes.put(key(type), summary);
+                bySimpleName.putIfAbsent(type.getName(), summary);
+            });
+        }
+        // Qualified names come first so a simple name never hides the declaration outside any namespace.
+        bySimpleName.forEach(shapes::putIfAbsent);
+        return shapes;
+    }
+
+    /**
+     * @return The qualified name, read from the stub when there is one, otherwise the simple name.
+     */
+    public static String key(@NotNull JSQualifiedNamedElement declaration) {
+        String qualifiedName = declaration.getQualifiedName();
+        return qualifiedName != null ? qualifiedName : declaration.getName();
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<TypeShapeSummary> getValueExternalizer() {
+        return TypeShapeSummary.EXTERNALIZER;
+    }
+
+    @Override
+    public int getVersion() {
+        return 4;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(TypeScriptFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    /**
+     * Finds the first indexed shape with the supplied simple type name, preferring project files over libraries.
+     *
+     * @return Empty while indexing is in progress or if no such type exists.
+     */
+    public static Optional<TypeShapeSummary> find(@NotNull Project project, @NotNull String name) {
+        return findWithFile(project, name).map(pair -> pair.second);
+    }
+
+    /**
+     * Navigates from an indexed shape back to its declaration, only the declaring file is loaded.
+     *
+     * @return The {@code TypeScriptInterface} or {@code TypeScriptTypeAlias} named {@code name}.
+     */
+    public static Optional<PsiElement> findDeclaration(@NotNull Project project, @NotNull String name) {
+        return findWithFile(project, name).flatMap(pair -> {
+            PsiFile psiFile = PsiManager.getInstance(project).findFile(pair.first);
+            if (psiFile == null) return Optional.empty();
+
+            JSQualifiedNamedElement declaration = PsiTreeUtil.getParentOfType(
+                    psiFile.findElementAt(pair.second.getOffset()), JSQualifiedNamedElement.class, false);
+
+            if (declaration == null || !name.equals(declaration.getName()) || !TypeAssistPsiUtil.isTypeOfInterest(declaration)) {
+                return Optional.empty();
+            }
+            return Optional.of(declaration);
+        });
+    }
+
+    /**
+     * Finds the summary of a declaration within its own file by its qualified name, used to classify a declaration
+     * from its stub without loading the AST. Library declarations are first looked up in the {@link ShapeBundle}
+     * which is available while indexing.
+     *
+     * @return Empty when the declaration is not bundled and indexing is in progress or the file is not indexed.
+     */
+    public static Optional<TypeShapeSummary> findInFile(@NotNull JSQualifiedNamedElement declaration) {
+        Project project = declaration.getProject();
+        String name = declaration.getName();
+        VirtualFile file = declaration.getContainingFile().getVirtualFile();
+        if (name == null || file == null) return Optional.empty();
+
+        Optional<TypeShapeSummary> bundled = ShapeBundle.findInFile(declaration);
+        if (bundled.isPresent() || DumbService.isDumb(project)) return bundled;
+
+        return FileBasedIndex.getInstance()
+                .getValues(NAME, key(declaration), GlobalSearchScope.fileScope(project, file)).stream()
+                .findFirst();
+    }
+
+    /**
+     * Adds the properties inherited from the super types of {@code summary}, each looked up by name in the index, in
+     * the same precedence as {@code TypeScriptObjectProperty.of}: declared properties override inherited ones and the
+     * first super type listed wins. Must not be called while indexing.
+     *
+     * @param superTypeFiles Receives the file declaring each super type found.
+     * @return The summary with the flattened properties, only the declared properties while indexing is in progress.
+     */
+    public static TypeShapeSummary flatten(@NotNull Project project, @NotNull TypeShapeSummary summary,
+                                           @NotNull Set<VirtualFile> superTypeFiles) {
+        if (summary.getSuperTypes().isEmpty()) return summary;
+
+        List<TypeScriptObjectProperty> properties = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        addFlattened(project, summary, properties, seen, new HashSet<>(), superTypeFiles);
+        return summary.withProperties(properties);
+    }
+
+    private static void addFlattened(Project project, TypeShapeSummary summary, List<TypeScriptObjectProperty> properties,
+                                     Set<String> seen, Set<String> visited, Set<VirtualFile> superTypeFiles) {
+        List<String> keys = new ArrayList<>();
+        for (TypeScriptObjectProperty property : summary.getProperties()) {
+            String key = property.getCodeGenPropertyName().orElse(property.getType());
+            if (seen.contains(key)) continue;
+            properties.add(property);
+            keys.add(key);
+        }
+        seen.addAll(keys);
+
+        for (String superType : summary.getSuperTypes()) {
+            // A cyclic hierarchy such as 'interface A extends B' and 'interface B extends A' stops at the repeated type.
+            if (!visited.add(superType)) continue;
+            findWithFile(project, superType).ifPresent(indexed -> {
+                superTypeFiles.add(indexed.first);
+                addFlattened(project, indexed.second, properties, seen, visited, superTypeFiles);
+            });
+        }
+    }
+
+    /**
+     * Same as {@link #find} along with the declaring file.
+     */
+    public static Optional<Pair<VirtualFile, TypeShapeSummary>> findWithFile(@NotNull Project project, @NotNull String name) {
+        if (DumbService.isDumb(project)) return Optional.empty();
+
+        GlobalSearchScope projectScope = GlobalSearchScope.projectScope(project);
+        List<Pair<VirtualFile, TypeShapeSummary>> found = new ArrayList<>();
+        FileBasedIndex.getInstance().processValues(NAME, name, null, (file, summary) -> {
+            found.add(Pair.create(file, summary));
+            // Keep searching only while the matches come from libraries.
+            return !projectScope.contains(file);
+        }, GlobalSearchScope.allScope(project));
+
+        return found.stream()
+                .filter(pair -> projectScope.contains(pair.first))
+                .findFirst()
+                .map(Optional::of)
+                .orElseGet(() -> found.stream().findFirst());
+    }
+}
@@ -0,0 +1,234 @@
+package documentation.index;
+
+import com.intellij.lang.javascript.psi.JSQualifiedNamedElement;
+import com.intellij.lang.javascript.psi.JSReferenceExpression;
+import com.intellij.lang.javascript.psi.JSReferenceList;
+import com.intellij.lang.javascript.psi.ecma6.TypeScriptInterface;
+import com.intellij.lang.javascript.psi.ecma6.TypeScriptSingleType;
+import com.intellij.lang.javascript.psi.ecma6.TypeScriptType;
+import com.intellij.lang.javascript.psi.ecma6.TypeScriptTypeAlias;
+import com.intellij.lang.javascript.psi.ecma6.TypeScriptUnionOrIntersectionType;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.IOUtil;
+import documentation.objectProperties.DetachedPropertySignature;
+import documentation.objectProperties.TypeScriptObjectProperty;
+import documentation.objectProperties.TypeScriptObjectPropertyGroup;
+import documentation.types.TypeDefinition;
+import documentation.types.TypeDescription;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The compact shape of a type stored in the {@link TypeShapeIndex}. Only property signatures are kept since they are
+ * all code generation needs, documentation navigates to the declaration using {@link #getOffset}. Types other than
+ * interfaces and object type aliases have no properties and are indexed for their {@code TypeDefinition}.
+ *
+ * <p>Only the declared properties are kept since the index cannot resolve other types while indexing. The names of
+ * the super types are kept instead so {@link TypeShapeIndex#flatten} can add the inherited properties when queried.</p>
+ */
+public class TypeShapeSummary {
+
+    public static final DataExternalizer<TypeShapeSummary> EXTERNALIZER = new DataExternalizer<TypeShapeSummary>() {
+        @Override
+        public void save(DataOutput out, TypeShapeSummary value) throws IOException {
+            IOUtil.writeUTF(out, value.typeName);
+            DataInputOutputUtil.writeINT(out, value.typeDefinition.ordinal());
+            DataInputOutputUtil.writeINT(out, value.offset);
+            DataInputOutputUtil.writeINT(out, value.superTypes.size());
+            for (String superType : value.superTypes) {
+                IOUtil.writeUTF(out, superType);
+            }
+            DataInputOutputUtil.writeINT(out, value.properties.size());
+
+            for (TypeScriptObjectProperty property : value.properties) {
+                IOUtil.writeUTF(out, property.getCodeGenPropertyName().orElse(""));
+                IOUtil.writeUTF(out, property.getPropertyType());
+                out.writeByte((property.isOptional() ? OPTIONAL : 0) | (property.isReadOnly() ? READONLY : 0));
+            }
+        }
+
+        @Override
+        public TypeShapeSummary read(DataInput in) throws IOException {
+            String typeName = IOUtil.readUTF(in);
+            TypeDefinition typeDefinition = TypeDefinition.values()[DataInputOutputUtil.readINT(in)];
+            int offset = DataInputOutputUtil.readINT(in);
+            int superTypeCount = DataInputOutputUtil.readINT(in);
+            List<String> superTypes = new ArrayList<>(superTypeCount);
+            for (int i = 0; i < superTypeCount; i++) {
+                superTypes.add(IOUtil.readUTF(in));
+            }
+            int size = DataInputOutputUtil.readINT(in);
+
+            List<TypeScriptObjectProperty> properties = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                String name = IOUtil.readUTF(in);
+                String propertyType = IOUtil.readUTF(in);
+                byte flags = in.readByte();
+                properties.add(new DetachedPropertySignature(name, propertyType,
+                        (flags & OPTIONAL) != 0, (flags & READONLY) != 0));
+            }
+            return new TypeShapeSummary(typeName, typeDefinition, offset, properties, superTypes);
+        }
+    };
+
+    private static final int OPTIONAL = 1;
+    private static final int READONLY = 1 << 1;
+
+    private final String typeName;
+    private final TypeDefinition typeDefinition;
+    private final int offset;
+    private final List<TypeScriptObjectProperty> properties;
+    private final List<String> superTypes;
+
+    public TypeShapeSummary(String typeName, TypeDefinition typeDefinition, int offset, List<TypeScriptObjectProperty> properties) {
+        this(typeName, typeDefinition, offset, properties, Collections.emptyList());
+    }
+
+    /**
+     * @param superTypes The simple names of the extended interfaces or intersected types in precedence order.
+     */
+    public TypeShapeSummary(String typeName, TypeDefinition typeDefinition, int offset, List<TypeScriptObjectProperty> properties,
+                            List<String> superTypes) {
+        this.typeName = typeName;
+        this.typeDefinition = typeDefinition;
+        this.offset = offset;
+        this.properties = Collections.unmodifiableList(properties);
+        this.superTypes = Collections.unmodifiableList(superTypes);
+    }
+
+    /**
+     * Summarizes a declaration from its own members and the names of its super types, nothing is resolved.
+     *
+     * @return Empty if {@code type} is not a type of interest.
+     */
+    public static Optional<TypeShapeSummary> of(JSQualifiedNamedElement type) {
+        TypeDescription typeDescription = TypeDescription.classify(type);
+        if (typeDescription.getTypeDefinition() == TypeDefinition.None) return Optional.empty();
+
+        List<TypeScriptObjectProperty> properties = new ArrayList<>();
+        if (isObjectShape(typeDescription.getTypeDefinition())) {
+            TypeScriptObjectProperty.ofDeclared(type)
+                    .map(TypeScriptObjectPropertyGroup::getPropertySignatures)
+                    .ifPresent(propertySignatures -> propertySignatures.stream()
+                            .map(property -> new DetachedPropertySignature(property.getCodeGenPropertyName().orElse(""),
+                                    property.getPropertyType(), property.isOptional(), property.isReadOnly()))
+                            .forEach(properties::add));
+        }
+        return Optional.of(new TypeShapeSummary(typeDescription.getTypeName(), typeDescription.getTypeDefinition(),
+                type.getTextOffset(), properties, superTypeNames(type)));
+    }
+
+    private static boolean isObjectShape(TypeDefinition typeDefinition) {
+        return typeDefinition == TypeDefinition.Interface || typeDefinition == TypeDefinition.TypeAliasObject
+                || typeDefinition == TypeDefinition.Intersection;
+    }
+
+    /**
+     * The same super types {@code TypeScriptObjectProperty.of} inherits from, by name since they cannot be resolved
+     * while indexing.
+     */
+    private static List<String> superTypeNames(JSQualifiedNamedElement type) {
+        List<String> names = new ArrayList<>();
+
+        if (type instanceof TypeScriptInterface) {
+            JSReferenceList extendsList = ((TypeScriptInterface) type).getExtendsList();
+            if (extendsList != null) {
+                for (JSReferenceExpression reference : extendsList.getExpressions()) {
+                    if (reference.getReferenceName() != null) names.add(reference.getReferenceName());
+                }
+            }
+        }
+
+        if (type instanceof TypeScriptTypeAlias) {
+            for (PsiElement child : type.getChildren()) {
+                if (!(child instanceof TypeScriptUnionOrIntersectionType)) continue;
+                if (!((TypeScriptUnionOrIntersectionType) child).isIntersectionType()) continue;
+
+                for (TypeScriptType part : ((TypeScriptUnionOrIntersectionType) child).getTypes()) {
+                    if (!(part instanceof TypeScriptSingleType)) continue;
+                    JSReferenceExpression reference = PsiTreeUtil.findChildOfType(part, JSReferenceExpression.class);
+                    if (reference != null && reference.getReferenceName() != null) names.add(reference.getReferenceName());
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * @return The full type name including generics, see {@code TypeDescription.getTypeName}.
+     */
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public TypeDefinition getTypeDefinition() {
+        return typeDefinition;
+    }
+
+    /**
+     * @return The text offset of the declaration name within its file.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return The property signatures as {@code DetachedPropertySignature}s.
+     */
+    public List<TypeScriptObjectProperty> getProperties() {
+        return properties;
+    }
+
+    /**
+     * @return The simple names of the extended interfaces or intersected types in precedence order.
+     */
+    public List<String> getSuperTypes() {
+        return superTypes;
+    }
+
+    /**
+     * @return A copy with {@code properties} in place of the declared properties.
+     */
+    TypeShapeSummary withProperties(List<TypeScriptObjectProperty> properties) {
+        return new TypeShapeSummary(typeName, typeDefinition, offset, properties, superTypes);
+    }
+
+    /*
+     * The index compares values of the same key to decide if anything changed, properties are compared by their
+     * serialized form which is all that is kept.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TypeShapeSummary that = (TypeShapeSummary) o;
+        return offset == that.offset
+                && typeName.equals(that.typeName)
+                && typeDefinition == that.typeDefinition
+                && superTypes.equals(that.superTypes)
+                && propertyKeys().equals(that.propertyKeys());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(typeName, typeDefinition, offset, superTypes, propertyKeys());
+    }
+
+    private List<String> propertyKeys() {
+        List<String> keys = new ArrayList<>(properties.size());
+        for (TypeScriptObjectProperty property : properties) {
+            keys.add(property.getType());
+        }
+        return keys;
+    }
+}
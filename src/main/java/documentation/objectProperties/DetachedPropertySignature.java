@@ -0,0 +1,64 @@
+package documentation.objectProperties;
+
+import com.intellij.psi.PsiElement;
+
+import java.util.Optional;
+
+/**
+ * A property signature such as {@code firstName: string} which is not backed by a {@code PsiElement}.
+ *
+ * <p>Used when the shape of a type is known without having the declaration's syntax tree available, for example
+ * when the shape comes from the {@code TypeShapeIndex}.</p>
+ */
+public class DetachedPropertySignature extends TypeScriptObjectProperty {
+
+    private final String name;
+    private final String propertyType;
+    private final boolean optional;
+    private final boolean readOnly;
+
+    public DetachedPropertySignature(String name, String propertyType, boolean optional, boolean readOnly) {
+        this.name = name;
+        this.propertyType = propertyType;
+        this.optional = optional;
+        this.readOnly = readOnly;
+    }
+
+    @Override
+    public String getType() {
+        return getDocumentationPropertyName().get() + (isOptional() ? "?" : "") + ": " + getPropertyType();
+    }
+
+    @Override
+    public Optional<String> getDocumentationPropertyName() {
+        return Optional.of(readOnly ? "readonly " + name : name);
+    }
+
+    @Override
+    public Optional<String> getCodeGenPropertyName() {
+        return Optional.of(name);
+    }
+
+    @Override
+    public String getPropertyType() {
+        return propertyType;
+    }
+
+    @Override
+    public boolean isOptional() {
+        return optional;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * @return Always {@code null} as there is no backing {@code PsiElement}.
+     */
+    @Override
+    public PsiElement getElement() {
+        return null;
+    }
+}
@@ -1,6 +1,7 @@
 package documentation.objectProperties;
 
 import com.intellij.lang.javascript.psi.ecma6.TypeScriptFunctionSignature;
+import com.intellij.psi.PsiElement;
 
 import java.util.Optional;
 
@@ -42,5 +43,8 @@ public class FunctionSignature extends TypeScriptObjectProperty {
         return false;
     }
 
-
+    @Override
+    public PsiElement getElement() {
+        return functionSignature;
+    }
 }
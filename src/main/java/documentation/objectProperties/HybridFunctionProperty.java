@@ -1,6 +1,7 @@
 package documentation.objectProperties;
 
 import com.intellij.lang.javascript.psi.ecma6.TypeScriptCallSignature;
+import com.intellij.psi.PsiElement;
 
 import java.util.Optional;
 
@@ -56,4 +57,9 @@ public class HybridFunctionProperty extends TypeScriptObjectProperty {
     public boolean isOptional() {
         return callSignature.isOptional();
     }
+
+    @Override
+    public PsiElement getElement() {
+        return callSignature;
+    }
 }
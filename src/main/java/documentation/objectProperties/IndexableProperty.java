@@ -2,6 +2,7 @@ package documentation.objectProperties;
 
 import com.intellij.lang.javascript.psi.ecma6.TypeScriptIndexSignature;
 import com.intellij.lang.javascript.psi.ecmal4.JSAttributeList;
+import com.intellij.psi.PsiElement;
 import com.intellij.psi.util.PsiTreeUtil;
 
 import java.util.Optional;
@@ -66,4 +67,9 @@ public class IndexableProperty extends TypeScriptObjectProperty {
         // Indexable properties cannot be optional.
         return false;
     }
+
+    @Override
+    public PsiElement getElement() {
+        return indexSignature;
+    }
 }
@@ -0,0 +1,63 @@
+package documentation.objectProperties;
+
+import com.intellij.psi.PsiElement;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Wraps any {@code TypeScriptObjectProperty} of a generic declaration substituting the type arguments of a concrete
+ * instantiation into its types, {@code value: T} within {@code Box<string>} becomes {@code value: string}.
+ */
+public class InstantiatedProperty extends TypeScriptObjectProperty {
+
+    private final TypeScriptObjectProperty property;
+    private final Map<String, String> typeArguments;
+
+    public InstantiatedProperty(TypeScriptObjectProperty property, Map<String, String> typeArguments) {
+        this.property = property;
+        this.typeArguments = typeArguments;
+    }
+
+    @Override
+    public String getType() {
+        // The name of a property is never substituted, only its type.
+        if (property.getCodeGenPropertyName().isPresent()) {
+            return getDocumentationPropertyName().orElse("") + (isOptional() ? "?" : "") + ": " + getPropertyType();
+        }
+        return TypeInstantiation.substitute(property.getType(), typeArguments);
+    }
+
+    @Override
+    public Optional<String> getDocumentationPropertyName() {
+        // Function signatures are documented by their full signature rather than a name.
+        if (property.getCodeGenPropertyName().isPresent()) return property.getDocumentationPropertyName();
+        return property.getDocumentationPropertyName()
+                .map(name -> TypeInstantiation.substitute(name, typeArguments));
+    }
+
+    @Override
+    public Optional<String> getCodeGenPropertyName() {
+        return property.getCodeGenPropertyName();
+    }
+
+    @Override
+    public String getPropertyType() {
+        return TypeInstantiation.substitute(property.getPropertyType(), typeArguments);
+    }
+
+    @Override
+    public boolean isOptional() {
+        return property.isOptional();
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return property.isReadOnly();
+    }
+
+    @Override
+    public PsiElement getElement() {
+        return property.getElement();
+    }
+}
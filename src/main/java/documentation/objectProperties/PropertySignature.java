@@ -1,6 +1,7 @@
 package documentation.objectProperties;
 
 import com.intellij.lang.javascript.psi.ecma6.TypeScriptPropertySignature;
+import com.intellij.psi.PsiElement;
 import documentation.objectProperties.TypeScriptObjectProperty;
 
 import java.util.Optional;
@@ -57,4 +58,9 @@ public class PropertySignature extends TypeScriptObjectProperty {
     public boolean isOptional() {
         return typeScriptPropertySignature.isOptional();
     }
+
+    @Override
+    public PsiElement getElement() {
+        return typeScriptPropertySignature;
+    }
 }
@@ -0,0 +1,435 @@
+package documentation.objectProperties;
+
+import cache.PluginCache;
+import com.intellij.lang.ASTNode;
+import com.intellij.lang.javascript.JSTokenTypes;
+import com.intellij.lang.javascript.psi.JSExpressionStatement;
+import com.intellij.lang.javascript.psi.JSProperty;
+import com.intellij.lang.javascript.psi.ecma6.TypeScriptSingleType;
+import com.intellij.lang.javascript.psi.ecma6.TypeScriptType;
+import com.intellij.lang.javascript.psi.ecma6.TypeScriptTypeParameter;
+import com.intellij.lang.javascript.psi.ecma6.TypeScriptTypeParameterList;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import metrics.Counter;
+import metrics.PluginMetrics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Substitutes concrete type arguments such as {@code Response<User>} through the members of a generic declaration.
+ *
+ * <p>Instantiated groups are cached per declaration in a small LRU keyed by the argument list and dropped on the next
+ * PSI change, so a wrapper such as {@code ApiResponse<T>} used at thousands of call sites with the same arguments is
+ * only instantiated once.</p>
+ */
+public class TypeInstantiation {
+
+    private static final int MAX_CACHED_INSTANTIATIONS = 32;
+    // Per declaration, a group of a few hundred members is still cached.
+    private static final long MAX_CACHED_WEIGHT = 256 * 1024;
+    // Across every declaration, so many cached generic types cannot together hold an unbounded amount.
+    private static final long MAX_SHARED_WEIGHT = 4 * 1024 * 1024;
+    private static final long ESTIMATED_PROPERTY_BYTES = 128;
+
+    /**
+     * @param declaration   The generic {@code TypeScriptInterface} or {@code TypeScriptTypeAlias}.
+     * @param typeArguments The type arguments in declaration order, eg {@code [string, User]}.
+     * @return The flattened members of {@code declaration} with each type parameter replaced by its argument, or the
+     * result of {@link TypeScriptObjectProperty#of} if there is nothing to substitute. Declarations without members of
+     * their own are evaluated by {@link UtilityTypeEvaluator}.
+     */
+    public static Optional<TypeScriptObjectPropertyGroup> of(@NotNull PsiElement declaration, @NotNull List<String> typeArguments) {
+        Optional<TypeScriptObjectPropertyGroup> declared = TypeScriptObjectProperty.of(declaration);
+        // Aliases such as Partial<Omit<Entity, 'id'>> have no members of their own to substitute into.
+        if (!declared.isPresent()) return UtilityTypeEvaluator.of(declaration, typeArguments);
+
+        Map<String, String> bindings = bindTypeParameters(declaration, typeArguments);
+        if (bindings.isEmpty()) return declared;
+
+        PluginCache<List<String>, Optional<TypeScriptObjectPropertyGroup>> cache = CachedValuesManager.getCachedValue(declaration, () ->
+                CachedValueProvider.Result.create(createCache("Type instantiation", MAX_CACHED_INSTANTIATIONS),
+                        PsiModificationTracker.MODIFICATION_COUNT));
+
+        List<String> key = new ArrayList<>(bindings.values());
+        Optional<TypeScriptObjectPropertyGroup> cached = cache.get(key);
+        if (cached != null) {
+            PluginMetrics.increment(Counter.TypeInstantiationCacheHits);
+            return cached;
+        }
+        PluginMetrics.increment(Counter.TypeInstantiationCacheMisses);
+
+        Optional<TypeScriptObjectPropertyGroup> instantiated = declared
+                .map(group -> new TypeScriptObjectPropertyGroup.Builder()
+                        .propertySignatures(instantiate(group.getPropertySignatures(), bindings))
+                        .indexableProperties(instantiate(group.getIndexableProperties(), bindings))
+                        .hybridFunctionProperties(instantiate(group.getHybridFunctionProperties(), bindings))
+                        .functionProperties(instantiate(group.getFunctionProperties(), bindings))
+                        .build());
+
+        cache.put(key, instantiated);
+        return instantiated;
+    }
+
+    /**
+     * Finds the type arguments written at a usage of {@code typeName}, handling both a type annotation such as
+     * {@code person: Response<User>} and a statement typed to trigger code generation such as {@code Tree<string>[3]}.
+     *
+     * <p>The usage is the closest enclosing statement or property, and within it the occurrence of {@code typeName}
+     * under or nearest before the caret, so an earlier unrelated occurrence such as {@code Box<number>} in
+     * {@code f(Box<number>, Box<string>)} is not picked up.</p>
+     *
+     * @param elementAtCaret The unresolved element in the current file.
+     * @param typeName       The simple name of the referenced declaration.
+     * @return The type arguments, empty if there are none.
+     */
+    public static List<String> findTypeArguments(@Nullable PsiElement elementAtCaret, @NotNull String typeName) {
+        if (elementAtCaret == null) return Collections.emptyList();
+
+        PsiElement usage = PsiTreeUtil.getParentOfType(elementAtCaret, TypeScriptSingleType.class);
+        if (usage == null) usage = PsiTreeUtil.getParentOfType(elementAtCaret, JSExpressionStatement.class);
+        if (usage == null) usage = PsiTreeUtil.getPrevSiblingOfType(elementAtCaret, JSExpressionStatement.class);
+        if (usage == null) usage = PsiTreeUtil.getParentOfType(elementAtCaret, JSProperty.class);
+        if (usage == null) usage = PsiTreeUtil.getPrevSiblingOfType(elementAtCaret, JSProperty.class);
+        if (usage == null) return Collections.emptyList();
+
+        int caretInUsage = elementAtCaret.getTextRange().getStartOffset() - usage.getTextRange().getStartOffset();
+        return parseTypeArguments(usage.getText(), typeName, caretInUsage);
+    }
+
+    /**
+     * Extracts the type arguments following the first occurrence of {@code typeName} in {@code text}.
+     *
+     * <pre>
+     *     parseTypeArguments("Map&lt;string, Pair&lt;A, B&gt;&gt;[]", "Map") = [string, Pair&lt;A, B&gt;]
+     * </pre>
+     */
+    public static List<String> parseTypeArguments(@NotNull String text, @NotNull String typeName) {
+        return parseTypeArguments(text, typeName, 0);
+    }
+
+    /**
+     * Extracts the type arguments following the last occurrence of {@code typeName} starting at or before
+     * {@code offset}, or the first occurrence if there is none.
+     */
+    public static List<String> parseTypeArguments(@NotNull String text, @NotNull String typeName, int offset) {
+        int nameStart = indexOfWord(text, typeName);
+        if (nameStart == -1) return Collections.emptyList();
+        for (int next = indexOfWord(text, typeName, nameStart + 1); next != -1 && next <= offset;
+             next = indexOfWord(text, typeName, next + 1)) {
+            nameStart = next;
+        }
+
+        int open = nameStart + typeName.length();
+        while (open < text.length() && Character.isWhitespace(text.charAt(open))) open++;
+        if (open >= text.length() || text.charAt(open) != '<') return Collections.emptyList();
+
+        List<String> arguments = new ArrayList<>();
+        int depth = 0;
+        int argumentStart = open + 1;
+
+        for (int i = open + 1; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '<' || c == '(' || c == '[' || c == '{') {
+                depth++;
+            } else if (c == '>' && text.charAt(i - 1) == '=') {
+                // The arrow of a function type, eg () => void
+                continue;
+            } else if (c == ')' || c == ']' || c == '}' || (c == '>' && depth > 0)) {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                arguments.add(text.substring(argumentStart, i).trim());
+                argumentStart = i + 1;
+            } else if (c == '>') {
+                arguments.add(text.substring(argumentStart, i).trim());
+                return arguments.stream().anyMatch(String::isEmpty) ? Collections.emptyList() : arguments;
+            }
+        }
+        // Unbalanced, the user is probably still typing.
+        return Collections.emptyList();
+    }
+
+    /**
+     * Replaces each type parameter in {@code type} found in {@code bindings}, such as the {@code T} of {@code value: T}.
+     * Only identifiers in a type position are replaced, the following are left untouched.
+     * <ul>
+     *     <li>String literals and members such as {@code T.length}.</li>
+     *     <li>Property, parameter and method names such as {@code fn} in {@code map(fn: T): void}.</li>
+     *     <li>Type parameters declared within {@code type} which shadow a binding until their enclosing brackets close,
+     *     such as the {@code T} of {@code map<T>(fn: (x: T) => T)}, {@code <T>(x: T) => T} or {@code [T in Keys]}.</li>
+     * </ul>
+     */
+    public static String substitute(@NotNull String type, @NotNull Map<String, String> bindings) {
+        if (bindings.isEmpty()) return type;
+
+        StringBuilder sb = new StringBuilder(type.length());
+        Deque<Shadow> shadows = new ArrayDeque<>();
+        // The type parameter list being read and whether its next identifier declares a parameter.
+        Shadow declaring = null;
+        boolean expectTypeParameter = false;
+        // The end of the leading name of a method signature such as map in map<T>(fn: T), -1 until known.
+        int methodNameEnd = -1;
+        boolean seenIdentifier = false;
+        int depth = 0;
+
+        int i = 0;
+        while (i < type.length()) {
+            char c = type.charAt(i);
+
+            if (c == '\'' || c == '"' || c == '`') {
+                int end = type.indexOf(c, i + 1);
+                end = end == -1 ? type.length() : end + 1;
+                sb.append(type, i, end);
+                i = end;
+                continue;
+            }
+
+            if (Character.isJavaIdentifierStart(c)) {
+                int end = i + 1;
+                while (end < type.length() && Character.isJavaIdentifierPart(type.charAt(end))) end++;
+                String identifier = type.substring(i, end);
+                boolean leading = !seenIdentifier && depth == 0;
+                seenIdentifier = true;
+
+                if (declaring != null && expectTypeParameter) {
+                    declaring.names.add(identifier);
+                    expectTypeParameter = false;
+                } else if (isMappedKey(type, i, end)) {
+                    // [K in Keys] is within both the object and index brackets, K is visible for the rest of the object.
+                    Shadow mapped = new Shadow(depth - 1);
+                    mapped.names.add(identifier);
+                    shadows.push(mapped);
+                } else {
+                    if (leading && isMethodName(type, end)) methodNameEnd = end;
+                    boolean replace = bindings.containsKey(identifier)
+                            && shadows.stream().noneMatch(shadow -> shadow.names.contains(identifier))
+                            // Property access such as T.length is left alone.
+                            && !(i > 0 && type.charAt(i - 1) == '.')
+                            && !isName(type, i, end)
+                            && end != methodNameEnd;
+                    sb.append(replace ? bindings.get(identifier) : identifier);
+                    i = end;
+                    continue;
+                }
+                sb.append(identifier);
+                i = end;
+                continue;
+            }
+
+            if (c == '<') {
+                if (declaresTypeParameters(type, i, methodNameEnd)) {
+                    declaring = new Shadow(depth);
+                    shadows.push(declaring);
+                    expectTypeParameter = true;
+                }
+                depth++;
+            } else if (c == '(' || c == '[' || c == '{') {
+                depth++;
+            } else if (c == ',' || c == ';') {
+                if (declaring != null && depth == declaring.depth + 1) expectTypeParameter = true;
+                // The type parameters of a generic function type end with it, such as <T> in (fn: <T>(x: T) => T, y: T).
+                while (!shadows.isEmpty() && shadows.peek().depth >= depth) shadows.pop();
+            } else if ((c == '>' && type.charAt(i - 1) != '=') || c == ')' || c == ']' || c == '}') {
+                depth--;
+                if (declaring != null && depth == declaring.depth) declaring = null;
+                while (!shadows.isEmpty() && shadows.peek().depth > depth) shadows.pop();
+            }
+            sb.append(c);
+            i++;
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return {@code true} if the identifier at {@code start} names a property or parameter, such as {@code fn} in
+     * {@code (fn: T) => void}, rather than being a branch of a conditional type such as {@code A extends B ? T : U}.
+     */
+    private static boolean isName(String type, int start, int end) {
+        int next = skipWhitespace(type, end);
+        if (next < type.length() && type.charAt(next) == '?') next = skipWhitespace(type, next + 1);
+        if (next >= type.length() || type.charAt(next) != ':') return false;
+
+        int previous = start - 1;
+        while (previous >= 0 && Character.isWhitespace(type.charAt(previous))) previous--;
+        return previous < 0
+                || "(,{;.".indexOf(type.charAt(previous)) != -1
+                || type.startsWith("readonly", previous - "readonly".length() + 1);
+    }
+
+    /**
+     * @return {@code true} if the leading identifier ending at {@code end} is followed by parameters, optionally after
+     * type parameters, as in {@code map<T>(fn: T): T}.
+     */
+    private static boolean isMethodName(String type, int end) {
+        int next = skipWhitespace(type, end);
+        if (next < type.length() && type.charAt(next) == '?') next = skipWhitespace(type, next + 1);
+        if (next < type.length() && type.charAt(next) == '<') next = skipWhitespace(type, closingAngleBracket(type, next) + 1);
+        return next < type.length() && type.charAt(next) == '(';
+    }
+
+    /**
+     * A type parameter list rather than type arguments either follows the method name, or starts a generic function
+     * type where no type name precedes it such as {@code (fn: <U>(x: U) => U)}.
+     */
+    private static boolean declaresTypeParameters(String type, int open, int methodNameEnd) {
+        int previous = open - 1;
+        while (previous >= 0 && Character.isWhitespace(type.charAt(previous))) previous--;
+        if (previous < 0) return true;
+        if (previous + 1 == methodNameEnd) return true;
+
+        char p = type.charAt(previous);
+        boolean followsType = Character.isJavaIdentifierPart(p) || p == ')' || p == ']'
+                || (p == '>' && (previous == 0 || type.charAt(previous - 1) != '='));
+        return !followsType;
+    }
+
+    private static boolean isMappedKey(String type, int start, int end) {
+        int previous = start - 1;
+        while (previous >= 0 && Character.isWhitespace(type.charAt(previous))) previous--;
+        if (previous < 0 || type.charAt(previous) != '[') return false;
+
+        int next = skipWhitespace(type, end);
+        return type.startsWith("in", next) && next + 2 < type.length() && Character.isWhitespace(type.charAt(next + 2));
+    }
+
+    /**
+     * @return The index of the {@code >} closing the {@code <} at {@code open}, or the end of {@code type}.
+     */
+    static int closingAngleBracket(String type, int open) {
+        int depth = 0;
+        for (int i = open; i < type.length(); i++) {
+            char c = type.charAt(i);
+            if (c == '<') {
+                depth++;
+            } else if (c == '>' && type.charAt(i - 1) != '=' && --depth == 0) {
+                return i;
+            }
+        }
+        return type.length();
+    }
+
+    static int skipWhitespace(String text, int index) {
+        while (index < text.length() && Character.isWhitespace(text.charAt(index))) index++;
+        return index;
+    }
+
+    /**
+     * Pairs each type parameter of the declaration with its argument. A missing argument falls back to the
+     * parameters default such as {@code T = string}, otherwise the parameter is left unbound.
+     *
+     * @return The bindings in declaration order.
+     */
+    static Map<String, String> bindTypeParameters(PsiElement declaration, List<String> typeArguments) {
+        Map<String, String> bindings = new LinkedHashMap<>();
+        if (typeArguments.isEmpty()) return bindings;
+
+        TypeScriptTypeParameterList parameterList = PsiTreeUtil.getChildOfType(declaration, TypeScriptTypeParameterList.class);
+        if (parameterList == null) return bindings;
+
+        TypeScriptTypeParameter[] parameters = parameterList.getTypeParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            String name = parameters[i].getName();
+            if (name == null) continue;
+
+            if (i < typeArguments.size()) {
+                bindings.put(name, typeArguments.get(i));
+            } else {
+                defaultType(parameters[i]).ifPresent(defaultType -> bindings.put(name, defaultType));
+            }
+        }
+        return bindings;
+    }
+
+    /**
+     * @return Each type parameter of the declaration in declaration order with its default such as the
+     * {@code string} of {@code T = string}, or empty if it has none.
+     */
+    public static Map<String, Optional<String>> typeParameterDefaults(@NotNull PsiElement declaration) {
+        Map<String, Optional<String>> defaults = new LinkedHashMap<>();
+        TypeScriptTypeParameterList parameterList = PsiTreeUtil.getChildOfType(declaration, TypeScriptTypeParameterList.class);
+        if (parameterList == null) return defaults;
+
+        for (TypeScriptTypeParameter parameter : parameterList.getTypeParameters()) {
+            if (parameter.getName() != null) defaults.put(parameter.getName(), defaultType(parameter));
+        }
+        return defaults;
+    }
+
+    /**
+     * The default is the type following the parameter's own {@code =}, an {@code =>} within a constraint such as
+     * {@code T extends (x: string) => void} belongs to a nested function type.
+     */
+    private static Optional<String> defaultType(TypeScriptTypeParameter parameter) {
+        ASTNode equals = parameter.getNode().findChildByType(JSTokenTypes.EQ);
+        if (equals == null) return Optional.empty();
+
+        TypeScriptType defaultType = PsiTreeUtil.getNextSiblingOfType(equals.getPsi(), TypeScriptType.class);
+        return defaultType == null ? Optional.empty() : Optional.of(defaultType.getText());
+    }
+
+    private static List<TypeScriptObjectProperty> instantiate(List<TypeScriptObjectProperty> properties, Map<String, String> bindings) {
+        return Collections.unmodifiableList(properties.stream()
+                .map(property -> new InstantiatedProperty(property, bindings))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Type parameters declared within a type and the bracket depth outside of which, or past a separator at which,
+     * they are no longer visible.
+     */
+    private static class Shadow {
+        private final int depth;
+        private final Set<String> names = new HashSet<>();
+
+        private Shadow(int depth) {
+            this.depth = depth;
+        }
+    }
+
+    private static int indexOfWord(String text, String word) {
+        return indexOfWord(text, word, 0);
+    }
+
+    private static int indexOfWord(String text, String word, int fromIndex) {
+        int index = text.indexOf(word, fromIndex);
+        while (index != -1) {
+            boolean startBoundary = index == 0 || !Character.isJavaIdentifierPart(text.charAt(index - 1));
+            int end = index + word.length();
+            boolean endBoundary = end == text.length() || !Character.isJavaIdentifierPart(text.charAt(end));
+            if (startBoundary && endBoundary) return index;
+            index = text.indexOf(word, index + 1);
+        }
+        return -1;
+    }
+
+    /**
+     * @param name The name memory use is reported under in the settings.
+     * @return A cache of property groups keyed by type arguments, one is held per declaration and all of the same
+     * name share a budget.
+     */
+    static PluginCache<List<String>, Optional<TypeScriptObjectPropertyGroup>> createCache(String name, int maxEntries) {
+        return new PluginCache.Builder<List<String>, Optional<TypeScriptObjectPropertyGroup>>(name)
+                .maxEntries(maxEntries)
+                .maxWeight(MAX_CACHED_WEIGHT)
+                .sharedMaxWeight(MAX_SHARED_WEIGHT)
+                .weigher(TypeInstantiation::estimateBytes)
+                .build();
+    }
+
+    /**
+     * Properties refer back into the PSI so only their own fields are counted.
+     */
+    private static long estimateBytes(Optional<TypeScriptObjectPropertyGroup> group) {
+        return group.map(value -> 64 + ESTIMATED_PROPERTY_BYTES * (value.getPropertySignatures().size()
+                + value.getIndexableProperties().size()
+                + value.getHybridFunctionProperties().size()
+                + value.getFunctionProperties().size()))
+                .orElse(16L);
+    }
+}
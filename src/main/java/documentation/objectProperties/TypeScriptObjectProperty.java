@@ -1,19 +1,23 @@
 package documentation.objectProperties;
 
 import codeInsight.TypeAssistPsiUtil;
-import com.intellij.lang.javascript.psi.JSParameterList;
-import com.intellij.lang.javascript.psi.JSParameterListElement;
-import com.intellij.lang.javascript.psi.JSType;
+import com.intellij.lang.javascript.psi.*;
 import com.intellij.lang.javascript.psi.ecma6.*;
 import com.intellij.lang.javascript.psi.ecmal4.JSAttributeList;
+import com.intellij.lang.javascript.psi.ecmal4.JSClass;
+import com.intellij.openapi.util.RecursionGuard;
+import com.intellij.openapi.util.RecursionManager;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.intellij.psi.util.PsiTreeUtil;
 import documentation.types.DescribableType;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -27,6 +31,8 @@ import java.util.stream.Stream;
  */
 public abstract class TypeScriptObjectProperty implements DescribableType {
 
+    private static final RecursionGuard INHERITANCE_GUARD = RecursionManager.createGuard("TypeScriptObjectProperty.of");
+
     /**
      * Creates all property groups that can be displayed in the documentation including.
      *
@@ -37,10 +43,47 @@ public abstract class TypeScriptObjectProperty implements DescribableType {
      *     <li>Function signatures</li>
      * </ul>
      *
+     * <p>Members inherited through {@code extends} or the parts of an intersection type alias are flattened into the
+     * result. Members declared by the type itself override inherited members of the same name, and when several
+     * super types declare the same member the first one listed wins. The flattened group is cached until the next
+     * PSI change so every sub type in a deep hierarchy shares the table of its super types. The returned lists
+     * must not be modified.</p>
+     *
      * @param element The element which contains a {@code TypeScriptObjectType}
      * @return The {@code TypeScriptObjectPropertyGroup} containing each of the various categories.
      */
     public static Optional<TypeScriptObjectPropertyGroup> of(@NotNull PsiElement element) {
+        return CachedValuesManager.getCachedValue(element, () ->
+                CachedValueProvider.Result.create(flatten(element), PsiModificationTracker.MODIFICATION_COUNT));
+    }
+
+    private static Optional<TypeScriptObjectPropertyGroup> flatten(PsiElement element) {
+        List<TypeScriptObjectPropertyGroup> groups = new ArrayList<>();
+        ofDeclared(element).ifPresent(groups::add);
+
+        for (PsiElement superType : getSuperTypes(element)) {
+            // A cyclic hierarchy such as 'interface A extends B' and 'interface B extends A' stops at the repeated type.
+            Optional<TypeScriptObjectPropertyGroup> inherited =
+                    INHERITANCE_GUARD.doPreventingRecursion(element, false, () -> of(superType));
+            if (inherited != null) inherited.ifPresent(groups::add);
+        }
+
+        if (groups.isEmpty()) return Optional.empty();
+        if (groups.size() == 1) return Optional.of(groups.get(0));
+
+        return Optional.of(new TypeScriptObjectPropertyGroup.Builder()
+                .propertySignatures(merge(groups, TypeScriptObjectPropertyGroup::getPropertySignatures))
+                .indexableProperties(merge(groups, TypeScriptObjectPropertyGroup::getIndexableProperties))
+                .hybridFunctionProperties(merge(groups, TypeScriptObjectPropertyGroup::getHybridFunctionProperties))
+                .functionProperties(merge(groups, TypeScriptObjectPropertyGroup::getFunctionProperties))
+                .build());
+    }
+
+    /**
+     * The same as {@link #of} except only members declared by the element itself are included. Nothing is resolved
+     * making it safe to use while indexing.
+     */
+    public static Optional<TypeScriptObjectPropertyGroup> ofDeclared(@NotNull PsiElement element) {
         return TypeAssistPsiUtil.getChildTypeScriptObject(element)
                 .map(typeScriptObject -> new TypeScriptObjectPropertyGroup.Builder()
                         .propertySignatures(toPropertySignatures(typeScriptObject))
@@ -50,6 +93,57 @@ public abstract class TypeScriptObjectProperty implements DescribableType {
                         .build());
     }
 
+    /**
+     * Interfaces inherit from their resolved {@code extends} clause. A type alias for an intersection inherits from
+     * each referenced part, object literal parts are already found by {@link #ofDeclared}.
+     */
+    private static List<PsiElement> getSuperTypes(PsiElement element) {
+        List<PsiElement> superTypes = new ArrayList<>();
+
+        if (element instanceof TypeScriptInterface) {
+            for (JSClass superType : ((TypeScriptInterface) element).getSupers()) {
+                if (superType instanceof TypeScriptInterface) superTypes.add(superType);
+            }
+        }
+
+        if (element instanceof TypeScriptTypeAlias) {
+            for (PsiElement child : element.getChildren()) {
+                if (!(child instanceof TypeScriptUnionOrIntersectionType)) continue;
+                if (!((TypeScriptUnionOrIntersectionType) child).isIntersectionType()) continue;
+
+                for (TypeScriptType part : ((TypeScriptUnionOrIntersectionType) child).getTypes()) {
+                    if (!(part instanceof TypeScriptSingleType)) continue;
+                    JSReferenceExpression reference = PsiTreeUtil.findChildOfType(part, JSReferenceExpression.class);
+                    PsiElement resolved = reference == null ? null : reference.resolve();
+                    if (resolved != null && TypeAssistPsiUtil.isTypeOfInterest(resolved)) superTypes.add(resolved);
+                }
+            }
+        }
+        return superTypes;
+    }
+
+    /**
+     * Concatenates the category of each group in precedence order, skipping any member whose key was already supplied
+     * by an earlier group. Overloads within a single group are all kept.
+     */
+    private static List<TypeScriptObjectProperty> merge(List<TypeScriptObjectPropertyGroup> groups,
+                                                        Function<TypeScriptObjectPropertyGroup, List<TypeScriptObjectProperty>> category) {
+        List<TypeScriptObjectProperty> merged = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+
+        for (TypeScriptObjectPropertyGroup group : groups) {
+            List<String> groupKeys = new ArrayList<>();
+            for (TypeScriptObjectProperty property : category.apply(group)) {
+                String key = property.getCodeGenPropertyName().orElse(property.getType());
+                if (seen.contains(key)) continue;
+                merged.add(property);
+                groupKeys.add(key);
+            }
+            seen.addAll(groupKeys);
+        }
+        return Collections.unmodifiableList(merged);
+    }
+
     private static List<TypeScriptObjectProperty> toPropertySignatures(TypeScriptObjectType typeScriptObjectType) {
         return Stream.of(typeScriptObjectType.getChildren())
                 .filter(child -> child instanceof TypeScriptPropertySignature)
@@ -101,6 +195,20 @@ public abstract class TypeScriptObjectProperty implements DescribableType {
      */
     public abstract boolean isOptional();
 
+    /**
+     * @return The {@code PsiElement} this property was created from, or {@code null} for a
+     * {@link DetachedPropertySignature}.
+     */
+    @Nullable
+    public abstract PsiElement getElement();
+
+    /**
+     * @return {@code true} if this property is readonly.
+     */
+    public boolean isReadOnly() {
+        return isReadOnly(getElement());
+    }
+
     /**
      * @param propertySignature The {@code TypeScriptPropertySignature} in which to find a readonly attribute in.
      * @return {@code true} if this property is readonly.
@@ -0,0 +1,288 @@
+package documentation.objectProperties;
+
+import cache.PluginCache;
+import com.intellij.lang.javascript.psi.JSReferenceExpression;
+import com.intellij.lang.javascript.psi.ecma6.TypeScriptMappedType;
+import com.intellij.lang.javascript.psi.ecma6.TypeScriptSingleType;
+import com.intellij.lang.javascript.psi.ecma6.TypeScriptTypeAlias;
+import com.intellij.openapi.util.RecursionGuard;
+import com.intellij.openapi.util.RecursionManager;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiWhiteSpace;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import documentation.index.TypeShapeIndex;
+import metrics.Counter;
+import metrics.PluginMetrics;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Computes the property signatures of type aliases built from the common utility types or a simple mapped type, which
+ * otherwise only have their raw text to show.
+ *
+ * <pre>
+ *     type Draft = Partial&lt;Omit&lt;Entity, 'id'&gt;&gt;
+ *     type Nullable&lt;T&gt; = { [P in keyof T]: T[P] | null }
+ * </pre>
+ *
+ * <p>{@code Partial, Required, Readonly, Pick, Omit} and {@code Record} are supported along with mapped types over
+ * {@code keyof X} or a union of string literals. Anything else such as conditional types is not evaluated. Results
+ * are cached per alias and argument list until the next PSI change.</p>
+ */
+public class UtilityTypeEvaluator {
+
+    private static final RecursionGuard EVALUATION_GUARD = RecursionManager.createGuard("UtilityTypeEvaluator.of");
+    private static final int MAX_CACHED_EVALUATIONS = 32;
+    private static final int MAX_KEY_ALIAS_DEPTH = 8;
+
+    /**
+     * @param alias         The {@code TypeScriptTypeAlias} to evaluate, any other element is not evaluated.
+     * @param typeArguments The type arguments at the usage, may be empty.
+     * @return The evaluated property signatures, empty if the alias cannot be evaluated.
+     */
+    public static Optional<TypeScriptObjectPropertyGroup> of(@NotNull PsiElement alias, @NotNull List<String> typeArguments) {
+        if (!(alias instanceof TypeScriptTypeAlias)) return Optional.empty();
+
+        PluginCache<List<String>, Optional<TypeScriptObjectPropertyGroup>> cache = CachedValuesManager.getCachedValue(alias, () ->
+                CachedValueProvider.Result.create(TypeInstantiation.createCache("Utility type evaluation", MAX_CACHED_EVALUATIONS),
+                        PsiModificationTracker.MODIFICATION_COUNT));
+
+        Optional<TypeScriptObjectPropertyGroup> cached = cache.get(typeArguments);
+        if (cached != null) {
+            PluginMetrics.increment(Counter.UtilityTypeCacheHits);
+            return cached;
+        }
+        PluginMetrics.increment(Counter.UtilityTypeCacheMisses);
+
+        RecursionGuard.StackStamp stamp = EVALUATION_GUARD.markStack();
+        // An alias referring to itself such as 'type A = Partial<A>' stops at the repeated alias.
+        Optional<TypeScriptObjectPropertyGroup> evaluated =
+                EVALUATION_GUARD.doPreventingRecursion(alias, false, () -> evaluateAlias(alias, typeArguments));
+        if (evaluated == null) return Optional.empty();
+
+        // Results computed while a recursive evaluation was cut short are incomplete so are not cached.
+        if (stamp.mayCacheNow()) {
+            cache.put(new ArrayList<>(typeArguments), evaluated);
+        }
+        return evaluated;
+    }
+
+    private static Optional<TypeScriptObjectPropertyGroup> evaluateAlias(PsiElement alias, List<String> typeArguments) {
+        Map<String, String> bindings = TypeInstantiation.bindTypeParameters(alias, typeArguments);
+
+        Optional<List<TypeScriptObjectProperty>> properties = Optional.empty();
+        for (PsiElement child : alias.getChildren()) {
+            if (child instanceof TypeScriptMappedType) {
+                properties = evaluateMapped(TypeInstantiation.substitute(child.getText(), bindings), alias);
+                break;
+            }
+            if (child instanceof TypeScriptSingleType) {
+                properties = evaluate(TypeInstantiation.substitute(child.getText(), bindings), alias);
+                break;
+            }
+        }
+
+        return properties
+                .filter(list -> !list.isEmpty())
+                .map(list -> new TypeScriptObjectPropertyGroup.Builder()
+                        .propertySignatures(Collections.unmodifiableList(list))
+                        .indexableProperties(Collections.emptyList())
+                        .hybridFunctionProperties(Collections.emptyList())
+                        .functionProperties(Collections.emptyList())
+                        .build());
+    }
+
+    /**
+     * @return {@code true} if {@code text} is only {@code name} optionally followed by its type argument list.
+     */
+    private static boolean isWholeReference(String text, String name) {
+        int open = TypeInstantiation.skipWhitespace(text, name.length());
+        if (open == text.length()) return true;
+        if (text.charAt(open) != '<') return false;
+
+        int close = TypeInstantiation.closingAngleBracket(text, open);
+        return close < text.length() && text.substring(close + 1).trim().isEmpty();
+    }
+
+    /**
+     * @param type    The type text such as {@code Partial<Omit<Entity, 'id'>>}.
+     * @param context The element used to resolve type names in {@code type}.
+     */
+    private static Optional<List<TypeScriptObjectProperty>> evaluate(String type, PsiElement context) {
+        String text = type.trim();
+        String name = leadingIdentifier(text);
+        if (name.isEmpty()) return Optional.empty();
+
+        // Anything following the type arguments, such as [] or | null, is not an object shape.
+        if (!isWholeReference(text, name)) return Optional.empty();
+        List<String> arguments = TypeInstantiation.parseTypeArguments(text, name);
+
+        switch (name) {
+            case "Partial":
+                return single(arguments).flatMap(argument -> evaluate(argument, context))
+                        .map(properties -> modify(properties, true, null));
+            case "Required":
+                return single(arguments).flatMap(argument -> evaluate(argument, context))
+                        .map(properties -> modify(properties, false, null));
+            case "Readonly":
+                return single(arguments).flatMap(argument -> evaluate(argument, context))
+                        .map(properties -> modify(properties, null, true));
+            case "Pick":
+            case "Omit":
+                if (arguments.size() != 2) return Optional.empty();
+                boolean keep = name.equals("Pick");
+                Optional<Set<String>> keys = keysOf(arguments.get(1), context, 0);
+                if (!keys.isPresent()) return Optional.empty();
+                return evaluate(arguments.get(0), context)
+                        .map(properties -> properties.stream()
+                                .filter(property -> keys.get().contains(property.getCodeGenPropertyName().orElse("")) == keep)
+                                .collect(Collectors.toList()));
+            case "Record":
+                if (arguments.size() != 2) return Optional.empty();
+                return keysOf(arguments.get(0), context, 0)
+                        .map(recordKeys -> recordKeys.stream()
+                                .map(key -> (TypeScriptObjectProperty) new DetachedPropertySignature(key, arguments.get(1), false, false))
+                                .collect(Collectors.toList()));
+            default:
+                return resolve(name, context)
+                        .flatMap(declaration -> TypeInstantiation.of(declaration, arguments))
+                        .map(TypeScriptObjectPropertyGroup::getPropertySignatures);
+        }
+    }
+
+    /**
+     * Evaluates a mapped type such as {@code { readonly [P in keyof User]?: User[P] | null }} whose type parameters
+     * have already been substituted.
+     */
+    private static Optional<List<TypeScriptObjectProperty>> evaluateMapped(String mappedType, PsiElement context) {
+        String text = StringUtil.trimEnd(StringUtil.trimStart(mappedType.trim(), "{"), "}").trim();
+        text = StringUtil.trimEnd(text, ";").trim();
+
+        int open = text.indexOf('[');
+        int close = text.indexOf(']', open);
+        if (open == -1 || close == -1) return Optional.empty();
+
+        String modifiers = text.substring(0, open).trim();
+        Boolean readOnly = modifiers.equals("-readonly") ? Boolean.FALSE : modifiers.endsWith("readonly") ? Boolean.TRUE : null;
+
+        String[] keyClause = text.substring(open + 1, close).trim().split("\\s+in\\s+", 2);
+        if (keyClause.length != 2) return Optional.empty();
+        String keyVariable = keyClause[0].trim();
+        String keys = keyClause[1].trim();
+
+        String rest = text.substring(close + 1).trim();
+        Boolean optional = null;
+        if (rest.startsWith("-?")) {
+            optional = Boolean.FALSE;
+        } else if (rest.startsWith("?") || rest.startsWith("+?")) {
+            optional = Boolean.TRUE;
+        }
+        int colon = rest.indexOf(':');
+        if (colon == -1) return Optional.empty();
+        String template = rest.substring(colon + 1).trim();
+
+        Boolean mappedOptional = optional;
+        if (keys.startsWith("keyof ")) {
+            String source = keys.substring("keyof ".length()).trim();
+            // Homomorphic mapped types keep the optional and readonly modifiers of the source unless overridden.
+            return evaluate(source, context).map(properties -> properties.stream()
+                    .map(property -> {
+                        String key = property.getCodeGenPropertyName().orElse("");
+                        String propertyType = template.replace(source + "[" + keyVariable + "]", property.getPropertyType());
+                        return (TypeScriptObjectProperty) new DetachedPropertySignature(key,
+                                TypeInstantiation.substitute(propertyType, Collections.singletonMap(keyVariable, "'" + key + "'")),
+                                mappedOptional == null ? property.isOptional() : mappedOptional,
+                                readOnly == null ? property.isReadOnly() : readOnly);
+                    })
+                    .collect(Collectors.toList()));
+        }
+
+        return keysOf(keys, context, 0).map(literalKeys -> literalKeys.stream()
+                .map(key -> (TypeScriptObjectProperty) new DetachedPropertySignature(key,
+                        TypeInstantiation.substitute(template, Collections.singletonMap(keyVariable, "'" + key + "'")),
+                        mappedOptional != null && mappedOptional,
+                        readOnly != null && readOnly))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Evaluates a key type such as {@code 'id' | 'name'}, {@code keyof Entity} or an alias of either.
+     *
+     * @return The property names in declaration order.
+     */
+    private static Optional<Set<String>> keysOf(String keyType, PsiElement context, int depth) {
+        String text = keyType.trim();
+
+        if (text.startsWith("keyof ")) {
+            return evaluate(text.substring("keyof ".length()), context)
+                    .map(properties -> properties.stream()
+                            .map(property -> property.getCodeGenPropertyName().orElse(""))
+                            .collect(Collectors.toCollection(LinkedHashSet::new)));
+        }
+
+        Set<String> keys = new LinkedHashSet<>();
+        for (String part : text.split("\\|")) {
+            String key = part.trim();
+            if (key.length() >= 2 && (key.charAt(0) == '\'' || key.charAt(0) == '"') && key.charAt(key.length() - 1) == key.charAt(0)) {
+                keys.add(key.substring(1, key.length() - 1));
+            } else if (StringUtil.isJavaIdentifier(key) && depth < MAX_KEY_ALIAS_DEPTH) {
+                Optional<Set<String>> aliasKeys = resolve(key, context)
+                        .filter(declaration -> declaration instanceof TypeScriptTypeAlias)
+                        .flatMap(declaration -> aliasBody(declaration))
+                        .flatMap(body -> keysOf(body.getText(), body, depth + 1));
+                if (!aliasKeys.isPresent()) return Optional.empty();
+                keys.addAll(aliasKeys.get());
+            } else {
+                // string, number or some other key type that cannot be listed.
+                return Optional.empty();
+            }
+        }
+        return Optional.of(keys);
+    }
+
+    /**
+     * Resolves {@code name} through a reference of the same name within {@code context}, otherwise by looking it up
+     * in the {@code TypeShapeIndex} as the name may have been substituted in from the usage.
+     */
+    private static Optional<PsiElement> resolve(String name, PsiElement context) {
+        for (JSReferenceExpression reference : PsiTreeUtil.findChildrenOfType(context, JSReferenceExpression.class)) {
+            if (name.equals(reference.getText())) {
+                PsiElement resolved = reference.resolve();
+                if (resolved != null) return Optional.of(resolved);
+            }
+        }
+        return TypeShapeIndex.findDeclaration(context.getProject(), name);
+    }
+
+    private static Optional<PsiElement> aliasBody(PsiElement alias) {
+        return Arrays.stream(alias.getChildren())
+                .filter(child -> !(child instanceof PsiWhiteSpace) && child.getTextLength() > 0)
+                .reduce((first, second) -> second);
+    }
+
+    private static List<TypeScriptObjectProperty> modify(List<TypeScriptObjectProperty> properties, Boolean optional, Boolean readOnly) {
+        return properties.stream()
+                .map(property -> (TypeScriptObjectProperty) new DetachedPropertySignature(
+                        property.getCodeGenPropertyName().orElse(""),
+                        property.getPropertyType(),
+                        optional == null ? property.isOptional() : optional,
+                        readOnly == null ? property.isReadOnly() : readOnly))
+                .collect(Collectors.toList());
+    }
+
+    private static Optional<String> single(List<String> arguments) {
+        return arguments.size() == 1 ? Optional.of(arguments.get(0)) : Optional.empty();
+    }
+
+    private static String leadingIdentifier(String text) {
+        int end = 0;
+        while (end < text.length() && Character.isJavaIdentifierPart(text.charAt(end))) end++;
+        return text.substring(0, end);
+    }
+}
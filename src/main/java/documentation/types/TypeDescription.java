@@ -2,13 +2,20 @@ package documentation.types;
 
 import codeInsight.TypeAssistPsiUtil;
 import com.intellij.lang.javascript.psi.JSFunction;
+import com.intellij.lang.javascript.psi.JSQualifiedNamedElement;
 import com.intellij.lang.javascript.psi.ecma6.*;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.StubBasedPsiElement;
 import com.intellij.psi.util.PsiTreeUtil;
 import documentation.TypeAssistDocumentationProvider;
+import documentation.index.TypeShapeIndex;
+import documentation.index.TypeShapeSummary;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * A {@code TypeDescription} provides extra context such as the specific kind of TypeScript type the
@@ -23,6 +30,7 @@ public class TypeDescription {
     private String typeName;
     private TypeDefinition typeDefinition;
     private PsiElement resolvedElement;
+    private boolean instantiated;
 
     private TypeDescription(String typeName, TypeDefinition typeDefinition, PsiElement resolvedElement) {
         this.typeName = typeName;
@@ -47,6 +55,24 @@ public class TypeDescription {
      * @return The {@code TypeDescription}.
      */
     public static TypeDescription create(@NotNull PsiElement resolvedElement) {
+        if (isStubBacked(resolvedElement)) {
+            // Classifying from children would load the AST of the declaring file which the index already knows about.
+            Optional<TypeShapeSummary> summary = TypeShapeIndex.findInFile((JSQualifiedNamedElement) resolvedElement);
+            if (summary.isPresent()) {
+                return new TypeDescription(summary.get().getTypeName(), summary.get().getTypeDefinition(), resolvedElement);
+            }
+        }
+        return classify(resolvedElement);
+    }
+
+    /**
+     * Classifies the supplied {@code PsiElement} by examining its children which requires the AST. Used directly by
+     * the {@code TypeShapeIndex} which cannot query itself during indexing.
+     *
+     * @param resolvedElement The resolved {@code PsiElement}
+     * @return The {@code TypeDescription}.
+     */
+    public static TypeDescription classify(@NotNull PsiElement resolvedElement) {
         if (resolvedElement instanceof TypeScriptInterface) {
             TypeScriptInterface resolvedInterface = (TypeScriptInterface) resolvedElement;
             String fullTypeName = createFullTypeName(resolvedInterface.getName(), resolvedInterface.getTypeParameterList());
@@ -94,6 +120,38 @@ public class TypeDescription {
         return none();
     }
 
+    /**
+     * Describes a type known only by name such as from the {@code TypeShapeIndex}. Without a resolved element
+     * {@link #isValid} is {@code false}, it exists purely so code generation can use the type name.
+     */
+    public static TypeDescription unresolved(@NotNull String typeName, @NotNull TypeDefinition typeDefinition) {
+        return new TypeDescription(typeName, typeDefinition, null);
+    }
+
+    /**
+     * Replaces the declared type parameters in the type name with concrete arguments, {@code Tree<T>} becomes
+     * {@code Tree<string>}.
+     *
+     * @param typeArguments The arguments, if empty this {@code TypeDescription} is returned unchanged.
+     * @return The instantiated {@code TypeDescription}.
+     */
+    public TypeDescription instantiate(List<String> typeArguments) {
+        if (typeArguments.isEmpty() || typeName == null) return this;
+
+        TypeDescription instantiatedDescription = new TypeDescription(
+                getTypeNameWithoutGenerics() + typeArguments.stream().collect(Collectors.joining(", ", "<", ">")),
+                typeDefinition, resolvedElement);
+        instantiatedDescription.instantiated = true;
+        return instantiatedDescription;
+    }
+
+    /**
+     * @return {@code true} if the type name contains concrete type arguments rather than declared type parameters.
+     */
+    public boolean isInstantiated() {
+        return instantiated;
+    }
+
     public boolean isValid() {
         return typeName != null && typeDefinition != TypeDefinition.None && resolvedElement != null;
     }
@@ -121,6 +179,15 @@ public class TypeDescription {
         return getTypeName().split("<")[0];
     }
 
+    /**
+     * @return {@code true} if the element is a type of interest whose AST has not been loaded.
+     */
+    private static boolean isStubBacked(PsiElement element) {
+        return TypeAssistPsiUtil.isTypeOfInterest(element)
+                && element instanceof StubBasedPsiElement
+                && ((StubBasedPsiElement<?>) element).getStub() != null;
+    }
+
     /**
      * If the interface {@code typeName} is 'Address' and {@code parameterList} is {@code <B extends string>}
      * then the returned value is {@code Address<B extends string>}
@@ -1,6 +1,8 @@
 package highligher;
 
 import com.intellij.openapi.editor.markup.RangeHighlighter;
+import metrics.Counter;
+import metrics.PluginMetrics;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -38,6 +40,7 @@ public class PropertyValueHighlightManager {
      * @param rangeHighlighter The {@code RangeHighlighter} to add.
      */
     public void add(RangeHighlighter rangeHighlighter) {
+        if (rangeHighlighterList.isEmpty()) PluginMetrics.increment(Counter.HighlightSessionsStarted);
         rangeHighlighterList.add(rangeHighlighter);
     }
 
@@ -63,7 +66,9 @@ public class PropertyValueHighlightManager {
      * @return {@code true} if removed otherwise {@code false}.
      */
     public boolean remove(RangeHighlighter rangeHighlighter) {
-        return rangeHighlighterList.remove(rangeHighlighter);
+        boolean removed = rangeHighlighterList.remove(rangeHighlighter);
+        if (removed && rangeHighlighterList.isEmpty()) PluginMetrics.increment(Counter.HighlightSessionsCompleted);
+        return removed;
     }
 
     public boolean isEmpty() {
@@ -29,15 +29,20 @@ public class ShowDocumentationIntention extends PsiElementBaseIntentionAction im
     public void invoke(@NotNull Project project, Editor editor, @NotNull PsiElement psiElement) throws IncorrectOperationException {
         if (editor == null) return;
 
+        // The full description is only built once the user picks the intention.
         TypeDescription typeDescription = TypeAssistPsiUtil.getResolvedTypeDescription(psiElement);
         if (!typeDescription.isValid()) return;
         if (DocumentationManager.getInstance(project) == null) return;
         DocumentationManager.getInstance(project).showJavaDocInfo(typeDescription.getResolvedElement(), psiElement);
     }
 
+    /**
+     * Called on every caret move so only checks the reference at the caret resolves to a type of interest, the
+     * resolve is remembered until the next PSI change.
+     */
     @Override
     public boolean isAvailable(@NotNull Project project, Editor editor, @NotNull PsiElement psiElement) {
-        return editor != null && TypeAssistPsiUtil.getResolvedTypeDescription(psiElement).isValid();
+        return editor != null && TypeAssistPsiUtil.findResolvedTypeOfInterest(psiElement).isPresent();
     }
 
     @Nls
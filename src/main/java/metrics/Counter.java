@@ -0,0 +1,44 @@
+package metrics;
+
+/**
+ * Event counts recorded by {@link PluginMetrics}, these are always collected since an increment is a single
+ * uncontended {@code LongAdder} add.
+ */
+public enum Counter {
+    DocRenders("Documentation renders"),
+    DocRendersShared("Documentation renders shared with an equal request"),
+    DocRendersSuperseded("Documentation renders superseded"),
+    DocPrefetches("Documentation prefetches for completion items"),
+    RenderedDocumentationCacheHits("Rendered documentation cache hits"),
+    RenderedDocumentationCacheMisses("Rendered documentation cache misses"),
+    PersistentCacheHits("Persistent declaration cache hits"),
+    PersistentCacheMisses("Persistent declaration cache misses"),
+    ShapeBundleHits("Prebuilt shape bundle hits"),
+    CodeGenerations("Create object generations"),
+    ReferenceResolves("Documentation reference resolves"),
+    GeneratedCodeCacheHits("Generated code cache hits"),
+    GeneratedCodeCacheMisses("Generated code cache misses"),
+    TypeInstantiationCacheHits("Type instantiation cache hits"),
+    TypeInstantiationCacheMisses("Type instantiation cache misses"),
+    UtilityTypeCacheHits("Utility type cache hits"),
+    UtilityTypeCacheMisses("Utility type cache misses"),
+    CacheLowMemoryClears("Caches cleared on low memory"),
+    CacheBudgetEvictions("Caches shrunk to their shared budget"),
+    HighlightSessionsStarted("Property highlight sessions started"),
+    HighlightSessionsCompleted("Property highlight sessions completed");
+
+    private final String presentableText;
+
+    Counter(String presentableText) {
+        this.presentableText = presentableText;
+    }
+
+    public String getPresentableText() {
+        return presentableText;
+    }
+
+    @Override
+    public String toString() {
+        return presentableText;
+    }
+}
@@ -0,0 +1,52 @@
+package metrics;
+
+import com.intellij.openapi.components.ApplicationComponent;
+import com.intellij.openapi.diagnostic.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Registers {@link TypeAssistMetrics} with the platform MBean server for the lifetime of the application so existing
+ * JMX scrapers can monitor the plugin across developer machines.
+ */
+public class MetricsMBeanRegistrar implements ApplicationComponent {
+    private static final Logger LOG = Logger.getInstance(MetricsMBeanRegistrar.class);
+    private static final String OBJECT_NAME = "com.github.mjstewart.typescript-type-assist:type=Metrics";
+
+    @Override
+    public void initComponent() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new TypeAssistMetrics(), name);
+            }
+        } catch (JMException e) {
+            // Monitoring is optional, the plugin works the same without it.
+            LOG.warn("Unable to register " + OBJECT_NAME, e);
+        }
+    }
+
+    @Override
+    public void disposeComponent() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            LOG.warn("Unable to unregister " + OBJECT_NAME, e);
+        }
+    }
+
+    @NotNull
+    @Override
+    public String getComponentName() {
+        return "TypeAssistMetricsMBeanRegistrar";
+    }
+}
@@ -0,0 +1,111 @@
+package metrics;
+
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowFactory;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.content.Content;
+import com.intellij.ui.content.ContentFactory;
+import com.intellij.ui.table.JBTable;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shows the {@link PluginMetrics} of each phase followed by each counter in a table with buttons to refresh, reset and
+ * export as JSON.
+ */
+public class MetricsToolWindowFactory implements ToolWindowFactory {
+    private static final String[] COLUMNS = {"Metric", "Count", "Mean (ms)", "p50 (ms)", "p90 (ms)", "p99 (ms)", "Max (ms)"};
+
+    @Override
+    public void createToolWindowContent(@NotNull Project project, @NotNull ToolWindow toolWindow) {
+        DefaultTableModel tableModel = new DefaultTableModel(COLUMNS, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        refresh(tableModel);
+
+        JButton refreshButton = new JButton("Refresh");
+        refreshButton.addActionListener(e -> refresh(tableModel));
+
+        JButton resetButton = new JButton("Reset");
+        resetButton.addActionListener(e -> {
+            PluginMetrics.reset();
+            refresh(tableModel);
+        });
+
+        JButton exportButton = new JButton("Export JSON");
+        exportButton.addActionListener(e -> export(project));
+
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        buttons.add(refreshButton);
+        buttons.add(resetButton);
+        buttons.add(exportButton);
+        if (!PluginMetrics.isEnabled()) {
+            buttons.add(new JLabel("Metrics are disabled, enable them in Settings | Tools | TypeScript Type Assist"));
+        }
+
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.add(buttons, BorderLayout.NORTH);
+        panel.add(new JBScrollPane(new JBTable(tableModel)), BorderLayout.CENTER);
+
+        Content content = ContentFactory.SERVICE.getInstance().createContent(panel, "", false);
+        toolWindow.getContentManager().addContent(content);
+    }
+
+    private static void refresh(DefaultTableModel tableModel) {
+        tableModel.setRowCount(0);
+        for (Phase phase : Phase.values()) {
+            Histogram.Snapshot snapshot = PluginMetrics.snapshot(phase);
+            tableModel.addRow(new Object[]{
+                    phase.getPresentableText(),
+                    snapshot.getCount(),
+                    toMillis(snapshot.getMeanNanos()),
+                    toMillis(snapshot.getP50Nanos()),
+                    toMillis(snapshot.getP90Nanos()),
+                    toMillis(snapshot.getP99Nanos()),
+                    toMillis(snapshot.getMaxNanos())});
+        }
+        for (Counter counter : Counter.values()) {
+            tableModel.addRow(new Object[]{counter.getPresentableText(), PluginMetrics.count(counter), "", "", "", "", ""});
+        }
+    }
+
+    private static String toMillis(long nanos) {
+        return String.format("%.2f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private static void export(Project project) {
+        FileSaverDescriptor descriptor = new FileSaverDescriptor("Export Type Assist Metrics",
+                "Choose where to save the metrics as JSON", "json");
+        VirtualFileWrapper target = FileChooserFactory.getInstance()
+                .createSaveFileDialog(descriptor, project)
+                .save(project.getBaseDir(), "type-assist-metrics.json");
+        if (target == null) return;
+
+        File outputFile = target.getFile();
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputFile), StandardCharsets.UTF_8))) {
+            PluginMetrics.writeJson(writer);
+        } catch (IOException e) {
+            Notifications.Bus.notify(new Notification(
+                    "MetricsToolWindow",
+                    "Metrics",
+                    "Unable to write " + outputFile + ": " + e.getMessage(),
+                    NotificationType.ERROR));
+        }
+    }
+}
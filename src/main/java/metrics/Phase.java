@@ -0,0 +1,35 @@
+package metrics;
+
+/**
+ * The timed phases of documentation rendering and code generation.
+ */
+public enum Phase {
+    DocTotal("generateDoc"),
+    DocClassification("generateDoc: classification"),
+    DocReferenceResolution("generateDoc: reference resolution"),
+    DocPropertyGrouping("generateDoc: property grouping"),
+    DocFormatting("generateDoc: formatting"),
+    DocStandardMerge("generateDoc: standard doc merge"),
+
+    CodeGenTotal("Create object"),
+    CodeGenContextDetection("Create object: context detection"),
+    CodeGenGeneration("Create object: generation"),
+    CodeGenInsert("Create object: insert"),
+    CodeGenReformat("Create object: reformat"),
+    CodeGenHighlight("Create object: highlight");
+
+    private final String presentableText;
+
+    Phase(String presentableText) {
+        this.presentableText = presentableText;
+    }
+
+    public String getPresentableText() {
+        return presentableText;
+    }
+
+    @Override
+    public String toString() {
+        return presentableText;
+    }
+}
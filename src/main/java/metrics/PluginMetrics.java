@@ -0,0 +1,123 @@
+package metrics;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the duration of each {@link Phase} when {@code TypeAssistApplicationSettings.COLLECT_METRICS} is on, and
+ * the count of each {@link Counter} at all times.
+ *
+ * <pre>
+ *     try (PluginMetrics.Timer ignored = PluginMetrics.time(Phase.DocFormatting)) {
+ *         ...
+ *     }
+ * </pre>
+ *
+ * <p>When disabled {@link #time} returns a shared no-op timer so the only cost is a volatile read.</p>
+ */
+public class PluginMetrics {
+    private static final Map<Phase, Histogram> HISTOGRAMS = new EnumMap<>(Phase.class);
+    private static final Map<Counter, LongAdder> COUNTERS = new EnumMap<>(Counter.class);
+    private static final Timer NO_OP = () -> {};
+
+    private static volatile boolean enabled;
+
+    static {
+        for (Phase phase : Phase.values()) {
+            HISTOGRAMS.put(phase, new Histogram());
+        }
+        for (Counter counter : Counter.values()) {
+            COUNTERS.put(counter, new LongAdder());
+        }
+    }
+
+    public static void setEnabled(boolean enabled) {
+        PluginMetrics.enabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return A timer which records the elapsed time into the phases histogram when closed.
+     */
+    public static Timer time(Phase phase) {
+        if (!enabled) return NO_OP;
+        Histogram histogram = HISTOGRAMS.get(phase);
+        long start = System.nanoTime();
+        return () -> histogram.record(System.nanoTime() - start);
+    }
+
+    public static void increment(Counter counter) {
+        COUNTERS.get(counter).increment();
+    }
+
+    public static Histogram.Snapshot snapshot(Phase phase) {
+        return HISTOGRAMS.get(phase).snapshot();
+    }
+
+    public static long count(Counter counter) {
+        return COUNTERS.get(counter).sum();
+    }
+
+    /**
+     * @return The fraction of lookups which were hits, 0 if there have been no lookups.
+     */
+    public static double ratio(Counter hits, Counter misses) {
+        long hitCount = count(hits);
+        long total = hitCount + count(misses);
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    public static void reset() {
+        HISTOGRAMS.values().forEach(Histogram::reset);
+        COUNTERS.values().forEach(LongAdder::reset);
+    }
+
+    /**
+     * Writes every phase as a JSON object keyed by phase name with durations in nanoseconds, followed by the counters.
+     *
+     * <pre>
+     * {"DocTotal":{"description":"generateDoc","count":12,"meanNanos":..,"p50Nanos":..,"p90Nanos":..,"p99Nanos":..,"maxNanos":..},
+     *  ..., "counters":{"DocRenders":12, ...}}
+     * </pre>
+     */
+    public static void writeJson(Writer writer) throws IOException {
+        JsonWriter jsonWriter = new JsonWriter(writer);
+        jsonWriter.setIndent("  ");
+        jsonWriter.beginObject();
+        for (Phase phase : Phase.values()) {
+            Histogram.Snapshot snapshot = snapshot(phase);
+            jsonWriter.name(phase.name()).beginObject()
+                    .name("description").value(phase.getPresentableText())
+                    .name("count").value(snapshot.getCount())
+                    .name("meanNanos").value(snapshot.getMeanNanos())
+                    .name("p50Nanos").value(snapshot.getP50Nanos())
+                    .name("p90Nanos").value(snapshot.getP90Nanos())
+                    .name("p99Nanos").value(snapshot.getP99Nanos())
+                    .name("maxNanos").value(snapshot.getMaxNanos())
+                    .endObject();
+        }
+        jsonWriter.name("counters").beginObject();
+        for (Counter counter : Counter.values()) {
+            jsonWriter.name(counter.name()).value(count(counter));
+        }
+        jsonWriter.endObject();
+        jsonWriter.endObject();
+        jsonWriter.flush();
+    }
+
+    /**
+     * Narrows {@code AutoCloseable} so try-with-resources does not need to handle an exception.
+     */
+    public interface Timer extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
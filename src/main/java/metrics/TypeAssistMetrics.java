@@ -0,0 +1,97 @@
+package metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Reads through to {@link PluginMetrics} on each JMX request so nothing is aggregated until a scraper asks.
+ */
+public class TypeAssistMetrics implements TypeAssistMetricsMXBean {
+
+    @Override
+    public boolean isLatencyCollected() {
+        return PluginMetrics.isEnabled();
+    }
+
+    @Override
+    public long getDocRenderCount() {
+        return PluginMetrics.count(Counter.DocRenders);
+    }
+
+    @Override
+    public double getDocLatencyP50Millis() {
+        return millis(Phase.DocTotal, Histogram.Snapshot::getP50Nanos);
+    }
+
+    @Override
+    public double getDocLatencyP90Millis() {
+        return millis(Phase.DocTotal, Histogram.Snapshot::getP90Nanos);
+    }
+
+    @Override
+    public double getDocLatencyP99Millis() {
+        return millis(Phase.DocTotal, Histogram.Snapshot::getP99Nanos);
+    }
+
+    @Override
+    public long getCodeGenerationCount() {
+        return PluginMetrics.count(Counter.CodeGenerations);
+    }
+
+    @Override
+    public double getCodeGenerationLatencyP50Millis() {
+        return millis(Phase.CodeGenTotal, Histogram.Snapshot::getP50Nanos);
+    }
+
+    @Override
+    public double getCodeGenerationLatencyP90Millis() {
+        return millis(Phase.CodeGenTotal, Histogram.Snapshot::getP90Nanos);
+    }
+
+    @Override
+    public double getCodeGenerationLatencyP99Millis() {
+        return millis(Phase.CodeGenTotal, Histogram.Snapshot::getP99Nanos);
+    }
+
+    @Override
+    public long getReferenceResolveCount() {
+        return PluginMetrics.count(Counter.ReferenceResolves);
+    }
+
+    @Override
+    public double getGeneratedCodeCacheHitRatio() {
+        return PluginMetrics.ratio(Counter.GeneratedCodeCacheHits, Counter.GeneratedCodeCacheMisses);
+    }
+
+    @Override
+    public double getTypeInstantiationCacheHitRatio() {
+        return PluginMetrics.ratio(Counter.TypeInstantiationCacheHits, Counter.TypeInstantiationCacheMisses);
+    }
+
+    @Override
+    public double getUtilityTypeCacheHitRatio() {
+        return PluginMetrics.ratio(Counter.UtilityTypeCacheHits, Counter.UtilityTypeCacheMisses);
+    }
+
+    @Override
+    public long getHighlightSessionCount() {
+        return PluginMetrics.count(Counter.HighlightSessionsStarted);
+    }
+
+    /**
+     * Sessions whose editor was closed before every value was typed are never completed so remain open.
+     */
+    @Override
+    public long getOpenHighlightSessionCount() {
+        return Math.max(0, PluginMetrics.count(Counter.HighlightSessionsStarted) - PluginMetrics.count(Counter.HighlightSessionsCompleted));
+    }
+
+    @Override
+    public void reset() {
+        PluginMetrics.reset();
+    }
+
+    private static double millis(Phase phase, ToLongFunction<Histogram.Snapshot> percentile) {
+        return percentile.applyAsLong(PluginMetrics.snapshot(phase)) / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,41 @@
+package metrics;
+
+/**
+ * Exposes {@link PluginMetrics} over JMX as {@code com.github.mjstewart.typescript-type-assist:type=Metrics}.
+ *
+ * <p>Latencies are in milliseconds and are only recorded while {@link #isLatencyCollected} is {@code true}, counts
+ * and cache statistics are always recorded.</p>
+ */
+public interface TypeAssistMetricsMXBean {
+    boolean isLatencyCollected();
+
+    long getDocRenderCount();
+
+    double getDocLatencyP50Millis();
+
+    double getDocLatencyP90Millis();
+
+    double getDocLatencyP99Millis();
+
+    long getCodeGenerationCount();
+
+    double getCodeGenerationLatencyP50Millis();
+
+    double getCodeGenerationLatencyP90Millis();
+
+    double getCodeGenerationLatencyP99Millis();
+
+    long getReferenceResolveCount();
+
+    double getGeneratedCodeCacheHitRatio();
+
+    double getTypeInstantiationCacheHitRatio();
+
+    double getUtilityTypeCacheHitRatio();
+
+    long getHighlightSessionCount();
+
+    long getOpenHighlightSessionCount();
+
+    void reset();
+}
@@ -6,9 +6,11 @@ import com.intellij.openapi.components.State;
 import com.intellij.openapi.components.Storage;
 import com.intellij.openapi.editor.markup.EffectType;
 import com.intellij.util.xmlb.XmlSerializerUtil;
+import metrics.PluginMetrics;
 import org.jetbrains.annotations.Nullable;
 
 import java.awt.*;
+import java.util.Objects;
 
 /**
  * Plugin settings to be persisted.
@@ -35,6 +37,11 @@ public class TypeAssistApplicationSettings implements PersistentStateComponent<T
     public boolean END_WITH_SEMI_COLON;
     public StringStyle STRING_STYLE;
     public VariableDeclaration VARIABLE_DECLARATION;
+    public int NESTED_OBJECT_DEPTH;
+    public boolean MOCK_DATA;
+    public int MOCK_DATA_SEED;
+    public boolean CODE_TEMPLATE_ENABLED;
+    public String CODE_TEMPLATE;
 
     // Property highlights
     public boolean PROPERTY_HIGHLIGHTING;
@@ -48,6 +55,9 @@ public class TypeAssistApplicationSettings implements PersistentStateComponent<T
     public String READONLY_HEX_COLOR;
     public String UNDEFINED_HEX_COLOR;
 
+    // Diagnostics
+    public boolean COLLECT_METRICS;
+
 
     public TypeAssistApplicationSettings() {
         /*
@@ -66,6 +76,11 @@ public class TypeAssistApplicationSettings implements PersistentStateComponent<T
         END_WITH_SEMI_COLON = defaultSettings.END_WITH_SEMI_COLON;
         STRING_STYLE = defaultSettings.STRING_STYLE;
         VARIABLE_DECLARATION = defaultSettings.VARIABLE_DECLARATION;
+        NESTED_OBJECT_DEPTH = defaultSettings.NESTED_OBJECT_DEPTH;
+        MOCK_DATA = defaultSettings.MOCK_DATA;
+        MOCK_DATA_SEED = defaultSettings.MOCK_DATA_SEED;
+        CODE_TEMPLATE_ENABLED = defaultSettings.CODE_TEMPLATE_ENABLED;
+        CODE_TEMPLATE = defaultSettings.CODE_TEMPLATE;
 
         PROPERTY_HIGHLIGHTING = defaultSettings.PROPERTY_HIGHLIGHTING;
         PROPERTY_HIGHLIGHT_HEX_COLOR = defaultSettings.PROPERTY_HIGHLIGHT_HEX_COLOR;
@@ -76,6 +91,8 @@ public class TypeAssistApplicationSettings implements PersistentStateComponent<T
         GENERICS_HEX_COLOR = defaultSettings.GENERICS_HEX_COLOR;
         READONLY_HEX_COLOR = defaultSettings.READONLY_HEX_COLOR;
         UNDEFINED_HEX_COLOR = defaultSettings.UNDEFINED_HEX_COLOR;
+
+        COLLECT_METRICS = defaultSettings.COLLECT_METRICS;
     }
 
     public enum StringStyle {
@@ -145,6 +162,57 @@ public class TypeAssistApplicationSettings implements PersistentStateComponent<T
         }
     }
 
+    /**
+     * Starting points for {@code CODE_TEMPLATE}, see {@code CodeTemplate} for the available tags.
+     */
+    public enum CodeTemplatePreset {
+        FactoryFunction("Factory function",
+                "export function create{{typeName}}(overrides: Partial<{{typeAnnotation}}> = {}): {{typeAnnotation}} {\n" +
+                "    return {\n" +
+                "{{#properties}}        {{name}}: {{value}},\n" +
+                "{{/properties}}        ...overrides\n" +
+                "    };\n" +
+                "}\n"),
+        Builder("Builder",
+                "export class {{typeName}}Builder {\n" +
+                "    private value: Partial<{{typeAnnotation}}> = {};\n" +
+                "{{#properties}}\n" +
+                "    {{name}}({{name}}: {{type}}): this {\n" +
+                "        this.value.{{name}} = {{name}};\n" +
+                "        return this;\n" +
+                "    }\n" +
+                "{{/properties}}\n" +
+                "    build(): {{typeAnnotation}} {\n" +
+                "        return this.value as {{typeAnnotation}};\n" +
+                "    }\n" +
+                "}\n"),
+        Class("Class",
+                "export class {{typeName}}Model implements {{typeAnnotation}} {\n" +
+                "{{#properties}}    {{readonly}}{{name}}{{optional}}: {{type}} = {{value}};\n" +
+                "{{/properties}}}\n"),
+        Json("JSON",
+                "{\n" +
+                "{{#properties}}    \"{{name}}\": {{jsonValue}}{{,}}\n" +
+                "{{/properties}}}\n");
+
+        String presentableText;
+        String template;
+
+        CodeTemplatePreset(String presentableText, String template) {
+            this.presentableText = presentableText;
+            this.template = template;
+        }
+
+        public String getTemplate() {
+            return template;
+        }
+
+        @Override
+        public String toString() {
+            return presentableText;
+        }
+    }
+
     /**
      * Gets the single instance managed by the ide.
      *
@@ -165,6 +233,7 @@ public class TypeAssistApplicationSettings implements PersistentStateComponent<T
     @Override
     public void loadState(TypeAssistApplicationSettings typeAssistApplicationSettings) {
         XmlSerializerUtil.copyBean(typeAssistApplicationSettings, this);
+        PluginMetrics.setEnabled(COLLECT_METRICS);
     }
 
     /**
@@ -184,6 +253,26 @@ public class TypeAssistApplicationSettings implements PersistentStateComponent<T
         return Color.decode(hexCode);
     }
 
+    /**
+     * Not a getter so it is not persisted.
+     *
+     * @return A hash of every setting which affects the generated code, used to key {@code GeneratedCodeCache}.
+     */
+    public long codeGenerationHash() {
+        return Objects.hash(TRAILING_COMMAS, END_WITH_SEMI_COLON, STRING_STYLE, VARIABLE_DECLARATION,
+                NESTED_OBJECT_DEPTH, MOCK_DATA, MOCK_DATA_SEED, CODE_TEMPLATE_ENABLED, CODE_TEMPLATE);
+    }
+
+    /**
+     * Not a getter so it is not persisted.
+     *
+     * @return A hash of every setting which affects rendered documentation, used to key {@code RenderedDocumentationCache}.
+     */
+    public long documentationHash() {
+        return Objects.hash(DOCUMENTATION_SYNTAX_HIGHLIGHTING, OPTIONAL_HEX_COLOR, GENERICS_HEX_COLOR,
+                READONLY_HEX_COLOR, UNDEFINED_HEX_COLOR);
+    }
+
     public StringStyle[] getStringStyles() {
         return StringStyle.values();
     }
@@ -196,12 +285,23 @@ public class TypeAssistApplicationSettings implements PersistentStateComponent<T
         return VariableDeclaration.values();
     }
 
+    public CodeTemplatePreset[] getCodeTemplatePresets() {
+        return CodeTemplatePreset.values();
+    }
+
     private class DefaultSettings {
         // Code style
         private boolean TRAILING_COMMAS = false;
         private boolean END_WITH_SEMI_COLON = true;
         private StringStyle STRING_STYLE = StringStyle.SINGLE_QUOTE;
         private VariableDeclaration VARIABLE_DECLARATION = VariableDeclaration.CONST;
+        // 0 disables nested object generation.
+        private int NESTED_OBJECT_DEPTH = 0;
+        // Off keeps the quoted type names, on only the types that cannot be mocked are quoted and highlighted.
+        private boolean MOCK_DATA = false;
+        private int MOCK_DATA_SEED = 42;
+        private boolean CODE_TEMPLATE_ENABLED = false;
+        private String CODE_TEMPLATE = CodeTemplatePreset.FactoryFunction.getTemplate();
 
         // Property highlighting
         private boolean PROPERTY_HIGHLIGHTING = true;
@@ -214,5 +314,8 @@ public class TypeAssistApplicationSettings implements PersistentStateComponent<T
         private String GENERICS_HEX_COLOR = "#00FFFF";
         private String READONLY_HEX_COLOR = "#FFFF59";
         private String UNDEFINED_HEX_COLOR = "#3BFF00";
+
+        // Diagnostics
+        private boolean COLLECT_METRICS = false;
     }
 }
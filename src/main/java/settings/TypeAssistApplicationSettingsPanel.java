@@ -1,8 +1,12 @@
 package settings;
 
+import cache.PluginCacheRegistry;
+import codeInsight.codeGeneration.CodeTemplate;
 import com.intellij.openapi.options.ConfigurationException;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.ui.JBColor;
 import documentation.textReplacement.HtmlUtils;
+import metrics.PluginMetrics;
 
 import javax.swing.*;
 import javax.swing.colorchooser.AbstractColorChooserPanel;
@@ -10,6 +14,7 @@ import java.awt.*;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.List;
 
 /**
  * UI panel displayed in settings dialog.
@@ -25,6 +30,12 @@ public class TypeAssistApplicationSettingsPanel {
     private JCheckBox endWithSemiColonCheckBox;
     private JComboBox<TypeAssistApplicationSettings.StringStyle> stringStyleComboBox;
     private JComboBox<TypeAssistApplicationSettings.VariableDeclaration> variableDeclarationComboBox;
+    private JSpinner nestedObjectDepthSpinner;
+    private JCheckBox mockDataCheckBox;
+    private JSpinner mockDataSeedSpinner;
+    private JCheckBox codeTemplateCheckBox;
+    private JComboBox<TypeAssistApplicationSettings.CodeTemplatePreset> codeTemplatePresetComboBox;
+    private JTextArea codeTemplateTextArea;
 
     // Property highlighting
     private JCheckBox propertyHighlightEnabledCheckBox;
@@ -43,8 +54,15 @@ public class TypeAssistApplicationSettingsPanel {
     private JLabel readonlyExampleLabel;
     private JLabel undefinedExampleLabel;
 
+    // Diagnostics
+    private JCheckBox collectMetricsCheckBox;
+    private JLabel cacheUsageLabel;
+    private JButton clearCachesButton;
+
     private TypeAssistApplicationSettings settings;
 
+    private static final int MAX_NESTED_OBJECT_DEPTH = 10;
+
     public TypeAssistApplicationSettingsPanel() {
         settings = TypeAssistApplicationSettings.getInstance();
         setSettings();
@@ -129,6 +147,11 @@ public class TypeAssistApplicationSettingsPanel {
             settings.resetToDefault();
             applySettingsToUI();
         });
+
+        clearCachesButton.addActionListener(e -> {
+            PluginCacheRegistry.clearAll();
+            cacheUsageLabel.setText(cacheUsageDescription());
+        });
     }
 
     private void applySettingsToUI() {
@@ -139,6 +162,26 @@ public class TypeAssistApplicationSettingsPanel {
         stringStyleComboBox.getModel().setSelectedItem(settings.STRING_STYLE);
         variableDeclarationComboBox.setModel(new DefaultComboBoxModel<>(settings.getVariableDeclarations()));
         variableDeclarationComboBox.getModel().setSelectedItem(settings.VARIABLE_DECLARATION);
+        nestedObjectDepthSpinner.setModel(new SpinnerNumberModel(settings.NESTED_OBJECT_DEPTH, 0, MAX_NESTED_OBJECT_DEPTH, 1));
+        mockDataCheckBox.setSelected(settings.MOCK_DATA);
+        mockDataSeedSpinner.setModel(new SpinnerNumberModel(settings.MOCK_DATA_SEED, Integer.MIN_VALUE, Integer.MAX_VALUE, 1));
+        mockDataSeedSpinner.setEnabled(mockDataCheckBox.isSelected());
+
+        mockDataCheckBox.addActionListener(e -> mockDataSeedSpinner.setEnabled(mockDataCheckBox.isSelected()));
+
+        codeTemplateCheckBox.setSelected(settings.CODE_TEMPLATE_ENABLED);
+        codeTemplateTextArea.setText(settings.CODE_TEMPLATE);
+        // Nothing is selected since the template may have been edited from any preset.
+        codeTemplatePresetComboBox.setModel(new DefaultComboBoxModel<>(settings.getCodeTemplatePresets()));
+        codeTemplatePresetComboBox.setSelectedIndex(-1);
+        enableCodeTemplateSettings(codeTemplateCheckBox.isSelected());
+
+        codeTemplateCheckBox.addActionListener(e -> enableCodeTemplateSettings(codeTemplateCheckBox.isSelected()));
+        codeTemplatePresetComboBox.addActionListener(e -> {
+            TypeAssistApplicationSettings.CodeTemplatePreset preset =
+                    (TypeAssistApplicationSettings.CodeTemplatePreset) codeTemplatePresetComboBox.getSelectedItem();
+            if (preset != null) codeTemplateTextArea.setText(preset.getTemplate());
+        });
 
         // Property highlighting
         propertyHighlightEnabledCheckBox.setSelected(settings.PROPERTY_HIGHLIGHTING);
@@ -169,6 +212,35 @@ public class TypeAssistApplicationSettingsPanel {
         genericsExampleLabel.setText(genericsDocumentationExample(settings.GENERICS_HEX_COLOR));
         readonlyExampleLabel.setText(readOnlyDocumentationExample(settings.READONLY_HEX_COLOR));
         undefinedExampleLabel.setText(undefinedDocumentationExample(settings.UNDEFINED_HEX_COLOR));
+
+        // Diagnostics
+        collectMetricsCheckBox.setSelected(settings.COLLECT_METRICS);
+        cacheUsageLabel.setText(cacheUsageDescription());
+    }
+
+    /**
+     * Lists the estimated memory of each cache, soft entries are not counted since they can be collected at any time.
+     */
+    private String cacheUsageDescription() {
+        List<PluginCacheRegistry.Usage> usages = PluginCacheRegistry.usage();
+        if (usages.isEmpty()) return "No caches in use";
+
+        StringBuilder description = new StringBuilder("<html>");
+        long totalBytes = 0;
+        for (PluginCacheRegistry.Usage usage : usages) {
+            description.append(usage.getName()).append(": ")
+                    .append(StringUtil.formatFileSize(usage.getEstimatedBytes()))
+                    .append(" in ").append(usage.getEntries()).append(" entries")
+                    .append(" (").append(usage.getSoftEntries()).append(" soft, ")
+                    .append(usage.getInstances()).append(usage.getInstances() == 1 ? " cache" : " caches").append(")<br>");
+            totalBytes += usage.getEstimatedBytes();
+        }
+        return description.append("Total: ").append(StringUtil.formatFileSize(totalBytes)).append("</html>").toString();
+    }
+
+    private void enableCodeTemplateSettings(boolean enabled) {
+        codeTemplatePresetComboBox.setEnabled(enabled);
+        codeTemplateTextArea.setEnabled(enabled);
     }
 
     private void enablePropertyHighlightSettings(boolean enabled) {
@@ -270,6 +342,11 @@ public class TypeAssistApplicationSettingsPanel {
         if (endWithSemiColonCheckBox.isSelected() != settings.END_WITH_SEMI_COLON) return true;
         if (stringStyleComboBox.getSelectedItem() != settings.STRING_STYLE) return true;
         if (variableDeclarationComboBox.getSelectedItem() != settings.VARIABLE_DECLARATION) return true;
+        if ((int) nestedObjectDepthSpinner.getValue() != settings.NESTED_OBJECT_DEPTH) return true;
+        if (mockDataCheckBox.isSelected() != settings.MOCK_DATA) return true;
+        if ((int) mockDataSeedSpinner.getValue() != settings.MOCK_DATA_SEED) return true;
+        if (codeTemplateCheckBox.isSelected() != settings.CODE_TEMPLATE_ENABLED) return true;
+        if (!codeTemplateTextArea.getText().equals(settings.CODE_TEMPLATE)) return true;
         if (propertyHighlightEnabledCheckBox.isSelected() != settings.PROPERTY_HIGHLIGHTING) return true;
         if (highlightStyleComboBox.getSelectedItem() != settings.PROPERTY_HIGHLIGHT_STYLE) return true;
         if (!propertyHighlightColorLabel.getBackground().equals(settings.toColor(settings.PROPERTY_HIGHLIGHT_HEX_COLOR))) return true;
@@ -278,16 +355,28 @@ public class TypeAssistApplicationSettingsPanel {
         if (!genericsColorLabel.getBackground().equals(settings.toColor(settings.GENERICS_HEX_COLOR))) return true;
         if (!readonlyColorLabel.getBackground().equals(settings.toColor(settings.READONLY_HEX_COLOR))) return true;
         if (!undefinedColorLabel.getBackground().equals(settings.toColor(settings.UNDEFINED_HEX_COLOR))) return true;
+        if (collectMetricsCheckBox.isSelected() != settings.COLLECT_METRICS) return true;
 
         return false;
     }
 
     public void apply() throws ConfigurationException {
         if (!isModified()) return;
+        try {
+            CodeTemplate.compile(codeTemplateTextArea.getText());
+        } catch (IllegalArgumentException e) {
+            throw new ConfigurationException(e.getMessage(), "Invalid Code Template");
+        }
+
         settings.TRAILING_COMMAS = trailingCommasCheckBox.isSelected();
         settings.END_WITH_SEMI_COLON = endWithSemiColonCheckBox.isSelected();
         settings.STRING_STYLE = ((TypeAssistApplicationSettings.StringStyle) stringStyleComboBox.getSelectedItem());
         settings.VARIABLE_DECLARATION = ((TypeAssistApplicationSettings.VariableDeclaration) variableDeclarationComboBox.getSelectedItem());
+        settings.NESTED_OBJECT_DEPTH = (int) nestedObjectDepthSpinner.getValue();
+        settings.MOCK_DATA = mockDataCheckBox.isSelected();
+        settings.MOCK_DATA_SEED = (int) mockDataSeedSpinner.getValue();
+        settings.CODE_TEMPLATE_ENABLED = codeTemplateCheckBox.isSelected();
+        settings.CODE_TEMPLATE = codeTemplateTextArea.getText();
         settings.PROPERTY_HIGHLIGHTING = (propertyHighlightEnabledCheckBox.isSelected());
         settings.PROPERTY_HIGHLIGHT_STYLE = (TypeAssistApplicationSettings.PropertyHighlightStyle) highlightStyleComboBox.getSelectedItem();
         settings.PROPERTY_HIGHLIGHT_HEX_COLOR = settings.toHexString(propertyHighlightColorLabel.getBackground());
@@ -296,6 +385,8 @@ public class TypeAssistApplicationSettingsPanel {
         settings.GENERICS_HEX_COLOR = settings.toHexString(genericsColorLabel.getBackground());
         settings.READONLY_HEX_COLOR = settings.toHexString(readonlyColorLabel.getBackground());
         settings.UNDEFINED_HEX_COLOR = settings.toHexString(undefinedColorLabel.getBackground());
+        settings.COLLECT_METRICS = collectMetricsCheckBox.isSelected();
+        PluginMetrics.setEnabled(settings.COLLECT_METRICS);
     }
 
     /**
@@ -1,5 +1,9 @@
 package utils;
 
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.List;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
@@ -15,4 +19,36 @@ public class AppUtils {
                 .mapToObj(i -> mapper.apply(a.get(i), b.get(i)))
                 .collect(Collectors.toList());
     }
+
+    /**
+     * @return The lowercase hex SHA-1 of {@code text} encoded as UTF-8.
+     */
+    public static String sha1Hex(CharSequence text) {
+        MessageDigest digest = sha1();
+        digest.update(StandardCharsets.UTF_8.encode(CharBuffer.wrap(text)));
+        return hex(digest.digest());
+    }
+
+    /**
+     * @return The lowercase hex SHA-1 of {@code bytes}.
+     */
+    public static String sha1Hex(byte[] bytes) {
+        return hex(sha1().digest(bytes));
+    }
+
+    private static MessageDigest sha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is required of every JVM", e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
 }
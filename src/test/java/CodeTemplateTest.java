@@ -0,0 +1,110 @@
+import codeInsight.codeGeneration.AssignableObjectCreator;
+import codeInsight.codeGeneration.CodeGenerationOptions;
+import codeInsight.codeGeneration.CodeGenerator;
+import codeInsight.codeGeneration.CodeTemplate;
+import codeInsight.codeGeneration.TemplateObjectCreator;
+import documentation.objectProperties.DetachedPropertySignature;
+import documentation.objectProperties.TypeScriptObjectProperty;
+import documentation.types.TypeDefinition;
+import documentation.types.TypeDescription;
+import org.junit.Test;
+import settings.TypeAssistApplicationSettings;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+
+public class CodeTemplateTest {
+
+    private static final TypeDescription PERSON = TypeDescription.unresolved("Person", TypeDefinition.Interface);
+
+    // The same layout AssignableObjectCreator hardcodes.
+    private static final String ASSIGNABLE_OBJECT_TEMPLATE =
+            "const {{variableName}}: {{typeAnnotation}} = {\n{{#properties}}{{name}}: {{value}}{{,}}\n{{/properties}}};\n";
+
+    @Test
+    public void render_PropertiesSection_RepeatedWithSeparator() {
+        List<TypeScriptObjectProperty> properties = Arrays.asList(
+                new DetachedPropertySignature("name", "string", false, false),
+                new DetachedPropertySignature("age", "number", true, true));
+
+        String code = templateCreator("{{#properties}}{{readonly}}{{name}}{{optional}}: {{type}}{{,}} {{/properties}}", properties).generate();
+        assertThat(code, is("name: string, readonly age?: number "));
+    }
+
+    @Test
+    public void render_NoProperties_SectionSkipped() {
+        CodeTemplate codeTemplate = CodeTemplate.compile("a{{#properties}}{{name}}{{/properties}}b");
+        assertThat(codeTemplate.render(Collections.emptyList(), templateCreator("", Collections.emptyList())), is("ab"));
+    }
+
+    @Test
+    public void render_JsonPreset_IsValidJsonShape() {
+        List<TypeScriptObjectProperty> properties = Arrays.asList(
+                new DetachedPropertySignature("name", "string", false, false),
+                new DetachedPropertySignature("role", "\"admin\" | \"user\"", false, false));
+
+        String code = templateCreator(TypeAssistApplicationSettings.CodeTemplatePreset.Json.getTemplate(), properties).generate();
+        assertThat(code, is("{\n    \"name\": \"string\",\n    \"role\": \"'admin' | 'user'\"\n}\n"));
+    }
+
+    @Test
+    public void render_JsonPresetStringLiteralType_IsValidJsonString() {
+        List<TypeScriptObjectProperty> properties = Arrays.asList(
+                new DetachedPropertySignature("role", "\"admin\"", false, false),
+                new DetachedPropertySignature("path", "`C:\\${string}`", false, false));
+
+        String code = templateCreator(TypeAssistApplicationSettings.CodeTemplatePreset.Json.getTemplate(), properties).generate();
+        assertThat(code, is("{\n    \"role\": \"'admin'\",\n    \"path\": \"`C:\\\\${string}`\"\n}\n"));
+    }
+
+    @Test
+    public void of_SameSource_ReusesCompiledTemplate() {
+        assertSame(CodeTemplate.of(ASSIGNABLE_OBJECT_TEMPLATE), CodeTemplate.of(ASSIGNABLE_OBJECT_TEMPLATE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void compile_UnknownTag_Throws() {
+        CodeTemplate.compile("{{nmae}}");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void compile_PropertyTagOutsideSection_Throws() {
+        CodeTemplate.compile("{{name}}");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void compile_UnclosedSection_Throws() {
+        CodeTemplate.compile("{{#properties}}{{name}}");
+    }
+
+    @Test
+    public void compile_EveryPreset_Compiles() {
+        for (TypeAssistApplicationSettings.CodeTemplatePreset preset : TypeAssistApplicationSettings.CodeTemplatePreset.values()) {
+            CodeTemplate.compile(preset.getTemplate());
+        }
+    }
+
+    @Test
+    public void render_AssignableObjectTemplate_MatchesHandWrittenCreator() {
+        List<TypeScriptObjectProperty> properties = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            properties.add(new DetachedPropertySignature("property" + i, i % 2 == 0 ? "string" : "'a' | 'b'", false, false));
+        }
+
+        CodeGenerator handWritten = new AssignableObjectCreator(properties, PERSON,
+                new CodeGenerationOptions.Builder(new TypeAssistApplicationSettings()).build());
+        CodeGenerator compiled = templateCreator(ASSIGNABLE_OBJECT_TEMPLATE, properties);
+        assertThat(compiled.generate(), is(handWritten.generate()));
+    }
+
+    private static TemplateObjectCreator templateCreator(String template, List<TypeScriptObjectProperty> properties) {
+        return new TemplateObjectCreator(properties, PERSON, CodeTemplate.compile(template),
+                new CodeGenerationOptions.Builder(new TypeAssistApplicationSettings()).build());
+    }
+}
@@ -0,0 +1,52 @@
+import documentation.CompressedHtml;
+import documentation.textReplacement.HtmlUtils;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class CompressedHtmlTest {
+    private static final byte[] DICTIONARY = CompressedHtml.dictionary(Arrays.asList("#FF9090", "#00FFFF"));
+
+    @Test
+    public void decompress_RoundTrips() {
+        String html = HtmlUtils.code("name: string") + HtmlUtils.newLine() + HtmlUtils.span("age?", "#FF9090");
+        assertThat(CompressedHtml.compress(html, DICTIONARY).decompress(), is(html));
+    }
+
+    @Test
+    public void decompress_Empty() {
+        assertThat(CompressedHtml.compress("", DICTIONARY).decompress(), is(""));
+    }
+
+    @Test
+    public void decompress_NonAscii() {
+        String html = HtmlUtils.code("na\u00efve: '\u65e5\u672c' | '\u00fc'");
+        CompressedHtml compressed = CompressedHtml.compress(html, DICTIONARY);
+        assertThat(compressed.decompress(), is(html));
+        assertThat(compressed.getOriginalBytes(), is(html.getBytes(StandardCharsets.UTF_8).length));
+    }
+
+    @Test
+    public void compress_RepetitiveMarkup_IsMuchSmaller() {
+        StringBuilder html = new StringBuilder(HtmlUtils.heading("Properties (100)"));
+        for (int i = 0; i < 100; i++) {
+            html.append(HtmlUtils.code(HtmlUtils.span("member" + i + "?", "#FF9090") + ": string")).append(HtmlUtils.newLine());
+        }
+        CompressedHtml compressed = CompressedHtml.compress(html.toString(), DICTIONARY);
+        assertTrue(compressed.getOriginalBytes() / compressed.getCompressedBytes() >= 10);
+    }
+
+    @Test
+    public void compress_PaletteDictionary_BeatsNoDictionary() {
+        String html = HtmlUtils.code(HtmlUtils.span("age?", "#FF9090") + ": " + HtmlUtils.span("T", "#00FFFF"));
+        byte[] unrelated = CompressedHtml.dictionary(Collections.emptyList());
+        assertTrue(CompressedHtml.compress(html, DICTIONARY).getCompressedBytes()
+                < CompressedHtml.compress(html, unrelated).getCompressedBytes());
+    }
+}
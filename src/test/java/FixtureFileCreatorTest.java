@@ -0,0 +1,41 @@
+import codeInsight.codeGeneration.FixtureFileCreator;
+import org.junit.Test;
+import settings.TypeAssistApplicationSettings;
+
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class FixtureFileCreatorTest {
+
+    @Test
+    public void generate_DeclarationFile_HeaderNamesSourceFile() {
+        String code = new FixtureFileCreator("person.d.ts", "person", Collections.singletonList("Person"),
+                Collections.singletonList("const person: Person = {\nname: \"string\"\n};\n"), "    ",
+                new TypeAssistApplicationSettings()).generate();
+
+        assertThat(code, is("// Generated by Typescript Type Assist from person.d.ts\n" +
+                "import { Person } from './person';\n" +
+                "\n" +
+                "export const person: Person = {\n" +
+                "    name: \"string\"\n" +
+                "};\n"));
+    }
+
+    @Test
+    public void generate_LeadingComment_ExportsDeclarationAfterComment() {
+        String code = new FixtureFileCreator("box.ts", "box", Collections.singletonList("Box"),
+                Collections.singletonList("// T of Box<T> replaced with any, supply a type argument\n" +
+                        "const box: Box<any> = {\nvalue: \"any\"\n};\n"), "    ",
+                new TypeAssistApplicationSettings()).generate();
+
+        assertThat(code, is("// Generated by Typescript Type Assist from box.ts\n" +
+                "import { Box } from './box';\n" +
+                "\n" +
+                "// T of Box<T> replaced with any, supply a type argument\n" +
+                "export const box: Box<any> = {\n" +
+                "    value: \"any\"\n" +
+                "};\n"));
+    }
+}
@@ -0,0 +1,78 @@
+import actions.CreateContext;
+import codeInsight.codeGeneration.GeneratedCodeCache;
+import codeInsight.instructions.ArrayInsertInstruction;
+import codeInsight.instructions.InsertInstruction;
+import org.junit.Test;
+import settings.TypeAssistApplicationSettings;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+public class GeneratedCodeCacheTest {
+
+    private static final String PERSON = "/src/person.ts:Person";
+    private static final InsertInstruction OBJECT = InsertInstruction.of(CreateContext.AssignableObject, 0);
+
+    @Test
+    public void key_SameDeclarationAndSettings_IsEqual() {
+        TypeAssistApplicationSettings settings = new TypeAssistApplicationSettings();
+        GeneratedCodeCache.Key first = GeneratedCodeCache.Key.of(PERSON, noArguments(), OBJECT, settings);
+        GeneratedCodeCache.Key second = GeneratedCodeCache.Key.of(PERSON, noArguments(), InsertInstruction.of(CreateContext.AssignableObject, 42), settings);
+
+        assertThat(first, is(second));
+        assertThat(first.hashCode(), is(second.hashCode()));
+    }
+
+    @Test
+    public void key_DifferentDeclaration_IsNotEqual() {
+        TypeAssistApplicationSettings settings = new TypeAssistApplicationSettings();
+
+        assertThat(GeneratedCodeCache.Key.of(PERSON, noArguments(), OBJECT, settings),
+                is(not(GeneratedCodeCache.Key.of("/src/people/person.ts:Person", noArguments(), OBJECT, settings))));
+    }
+
+    @Test
+    public void key_DifferentTypeArguments_IsNotEqual() {
+        TypeAssistApplicationSettings settings = new TypeAssistApplicationSettings();
+
+        assertThat(GeneratedCodeCache.Key.of(PERSON, Collections.singletonList("string"), OBJECT, settings),
+                is(not(GeneratedCodeCache.Key.of(PERSON, Collections.singletonList("number"), OBJECT, settings))));
+    }
+
+    @Test
+    public void key_ChangedCodeStyle_IsNotEqual() {
+        TypeAssistApplicationSettings settings = new TypeAssistApplicationSettings();
+        GeneratedCodeCache.Key before = GeneratedCodeCache.Key.of(PERSON, noArguments(), OBJECT, settings);
+        settings.TRAILING_COMMAS = !settings.TRAILING_COMMAS;
+
+        assertThat(before, is(not(GeneratedCodeCache.Key.of(PERSON, noArguments(), OBJECT, settings))));
+    }
+
+    @Test
+    public void key_UnrelatedSetting_IsEqual() {
+        TypeAssistApplicationSettings settings = new TypeAssistApplicationSettings();
+        GeneratedCodeCache.Key before = GeneratedCodeCache.Key.of(PERSON, noArguments(), OBJECT, settings);
+        settings.PROPERTY_HIGHLIGHTING = !settings.PROPERTY_HIGHLIGHTING;
+
+        assertThat(before, is(GeneratedCodeCache.Key.of(PERSON, noArguments(), OBJECT, settings)));
+    }
+
+    @Test
+    public void key_DifferentArraySize_IsNotEqual() {
+        TypeAssistApplicationSettings settings = new TypeAssistApplicationSettings();
+        GeneratedCodeCache.Key three = GeneratedCodeCache.Key.of(PERSON, noArguments(),
+                ArrayInsertInstruction.of(CreateContext.AssignableArray, 0, true, 3), settings);
+        GeneratedCodeCache.Key four = GeneratedCodeCache.Key.of(PERSON, noArguments(),
+                ArrayInsertInstruction.of(CreateContext.AssignableArray, 0, true, 4), settings);
+
+        assertThat(three, is(not(four)));
+    }
+
+    private static List<String> noArguments() {
+        return Collections.emptyList();
+    }
+}
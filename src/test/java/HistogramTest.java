@@ -0,0 +1,72 @@
+import metrics.Histogram;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class HistogramTest {
+
+    @Test
+    public void snapshot_Empty_IsZero() {
+        Histogram.Snapshot snapshot = new Histogram().snapshot();
+        assertThat(snapshot.getCount(), is(0L));
+        assertThat(snapshot.getMeanNanos(), is(0L));
+        assertThat(snapshot.getP99Nanos(), is(0L));
+    }
+
+    @Test
+    public void snapshot_CountMeanAndMax() {
+        Histogram histogram = new Histogram();
+        histogram.record(100);
+        histogram.record(300);
+
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.getCount(), is(2L));
+        assertThat(snapshot.getMeanNanos(), is(200L));
+        assertThat(snapshot.getMaxNanos(), is(300L));
+    }
+
+    @Test
+    public void snapshot_PercentileIsWithinBucket() {
+        Histogram histogram = new Histogram();
+        for (int i = 0; i < 90; i++) histogram.record(1_000);
+        for (int i = 0; i < 10; i++) histogram.record(1_000_000);
+
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        // 1000 is in [512, 1024), 1000000 is in [524288, 1048576) capped at the max.
+        assertThat(snapshot.getP50Nanos(), is(1_023L));
+        assertThat(snapshot.getP90Nanos(), is(1_023L));
+        assertThat(snapshot.getP99Nanos(), is(1_000_000L));
+    }
+
+    @Test
+    public void reset_ClearsRecordings() {
+        Histogram histogram = new Histogram();
+        histogram.record(5);
+        histogram.reset();
+        assertThat(histogram.snapshot().getCount(), is(0L));
+        assertThat(histogram.snapshot().getMaxNanos(), is(0L));
+    }
+
+    @Test
+    public void record_Concurrently_LosesNothing() throws InterruptedException {
+        Histogram histogram = new Histogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) histogram.record(i);
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) thread.join();
+
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.getCount(), is(80_000L));
+        assertThat(snapshot.getMaxNanos(), is(9_999L));
+        assertTrue(snapshot.getP50Nanos() <= snapshot.getP99Nanos());
+    }
+}
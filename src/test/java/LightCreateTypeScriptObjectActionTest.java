@@ -0,0 +1,103 @@
+import com.intellij.openapi.actionSystem.ActionManager;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.markup.RangeHighlighter;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.testFramework.fixtures.LightCodeInsightFixtureTestCase;
+import metrics.Counter;
+import metrics.PluginMetrics;
+import settings.TypeAssistApplicationSettings;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Runs {@code CreateTypeScriptObjectAction} end to end against types declared in another file.
+ */
+@SuppressWarnings("ConstantConditions")
+public class LightCreateTypeScriptObjectActionTest extends LightCodeInsightFixtureTestCase {
+
+    private static final String USAGE = "import { Person } from './person';\n\nPerson";
+
+    @Override
+    protected void tearDown() throws Exception {
+        try {
+            TypeAssistApplicationSettings.getInstance().resetToDefault();
+        } finally {
+            super.tearDown();
+        }
+    }
+
+    public void test_actionPerformed_RepeatedOnSameType_HitsGeneratedCodeCache() {
+        myFixture.addFileToProject("person.ts", "export interface Person { name: string; age: number; }");
+        myFixture.configureByText("usage.ts", USAGE + "<caret>");
+
+        createObject();
+        String generated = myFixture.getEditor().getDocument().getText();
+        assertThat(generated, containsString("age"));
+
+        long hits = PluginMetrics.count(Counter.GeneratedCodeCacheHits);
+        resetUsage();
+        createObject();
+
+        assertThat(PluginMetrics.count(Counter.GeneratedCodeCacheHits), is(hits + 1));
+        assertThat(myFixture.getEditor().getDocument().getText(), is(generated));
+    }
+
+    public void test_actionPerformed_DeclaringFileChanged_Regenerates() {
+        PsiFile person = myFixture.addFileToProject("person.ts", "export interface Person { name: string; }");
+        myFixture.configureByText("usage.ts", USAGE + "<caret>");
+        createObject();
+
+        Document declaration = PsiDocumentManager.getInstance(getProject()).getDocument(person);
+        WriteCommandAction.runWriteCommandAction(getProject(), () ->
+                declaration.setText("export interface Person { name: string; email: string; }"));
+        PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+
+        long hits = PluginMetrics.count(Counter.GeneratedCodeCacheHits);
+        resetUsage();
+        createObject();
+
+        assertThat(PluginMetrics.count(Counter.GeneratedCodeCacheHits), is(hits));
+        assertThat(myFixture.getEditor().getDocument().getText(), containsString("email"));
+    }
+
+    public void test_actionPerformed_MockData_HighlightsOnlyPlaceholders() {
+        TypeAssistApplicationSettings.getInstance().MOCK_DATA = true;
+        myFixture.addFileToProject("person.ts", "export interface Person { name: string; age: number; onSave: () => void; }");
+        myFixture.configureByText("usage.ts", USAGE + "<caret>");
+
+        createObject();
+
+        RangeHighlighter[] highlighters = myFixture.getEditor().getMarkupModel().getAllHighlighters();
+        assertThat(highlighters.length, is(1));
+        assertThat(myFixture.getEditor().getDocument().getText(highlighters[0].getTextRange()), is("\"() => void\""));
+    }
+
+    public void test_actionPerformed_MockDataArray_NestedObjectsVaryPerElement() {
+        TypeAssistApplicationSettings.getInstance().MOCK_DATA = true;
+        TypeAssistApplicationSettings.getInstance().NESTED_OBJECT_DEPTH = 1;
+        myFixture.addFileToProject("person.ts", "export interface Address { street: string; }\n" +
+                "export interface Person { address: Address; }");
+        myFixture.configureByText("usage.ts", "import { Person } from './person';\n\nPerson[2]<caret>");
+
+        createObject();
+
+        String[] streets = myFixture.getEditor().getDocument().getText().split("street: ");
+        assertThat(streets.length, is(3));
+        assertThat(streets[1].split("\n")[0].equals(streets[2].split("\n")[0]), is(false));
+    }
+
+    private void createObject() {
+        myFixture.testAction(ActionManager.getInstance().getAction("actions.CreateTypeScriptObjectAction"));
+    }
+
+    private void resetUsage() {
+        Document document = myFixture.getEditor().getDocument();
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> document.setText(USAGE));
+        PsiDocumentManager.getInstance(getProject()).commitDocument(document);
+        myFixture.getEditor().getCaretModel().moveToOffset(document.getTextLength());
+    }
+}
@@ -0,0 +1,160 @@
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.testFramework.PlatformTestUtil;
+import com.intellij.testFramework.fixtures.LightCodeInsightFixtureTestCase;
+import documentation.DocumentationRenderCoordinator;
+import metrics.Counter;
+import metrics.PluginMetrics;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Extends the fixture only so {@code ProgressManager} is available while waiting on a shared render.
+ */
+public class LightDocumentationRenderCoordinatorTest extends LightCodeInsightFixtureTestCase {
+    private ExecutorService executor;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try {
+            executor.shutdownNow();
+        } finally {
+            super.tearDown();
+        }
+    }
+
+    public void test_Render_ReturnsResult() {
+        DocumentationRenderCoordinator<String, String> coordinator = coordinator();
+        assertThat(coordinator.render("A", () -> "doc A"), is("doc A"));
+        assertThat(coordinator.inFlightCount(), is(0));
+    }
+
+    public void test_NewerRequest_SupersedesRender() {
+        DocumentationRenderCoordinator<String, String> coordinator = coordinator();
+        try {
+            coordinator.render("A", () -> {
+                // The mouse moves on to B before A has finished.
+                coordinator.render("B", () -> "doc B");
+                coordinator.checkSuperseded("A");
+                return "doc A";
+            });
+            fail("A should have been superseded by B");
+        } catch (ProcessCanceledException expected) {
+            assertThat(coordinator.inFlightCount(), is(0));
+        }
+    }
+
+    public void test_EqualRequests_ShareOneRender() throws Exception {
+        DocumentationRenderCoordinator<String, String> coordinator = coordinator();
+        AtomicInteger renderCount = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> first = executor.submit(() -> coordinator.render("A", () -> {
+            renderCount.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "doc A";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        releaseOnceShared(release);
+        String second = coordinator.render("A", () -> {
+            renderCount.incrementAndGet();
+            return "second render";
+        });
+
+        assertThat(second, is("doc A"));
+        assertThat(first.get(5, TimeUnit.SECONDS), is("doc A"));
+        assertThat(renderCount.get(), is(1));
+    }
+
+    public void test_SharedRenderCancelled_WaitingRequestRendersInstead() throws Exception {
+        DocumentationRenderCoordinator<String, String> coordinator = coordinator();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> first = executor.submit(() -> coordinator.render("A", () -> {
+            started.countDown();
+            await(release);
+            throw new ProcessCanceledException();
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        releaseOnceShared(release);
+        assertThat(coordinator.render("A", () -> "doc A"), is("doc A"));
+
+        try {
+            first.get(5, TimeUnit.SECONDS);
+            fail("The first render should have been cancelled");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ProcessCanceledException);
+        }
+    }
+
+    public void test_RequestInOtherScope_DoesNotSupersede() {
+        DocumentationRenderCoordinator<String, String> coordinator = coordinator();
+        String docA = coordinator.render("project1:A", () -> {
+            // Another project renders while A is in flight.
+            coordinator.render("project2:B", () -> "doc B");
+            coordinator.checkSuperseded("project1:A");
+            return "doc A";
+        });
+        assertThat(docA, is("doc A"));
+    }
+
+    public void test_FinishedRender_ReleasesTarget() {
+        DocumentationRenderCoordinator<Object, String> coordinator = new DocumentationRenderCoordinator<>(target -> "editor");
+        Object target = new Object();
+        WeakReference<Object> released = new WeakReference<>(target);
+        coordinator.render(target, () -> "doc");
+
+        target = null;
+        PlatformTestUtil.tryGcSoftlyReachableObjects();
+        assertThat(released.get() == null, is(true));
+    }
+
+    /**
+     * Targets are scoped by the text before the colon, or all share one scope without one.
+     */
+    private static DocumentationRenderCoordinator<String, String> coordinator() {
+        return new DocumentationRenderCoordinator<>(target -> target.contains(":") ? target.split(":")[0] : "");
+    }
+
+    /**
+     * Releases the first render only after this thread has started waiting on it.
+     */
+    private void releaseOnceShared(CountDownLatch release) {
+        long shared = PluginMetrics.count(Counter.DocRendersShared);
+        executor.submit(() -> {
+            while (PluginMetrics.count(Counter.DocRendersShared) == shared) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            return null;
+        });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+import codeInsight.TypeAssistPsiUtil;
+import codeInsight.codeGeneration.AssignableObjectCreator;
+import codeInsight.codeGeneration.CodeGenerationOptions;
+import codeInsight.codeGeneration.NestedObjectExpander;
+import com.intellij.lang.javascript.psi.JSQualifiedNamedElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.testFramework.fixtures.LightCodeInsightFixtureTestCase;
+import documentation.objectProperties.TypeScriptObjectProperty;
+import documentation.types.TypeDescription;
+import settings.TypeAssistApplicationSettings;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Generates objects through {@code NestedObjectExpander} against real declarations so nested types are resolved.
+ */
+@SuppressWarnings("ConstantConditions")
+public class LightNestedObjectExpanderTest extends LightCodeInsightFixtureTestCase {
+
+    private static final String TYPES = "interface Street { name: string; }\n" +
+            "interface Address { street: Street; }\n" +
+            "interface Person { address: Address; }\n" +
+            "interface TreeNode { value: number; children: TreeNode[]; }\n" +
+            "interface Parent { child: Child; }\n" +
+            "interface Child { parent: Parent; }";
+
+    private PsiFile file;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        file = myFixture.configureByText("types.ts", TYPES);
+    }
+
+    public void test_expand_DepthZero_QuotesType() {
+        String code = generate("Person", 0);
+        assertThat(code, containsString("address: \"Address\""));
+    }
+
+    public void test_expand_DepthOne_StopsAtSecondLevel() {
+        String code = generate("Person", 1);
+        assertThat(code, containsString("street: \"Street\""));
+        assertThat(code, not(containsString("address: \"Address\"")));
+    }
+
+    public void test_expand_DepthTwo_ExpandsSecondLevel() {
+        String code = generate("Person", 2);
+        assertThat(code, containsString("name: \"string\""));
+        assertThat(code, not(containsString("street: \"Street\"")));
+    }
+
+    public void test_expand_SelfReferentialType_CutsCycle() {
+        String code = generate("TreeNode", 10);
+
+        // The top level object and the single expanded child, the child's children are quoted.
+        assertThat(code.split("value: ").length - 1, is(2));
+        assertThat(code, containsString("children: \"TreeNode[]\""));
+    }
+
+    public void test_expand_MutuallyReferentialTypes_CutsCycle() {
+        String code = generate("Parent", 10);
+
+        assertThat(code.split("parent: ").length - 1, is(1));
+        assertThat(code, containsString("child: \"Child\""));
+    }
+
+    private String generate(String typeName, int depth) {
+        JSQualifiedNamedElement type = TypeAssistPsiUtil.collectTypesOfInterest(file).stream()
+                .filter(declaration -> typeName.equals(declaration.getName()))
+                .findFirst().get();
+
+        TypeAssistApplicationSettings settings = new TypeAssistApplicationSettings();
+        settings.NESTED_OBJECT_DEPTH = depth;
+        CodeGenerationOptions options = new CodeGenerationOptions.Builder(settings)
+                .nestedObjectExpander(new NestedObjectExpander(getProject(), settings))
+                .build();
+        return new AssignableObjectCreator(TypeScriptObjectProperty.of(type).get().getPropertySignatures(),
+                TypeDescription.create(type), options).generate();
+    }
+}
@@ -0,0 +1,227 @@
+import actions.CreateContext;
+import codeInsight.TypeAssistPsiUtil;
+import codeInsight.codeGeneration.AssignableArrayCreator;
+import codeInsight.codeGeneration.AssignableObjectCreator;
+import codeInsight.codeGeneration.CodeGenerationOptions;
+import codeInsight.codeGeneration.CodeGenerator;
+import codeInsight.codeGeneration.CodeTemplate;
+import codeInsight.codeGeneration.NestedObjectExpander;
+import codeInsight.codeGeneration.TemplateObjectCreator;
+import codeInsight.instructions.ArrayInsertInstruction;
+import com.intellij.lang.javascript.psi.JSQualifiedNamedElement;
+import com.intellij.openapi.actionSystem.ActionManager;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.testFramework.PlatformTestUtil;
+import com.intellij.testFramework.fixtures.LightCodeInsightFixtureTestCase;
+import documentation.CompressedHtml;
+import documentation.TypeAssistDocumentationProvider;
+import documentation.objectProperties.DetachedPropertySignature;
+import documentation.objectProperties.TypeScriptObjectProperty;
+import documentation.types.TypeDefinition;
+import documentation.types.TypeDescription;
+import settings.TypeAssistApplicationSettings;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Measures documentation and code generation against a synthetic {@link TypeScriptCorpus}. The expected times are
+ * scaled by {@code PlatformTestUtil} to the speed of the machine, exceeding them fails the build.
+ *
+ * <p>When a change legitimately makes these slower, raise the threshold in the same commit and say why.</p>
+ */
+@SuppressWarnings("ConstantConditions")
+public class LightPerformanceTest extends LightCodeInsightFixtureTestCase {
+
+    private static final int INTERFACES = 200;
+    private static final int MEMBERS = 20;
+
+    private static final int GENERATE_DOC_EXPECTED_MS = 3_000;
+    private static final int OBJECT_PROPERTY_EXPECTED_MS = 1_500;
+    private static final int CREATE_OBJECT_EXPECTED_MS = 2_500;
+    private static final int CREATE_OBJECT_REPETITIONS = 20;
+    private static final double MIN_COMPRESSION_RATIO = 5;
+    private static final int DECOMPRESS_EXPECTED_MS = 250;
+    private static final int DECOMPRESS_REPETITIONS = 10;
+    private static final int MOCK_ARRAY_SIZE = 100_000;
+    private static final int MOCK_ARRAY_EXPECTED_MS = 1_000;
+    private static final int TEMPLATE_RENDER_EXPECTED_MS = 500;
+    private static final int TEMPLATE_RENDER_REPETITIONS = 20_000;
+    private static final double MAX_TEMPLATE_RENDER_FACTOR = 3;
+
+    private TypeScriptCorpus corpus;
+    private List<JSQualifiedNamedElement> interfaces;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        corpus = new TypeScriptCorpus.Builder()
+                .interfaces(INTERFACES)
+                .members(MEMBERS)
+                .unionWidth(8)
+                .genericDepth(3)
+                .crossReferenceDensity(0.3)
+                .files(10)
+                .build();
+
+        interfaces = new ArrayList<>();
+        for (Map.Entry<String, String> file : corpus.generate().entrySet()) {
+            PsiFile psiFile = myFixture.addFileToProject(file.getKey(), file.getValue());
+            TypeAssistPsiUtil.collectTypesOfInterest(psiFile).stream()
+                    .filter(declaration -> declaration.getName().startsWith("Type"))
+                    .forEach(interfaces::add);
+        }
+        assertThat(interfaces.size(), is(INTERFACES));
+    }
+
+    public void test_generateDoc_EveryInterface() {
+        TypeAssistDocumentationProvider provider = new TypeAssistDocumentationProvider();
+        PlatformTestUtil.startPerformanceTest("generateDoc for " + INTERFACES + " interfaces", GENERATE_DOC_EXPECTED_MS, () -> {
+            for (JSQualifiedNamedElement element : interfaces) {
+                assertThat(provider.generateDoc(element, element) != null, is(true));
+            }
+        }).assertTiming();
+    }
+
+    public void test_TypeScriptObjectPropertyOf_EveryInterface() {
+        PlatformTestUtil.startPerformanceTest("TypeScriptObjectProperty.of for " + INTERFACES + " interfaces", OBJECT_PROPERTY_EXPECTED_MS, () -> {
+            for (JSQualifiedNamedElement element : interfaces) {
+                assertThat(TypeScriptObjectProperty.of(element).get().getPropertySignatures().size(), is(MEMBERS));
+            }
+        }).assertTiming();
+    }
+
+    /**
+     * Compression ratio of the rendered corpus against holding the html as a {@code String}, then the time to
+     * decompress every page {@code DECOMPRESS_REPETITIONS} times.
+     */
+    public void test_CompressedHtml_RatioAndDecompression() {
+        TypeAssistDocumentationProvider provider = new TypeAssistDocumentationProvider();
+        byte[] dictionary = CompressedHtml.dictionary(Arrays.asList(settings().OPTIONAL_HEX_COLOR,
+                settings().GENERICS_HEX_COLOR, settings().READONLY_HEX_COLOR, settings().UNDEFINED_HEX_COLOR));
+
+        List<CompressedHtml> compressed = new ArrayList<>();
+        long stringBytes = 0;
+        long compressedBytes = 0;
+        for (JSQualifiedNamedElement element : interfaces) {
+            String html = provider.generateDoc(element, element);
+            CompressedHtml compressedHtml = CompressedHtml.compress(html, dictionary);
+            assertThat(compressedHtml.decompress(), is(html));
+
+            compressed.add(compressedHtml);
+            // Object header, fields and a UTF-16 char array.
+            stringBytes += 40 + 2L * html.length();
+            compressedBytes += compressedHtml.estimateBytes();
+        }
+        double ratio = (double) stringBytes / compressedBytes;
+        assertTrue("Compression ratio " + ratio + " is below " + MIN_COMPRESSION_RATIO, ratio >= MIN_COMPRESSION_RATIO);
+
+        PlatformTestUtil.startPerformanceTest("Decompress " + INTERFACES + " pages " + DECOMPRESS_REPETITIONS + " times",
+                DECOMPRESS_EXPECTED_MS, () -> {
+                    for (int i = 0; i < DECOMPRESS_REPETITIONS; i++) {
+                        compressed.forEach(CompressedHtml::decompress);
+                    }
+                }).assertTiming();
+    }
+
+    /**
+     * Every element has its own mock values, including those of the expanded nested object.
+     */
+    public void test_AssignableArrayCreator_MockData() {
+        PsiFile file = myFixture.addFileToProject("person.ts", "interface Address { street: string; city: string; }\n" +
+                "interface Person { id: number; firstName: string; email: string; age: number; address: Address; }");
+        JSQualifiedNamedElement person = TypeAssistPsiUtil.collectTypesOfInterest(file).stream()
+                .filter(declaration -> declaration.getName().equals("Person"))
+                .findFirst().get();
+        List<TypeScriptObjectProperty> properties = TypeScriptObjectProperty.of(person).get().getPropertySignatures();
+
+        TypeAssistApplicationSettings settings = new TypeAssistApplicationSettings();
+        settings.MOCK_DATA = true;
+        settings.NESTED_OBJECT_DEPTH = 1;
+        ArrayInsertInstruction insertInstruction = ArrayInsertInstruction.of(CreateContext.AssignableArray, 0, true, MOCK_ARRAY_SIZE);
+
+        PlatformTestUtil.startPerformanceTest("Mock array of " + MOCK_ARRAY_SIZE + " elements", MOCK_ARRAY_EXPECTED_MS, () -> {
+            String code = new AssignableArrayCreator(properties, insertInstruction, TypeDescription.create(person),
+                    new CodeGenerationOptions.Builder(settings)
+                            .nestedObjectExpander(new NestedObjectExpander(getProject(), settings))
+                            .build()).generate();
+            assertThat(code.contains("id: " + MOCK_ARRAY_SIZE + ","), is(true));
+        }).assertTiming();
+    }
+
+    /**
+     * The same layout {@code AssignableObjectCreator} hardcodes, rendering a compiled template must stay within
+     * {@code MAX_TEMPLATE_RENDER_FACTOR} of the hand written creator over the same workload.
+     */
+    public void test_TemplateObjectCreator_Render() {
+        List<TypeScriptObjectProperty> properties = new ArrayList<>();
+        for (int i = 0; i < MEMBERS; i++) {
+            properties.add(new DetachedPropertySignature("property" + i, i % 2 == 0 ? "string" : "'a' | 'b'", false, false));
+        }
+        TypeDescription person = TypeDescription.unresolved("Person", TypeDefinition.Interface);
+        CodeGenerator handWritten = new AssignableObjectCreator(properties, person,
+                new CodeGenerationOptions.Builder(new TypeAssistApplicationSettings()).build());
+        CodeGenerator template = new TemplateObjectCreator(properties, person,
+                CodeTemplate.compile("const {{variableName}}: {{typeAnnotation}} = {\n{{#properties}}{{name}}: {{value}}{{,}}\n{{/properties}}};\n"),
+                new CodeGenerationOptions.Builder(new TypeAssistApplicationSettings()).build());
+        assertThat(template.generate(), is(handWritten.generate()));
+
+        // Warm both up first so neither is measured while being compiled.
+        renderNanos(handWritten);
+        renderNanos(template);
+        long handWrittenNanos = renderNanos(handWritten);
+        long templateNanos = renderNanos(template);
+        assertTrue("Template render took " + templateNanos / 1_000_000 + "ms, hand written " + handWrittenNanos / 1_000_000 + "ms",
+                templateNanos <= MAX_TEMPLATE_RENDER_FACTOR * handWrittenNanos);
+
+        PlatformTestUtil.startPerformanceTest("Render template " + TEMPLATE_RENDER_REPETITIONS + " times", TEMPLATE_RENDER_EXPECTED_MS, () -> {
+            for (int i = 0; i < TEMPLATE_RENDER_REPETITIONS; i++) {
+                template.generate();
+            }
+        }).assertTiming();
+    }
+
+    private static long renderNanos(CodeGenerator codeGenerator) {
+        long start = System.nanoTime();
+        for (int i = 0; i < TEMPLATE_RENDER_REPETITIONS; i++) {
+            codeGenerator.generate();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static TypeAssistApplicationSettings settings() {
+        return TypeAssistApplicationSettings.getInstance();
+    }
+
+    /**
+     * The type is declared in another file so rewriting the usage keeps {@code GeneratedCodeCache}, every generation
+     * after the first is a hit.
+     */
+    public void test_CreateTypeScriptObjectAction_Repeated() {
+        String typeName = TypeScriptCorpus.typeName(INTERFACES - 1);
+        String usage = "import { " + typeName + " } from './" +
+                TypeScriptCorpus.fileName(corpus.fileOf(INTERFACES - 1)).replace(".ts", "") + "';\n\n" + typeName;
+
+        myFixture.configureByText("usage.ts", usage + "<caret>");
+        Document document = myFixture.getEditor().getDocument();
+
+        PlatformTestUtil.startPerformanceTest("Create object " + CREATE_OBJECT_REPETITIONS + " times", CREATE_OBJECT_EXPECTED_MS, () -> {
+            for (int i = 0; i < CREATE_OBJECT_REPETITIONS; i++) {
+                WriteCommandAction.runWriteCommandAction(getProject(), () -> document.setText(usage));
+                PsiDocumentManager.getInstance(getProject()).commitDocument(document);
+                myFixture.getEditor().getCaretModel().moveToOffset(document.getTextLength());
+
+                myFixture.testAction(ActionManager.getInstance().getAction("actions.CreateTypeScriptObjectAction"));
+                assertThat(document.getText().contains("member" + (MEMBERS - 1)), is(true));
+            }
+        }).assertTiming();
+    }
+}
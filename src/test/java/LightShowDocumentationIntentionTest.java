@@ -0,0 +1,38 @@
+import codeInsight.TypeAssistPsiUtil;
+import com.intellij.psi.PsiElement;
+import com.intellij.testFramework.fixtures.LightCodeInsightFixtureTestCase;
+import metrics.Counter;
+import metrics.PluginMetrics;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests the availability check of {@code ShowDocumentationIntention} which runs on every caret move.
+ */
+@SuppressWarnings("ConstantConditions")
+public class LightShowDocumentationIntentionTest extends LightCodeInsightFixtureTestCase {
+
+    private static final String PERSON = "interface Person { name: string; }\n";
+
+    public void test_isAvailable_CaretWithinTypeName() {
+        myFixture.configureByText("intention.ts", PERSON + "let person: Pers<caret>on;");
+        assertThat(myFixture.filterAvailableIntentions("Show typescript docs").size(), is(1));
+    }
+
+    public void test_isAvailable_CaretOnVariable_NotAvailable() {
+        myFixture.configureByText("intention.ts", PERSON + "let count = 1;\nlet total = cou<caret>nt;");
+        assertThat(myFixture.filterAvailableIntentions("Show typescript docs").isEmpty(), is(true));
+    }
+
+    public void test_findResolvedTypeOfInterest_RepeatedCaretMoves_ResolveOnce() {
+        myFixture.configureByText("intention.ts", PERSON + "let person: Pers<caret>on;");
+        PsiElement atCaret = myFixture.getFile().findElementAt(myFixture.getCaretOffset());
+
+        long before = PluginMetrics.count(Counter.ReferenceResolves);
+        for (int i = 0; i < 10; i++) {
+            assertThat(TypeAssistPsiUtil.findResolvedTypeOfInterest(atCaret).isPresent(), is(true));
+        }
+        assertThat(PluginMetrics.count(Counter.ReferenceResolves) - before, is(1L));
+    }
+}
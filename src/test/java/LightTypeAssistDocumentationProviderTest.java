@@ -1,12 +1,22 @@
 import com.intellij.codeInsight.documentation.DocumentationManagerUtil;
+import com.intellij.lang.javascript.psi.ecma6.TypeScriptInterface;
+import com.intellij.lang.javascript.psi.ecma6.TypeScriptTypeAlias;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.testFramework.fixtures.LightCodeInsightFixtureTestCase;
 import documentation.textReplacement.*;
+import documentation.RenderedDocumentationCache;
 import documentation.TypeAssistDocumentationProvider;
+import metrics.Counter;
+import metrics.PluginMetrics;
 import settings.TypeAssistApplicationSettings;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
@@ -453,4 +463,75 @@ public class LightTypeAssistDocumentationProviderTest extends LightCodeInsightFi
         assertThat(provider.replaceUnspecifiedTypes(functionType1), is(expected1));
         assertThat(provider.replaceUnspecifiedTypes(functionType2), is(expected2));
     }
+
+    public void test_generateDoc_Repeated_IsCachedUntilPsiChange() {
+        PsiFile file = myFixture.configureByText("person.ts", "/** A person */\ninterface Person {\n    name: string;\n}");
+        TypeScriptInterface person = PsiTreeUtil.findChildOfType(file, TypeScriptInterface.class);
+
+        long hits = PluginMetrics.count(Counter.RenderedDocumentationCacheHits);
+        String first = provider.generateDoc(person, person);
+        String second = provider.generateDoc(person, person);
+
+        assertThat(second, is(first));
+        assertThat(PluginMetrics.count(Counter.RenderedDocumentationCacheHits), is(hits + 1));
+
+        myFixture.type("// changed\n");
+        PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+        provider.generateDoc(person, person);
+        assertThat(PluginMetrics.count(Counter.RenderedDocumentationCacheHits), is(hits + 1));
+    }
+
+    public void test_generateDoc_IntersectionAlias_ShowsFlattenedMembers() {
+        PsiFile file = myFixture.configureByText("entity.ts", "interface Named {\n    name: string;\n}\n" +
+                "interface Aged {\n    age: number;\n}\n" +
+                "type Person = Named & Aged & { email: string };");
+        TypeScriptTypeAlias person = PsiTreeUtil.findChildOfType(file, TypeScriptTypeAlias.class);
+
+        String documentation = provider.generateDoc(person, person);
+
+        assertThat(documentation.contains("Properties (3)"), is(true));
+        assertThat(documentation.contains("age"), is(true));
+        assertThat(documentation.contains("email"), is(true));
+    }
+
+    public void test_getCustomDocumentationElement_NotATypeName_DoesNotResolve() {
+        myFixture.configureByText("usage.ts", "let count = 1;\nlet total = count;\nlet pi = Math.PI;");
+        long resolves = PluginMetrics.count(Counter.ReferenceResolves);
+
+        for (int offset : new int[]{myFixture.getFile().getText().indexOf("count;"), myFixture.getFile().getText().indexOf("Math")}) {
+            provider.getCustomDocumentationElement(myFixture.getEditor(), myFixture.getFile(),
+                    myFixture.getFile().findElementAt(offset + 1));
+        }
+        // The lowercase name is ruled out syntactically and Math is not in the TypeShapeIndex.
+        assertThat(PluginMetrics.count(Counter.ReferenceResolves), is(resolves));
+    }
+
+    public void test_generateDoc_Interactive_StandardDocumentationRenderedInBackground() throws Exception {
+        PsiFile file = myFixture.configureByText("person.ts", "/** A person */\ninterface Person {\n    name: string;\n}");
+        TypeScriptInterface person = PsiTreeUtil.findChildOfType(file, TypeScriptInterface.class);
+        TypeAssistDocumentationProvider interactiveProvider = new TypeAssistDocumentationProvider(true);
+
+        assertThat(interactiveProvider.generateDoc(person, person).contains("name"), is(true));
+        // Already started, so this returns the render in progress rather than starting another.
+        RenderedDocumentationCache.renderStandardInBackground(person, () -> null, () -> {}).get(5, TimeUnit.SECONDS);
+
+        String complete = interactiveProvider.generateDoc(person, person);
+        assertThat(complete.contains("Loading..."), is(false));
+        assertThat(complete.contains("Standard Documentation"), is(true));
+    }
+
+    public void test_generateDoc_Interactive_StandardRenderFailed_ShowsTypeDocumentation() throws Exception {
+        PsiFile file = myFixture.configureByText("person.ts", "interface Person {\n    name: string;\n}");
+        TypeScriptInterface person = PsiTreeUtil.findChildOfType(file, TypeScriptInterface.class);
+
+        CountDownLatch refreshed = new CountDownLatch(1);
+        RenderedDocumentationCache.renderStandardInBackground(person, () -> {
+            throw new IllegalStateException("Standard documentation failed");
+        }, refreshed::countDown);
+        assertTrue("The popup should be refreshed after a failure", refreshed.await(5, TimeUnit.SECONDS));
+
+        String documentation = new TypeAssistDocumentationProvider(true).generateDoc(person, person);
+        assertThat(documentation.contains("name"), is(true));
+        assertThat(documentation.contains("Loading..."), is(false));
+    }
 }
@@ -0,0 +1,49 @@
+import com.intellij.lang.javascript.psi.JSQualifiedNamedElement;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.testFramework.fixtures.LightCodeInsightFixtureTestCase;
+import documentation.objectProperties.TypeInstantiation;
+import documentation.objectProperties.TypeScriptObjectProperty;
+import documentation.objectProperties.TypeScriptObjectPropertyGroup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests binding type arguments and defaults to the type parameters of real declarations.
+ */
+@SuppressWarnings("ConstantConditions")
+public class LightTypeInstantiationTest extends LightCodeInsightFixtureTestCase {
+
+    public void test_of_MissingArgument_UsesDefault() {
+        myFixture.configureByText("generic.ts",
+                "interface Page<T, S = number> { items: T[]; size: S; }");
+
+        assertThat(propertySignatures("Page", "string"), is(Arrays.asList("items: string[]", "size: number")));
+    }
+
+    public void test_of_FunctionTypedConstraintWithoutDefault_LeftUnbound() {
+        myFixture.configureByText("generic.ts",
+                "interface Handler<E, T extends (x: string) => void> { event: E; callback: T; }");
+
+        assertThat(propertySignatures("Handler", "MouseEvent"), is(Arrays.asList("event: MouseEvent", "callback: T")));
+    }
+
+    private List<String> propertySignatures(String typeName, String... typeArguments) {
+        return TypeInstantiation.of(find(typeName), Arrays.asList(typeArguments))
+                .map(TypeScriptObjectPropertyGroup::getPropertySignatures)
+                .get().stream()
+                .map(TypeScriptObjectProperty::getType)
+                .collect(Collectors.toList());
+    }
+
+    private JSQualifiedNamedElement find(String typeName) {
+        return PsiTreeUtil.findChildrenOfType(myFixture.getFile(), JSQualifiedNamedElement.class).stream()
+                .filter(element -> typeName.equals(element.getName()))
+                .findFirst()
+                .get();
+    }
+}
@@ -0,0 +1,70 @@
+import com.intellij.lang.javascript.psi.JSQualifiedNamedElement;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.testFramework.fixtures.LightCodeInsightFixtureTestCase;
+import documentation.objectProperties.TypeScriptObjectProperty;
+import documentation.objectProperties.TypeScriptObjectPropertyGroup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests flattening of members inherited through {@code extends} clauses and intersection type aliases.
+ */
+@SuppressWarnings("ConstantConditions")
+public class LightTypeScriptObjectPropertyTest extends LightCodeInsightFixtureTestCase {
+
+    public void test_of_ExtendsClause_OwnMembersOverrideInherited() {
+        myFixture.configureByText("inherit.ts",
+                "interface Named { name: number; id: string; }\n" +
+                "interface Aged { id: number; age: number; }\n" +
+                "interface Person extends Named, Aged { name: string; }");
+
+        assertThat(propertySignatures("Person"), is(listOf("name: string", "id: string", "age: number")));
+    }
+
+    public void test_of_EmptyBodyInterface_InheritsAllMembers() {
+        myFixture.configureByText("inherit.ts",
+                "interface Named { name: string; }\n" +
+                "interface Person extends Named {}");
+
+        assertThat(propertySignatures("Person"), is(listOf("name: string")));
+    }
+
+    public void test_of_IntersectionAlias_MergesEachPart() {
+        myFixture.configureByText("inherit.ts",
+                "interface Named { name: string; }\n" +
+                "interface Aged { age: number; }\n" +
+                "type Person = Named & Aged;");
+
+        assertThat(propertySignatures("Person"), is(listOf("name: string", "age: number")));
+    }
+
+    public void test_of_CyclicHierarchy_Terminates() {
+        myFixture.configureByText("inherit.ts",
+                "interface A extends B { a: string; }\n" +
+                "interface B extends A { b: string; }");
+
+        assertThat(propertySignatures("A"), is(listOf("a: string", "b: string")));
+    }
+
+    private List<String> propertySignatures(String typeName) {
+        JSQualifiedNamedElement type = PsiTreeUtil.findChildrenOfType(myFixture.getFile(), JSQualifiedNamedElement.class).stream()
+                .filter(element -> typeName.equals(element.getName()))
+                .findFirst()
+                .get();
+
+        return TypeScriptObjectProperty.of(type)
+                .map(TypeScriptObjectPropertyGroup::getPropertySignatures)
+                .get().stream()
+                .map(TypeScriptObjectProperty::getType)
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> listOf(String... values) {
+        return Arrays.asList(values);
+    }
+}
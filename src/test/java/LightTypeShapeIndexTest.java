@@ -0,0 +1,105 @@
+import codeInsight.TypeAssistPsiUtil;
+import com.intellij.lang.javascript.psi.JSQualifiedNamedElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.impl.source.PsiFileImpl;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.testFramework.fixtures.LightCodeInsightFixtureTestCase;
+import documentation.QuickNavigateSummary;
+import documentation.index.TypeShapeIndex;
+import documentation.index.TypeShapeSummary;
+import documentation.types.TypeDefinition;
+import documentation.types.TypeDescription;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Classifies declarations from the {@code TypeShapeIndex}, which keys them by qualified name so declarations of the same
+ * simple name in different namespaces are told apart without loading the AST.
+ */
+public class LightTypeShapeIndexTest extends LightCodeInsightFixtureTestCase {
+
+    private static final String PEOPLE = "interface Entity { id: number; }\n" +
+            "interface Person extends Entity { name: string; }\n" +
+            "type Contact = Person & { email: string };\n";
+
+    private static final String ITEMS = "namespace Orders {\n    export type Item = { quantity: number; };\n}\n" +
+            "namespace Catalog {\n    export interface Item { sku: string; }\n}\n";
+
+    public void test_findInFile_FirstDeclarationOfName_ReturnsItsSummary() {
+        List<JSQualifiedNamedElement> items = items();
+
+        Optional<TypeShapeSummary> summary = TypeShapeIndex.findInFile(items.get(0));
+        assertThat(summary.isPresent(), is(true));
+        assertThat(summary.get().getTypeDefinition(), is(TypeDefinition.TypeAliasObject));
+        assertThat(summary.get().getProperties().get(0).getCodeGenPropertyName().get(), is("quantity"));
+    }
+
+    public void test_findInFile_LaterDeclarationOfSameName_ReturnsItsOwnSummary() {
+        Optional<TypeShapeSummary> summary = TypeShapeIndex.findInFile(items().get(1));
+        assertThat(summary.isPresent(), is(true));
+        assertThat(summary.get().getTypeDefinition(), is(TypeDefinition.Interface));
+        assertThat(summary.get().getProperties().get(0).getCodeGenPropertyName().get(), is("sku"));
+    }
+
+    public void test_create_LaterDeclarationOfSameName_ClassifiedAsItself() {
+        List<JSQualifiedNamedElement> items = items();
+
+        assertThat(TypeDescription.create(items.get(0)).getTypeDefinition(), is(TypeDefinition.TypeAliasObject));
+        assertThat(TypeDescription.create(items.get(1)).getTypeDefinition(), is(TypeDefinition.Interface));
+    }
+
+    public void test_create_StubBackedDeclarations_AstNotLoaded() {
+        PsiFileImpl file = (PsiFileImpl) myFixture.addFileToProject("items.ts", ITEMS);
+        List<JSQualifiedNamedElement> items = file.getStubTree().getPlainList().stream()
+                .map(StubElement::getPsi)
+                .filter(TypeAssistPsiUtil::isTypeOfInterest)
+                .map(JSQualifiedNamedElement.class::cast)
+                .collect(Collectors.toList());
+        assertThat(items.size(), is(2));
+
+        assertThat(TypeDescription.create(items.get(0)).getTypeDefinition(), is(TypeDefinition.TypeAliasObject));
+        assertThat(TypeDescription.create(items.get(1)).getTypeDefinition(), is(TypeDefinition.Interface));
+        assertThat(file.getTreeElement() == null, is(true));
+    }
+
+    public void test_flatten_InheritedAndIntersectedMembers_Added() {
+        myFixture.addFileToProject("people.ts", PEOPLE);
+
+        TypeShapeSummary person = TypeShapeIndex.flatten(getProject(),
+                TypeShapeIndex.find(getProject(), "Person").get(), new HashSet<>());
+        assertThat(propertyNames(person), is(Arrays.asList("name", "id")));
+
+        TypeShapeSummary contact = TypeShapeIndex.flatten(getProject(),
+                TypeShapeIndex.find(getProject(), "Contact").get(), new HashSet<>());
+        assertThat(propertyNames(contact), is(Arrays.asList("email", "name", "id")));
+    }
+
+    public void test_QuickNavigateSummary_CountsInheritedMembers() {
+        PsiFile file = myFixture.addFileToProject("people.ts", PEOPLE);
+        JSQualifiedNamedElement person = TypeAssistPsiUtil.collectTypesOfInterest(file).stream()
+                .filter(declaration -> declaration.getName().equals("Person"))
+                .findFirst().get();
+
+        assertThat(QuickNavigateSummary.of(person).get(), is("Person: interface, 2 members: name, id"));
+    }
+
+    private static List<String> propertyNames(TypeShapeSummary summary) {
+        return summary.getProperties().stream()
+                .map(property -> property.getCodeGenPropertyName().get())
+                .collect(Collectors.toList());
+    }
+
+    private List<JSQualifiedNamedElement> items() {
+        PsiFile file = myFixture.addFileToProject("items.ts", ITEMS);
+        List<JSQualifiedNamedElement> items = TypeAssistPsiUtil.collectTypesOfInterest(file);
+        assertThat(items.size(), is(2));
+        return items;
+    }
+}
@@ -0,0 +1,94 @@
+import com.intellij.lang.javascript.psi.JSQualifiedNamedElement;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.testFramework.fixtures.LightCodeInsightFixtureTestCase;
+import documentation.objectProperties.TypeScriptObjectProperty;
+import documentation.objectProperties.TypeScriptObjectPropertyGroup;
+import documentation.objectProperties.UtilityTypeEvaluator;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests evaluation of utility and mapped type aliases into their members.
+ */
+@SuppressWarnings("ConstantConditions")
+public class LightUtilityTypeEvaluatorTest extends LightCodeInsightFixtureTestCase {
+
+    private static final String ENTITY = "interface Entity { id: number; name: string; readonly created: Date; }\n";
+
+    public void test_of_PartialOmit_RemovesKeyAndMakesOptional() {
+        myFixture.configureByText("utility.ts", ENTITY +
+                "type Draft = Partial<Omit<Entity, 'id'>>;");
+
+        assertThat(propertySignatures("Draft"), is(listOf("name?: string", "readonly created?: Date")));
+    }
+
+    public void test_of_PickKeyofAlias_KeepsListedKeys() {
+        myFixture.configureByText("utility.ts", ENTITY +
+                "type Keys = 'id' | 'name';\n" +
+                "type Summary = Readonly<Pick<Entity, Keys>>;");
+
+        assertThat(propertySignatures("Summary"), is(listOf("readonly id: number", "readonly name: string")));
+    }
+
+    public void test_of_Record_OnePropertyPerKey() {
+        myFixture.configureByText("utility.ts",
+                "type Flags = Record<'read' | 'write', boolean>;");
+
+        assertThat(propertySignatures("Flags"), is(listOf("read: boolean", "write: boolean")));
+    }
+
+    public void test_of_HomomorphicMappedType_SubstitutesMemberTypes() {
+        myFixture.configureByText("utility.ts", ENTITY +
+                "type Nullable<T> = { [P in keyof T]: T[P] | null };\n" +
+                "type NullableEntity = Nullable<Entity>;");
+
+        assertThat(propertySignatures("NullableEntity"),
+                is(listOf("id: number | null", "name: string | null", "readonly created: Date | null")));
+    }
+
+    public void test_of_ArrayOfEvaluatedType_NotAnObjectShape() {
+        myFixture.configureByText("utility.ts", ENTITY +
+                "type Drafts = Readonly<Partial<Entity>[]>;");
+
+        assertThat(UtilityTypeEvaluator.of(find("Drafts"), Collections.emptyList()).isPresent(), is(false));
+    }
+
+    public void test_of_UnionWithEvaluatedType_NotAnObjectShape() {
+        myFixture.configureByText("utility.ts", ENTITY +
+                "type MaybeDraft = Readonly<Partial<Entity> | null>;");
+
+        assertThat(UtilityTypeEvaluator.of(find("MaybeDraft"), Collections.emptyList()).isPresent(), is(false));
+    }
+
+    public void test_of_SelfReferencingAlias_Terminates() {
+        myFixture.configureByText("utility.ts",
+                "type Loop = Partial<Loop>;");
+
+        assertThat(UtilityTypeEvaluator.of(find("Loop"), Collections.emptyList()).isPresent(), is(false));
+    }
+
+    private List<String> propertySignatures(String typeName) {
+        return UtilityTypeEvaluator.of(find(typeName), Collections.emptyList())
+                .map(TypeScriptObjectPropertyGroup::getPropertySignatures)
+                .get().stream()
+                .map(TypeScriptObjectProperty::getType)
+                .collect(Collectors.toList());
+    }
+
+    private JSQualifiedNamedElement find(String typeName) {
+        return PsiTreeUtil.findChildrenOfType(myFixture.getFile(), JSQualifiedNamedElement.class).stream()
+                .filter(element -> typeName.equals(element.getName()))
+                .findFirst()
+                .get();
+    }
+
+    private static List<String> listOf(String... values) {
+        return Arrays.asList(values);
+    }
+}
@@ -0,0 +1,83 @@
+import codeInsight.codeGeneration.MockValueGenerator;
+import documentation.objectProperties.DetachedPropertySignature;
+import org.junit.Test;
+import settings.TypeAssistApplicationSettings;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class MockValueGeneratorTest {
+
+    @Test
+    public void valueOf_Disabled_IsEmpty() {
+        TypeAssistApplicationSettings settings = new TypeAssistApplicationSettings();
+        assertThat(MockValueGenerator.of(settings).valueOf(property("name", "string"), 0), is(Optional.empty()));
+    }
+
+    @Test
+    public void valueOf_SameSeed_SameValue() {
+        MockValueGenerator first = generator(7);
+        MockValueGenerator second = generator(7);
+        for (long ordinal = 0; ordinal < 100; ordinal++) {
+            assertThat(first.valueOf(property("firstName", "string"), ordinal),
+                    is(second.valueOf(property("firstName", "string"), ordinal)));
+        }
+    }
+
+    @Test
+    public void valueOf_DifferentOrdinals_VaryValues() {
+        MockValueGenerator generator = generator(7);
+        Set<String> values = new HashSet<>();
+        for (long ordinal = 0; ordinal < 100; ordinal++) {
+            values.add(generator.valueOf(property("score", "number"), ordinal).get());
+        }
+        assertTrue(values.size() > 50);
+    }
+
+    @Test
+    public void valueOf_LiteralUnion_PicksMemberInStringStyle() {
+        MockValueGenerator generator = generator(1);
+        Set<String> members = new HashSet<>(Arrays.asList("'admin'", "'user'", "'guest'"));
+        for (long ordinal = 0; ordinal < 20; ordinal++) {
+            String value = generator.valueOf(property("role", "\"admin\" | 'user' | 'guest'"), ordinal).get();
+            assertTrue(value, members.contains(value));
+        }
+    }
+
+    @Test
+    public void valueOf_NullableUnion_MocksPrimitiveMember() {
+        String value = generator(1).valueOf(property("active", "boolean | null"), 0).get();
+        assertTrue(value, value.equals("true") || value.equals("false"));
+    }
+
+    @Test
+    public void valueOf_IdNumber_IsOrdinalBased() {
+        assertThat(generator(1).valueOf(property("id", "number"), 4), is(Optional.of("5")));
+    }
+
+    @Test
+    public void valueOf_Date_IsConstructorCall() {
+        assertTrue(generator(1).valueOf(property("created", "Date"), 0).get().startsWith("new Date("));
+    }
+
+    @Test
+    public void valueOf_ObjectType_IsEmpty() {
+        assertThat(generator(1).valueOf(property("address", "Address"), 0), is(Optional.empty()));
+    }
+
+    private static MockValueGenerator generator(int seed) {
+        TypeAssistApplicationSettings settings = new TypeAssistApplicationSettings();
+        settings.MOCK_DATA = true;
+        settings.MOCK_DATA_SEED = seed;
+        return MockValueGenerator.of(settings);
+    }
+
+    private static DetachedPropertySignature property(String name, String type) {
+        return new DetachedPropertySignature(name, type, false, false);
+    }
+}
@@ -0,0 +1,155 @@
+import cache.PersistentStore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class PersistentStoreTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private PersistentStore.Builder builder() {
+        return new PersistentStore.Builder(folder.getRoot().toPath(), "store").minCompactBytes(0);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Optional<String> get(PersistentStore store, String group, String version, String key) throws IOException {
+        return store.get(group, version, key).map(value -> new String(value, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void get_AfterReopen_ReturnsValue() throws IOException {
+        try (PersistentStore store = builder().open()) {
+            store.put("lib.d.ts", "hash1", "10", bytes("Person"));
+            store.put("lib.d.ts", "hash1", "20", bytes("Address"));
+            assertThat(get(store, "lib.d.ts", "hash1", "10"), is(Optional.of("Person")));
+        }
+        try (PersistentStore store = builder().open()) {
+            assertThat(store.size(), is(2));
+            assertThat(get(store, "lib.d.ts", "hash1", "10"), is(Optional.of("Person")));
+            assertThat(get(store, "lib.d.ts", "hash1", "20"), is(Optional.of("Address")));
+        }
+    }
+
+    @Test
+    public void get_DifferentVersion_IsEmpty() throws IOException {
+        try (PersistentStore store = builder().open()) {
+            store.put("lib.d.ts", "hash1", "10", bytes("Person"));
+            assertThat(get(store, "lib.d.ts", "hash2", "10"), is(Optional.empty()));
+        }
+    }
+
+    @Test
+    public void put_NewVersion_MakesPreviousVersionStale() throws IOException {
+        try (PersistentStore store = builder().open()) {
+            store.put("lib.d.ts", "hash1", "10", bytes("Person"));
+            store.put("lib.d.ts", "hash1", "20", bytes("Address"));
+            store.put("lib.d.ts", "hash2", "10", bytes("Person2"));
+
+            assertThat(store.size(), is(1));
+            assertThat(store.staleBytes(), is((long) "PersonAddress".length()));
+            assertThat(get(store, "lib.d.ts", "hash1", "20"), is(Optional.empty()));
+        }
+    }
+
+    @Test
+    public void open_MostlyStale_Compacts() throws IOException {
+        try (PersistentStore store = builder().open()) {
+            store.put("lib.d.ts", "hash1", "10", bytes("Person"));
+            store.put("lib.d.ts", "hash2", "10", bytes("Person2"));
+            store.put("other.d.ts", "hash3", "10", bytes("Other"));
+        }
+        try (PersistentStore store = builder().compactAtStaleRatio(0.25).open()) {
+            assertThat(store.staleBytes(), is(0L));
+            assertThat(store.dataBytes(), is((long) "Person2Other".length()));
+            assertThat(get(store, "lib.d.ts", "hash2", "10"), is(Optional.of("Person2")));
+            assertThat(get(store, "other.d.ts", "hash3", "10"), is(Optional.of("Other")));
+
+            store.put("other.d.ts", "hash3", "20", bytes("Appended"));
+            assertThat(get(store, "other.d.ts", "hash3", "20"), is(Optional.of("Appended")));
+        }
+    }
+
+    @Test
+    public void open_BelowStaleRatio_DoesNotCompact() throws IOException {
+        try (PersistentStore store = builder().open()) {
+            store.put("lib.d.ts", "hash1", "10", bytes("a"));
+            store.put("lib.d.ts", "hash2", "10", bytes("Person"));
+        }
+        try (PersistentStore store = builder().open()) {
+            assertThat(store.staleBytes(), is(1L));
+        }
+    }
+
+    @Test
+    public void open_DifferentFormatVersion_Discards() throws IOException {
+        try (PersistentStore store = builder().open()) {
+            store.put("lib.d.ts", "hash1", "10", bytes("Person"));
+        }
+        try (PersistentStore store = builder().formatVersion("2").open()) {
+            assertThat(store.size(), is(0));
+            assertThat(get(store, "lib.d.ts", "hash1", "10"), is(Optional.empty()));
+        }
+    }
+
+    @Test
+    public void open_IncompleteIndexRecord_KeepsCompleteRecords() throws IOException {
+        try (PersistentStore store = builder().open()) {
+            store.put("lib.d.ts", "hash1", "10", bytes("Person"));
+            store.put("lib.d.ts", "hash1", "20", bytes("Address"));
+        }
+        Path index = folder.getRoot().toPath().resolve("store.idx");
+        try (FileChannel channel = FileChannel.open(index, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(index) - 3);
+        }
+        try (PersistentStore store = builder().open()) {
+            assertThat(store.size(), is(1));
+            assertThat(store.dataBytes(), is((long) "Person".length()));
+            assertThat(get(store, "lib.d.ts", "hash1", "10"), is(Optional.of("Person")));
+
+            store.put("lib.d.ts", "hash1", "20", bytes("Address"));
+        }
+        try (PersistentStore store = builder().open()) {
+            assertThat(get(store, "lib.d.ts", "hash1", "20"), is(Optional.of("Address")));
+        }
+    }
+
+    @Test
+    public void remove_AfterReopen_StaysRemoved() throws IOException {
+        try (PersistentStore store = builder().open()) {
+            store.put("lib.d.ts", "hash1", "10", bytes("Person"));
+            store.put("lib.d.ts", "hash1", "20", bytes("Address"));
+            store.remove("lib.d.ts", "hash1", "10");
+
+            assertThat(store.size(), is(1));
+            assertThat(store.staleBytes(), is((long) "Person".length()));
+            assertThat(get(store, "lib.d.ts", "hash1", "10"), is(Optional.empty()));
+        }
+        try (PersistentStore store = builder().open()) {
+            assertThat(get(store, "lib.d.ts", "hash1", "10"), is(Optional.empty()));
+            assertThat(get(store, "lib.d.ts", "hash1", "20"), is(Optional.of("Address")));
+        }
+    }
+
+    @Test
+    public void put_OverMaxBytes_IsNotWritten() throws IOException {
+        try (PersistentStore store = builder().maxBytes(8).open()) {
+            assertThat(store.put("lib.d.ts", "hash1", "10", bytes("Person")), is(true));
+            assertThat(store.put("lib.d.ts", "hash1", "20", bytes("Address")), is(false));
+            assertThat(get(store, "lib.d.ts", "hash1", "20"), is(Optional.empty()));
+        }
+    }
+}
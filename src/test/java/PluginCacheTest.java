@@ -0,0 +1,125 @@
+import cache.PluginCache;
+import cache.PluginCacheRegistry;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class PluginCacheTest {
+
+    private static PluginCache<String, String> cache(String name, int maxEntries, long maxWeight) {
+        return new PluginCache.Builder<String, String>(name)
+                .maxEntries(maxEntries)
+                .maxWeight(maxWeight)
+                .weigher(PluginCache::estimateBytes)
+                .build();
+    }
+
+    @Test
+    public void put_OverMaxEntries_DemotesEldestToSoft() {
+        PluginCache<String, String> cache = cache("PluginCacheTest entries", 2, Long.MAX_VALUE);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.put("c", "3");
+
+        assertThat(cache.size(), is(2));
+        assertThat(cache.softSize(), is(1));
+        // Strongly reachable so the soft reference has not been cleared, it is promoted back.
+        assertThat(cache.get("a"), is("1"));
+        assertThat(cache.size(), is(2));
+    }
+
+    @Test
+    public void put_OverMaxWeight_EvictsUntilWithinWeight() {
+        long weight = PluginCache.estimateBytes("1234");
+        PluginCache<String, String> cache = cache("PluginCacheTest weight", 10, weight * 2);
+        cache.put("a", "1234");
+        cache.put("b", "5678");
+        cache.put("c", "9012");
+
+        assertThat(cache.size(), is(2));
+        assertThat(cache.weight(), is(weight * 2));
+    }
+
+    @Test
+    public void put_HeavierThanMaxWeight_IsNotCached() {
+        PluginCache<String, String> cache = cache("PluginCacheTest oversized", 10, 64);
+        cache.put("a", "this value is longer than sixty four bytes once it is estimated");
+
+        assertThat(cache.get("a"), is(nullValue()));
+        assertThat(cache.weight(), is(0L));
+    }
+
+    @Test
+    public void put_Replace_AdjustsWeight() {
+        PluginCache<String, String> cache = cache("PluginCacheTest replace", 10, Long.MAX_VALUE);
+        cache.put("a", "12");
+        cache.put("a", "1234");
+
+        assertThat(cache.size(), is(1));
+        assertThat(cache.weight(), is(PluginCache.estimateBytes("1234")));
+    }
+
+    @Test
+    public void put_OverSharedMaxWeight_ShrinksLeastRecentlyUsedCache() {
+        long weight = PluginCache.estimateBytes("1234");
+        PluginCache<String, String> first = sharedCache("PluginCacheTest shared", weight * 4);
+        PluginCache<String, String> second = sharedCache("PluginCacheTest shared", weight * 4);
+        first.put("a", "1234");
+        first.put("b", "5678");
+        second.put("c", "9012");
+        second.put("d", "3456");
+
+        // Over the shared budget of four, both shrink until three quarters of it starting with the older cache.
+        second.put("e", "7890");
+
+        assertThat(first.size(), is(0));
+        assertThat(first.softSize(), is(2));
+        assertThat(second.size(), is(3));
+        assertThat(first.weight() + second.weight(), is(weight * 3));
+    }
+
+    @Test
+    public void put_WithinSharedMaxWeight_KeepsEveryCache() {
+        long weight = PluginCache.estimateBytes("1234");
+        PluginCache<String, String> first = sharedCache("PluginCacheTest shared within", weight * 4);
+        PluginCache<String, String> second = sharedCache("PluginCacheTest shared within", weight * 4);
+        first.put("a", "1234");
+        second.put("b", "5678");
+        first.clear();
+        second.put("c", "9012");
+        second.put("d", "3456");
+        second.put("e", "7890");
+
+        assertThat(second.size(), is(4));
+    }
+
+    private static PluginCache<String, String> sharedCache(String name, long sharedMaxWeight) {
+        return new PluginCache.Builder<String, String>(name)
+                .maxEntries(10)
+                .maxWeight(Long.MAX_VALUE)
+                .sharedMaxWeight(sharedMaxWeight)
+                .weigher(PluginCache::estimateBytes)
+                .build();
+    }
+
+    @Test
+    public void registry_ReportsUsageByNameAndClearsAll() {
+        PluginCache<String, String> first = cache("PluginCacheTest registry", 10, Long.MAX_VALUE);
+        PluginCache<String, String> second = cache("PluginCacheTest registry", 10, Long.MAX_VALUE);
+        first.put("a", "1");
+        second.put("b", "2");
+
+        PluginCacheRegistry.Usage usage = PluginCacheRegistry.usage().stream()
+                .filter(candidate -> candidate.getName().equals("PluginCacheTest registry"))
+                .findFirst().get();
+        assertThat(usage.getInstances(), is(2));
+        assertThat(usage.getEntries(), is(2));
+        assertThat(usage.getEstimatedBytes(), is(PluginCache.estimateBytes("1") * 2));
+
+        PluginCacheRegistry.clearAll();
+        assertThat(first.size(), is(0));
+        assertThat(second.get("b"), is(nullValue()));
+    }
+}
@@ -0,0 +1,42 @@
+import documentation.QuickNavigateSummary;
+import documentation.index.TypeShapeSummary;
+import documentation.objectProperties.DetachedPropertySignature;
+import documentation.objectProperties.TypeScriptObjectProperty;
+import documentation.types.TypeDefinition;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class QuickNavigateSummaryTest {
+
+    @Test
+    public void format_NoMembers_IsKindOnly() {
+        TypeShapeSummary summary = new TypeShapeSummary("Status", TypeDefinition.Union, 0, Collections.emptyList());
+        assertThat(QuickNavigateSummary.format(summary), is("Status: union type"));
+    }
+
+    @Test
+    public void format_SingleMember() {
+        List<TypeScriptObjectProperty> properties = Collections.singletonList(
+                new DetachedPropertySignature("id", "number", false, true));
+        TypeShapeSummary summary = new TypeShapeSummary("Entity", TypeDefinition.Interface, 0, properties);
+        assertThat(QuickNavigateSummary.format(summary), is("Entity: interface, 1 member: id"));
+    }
+
+    @Test
+    public void format_ManyMembers_CountsOptionalsAndTruncates() {
+        List<TypeScriptObjectProperty> properties = Arrays.asList(
+                new DetachedPropertySignature("name", "string", false, false),
+                new DetachedPropertySignature("age", "number", true, false),
+                new DetachedPropertySignature("address", "Address", false, false),
+                new DetachedPropertySignature("email", "string", true, false));
+        TypeShapeSummary summary = new TypeShapeSummary("Person<T>", TypeDefinition.Interface, 0, properties);
+        assertThat(QuickNavigateSummary.format(summary),
+                is("Person&lt;T&gt;: interface, 4 members (2 optional): name, age, address, ..."));
+    }
+}
@@ -0,0 +1,91 @@
+import documentation.index.ShapeBundle;
+import documentation.index.ShapeBundleWriter;
+import documentation.index.TypeShapeSummary;
+import documentation.objectProperties.DetachedPropertySignature;
+import documentation.types.TypeDefinition;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ShapeBundleTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final TypeShapeSummary WINDOW = new TypeShapeSummary("Window", TypeDefinition.Interface, 120,
+            Arrays.asList(new DetachedPropertySignature("name", "string", false, false),
+                    new DetachedPropertySignature("opener", "any", true, true)));
+    private static final TypeShapeSummary PROMISE_LIKE = new TypeShapeSummary("PromiseLike<T>", TypeDefinition.Interface, 40,
+            Collections.singletonList(new DetachedPropertySignature("then", "Function", false, false)));
+    private static final TypeShapeSummary PARTIAL = new TypeShapeSummary("Partial<T>", TypeDefinition.TypeAliasMappedType, 80,
+            Collections.emptyList());
+
+    private ShapeBundle writeAndOpen(ShapeBundleWriter writer) throws IOException {
+        Path file = folder.newFile("bundle.shapes").toPath();
+        try (OutputStream out = Files.newOutputStream(file)) {
+            writer.write(out);
+        }
+        return ShapeBundle.open(file);
+    }
+
+    private static Map<String, TypeShapeSummary> summaries(TypeShapeSummary... summaries) {
+        Map<String, TypeShapeSummary> byName = new HashMap<>();
+        for (TypeShapeSummary summary : summaries) {
+            byName.put(summary.getTypeName().replaceAll("<.*", ""), summary);
+        }
+        return byName;
+    }
+
+    @Test
+    public void find_BundledFile_ReturnsSummary() throws IOException {
+        ShapeBundleWriter writer = new ShapeBundleWriter("2.4.1");
+        writer.addFile("dom", summaries(WINDOW));
+        writer.addFile("es5", summaries(PROMISE_LIKE, PARTIAL));
+        ShapeBundle bundle = writeAndOpen(writer);
+
+        assertThat(bundle.getLibraryVersion(), is("2.4.1"));
+        assertThat(bundle.size(), is(2));
+        assertThat(bundle.find("dom", "Window"), is(Optional.of(WINDOW)));
+        assertThat(bundle.find("es5", "PromiseLike"), is(Optional.of(PROMISE_LIKE)));
+        assertThat(bundle.find("es5", "Partial"), is(Optional.of(PARTIAL)));
+    }
+
+    @Test
+    public void find_PropertiesRoundTrip() throws IOException {
+        ShapeBundleWriter writer = new ShapeBundleWriter("2.4.1");
+        writer.addFile("dom", summaries(WINDOW));
+        TypeShapeSummary window = writeAndOpen(writer).find("dom", "Window").get();
+
+        assertThat(window.getProperties().get(1).getType(), is("readonly opener?: any"));
+        assertThat(window.getOffset(), is(120));
+    }
+
+    @Test
+    public void find_DifferentContentHash_IsEmpty() throws IOException {
+        ShapeBundleWriter writer = new ShapeBundleWriter("2.4.1");
+        writer.addFile("dom", summaries(WINDOW));
+        ShapeBundle bundle = writeAndOpen(writer);
+
+        assertThat(bundle.find("edited dom", "Window"), is(Optional.empty()));
+        assertThat(bundle.find("dom", "PromiseLike"), is(Optional.empty()));
+    }
+
+    @Test(expected = IOException.class)
+    public void open_NotABundle_Throws() throws IOException {
+        Path file = folder.newFile("other.shapes").toPath();
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        ShapeBundle.open(file);
+    }
+}
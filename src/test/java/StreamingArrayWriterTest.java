@@ -0,0 +1,90 @@
+import codeInsight.codeGeneration.CodeGenerationOptions;
+import codeInsight.codeGeneration.StreamingArrayWriter;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import documentation.objectProperties.DetachedPropertySignature;
+import documentation.objectProperties.TypeScriptObjectProperty;
+import documentation.types.TypeDefinition;
+import documentation.types.TypeDescription;
+import org.junit.Test;
+import settings.TypeAssistApplicationSettings;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+/**
+ * The JSON format needs no PSI, the TypeScript format is covered through {@code CodeGeneratorCollector}.
+ */
+public class StreamingArrayWriterTest {
+
+    private static final TypeDescription PERSON = TypeDescription.unresolved("Person", TypeDefinition.Interface);
+
+    @Test
+    public void write_Json_QuotedTypes() throws IOException {
+        String json = writeJson(person(), 2, new TypeAssistApplicationSettings(), new EmptyProgressIndicator());
+
+        assertThat(json, is("[\n" +
+                "{\"name\": \"string\", \"age\": \"number\"},\n" +
+                "{\"name\": \"string\", \"age\": \"number\"}\n" +
+                "]\n"));
+    }
+
+    @Test
+    public void write_JsonEmpty_EmptyArray() throws IOException {
+        assertThat(writeJson(person(), 0, new TypeAssistApplicationSettings(), new EmptyProgressIndicator()), is("[\n]\n"));
+    }
+
+    @Test
+    public void write_JsonDoubleQuotesInType_AreReplaced() throws IOException {
+        List<TypeScriptObjectProperty> properties = Arrays.asList(
+                new DetachedPropertySignature("role", "\"admin\" | Role", false, false));
+        String json = writeJson(properties, 1, new TypeAssistApplicationSettings(), new EmptyProgressIndicator());
+
+        assertThat(json, is("[\n{\"role\": \"'admin' | Role\"}\n]\n"));
+    }
+
+    @Test
+    public void write_JsonMockData_ValuesPerElement() throws IOException {
+        TypeAssistApplicationSettings settings = new TypeAssistApplicationSettings();
+        settings.MOCK_DATA = true;
+        List<TypeScriptObjectProperty> properties = Arrays.asList(
+                new DetachedPropertySignature("id", "number", false, false),
+                new DetachedPropertySignature("createdAt", "Date", false, false));
+
+        String json = writeJson(properties, 3000, settings, new EmptyProgressIndicator());
+
+        assertThat(json, containsString("{\"id\": 1, "));
+        assertThat(json, containsString("{\"id\": 3000, "));
+        assertThat(json, not(containsString("new Date")));
+        assertThat(json.endsWith("}\n]\n"), is(true));
+    }
+
+    @Test(expected = ProcessCanceledException.class)
+    public void write_Cancelled_Throws() throws IOException {
+        ProgressIndicator indicator = new EmptyProgressIndicator();
+        indicator.cancel();
+        writeJson(person(), 10, new TypeAssistApplicationSettings(), indicator);
+    }
+
+    private static String writeJson(List<TypeScriptObjectProperty> properties, long size,
+                                    TypeAssistApplicationSettings settings, ProgressIndicator indicator) throws IOException {
+        StringWriter writer = new StringWriter();
+        new StreamingArrayWriter(properties, PERSON, size, StreamingArrayWriter.Format.Json,
+                new CodeGenerationOptions.Builder(settings).build()).write(writer, "", indicator);
+        return writer.toString();
+    }
+
+    private static List<TypeScriptObjectProperty> person() {
+        return Arrays.asList(
+                new DetachedPropertySignature("name", "string", false, false),
+                new DetachedPropertySignature("age", "number", false, false));
+    }
+}
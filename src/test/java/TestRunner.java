@@ -9,7 +9,29 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
         LightTypeAssistDocumentationProviderTest.class,
         LightAssignTypeToVariableIntentionTest.class,
-        HtmlUtilsTest.class
+        LightTypeScriptObjectPropertyTest.class,
+        LightUtilityTypeEvaluatorTest.class,
+        HtmlUtilsTest.class,
+        TypeInstantiationTest.class,
+        MockValueGeneratorTest.class,
+        CodeTemplateTest.class,
+        GeneratedCodeCacheTest.class,
+        HistogramTest.class,
+        TypeAssistMetricsTest.class,
+        LightShowDocumentationIntentionTest.class,
+        LightPerformanceTest.class,
+        LightDocumentationRenderCoordinatorTest.class,
+        QuickNavigateSummaryTest.class,
+        PluginCacheTest.class,
+        CompressedHtmlTest.class,
+        PersistentStoreTest.class,
+        ShapeBundleTest.class,
+        LightCreateTypeScriptObjectActionTest.class,
+        LightTypeShapeIndexTest.class,
+        StreamingArrayWriterTest.class,
+        LightNestedObjectExpanderTest.class,
+        LightTypeInstantiationTest.class,
+        FixtureFileCreatorTest.class
 })
 public class TestRunner {
 }
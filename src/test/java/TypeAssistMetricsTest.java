@@ -0,0 +1,58 @@
+import metrics.Counter;
+import metrics.PluginMetrics;
+import metrics.TypeAssistMetrics;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class TypeAssistMetricsTest {
+
+    @Before
+    public void setUp() {
+        PluginMetrics.reset();
+    }
+
+    @Test
+    public void hitRatio_NoLookups_IsZero() {
+        assertThat(new TypeAssistMetrics().getGeneratedCodeCacheHitRatio(), is(0.0));
+    }
+
+    @Test
+    public void hitRatio_IsHitsOverLookups() {
+        PluginMetrics.increment(Counter.GeneratedCodeCacheHits);
+        PluginMetrics.increment(Counter.GeneratedCodeCacheHits);
+        PluginMetrics.increment(Counter.GeneratedCodeCacheHits);
+        PluginMetrics.increment(Counter.GeneratedCodeCacheMisses);
+        assertThat(new TypeAssistMetrics().getGeneratedCodeCacheHitRatio(), is(0.75));
+    }
+
+    @Test
+    public void openHighlightSessions_IsStartedLessCompleted() {
+        PluginMetrics.increment(Counter.HighlightSessionsStarted);
+        PluginMetrics.increment(Counter.HighlightSessionsStarted);
+        PluginMetrics.increment(Counter.HighlightSessionsCompleted);
+
+        TypeAssistMetrics metrics = new TypeAssistMetrics();
+        assertThat(metrics.getHighlightSessionCount(), is(2L));
+        assertThat(metrics.getOpenHighlightSessionCount(), is(1L));
+    }
+
+    @Test
+    public void registeredMXBean_ExposesAttributes() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("com.github.mjstewart.typescript-type-assist:type=MetricsTest");
+        server.registerMBean(new TypeAssistMetrics(), name);
+        try {
+            PluginMetrics.increment(Counter.DocRenders);
+            assertThat(server.getAttribute(name, "DocRenderCount"), is(1L));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+import documentation.objectProperties.TypeInstantiation;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class TypeInstantiationTest {
+
+    @Test
+    public void parseTypeArguments_NestedGenerics_SplitOnTopLevelCommas() {
+        assertThat(TypeInstantiation.parseTypeArguments("Map<string, Pair<A, B>>[]", "Map"),
+                is(Arrays.asList("string", "Pair<A, B>")));
+    }
+
+    @Test
+    public void parseTypeArguments_FunctionTypeArgument_ArrowIsNotClosingBracket() {
+        assertThat(TypeInstantiation.parseTypeArguments("Box<(value: T) => void>", "Box"),
+                is(Collections.singletonList("(value: T) => void")));
+    }
+
+    @Test
+    public void parseTypeArguments_TypeNameIsWholeWord() {
+        assertThat(TypeInstantiation.parseTypeArguments("person: MyTree<number> | Tree<string>", "Tree"),
+                is(Collections.singletonList("string")));
+    }
+
+    @Test
+    public void parseTypeArguments_NoArguments_Empty() {
+        assertThat(TypeInstantiation.parseTypeArguments("Tree[3]", "Tree"), is(Collections.emptyList()));
+    }
+
+    @Test
+    public void parseTypeArguments_Unbalanced_Empty() {
+        assertThat(TypeInstantiation.parseTypeArguments("Tree<string", "Tree"), is(Collections.emptyList()));
+    }
+
+    @Test
+    public void substitute_ReplacesWholeIdentifiersOnly() {
+        Map<String, String> bindings = new HashMap<>();
+        bindings.put("T", "User");
+
+        assertThat(TypeInstantiation.substitute("T[] | Tree<T> | 'T' | T.length", bindings),
+                is("User[] | Tree<User> | 'T' | User.length"));
+    }
+
+    @Test
+    public void parseTypeArguments_Offset_UsesOccurrenceAtOrBeforeOffset() {
+        String text = "merge(Box<number>, Box<string>)";
+        assertThat(TypeInstantiation.parseTypeArguments(text, "Box", text.lastIndexOf("Box")),
+                is(Collections.singletonList("string")));
+        assertThat(TypeInstantiation.parseTypeArguments(text, "Box", text.indexOf("Box")),
+                is(Collections.singletonList("number")));
+    }
+
+    @Test
+    public void substitute_PropertyAndParameterNames_NotReplaced() {
+        Map<String, String> bindings = new HashMap<>();
+        bindings.put("T", "User");
+
+        assertThat(TypeInstantiation.substitute("apply(T: T, fn: (x: T) => T): T", bindings),
+                is("apply(T: User, fn: (x: User) => User): User"));
+        assertThat(TypeInstantiation.substitute("{ T?: T; readonly T: T }", bindings),
+                is("{ T?: User; readonly T: User }"));
+    }
+
+    @Test
+    public void substitute_ShadowingMethodTypeParameter_NotReplaced() {
+        Map<String, String> bindings = new HashMap<>();
+        bindings.put("T", "User");
+
+        assertThat(TypeInstantiation.substitute("map<T>(fn: (x: T) => T): Box<T>", bindings),
+                is("map<T>(fn: (x: T) => T): Box<T>"));
+        assertThat(TypeInstantiation.substitute("map<U>(fn: (x: T) => U): Box<U>", bindings),
+                is("map<U>(fn: (x: User) => U): Box<U>"));
+    }
+
+    @Test
+    public void substitute_ShadowingFunctionTypeParameter_OnlyWithinFunctionType() {
+        Map<String, String> bindings = new HashMap<>();
+        bindings.put("T", "User");
+
+        assertThat(TypeInstantiation.substitute("(fn: <T>(x: T) => T, fallback: T) => T", bindings),
+                is("(fn: <T>(x: T) => T, fallback: User) => User"));
+    }
+
+    @Test
+    public void substitute_MappedTypeKey_NotReplaced() {
+        Map<String, String> bindings = new HashMap<>();
+        bindings.put("K", "'id'");
+        bindings.put("T", "User");
+
+        assertThat(TypeInstantiation.substitute("{ [K in keyof T]: T[K] } | K", bindings),
+                is("{ [K in keyof User]: User[K] } | 'id'"));
+    }
+
+    @Test
+    public void substitute_ConditionalType_BranchesReplaced() {
+        Map<String, String> bindings = new HashMap<>();
+        bindings.put("T", "User");
+
+        assertThat(TypeInstantiation.substitute("T extends string ? T : never", bindings),
+                is("User extends string ? User : never"));
+    }
+}
@@ -0,0 +1,197 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Generates a synthetic TypeScript project for performance tests, the same parameters and seed always produce the
+ * same files.
+ *
+ * <pre>
+ *     Map&lt;String, String&gt; files = new TypeScriptCorpus.Builder()
+ *             .interfaces(200).members(20).unionWidth(8).genericDepth(3).crossReferenceDensity(0.3)
+ *             .files(10).build().generate();
+ * </pre>
+ *
+ * <p>Interfaces are named {@code Type0} to {@code TypeN} and spread evenly across files named {@code types0.ts}
+ * onwards. Each member is one of a primitive, a string literal union of {@code unionWidth} members, a
+ * {@code Wrapper<..>} nested {@code genericDepth} times or, with probability {@code crossReferenceDensity}, another
+ * interface which is imported from its declaring file.</p>
+ */
+public class TypeScriptCorpus {
+    private static final String[] PRIMITIVES = {"string", "number", "boolean", "Date", "string[]", "number[]"};
+
+    private final int interfaces;
+    private final int members;
+    private final int unionWidth;
+    private final int genericDepth;
+    private final double crossReferenceDensity;
+    private final int files;
+    private final long seed;
+
+    private TypeScriptCorpus(Builder builder) {
+        this.interfaces = builder.interfaces;
+        this.members = builder.members;
+        this.unionWidth = builder.unionWidth;
+        this.genericDepth = builder.genericDepth;
+        this.crossReferenceDensity = builder.crossReferenceDensity;
+        this.files = builder.files;
+        this.seed = builder.seed;
+    }
+
+    public static String typeName(int index) {
+        return "Type" + index;
+    }
+
+    public static String fileName(int file) {
+        return "types" + file + ".ts";
+    }
+
+    /**
+     * @return The index of the file declaring {@code Type<index>}.
+     */
+    public int fileOf(int index) {
+        return index % files;
+    }
+
+    /**
+     * @return The contents of each file keyed by file name in file order.
+     */
+    public Map<String, String> generate() {
+        Random random = new Random(seed);
+        StringBuilder[] bodies = new StringBuilder[files];
+        List<Set<Integer>> imports = new ArrayList<>();
+        for (int file = 0; file < files; file++) {
+            bodies[file] = new StringBuilder();
+            imports.add(new LinkedHashSet<>());
+        }
+        bodies[0].append("export interface Wrapper<T> {\n    value: T;\n}\n\n");
+
+        for (int index = 0; index < interfaces; index++) {
+            int file = fileOf(index);
+            StringBuilder body = bodies[file];
+            body.append("export interface ").append(typeName(index)).append(" {\n");
+            for (int member = 0; member < members; member++) {
+                body.append("    ");
+                if (member % 7 == 6) body.append("readonly ");
+                body.append("member").append(member);
+                if (member % 5 == 4) body.append('?');
+                body.append(": ").append(memberType(random, index, member, file, imports.get(file))).append(";\n");
+            }
+            body.append("}\n\n");
+        }
+
+        Map<String, String> generated = new LinkedHashMap<>();
+        for (int file = 0; file < files; file++) {
+            StringBuilder text = new StringBuilder();
+            if (file != 0 && genericDepth > 0) {
+                text.append("import { Wrapper } from './").append(moduleName(0)).append("';\n");
+            }
+            for (int referenced : imports.get(file)) {
+                text.append("import { ").append(typeName(referenced)).append(" } from './")
+                        .append(moduleName(fileOf(referenced))).append("';\n");
+            }
+            if (text.length() > 0) text.append('\n');
+            generated.put(fileName(file), text.append(bodies[file]).toString());
+        }
+        return generated;
+    }
+
+    /**
+     * Writes the generated files into {@code directory} which is created if needed.
+     */
+    public void writeTo(File directory) throws IOException {
+        Files.createDirectories(directory.toPath());
+        for (Map.Entry<String, String> file : generate().entrySet()) {
+            Files.write(new File(directory, file.getKey()).toPath(), file.getValue().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private String memberType(Random random, int index, int member, int file, Set<Integer> fileImports) {
+        if (interfaces > 1 && random.nextDouble() < crossReferenceDensity) {
+            int referenced = random.nextInt(interfaces - 1);
+            if (referenced >= index) referenced++;
+            if (fileOf(referenced) != file) fileImports.add(referenced);
+            return typeName(referenced);
+        }
+        if (unionWidth > 1 && member % 4 == 1) {
+            StringBuilder union = new StringBuilder();
+            for (int i = 0; i < unionWidth; i++) {
+                if (i > 0) union.append(" | ");
+                union.append("'value").append(i).append('\'');
+            }
+            return union.toString();
+        }
+        if (genericDepth > 0 && member % 4 == 2) {
+            StringBuilder generic = new StringBuilder();
+            for (int i = 0; i < genericDepth; i++) generic.append("Wrapper<");
+            generic.append(PRIMITIVES[random.nextInt(PRIMITIVES.length)]);
+            for (int i = 0; i < genericDepth; i++) generic.append('>');
+            return generic.toString();
+        }
+        return PRIMITIVES[random.nextInt(PRIMITIVES.length)];
+    }
+
+    private static String moduleName(int file) {
+        return "types" + file;
+    }
+
+    public static class Builder {
+        private int interfaces = 100;
+        private int members = 10;
+        private int unionWidth = 4;
+        private int genericDepth = 2;
+        private double crossReferenceDensity = 0.2;
+        private int files = 1;
+        private long seed = 42;
+
+        public Builder interfaces(int interfaces) {
+            this.interfaces = interfaces;
+            return this;
+        }
+
+        public Builder members(int members) {
+            this.members = members;
+            return this;
+        }
+
+        public Builder unionWidth(int unionWidth) {
+            this.unionWidth = unionWidth;
+            return this;
+        }
+
+        public Builder genericDepth(int genericDepth) {
+            this.genericDepth = genericDepth;
+            return this;
+        }
+
+        /**
+         * @param crossReferenceDensity The probability in {@code [0, 1]} that a member refers to another interface.
+         */
+        public Builder crossReferenceDensity(double crossReferenceDensity) {
+            this.crossReferenceDensity = crossReferenceDensity;
+            return this;
+        }
+
+        public Builder files(int files) {
+            this.files = files;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public TypeScriptCorpus build() {
+            if (interfaces < 1 || members < 0 || files < 1 || unionWidth < 0 || genericDepth < 0) {
+                throw new IllegalArgumentException("Corpus sizes must be positive");
+            }
+            if (crossReferenceDensity < 0 || crossReferenceDensity > 1) {
+                throw new IllegalArgumentException("Cross reference density must be within [0, 1]");
+            }
+            return new TypeScriptCorpus(this);
+        }
+    }
+}